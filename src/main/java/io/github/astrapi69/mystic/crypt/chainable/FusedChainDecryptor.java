@@ -0,0 +1,251 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.mystic.crypt.chainable;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+import org.apache.commons.codec.DecoderException;
+import org.apache.commons.codec.binary.Hex;
+
+import io.github.astrapi69.crypt.api.ByteArrayDecryptor;
+import io.github.astrapi69.crypt.api.Decryptor;
+
+/**
+ * The class {@link FusedChainDecryptor} is the pendant class of {@link FusedChainEncryptor} and
+ * decrypts a string with a chain of stages where consecutive stages that can work on bytes are
+ * fused. Such stages are {@link ByteArrayDecryptor} objects and string decryptors that implement
+ * {@link FusibleDecryptor}. The stages must be in the reverse order as they was given to the
+ * {@link FusedChainEncryptor}. For an example see the unit test
+ */
+public class FusedChainDecryptor implements Decryptor<String, String>
+{
+
+	/** The stages. */
+	private final List<FusedChainStage> stages;
+
+	private FusedChainDecryptor(final Builder builder)
+	{
+		this.stages = Collections.unmodifiableList(new ArrayList<>(builder.stages));
+	}
+
+	/**
+	 * Factory method for create a new {@link Builder}
+	 *
+	 * @return the new {@link Builder}
+	 */
+	public static Builder builder()
+	{
+		return new Builder();
+	}
+
+	/**
+	 * Decrypt the given bytes with all stages. String stages that can not be fused get the UTF-8
+	 * decoded bytes and their result is decoded as upper case hex
+	 *
+	 * @param encrypted
+	 *            the encrypted bytes
+	 * @return the decrypted bytes
+	 * @throws Exception
+	 *             is thrown if a stage fails
+	 */
+	public byte[] decrypt(final byte[] encrypted) throws Exception
+	{
+		Objects.requireNonNull(encrypted);
+		final StageResult result = process(null, encrypted);
+		return result.bytes != null
+			? result.bytes
+			: decodeHex(result.text);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String decrypt(final String encrypted) throws Exception
+	{
+		Objects.requireNonNull(encrypted);
+		final StageResult result = process(encrypted, null);
+		return result.bytes != null
+			? new String(result.bytes, StandardCharsets.UTF_8)
+			: result.text;
+	}
+
+	/**
+	 * Gets the number of the stages that are executed on bytes
+	 *
+	 * @return the number of the fused stages
+	 */
+	public int getFusedStageCount()
+	{
+		int count = 0;
+		for (final FusedChainStage stage : stages)
+		{
+			if (stage.isByteStage())
+			{
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Gets the stages
+	 *
+	 * @return the stages
+	 */
+	public List<FusedChainStage> getStages()
+	{
+		return stages;
+	}
+
+	private StageResult process(final String text, final byte[] bytes) throws Exception
+	{
+		String currentText = text;
+		byte[] currentBytes = bytes;
+		for (final FusedChainStage stage : stages)
+		{
+			if (stage.isByteStage())
+			{
+				if (currentBytes == null)
+				{
+					currentBytes = decodeHex(currentText);
+				}
+				currentBytes = stage.process(currentBytes);
+			}
+			else
+			{
+				if (currentBytes != null)
+				{
+					currentText = new String(currentBytes, StandardCharsets.UTF_8);
+					currentBytes = null;
+				}
+				currentText = stage.process(currentText);
+			}
+		}
+		return new StageResult(currentText, currentBytes);
+	}
+
+	private static byte[] decodeHex(final String hex) throws DecoderException
+	{
+		return Hex.decodeHex(hex.toCharArray());
+	}
+
+	/**
+	 * The class {@link Builder} collects the stages of a {@link FusedChainDecryptor} in the order of
+	 * the decryption
+	 */
+	public static final class Builder
+	{
+
+		/** The stages. */
+		private final List<FusedChainStage> stages = new ArrayList<>();
+
+		private Builder()
+		{
+		}
+
+		/**
+		 * Builds the {@link FusedChainDecryptor}
+		 *
+		 * @return the new {@link FusedChainDecryptor}
+		 */
+		public FusedChainDecryptor build()
+		{
+			return new FusedChainDecryptor(this);
+		}
+
+		/**
+		 * Adds the given {@link ByteArrayDecryptor} as a stage that is always executed on bytes
+		 *
+		 * @param decryptor
+		 *            the decryptor
+		 * @return this {@link Builder}
+		 */
+		public Builder byteStage(final ByteArrayDecryptor decryptor)
+		{
+			Objects.requireNonNull(decryptor);
+			return fusedStage(FusedChainStage.byteStage(decryptor::decrypt));
+		}
+
+		/**
+		 * Adds the given string decryptor as a stage. If the decryptor is a fusible
+		 * {@link FusibleDecryptor} the stage is executed on bytes
+		 *
+		 * @param decryptor
+		 *            the decryptor
+		 * @return this {@link Builder}
+		 */
+		public Builder stage(final Decryptor<String, String> decryptor)
+		{
+			Objects.requireNonNull(decryptor);
+			if (decryptor instanceof FusibleDecryptor && ((FusibleDecryptor)decryptor).isFusible())
+			{
+				final FusibleDecryptor fusible = (FusibleDecryptor)decryptor;
+				return fusedStage(FusedChainStage.byteStage(fusible::decryptFused));
+			}
+			return fusedStage(FusedChainStage.textStage(decryptor::decrypt));
+		}
+
+		/**
+		 * Adds the given {@link FusedChainStage}
+		 *
+		 * @param stage
+		 *            the stage
+		 * @return this {@link Builder}
+		 */
+		public Builder fusedStage(final FusedChainStage stage)
+		{
+			Objects.requireNonNull(stage);
+			stages.add(stage);
+			return this;
+		}
+
+	}
+
+	/**
+	 * The class {@link StageResult} holds the result of the stages, either the text or the bytes
+	 */
+	private static final class StageResult
+	{
+
+		/** The bytes if the last stage was a byte stage, otherwise null. */
+		private final byte[] bytes;
+
+		/** The text if the last stage was a text stage, otherwise null. */
+		private final String text;
+
+		private StageResult(final String text, final byte[] bytes)
+		{
+			this.text = text;
+			this.bytes = bytes;
+		}
+
+	}
+
+}
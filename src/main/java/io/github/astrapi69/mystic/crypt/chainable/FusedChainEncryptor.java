@@ -0,0 +1,251 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.mystic.crypt.chainable;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+import org.apache.commons.codec.binary.Hex;
+
+import io.github.astrapi69.crypt.api.ByteArrayEncryptor;
+import io.github.astrapi69.crypt.api.Encryptor;
+
+/**
+ * The class {@link FusedChainEncryptor} encrypts a string with a chain of stages like the
+ * {@link ChainableStringEncryptor}, but consecutive stages that can work on bytes are fused. Such
+ * stages are {@link ByteArrayEncryptor} objects and string encryptors that implement
+ * {@link FusibleEncryptor}. The text is converted to UTF-8 bytes once before the first fused stage
+ * and the bytes are converted to upper case hex once after the last fused stage, so a multi layer
+ * encryption costs only the cipher work.<br>
+ * <br>
+ * Note that the result of a chain with more than one fused stage differs from the result of the
+ * same stages in a {@link ChainableStringEncryptor}, it can be decrypted with a
+ * {@link FusedChainDecryptor} with the pendant stages in reverse order. For an example see the unit
+ * test
+ */
+public class FusedChainEncryptor implements Encryptor<String, String>
+{
+
+	/** The stages. */
+	private final List<FusedChainStage> stages;
+
+	private FusedChainEncryptor(final Builder builder)
+	{
+		this.stages = Collections.unmodifiableList(new ArrayList<>(builder.stages));
+	}
+
+	/**
+	 * Factory method for create a new {@link Builder}
+	 *
+	 * @return the new {@link Builder}
+	 */
+	public static Builder builder()
+	{
+		return new Builder();
+	}
+
+	/**
+	 * Encrypt the given bytes with all stages. String stages that can not be fused get the upper
+	 * case hex form of the bytes and their result is decoded as UTF-8 bytes
+	 *
+	 * @param toEncrypt
+	 *            the bytes to encrypt
+	 * @return the encrypted bytes
+	 * @throws Exception
+	 *             is thrown if a stage fails
+	 */
+	public byte[] encrypt(final byte[] toEncrypt) throws Exception
+	{
+		Objects.requireNonNull(toEncrypt);
+		final StageResult result = process(null, toEncrypt);
+		return result.bytes != null
+			? result.bytes
+			: result.text.getBytes(StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String encrypt(final String toEncrypt) throws Exception
+	{
+		Objects.requireNonNull(toEncrypt);
+		final StageResult result = process(toEncrypt, null);
+		return result.bytes != null
+			? new String(Hex.encodeHex(result.bytes, false))
+			: result.text;
+	}
+
+	/**
+	 * Gets the number of the stages that are executed on bytes
+	 *
+	 * @return the number of the fused stages
+	 */
+	public int getFusedStageCount()
+	{
+		int count = 0;
+		for (final FusedChainStage stage : stages)
+		{
+			if (stage.isByteStage())
+			{
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Gets the stages
+	 *
+	 * @return the stages
+	 */
+	public List<FusedChainStage> getStages()
+	{
+		return stages;
+	}
+
+	private StageResult process(final String text, final byte[] bytes) throws Exception
+	{
+		String currentText = text;
+		byte[] currentBytes = bytes;
+		for (final FusedChainStage stage : stages)
+		{
+			if (stage.isByteStage())
+			{
+				if (currentBytes == null)
+				{
+					currentBytes = currentText.getBytes(StandardCharsets.UTF_8);
+				}
+				currentBytes = stage.process(currentBytes);
+			}
+			else
+			{
+				if (currentBytes != null)
+				{
+					currentText = new String(Hex.encodeHex(currentBytes, false));
+					currentBytes = null;
+				}
+				currentText = stage.process(currentText);
+			}
+		}
+		return new StageResult(currentText, currentBytes);
+	}
+
+	/**
+	 * The class {@link Builder} collects the stages of a {@link FusedChainEncryptor} in the order of
+	 * the encryption
+	 */
+	public static final class Builder
+	{
+
+		/** The stages. */
+		private final List<FusedChainStage> stages = new ArrayList<>();
+
+		private Builder()
+		{
+		}
+
+		/**
+		 * Builds the {@link FusedChainEncryptor}
+		 *
+		 * @return the new {@link FusedChainEncryptor}
+		 */
+		public FusedChainEncryptor build()
+		{
+			return new FusedChainEncryptor(this);
+		}
+
+		/**
+		 * Adds the given {@link ByteArrayEncryptor} as a stage that is always executed on bytes
+		 *
+		 * @param encryptor
+		 *            the encryptor
+		 * @return this {@link Builder}
+		 */
+		public Builder byteStage(final ByteArrayEncryptor encryptor)
+		{
+			Objects.requireNonNull(encryptor);
+			return fusedStage(FusedChainStage.byteStage(encryptor::encrypt));
+		}
+
+		/**
+		 * Adds the given string encryptor as a stage. If the encryptor is a fusible
+		 * {@link FusibleEncryptor} the stage is executed on bytes
+		 *
+		 * @param encryptor
+		 *            the encryptor
+		 * @return this {@link Builder}
+		 */
+		public Builder stage(final Encryptor<String, String> encryptor)
+		{
+			Objects.requireNonNull(encryptor);
+			if (encryptor instanceof FusibleEncryptor && ((FusibleEncryptor)encryptor).isFusible())
+			{
+				final FusibleEncryptor fusible = (FusibleEncryptor)encryptor;
+				return fusedStage(FusedChainStage.byteStage(fusible::encryptFused));
+			}
+			return fusedStage(FusedChainStage.textStage(encryptor::encrypt));
+		}
+
+		/**
+		 * Adds the given {@link FusedChainStage}
+		 *
+		 * @param stage
+		 *            the stage
+		 * @return this {@link Builder}
+		 */
+		public Builder fusedStage(final FusedChainStage stage)
+		{
+			Objects.requireNonNull(stage);
+			stages.add(stage);
+			return this;
+		}
+
+	}
+
+	/**
+	 * The class {@link StageResult} holds the result of the stages, either the text or the bytes
+	 */
+	private static final class StageResult
+	{
+
+		/** The bytes if the last stage was a byte stage, otherwise null. */
+		private final byte[] bytes;
+
+		/** The text if the last stage was a text stage, otherwise null. */
+		private final String text;
+
+		private StageResult(final String text, final byte[] bytes)
+		{
+			this.text = text;
+			this.bytes = bytes;
+		}
+
+	}
+
+}
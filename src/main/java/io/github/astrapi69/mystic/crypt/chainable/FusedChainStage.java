@@ -0,0 +1,167 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.mystic.crypt.chainable;
+
+import java.util.Objects;
+
+/**
+ * The interface {@link FusedChainStage} is a stage of a {@link FusedChainEncryptor} or a
+ * {@link FusedChainDecryptor}. A byte stage processes the binary form of the data and a text stage
+ * processes the string form, the chain converts between both forms only where the kind of the
+ * stages changes
+ */
+public interface FusedChainStage
+{
+
+	/**
+	 * Factory method for create a new byte stage that processes the binary form with the given
+	 * operation
+	 *
+	 * @param operation
+	 *            the operation on the bytes
+	 * @return the new byte stage
+	 */
+	static FusedChainStage byteStage(final ByteOperation operation)
+	{
+		Objects.requireNonNull(operation);
+		return new FusedChainStage()
+		{
+			@Override
+			public boolean isByteStage()
+			{
+				return true;
+			}
+
+			@Override
+			public byte[] process(final byte[] bytes) throws Exception
+			{
+				return operation.apply(bytes);
+			}
+		};
+	}
+
+	/**
+	 * Factory method for create a new text stage that processes the string form with the given
+	 * operation
+	 *
+	 * @param operation
+	 *            the operation on the text
+	 * @return the new text stage
+	 */
+	static FusedChainStage textStage(final TextOperation operation)
+	{
+		Objects.requireNonNull(operation);
+		return new FusedChainStage()
+		{
+			@Override
+			public boolean isByteStage()
+			{
+				return false;
+			}
+
+			@Override
+			public String process(final String text) throws Exception
+			{
+				return operation.apply(text);
+			}
+		};
+	}
+
+	/**
+	 * Checks if this stage processes the binary form of the data
+	 *
+	 * @return true if this stage is a byte stage, false if it is a text stage
+	 */
+	boolean isByteStage();
+
+	/**
+	 * Process the given bytes, this method is only called on a byte stage
+	 *
+	 * @param bytes
+	 *            the bytes to process
+	 * @return the processed bytes
+	 * @throws Exception
+	 *             is thrown if the stage fails
+	 */
+	default byte[] process(final byte[] bytes) throws Exception
+	{
+		throw new UnsupportedOperationException("A text stage can not process bytes");
+	}
+
+	/**
+	 * Process the given text, this method is only called on a text stage
+	 *
+	 * @param text
+	 *            the text to process
+	 * @return the processed text
+	 * @throws Exception
+	 *             is thrown if the stage fails
+	 */
+	default String process(final String text) throws Exception
+	{
+		throw new UnsupportedOperationException("A byte stage can not process text");
+	}
+
+	/**
+	 * The functional interface {@link ByteOperation} is the operation of a byte stage
+	 */
+	@FunctionalInterface
+	interface ByteOperation
+	{
+
+		/**
+		 * Applies this operation on the given bytes
+		 *
+		 * @param bytes
+		 *            the bytes
+		 * @return the result
+		 * @throws Exception
+		 *             is thrown if the operation fails
+		 */
+		byte[] apply(byte[] bytes) throws Exception;
+
+	}
+
+	/**
+	 * The functional interface {@link TextOperation} is the operation of a text stage
+	 */
+	@FunctionalInterface
+	interface TextOperation
+	{
+
+		/**
+		 * Applies this operation on the given text
+		 *
+		 * @param text
+		 *            the text
+		 * @return the result
+		 * @throws Exception
+		 *             is thrown if the operation fails
+		 */
+		String apply(String text) throws Exception;
+
+	}
+
+}
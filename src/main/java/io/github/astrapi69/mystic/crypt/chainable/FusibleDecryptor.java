@@ -0,0 +1,58 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.mystic.crypt.chainable;
+
+/**
+ * The interface {@link FusibleDecryptor} is the pendant of {@link FusibleEncryptor} and is
+ * implemented by string decryptors that can decrypt the binary form of their input directly. The
+ * text form of such a decryptor decodes the upper case hex input, applies
+ * {@link #decryptFused(byte[])} and decodes the result as UTF-8
+ */
+public interface FusibleDecryptor
+{
+
+	/**
+	 * Decrypt the given bytes without the text conversion of the string form
+	 *
+	 * @param encrypted
+	 *            the encrypted bytes
+	 * @return the decrypted UTF-8 bytes
+	 * @throws Exception
+	 *             is thrown if the decryption fails
+	 */
+	byte[] decryptFused(byte[] encrypted) throws Exception;
+
+	/**
+	 * Checks if this decryptor can currently be fused. A decryptor that applies text operations
+	 * after the cipher, for instance decorators, is not fusible
+	 *
+	 * @return true if this decryptor can be fused otherwise false
+	 */
+	default boolean isFusible()
+	{
+		return true;
+	}
+
+}
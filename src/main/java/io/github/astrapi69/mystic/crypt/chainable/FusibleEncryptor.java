@@ -0,0 +1,59 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.mystic.crypt.chainable;
+
+/**
+ * The interface {@link FusibleEncryptor} is implemented by string encryptors that can encrypt the
+ * binary form of their input directly. The text form of such an encryptor is the upper case hex
+ * representation of {@link #encryptFused(byte[])} applied on the UTF-8 bytes of the text, so a
+ * {@link FusedChainEncryptor} can run consecutive fusible stages on bytes and converts to text only
+ * once
+ */
+public interface FusibleEncryptor
+{
+
+	/**
+	 * Encrypt the given UTF-8 bytes without the text conversion of the string form
+	 *
+	 * @param toEncrypt
+	 *            the bytes to encrypt
+	 * @return the encrypted bytes
+	 * @throws Exception
+	 *             is thrown if the encryption fails
+	 */
+	byte[] encryptFused(byte[] toEncrypt) throws Exception;
+
+	/**
+	 * Checks if this encryptor can currently be fused. An encryptor that applies text operations
+	 * before the cipher, for instance decorators, is not fusible
+	 *
+	 * @return true if this encryptor can be fused otherwise false
+	 */
+	default boolean isFusible()
+	{
+		return true;
+	}
+
+}
@@ -0,0 +1,503 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.mystic.crypt.chainable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.github.astrapi69.crypt.api.Decryptor;
+import io.github.astrapi69.crypt.api.Encryptor;
+
+/**
+ * The class {@link PipelinedChainExecutor} runs the stages of a chain on a stream of messages in a
+ * pipeline. Every stage runs on its own worker thread and the stages are connected by bounded lock
+ * free {@link SpscRingBuffer} queues, so a deep chain keeps one core busy per stage while the
+ * messages stay in the order of the submission. A full queue blocks the previous stage and at last
+ * the producer, so the memory usage is bounded by the capacity of the queues.<br>
+ * <br>
+ * If a stage throws an exception or an error the message is marked as failed, the following
+ * stages skip it and {@link #take()} throws an {@link ExecutionException} with the cause at the
+ * position of the message. The latency of every stage can be read with {@link #getStatistics()}.
+ * For an example see the unit test
+ *
+ * @param <T>
+ *            the type of the messages
+ */
+public class PipelinedChainExecutor<T> implements AutoCloseable
+{
+
+	/** The default capacity of the queues between the stages. */
+	public static final int DEFAULT_CAPACITY = 1024;
+
+	/** The number of spins before an idle thread yields. */
+	private static final int SPIN_LIMIT = 100;
+
+	/** The number of yields before an idle thread parks until it is signalled. */
+	private static final int YIELD_LIMIT = 200;
+
+	/** The queues, the first queue is the input and the last queue is the output. */
+	private final List<SpscRingBuffer<Object>> queues;
+
+	/** The flag if the executor is running. */
+	private volatile boolean running = true;
+
+	/** The stages. */
+	private final List<Stage<T>> stages;
+
+	/** The workers of the stages. */
+	private final List<Worker> workers;
+
+	/**
+	 * Instantiates a new {@link PipelinedChainExecutor} with the given stages, the given capacity of
+	 * the queues and daemon worker threads that are named after their stage
+	 *
+	 * @param stages
+	 *            the stages in the order of the processing
+	 * @param capacity
+	 *            the capacity of the queues between the stages
+	 */
+	public PipelinedChainExecutor(final List<Stage<T>> stages, final int capacity)
+	{
+		this(stages, capacity, newThreadFactory());
+	}
+
+	/**
+	 * Instantiates a new {@link PipelinedChainExecutor} with the given stages, the given capacity of
+	 * the queues and the given thread factory for the worker threads. The threads of the given
+	 * factory are started as they are created and are not renamed
+	 *
+	 * @param stages
+	 *            the stages in the order of the processing
+	 * @param capacity
+	 *            the capacity of the queues between the stages
+	 * @param threadFactory
+	 *            the thread factory for the worker threads
+	 */
+	public PipelinedChainExecutor(final List<Stage<T>> stages, final int capacity,
+		final ThreadFactory threadFactory)
+	{
+		Objects.requireNonNull(stages);
+		Objects.requireNonNull(threadFactory);
+		if (stages.isEmpty())
+		{
+			throw new IllegalArgumentException("stages must not be empty");
+		}
+		this.stages = List.copyOf(stages);
+		this.queues = new ArrayList<>();
+		for (int i = 0; i <= this.stages.size(); i++)
+		{
+			queues.add(new SpscRingBuffer<>(capacity));
+		}
+		this.workers = new ArrayList<>();
+		for (int i = 0; i < this.stages.size(); i++)
+		{
+			final Worker worker = new Worker(i);
+			worker.thread = threadFactory.newThread(worker);
+			workers.add(worker);
+		}
+		for (final Worker worker : workers)
+		{
+			worker.thread.start();
+		}
+	}
+
+	/**
+	 * Factory method for create a new {@link PipelinedChainExecutor} from the given decryptors with
+	 * the default capacity
+	 *
+	 * @param <T>
+	 *            the type of the messages
+	 * @param decryptors
+	 *            the decryptors in the order of the processing
+	 * @return the new {@link PipelinedChainExecutor}
+	 */
+	@SafeVarargs
+	public static <T> PipelinedChainExecutor<T> ofDecryptors(final Decryptor<T, T>... decryptors)
+	{
+		final List<Stage<T>> stages = new ArrayList<>();
+		for (final Decryptor<T, T> decryptor : decryptors)
+		{
+			stages.add(Objects.requireNonNull(decryptor)::decrypt);
+		}
+		return new PipelinedChainExecutor<>(stages, DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Factory method for create a new {@link PipelinedChainExecutor} from the given encryptors with
+	 * the default capacity
+	 *
+	 * @param <T>
+	 *            the type of the messages
+	 * @param encryptors
+	 *            the encryptors in the order of the processing
+	 * @return the new {@link PipelinedChainExecutor}
+	 */
+	@SafeVarargs
+	public static <T> PipelinedChainExecutor<T> ofEncryptors(final Encryptor<T, T>... encryptors)
+	{
+		final List<Stage<T>> stages = new ArrayList<>();
+		for (final Encryptor<T, T> encryptor : encryptors)
+		{
+			stages.add(Objects.requireNonNull(encryptor)::encrypt);
+		}
+		return new PipelinedChainExecutor<>(stages, DEFAULT_CAPACITY);
+	}
+
+	private static int idle(final int count, final SpscRingBuffer<Object> queue,
+		final boolean consumer)
+	{
+		if (count < SPIN_LIMIT)
+		{
+			Thread.onSpinWait();
+		}
+		else if (count < SPIN_LIMIT + YIELD_LIMIT)
+		{
+			Thread.yield();
+		}
+		else if (consumer)
+		{
+			queue.awaitElement();
+		}
+		else
+		{
+			queue.awaitSpace();
+		}
+		return count + 1;
+	}
+
+	private static ThreadFactory newThreadFactory()
+	{
+		final AtomicInteger stage = new AtomicInteger();
+		return runnable -> {
+			final Thread thread = new Thread(runnable,
+				"pipelined-chain-stage-" + stage.getAndIncrement());
+			thread.setDaemon(true);
+			return thread;
+		};
+	}
+
+	/**
+	 * Stops all worker threads. Messages that are not taken are discarded
+	 */
+	@Override
+	public void close()
+	{
+		running = false;
+		for (final SpscRingBuffer<Object> queue : queues)
+		{
+			queue.close();
+		}
+		boolean interrupted = false;
+		for (final Worker worker : workers)
+		{
+			while (worker.thread.isAlive())
+			{
+				try
+				{
+					worker.thread.join();
+				}
+				catch (final InterruptedException exception)
+				{
+					interrupted = true;
+				}
+			}
+		}
+		if (interrupted)
+		{
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Gets a snapshot of the latency statistics of all stages
+	 *
+	 * @return the statistics of all stages in the order of the stages
+	 */
+	public List<StageStatistics> getStatistics()
+	{
+		final List<StageStatistics> statistics = new ArrayList<>();
+		for (final Worker worker : workers)
+		{
+			statistics.add(worker.snapshot());
+		}
+		return statistics;
+	}
+
+	/**
+	 * Process the given messages through the pipeline and returns the results in the order of the
+	 * messages. The messages are submitted while results are taken, so any number of messages can
+	 * be processed with bounded queues. This method must not be used concurrently with
+	 * {@link #submit(Object)} or {@link #take()}
+	 *
+	 * @param messages
+	 *            the messages
+	 * @return the results
+	 * @throws ExecutionException
+	 *             if a stage failed for a message
+	 * @throws InterruptedException
+	 *             if the current thread was interrupted while waiting
+	 */
+	public List<T> process(final List<T> messages) throws ExecutionException, InterruptedException
+	{
+		Objects.requireNonNull(messages);
+		messages.forEach(Objects::requireNonNull);
+		final List<T> results = new ArrayList<>(messages.size());
+		final SpscRingBuffer<Object> input = queues.get(0);
+		final SpscRingBuffer<Object> output = queues.get(queues.size() - 1);
+		ExecutionException failure = null;
+		int submitted = 0;
+		int idleCount = 0;
+		while (results.size() < messages.size())
+		{
+			checkState();
+			boolean progress = false;
+			if (submitted < messages.size() && input.offer(messages.get(submitted)))
+			{
+				submitted++;
+				progress = true;
+			}
+			final Object result = output.poll();
+			if (result != null)
+			{
+				progress = true;
+				if (result instanceof Failure)
+				{
+					if (failure == null)
+					{
+						failure = new ExecutionException(((Failure)result).cause);
+					}
+					results.add(null);
+				}
+				else
+				{
+					results.add(unwrap(result));
+				}
+			}
+			// all messages are submitted or the input is full, so the next progress is a result
+			idleCount = progress ? 0 : idle(idleCount, output, true);
+		}
+		if (failure != null)
+		{
+			throw failure;
+		}
+		return results;
+	}
+
+	/**
+	 * Submits the given message to the first stage. If the input queue is full this method waits
+	 * until a slot is free. This method must only be called from one producer thread
+	 *
+	 * @param message
+	 *            the message
+	 * @throws InterruptedException
+	 *             if the current thread was interrupted while waiting
+	 */
+	public void submit(final T message) throws InterruptedException
+	{
+		Objects.requireNonNull(message);
+		final SpscRingBuffer<Object> input = queues.get(0);
+		int idleCount = 0;
+		while (!input.offer(message))
+		{
+			checkState();
+			idleCount = idle(idleCount, input, false);
+		}
+	}
+
+	/**
+	 * Takes the result of the next message in the order of the submission. If no result is
+	 * available this method waits. This method must only be called from one consumer thread
+	 *
+	 * @return the result of the next message
+	 * @throws ExecutionException
+	 *             if a stage failed for the next message
+	 * @throws InterruptedException
+	 *             if the current thread was interrupted while waiting
+	 */
+	public T take() throws ExecutionException, InterruptedException
+	{
+		final SpscRingBuffer<Object> output = queues.get(queues.size() - 1);
+		Object result;
+		int idleCount = 0;
+		while ((result = output.poll()) == null)
+		{
+			checkState();
+			idleCount = idle(idleCount, output, true);
+		}
+		if (result instanceof Failure)
+		{
+			throw new ExecutionException(((Failure)result).cause);
+		}
+		return unwrap(result);
+	}
+
+	private void checkState() throws InterruptedException
+	{
+		if (Thread.interrupted())
+		{
+			throw new InterruptedException();
+		}
+		if (!running)
+		{
+			throw new IllegalStateException("The pipeline is closed");
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private T unwrap(final Object result)
+	{
+		return (T)result;
+	}
+
+	/**
+	 * The interface {@link Stage} is one processing step of a {@link PipelinedChainExecutor}
+	 *
+	 * @param <T>
+	 *            the type of the messages
+	 */
+	@FunctionalInterface
+	public interface Stage<T>
+	{
+
+		/**
+		 * Process the given message
+		 *
+		 * @param message
+		 *            the message
+		 * @return the processed message
+		 * @throws Exception
+		 *             is thrown if the processing fails
+		 */
+		T process(T message) throws Exception;
+
+	}
+
+	/**
+	 * The class {@link Failure} marks a message for which a stage failed
+	 */
+	private static final class Failure
+	{
+
+		/** The cause. */
+		private final Throwable cause;
+
+		private Failure(final Throwable cause)
+		{
+			this.cause = cause;
+		}
+
+	}
+
+	/**
+	 * The class {@link Worker} runs one stage and holds its latency counters, the counters are
+	 * written only by the worker thread
+	 */
+	private final class Worker implements Runnable
+	{
+
+		/** The number of the failed messages. */
+		private volatile long failedCount;
+
+		/** The maximum processing time of a message in nanoseconds. */
+		private volatile long maxNanos;
+
+		/** The number of the processed messages. */
+		private volatile long processedCount;
+
+		/** The index of the stage. */
+		private final int stage;
+
+		/** The worker thread. */
+		private Thread thread;
+
+		/** The total processing time of all messages in nanoseconds. */
+		private volatile long totalNanos;
+
+		private Worker(final int stage)
+		{
+			this.stage = stage;
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public void run()
+		{
+			final Stage<T> function = stages.get(stage);
+			final SpscRingBuffer<Object> input = queues.get(stage);
+			final SpscRingBuffer<Object> output = queues.get(stage + 1);
+			int idleCount = 0;
+			while (running)
+			{
+				final Object message = input.poll();
+				if (message == null)
+				{
+					idleCount = idle(idleCount, input, true);
+					continue;
+				}
+				idleCount = 0;
+				Object result = message;
+				if (!(message instanceof Failure))
+				{
+					final long start = System.nanoTime();
+					try
+					{
+						result = Objects.requireNonNull(function.process((T)message),
+							"stage " + stage + " returned null");
+					}
+					catch (final Throwable throwable)
+					{
+						// an error must not kill the worker, or the later messages never arrive
+						result = new Failure(throwable);
+						failedCount++;
+					}
+					final long nanos = System.nanoTime() - start;
+					totalNanos += nanos;
+					maxNanos = Math.max(maxNanos, nanos);
+					processedCount++;
+				}
+				int outputIdleCount = 0;
+				while (!output.offer(result))
+				{
+					if (!running)
+					{
+						return;
+					}
+					outputIdleCount = idle(outputIdleCount, output, false);
+				}
+			}
+		}
+
+		private StageStatistics snapshot()
+		{
+			return new StageStatistics(stage, processedCount, failedCount, totalNanos, maxNanos);
+		}
+
+	}
+
+}
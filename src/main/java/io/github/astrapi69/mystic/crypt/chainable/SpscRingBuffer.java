@@ -0,0 +1,197 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.mystic.crypt.chainable;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The class {@link SpscRingBuffer} is a bounded lock free queue for exactly one producer thread and
+ * exactly one consumer thread. The producer publishes an element with a volatile write of the tail
+ * index and the consumer releases the slot with a volatile write of the head index, so no lock and
+ * no compare and swap is needed.<br>
+ * <br>
+ * An idle thread can park with {@link #awaitElement()} or {@link #awaitSpace()}. The parked thread
+ * is registered before it checks the ring again, and the other side reads the registration after
+ * its volatile index write, so a signal is never lost
+ *
+ * @param <E>
+ *            the type of the elements
+ */
+final class SpscRingBuffer<E>
+{
+
+	/** The slots of the ring. */
+	private final Object[] buffer;
+
+	/** The flag if the ring is closed and no thread parks any more. */
+	private volatile boolean closed;
+
+	/** The consumer thread if it is parked, otherwise null. */
+	private volatile Thread consumer;
+
+	/** The index of the next element to poll. */
+	private final AtomicLong head = new AtomicLong();
+
+	/** The mask for the slot index. */
+	private final int mask;
+
+	/** The producer thread if it is parked, otherwise null. */
+	private volatile Thread producer;
+
+	/** The index of the next element to offer. */
+	private final AtomicLong tail = new AtomicLong();
+
+	/**
+	 * Instantiates a new {@link SpscRingBuffer} with at least the given capacity, the capacity is
+	 * rounded up to the next power of two
+	 *
+	 * @param capacity
+	 *            the minimum capacity
+	 */
+	SpscRingBuffer(final int capacity)
+	{
+		if (capacity <= 0 || 1 << 30 < capacity)
+		{
+			throw new IllegalArgumentException("capacity must be between 1 and 2^30");
+		}
+		final int size = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+		this.buffer = new Object[size];
+		this.mask = size - 1;
+	}
+
+	/**
+	 * Gets the capacity
+	 *
+	 * @return the capacity
+	 */
+	int capacity()
+	{
+		return buffer.length;
+	}
+
+	/**
+	 * Offers the given element, must only be called from the producer thread
+	 *
+	 * @param element
+	 *            the element
+	 * @return true if the element was added or false if the ring is full
+	 */
+	boolean offer(final E element)
+	{
+		final long currentTail = tail.get();
+		if (currentTail - head.get() == buffer.length)
+		{
+			return false;
+		}
+		buffer[(int)currentTail & mask] = element;
+		tail.set(currentTail + 1);
+		unpark(consumer);
+		return true;
+	}
+
+	/**
+	 * Polls the next element, must only be called from the consumer thread
+	 *
+	 * @return the next element or null if the ring is empty
+	 */
+	@SuppressWarnings("unchecked")
+	E poll()
+	{
+		final long currentHead = head.get();
+		if (currentHead == tail.get())
+		{
+			return null;
+		}
+		final int index = (int)currentHead & mask;
+		final E element = (E)buffer[index];
+		buffer[index] = null;
+		head.set(currentHead + 1);
+		unpark(producer);
+		return element;
+	}
+
+	/**
+	 * Parks the consumer thread until an element is offered, the ring is closed or the thread is
+	 * interrupted, must only be called from the consumer thread. This method can return spuriously,
+	 * so the caller has to poll again
+	 */
+	void awaitElement()
+	{
+		final Thread current = Thread.currentThread();
+		consumer = current;
+		if (!closed && tail.get() == head.get())
+		{
+			LockSupport.park(this);
+		}
+		consumer = null;
+	}
+
+	/**
+	 * Parks the producer thread until a slot is free, the ring is closed or the thread is
+	 * interrupted, must only be called from the producer thread. This method can return
+	 * spuriously, so the caller has to offer again
+	 */
+	void awaitSpace()
+	{
+		final Thread current = Thread.currentThread();
+		producer = current;
+		if (!closed && tail.get() - head.get() == buffer.length)
+		{
+			LockSupport.park(this);
+		}
+		producer = null;
+	}
+
+	/**
+	 * Closes this ring and unparks the parked threads, a closed ring parks no thread any more
+	 */
+	void close()
+	{
+		closed = true;
+		unpark(consumer);
+		unpark(producer);
+	}
+
+	private static void unpark(final Thread thread)
+	{
+		if (thread != null)
+		{
+			LockSupport.unpark(thread);
+		}
+	}
+
+	/**
+	 * Gets the approximate number of the elements in the ring
+	 *
+	 * @return the number of the elements
+	 */
+	int size()
+	{
+		final long currentHead = head.get();
+		return (int)(tail.get() - currentHead);
+	}
+
+}
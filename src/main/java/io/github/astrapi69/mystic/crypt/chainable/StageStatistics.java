@@ -0,0 +1,144 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.mystic.crypt.chainable;
+
+/**
+ * The class {@link StageStatistics} is an immutable snapshot of the latency of one stage of a
+ * {@link PipelinedChainExecutor}
+ */
+public final class StageStatistics
+{
+
+	/** The number of the failed messages. */
+	private final long failedCount;
+
+	/** The maximum processing time of a message in nanoseconds. */
+	private final long maxNanos;
+
+	/** The number of the processed messages. */
+	private final long processedCount;
+
+	/** The index of the stage. */
+	private final int stage;
+
+	/** The total processing time of all messages in nanoseconds. */
+	private final long totalNanos;
+
+	/**
+	 * Instantiates a new {@link StageStatistics} object
+	 *
+	 * @param stage
+	 *            the index of the stage
+	 * @param processedCount
+	 *            the number of the processed messages
+	 * @param failedCount
+	 *            the number of the failed messages
+	 * @param totalNanos
+	 *            the total processing time of all messages in nanoseconds
+	 * @param maxNanos
+	 *            the maximum processing time of a message in nanoseconds
+	 */
+	public StageStatistics(final int stage, final long processedCount, final long failedCount,
+		final long totalNanos, final long maxNanos)
+	{
+		this.stage = stage;
+		this.processedCount = processedCount;
+		this.failedCount = failedCount;
+		this.totalNanos = totalNanos;
+		this.maxNanos = maxNanos;
+	}
+
+	/**
+	 * Gets the average processing time of a message in nanoseconds
+	 *
+	 * @return the average processing time or 0 if no message was processed
+	 */
+	public long getAverageNanos()
+	{
+		return processedCount == 0 ? 0 : totalNanos / processedCount;
+	}
+
+	/**
+	 * Gets the number of the failed messages
+	 *
+	 * @return the number of the failed messages
+	 */
+	public long getFailedCount()
+	{
+		return failedCount;
+	}
+
+	/**
+	 * Gets the maximum processing time of a message in nanoseconds
+	 *
+	 * @return the maximum processing time
+	 */
+	public long getMaxNanos()
+	{
+		return maxNanos;
+	}
+
+	/**
+	 * Gets the number of the processed messages including the failed messages
+	 *
+	 * @return the number of the processed messages
+	 */
+	public long getProcessedCount()
+	{
+		return processedCount;
+	}
+
+	/**
+	 * Gets the index of the stage
+	 *
+	 * @return the index of the stage
+	 */
+	public int getStage()
+	{
+		return stage;
+	}
+
+	/**
+	 * Gets the total processing time of all messages in nanoseconds
+	 *
+	 * @return the total processing time
+	 */
+	public long getTotalNanos()
+	{
+		return totalNanos;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString()
+	{
+		return "StageStatistics{stage=" + stage + ", processedCount=" + processedCount
+			+ ", failedCount=" + failedCount + ", averageNanos=" + getAverageNanos()
+			+ ", maxNanos=" + maxNanos + "}";
+	}
+
+}
@@ -0,0 +1,70 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.mystic.crypt.compress;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * The interface {@link CompressionCodec} is the plug-in point for the compression stage of the
+ * file encryptors. Every codec has a unique name that is recorded in the header of the encrypted
+ * data, so the decryptors can select the matching codec from the {@link CompressionCodecs}
+ */
+public interface CompressionCodec
+{
+
+	/**
+	 * Creates a stream that compresses all written bytes to the given output stream. Closing the
+	 * returned stream finishes the compression and closes the given output stream
+	 *
+	 * @param outputStream
+	 *            the output stream for the compressed bytes
+	 * @return the compressing output stream
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	OutputStream compress(OutputStream outputStream) throws IOException;
+
+	/**
+	 * Creates a stream that decompresses the bytes of the given input stream while they are read.
+	 * Closing the returned stream closes the given input stream
+	 *
+	 * @param inputStream
+	 *            the input stream with the compressed bytes
+	 * @return the decompressing input stream
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	InputStream decompress(InputStream inputStream) throws IOException;
+
+	/**
+	 * Gets the unique name of this codec that is recorded in the header of the encrypted data
+	 *
+	 * @return the name of this codec
+	 */
+	String getName();
+
+}
@@ -0,0 +1,157 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.mystic.crypt.compress;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The class {@link CompressionCodecs} is the registry of the known {@link CompressionCodec}
+ * objects and writes and detects the header that records the codec of compressed data. The
+ * {@link DeflateCompressionCodec} is always registered, faster codecs can be added with
+ * {@link #register(CompressionCodec)}. Data without the header is passed through unchanged, so
+ * data that was encrypted without compression can still be decrypted
+ */
+public final class CompressionCodecs
+{
+
+	/** The constant for the magic bytes at the start of the header. */
+	static final byte[] MAGIC = { (byte)0x89, 'M', 'C', 'Z' };
+
+	/** The constant for the maximal length of a codec name. */
+	static final int MAX_NAME_LENGTH = 64;
+
+	/** The registered codecs by their name. */
+	private static final Map<String, CompressionCodec> CODECS = new ConcurrentHashMap<>();
+
+	static
+	{
+		register(new DeflateCompressionCodec());
+	}
+
+	private CompressionCodecs()
+	{
+	}
+
+	/**
+	 * Creates a stream that writes the header of the given codec to the given output stream and
+	 * compresses all written bytes with the given codec
+	 *
+	 * @param outputStream
+	 *            the output stream for the header and the compressed bytes
+	 * @param codec
+	 *            the codec
+	 * @return the compressing output stream
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	public static OutputStream compress(final OutputStream outputStream,
+		final CompressionCodec codec) throws IOException
+	{
+		Objects.requireNonNull(outputStream);
+		Objects.requireNonNull(codec);
+		final byte[] name = codec.getName().getBytes(StandardCharsets.UTF_8);
+		if (name.length == 0 || MAX_NAME_LENGTH < name.length)
+		{
+			throw new IllegalArgumentException("Invalid codec name: " + codec.getName());
+		}
+		outputStream.write(MAGIC);
+		outputStream.write(name.length);
+		outputStream.write(name);
+		return codec.compress(outputStream);
+	}
+
+	/**
+	 * Creates a stream that reads the header from the given input stream and decompresses the
+	 * following bytes with the recorded codec. If the given input stream starts without a header
+	 * of a registered codec the bytes are passed through unchanged
+	 *
+	 * @param inputStream
+	 *            the input stream
+	 * @return the decompressing input stream
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	public static InputStream decompress(final InputStream inputStream) throws IOException
+	{
+		Objects.requireNonNull(inputStream);
+		final InputStream markable = inputStream.markSupported()
+			? inputStream
+			: new BufferedInputStream(inputStream);
+		markable.mark(MAGIC.length + 1 + MAX_NAME_LENGTH);
+		final byte[] magic = markable.readNBytes(MAGIC.length);
+		if (Arrays.equals(MAGIC, magic))
+		{
+			final int length = markable.read();
+			if (0 < length && length <= MAX_NAME_LENGTH)
+			{
+				final byte[] name = markable.readNBytes(length);
+				final CompressionCodec codec = name.length == length
+					? CODECS.get(new String(name, StandardCharsets.UTF_8))
+					: null;
+				if (codec != null)
+				{
+					return codec.decompress(markable);
+				}
+			}
+		}
+		markable.reset();
+		return markable;
+	}
+
+	/**
+	 * Gets the registered codec with the given name
+	 *
+	 * @param name
+	 *            the name of the codec
+	 * @return the codec or null if no codec is registered with the given name
+	 */
+	public static CompressionCodec get(final String name)
+	{
+		Objects.requireNonNull(name);
+		return CODECS.get(name);
+	}
+
+	/**
+	 * Registers the given codec, so compressed data with the name of the given codec can be
+	 * decompressed. A registered codec with the same name is replaced
+	 *
+	 * @param codec
+	 *            the codec to register
+	 */
+	public static void register(final CompressionCodec codec)
+	{
+		Objects.requireNonNull(codec);
+		CODECS.put(codec.getName(), codec);
+	}
+
+}
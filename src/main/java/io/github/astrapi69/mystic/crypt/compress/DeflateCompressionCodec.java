@@ -0,0 +1,143 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.mystic.crypt.compress;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * The class {@link DeflateCompressionCodec} is a {@link CompressionCodec} with the
+ * {@link Deflater} and the {@link Inflater} of the JDK. The native resources of the deflater and
+ * the inflater are released when the streams are closed
+ */
+public class DeflateCompressionCodec implements CompressionCodec
+{
+
+	/** The constant for the name of this codec. */
+	public static final String NAME = "deflate";
+
+	/** The constant for the size of the stream buffers. */
+	private static final int BUFFER_SIZE = 8192;
+
+	/** The compression level. */
+	private final int level;
+
+	/**
+	 * Instantiates a new {@link DeflateCompressionCodec} with the default compression level
+	 */
+	public DeflateCompressionCodec()
+	{
+		this(Deflater.DEFAULT_COMPRESSION);
+	}
+
+	/**
+	 * Instantiates a new {@link DeflateCompressionCodec} with the given compression level
+	 *
+	 * @param level
+	 *            the compression level from 0 to 9 or {@link Deflater#DEFAULT_COMPRESSION}
+	 */
+	public DeflateCompressionCodec(final int level)
+	{
+		if ((level < Deflater.NO_COMPRESSION || Deflater.BEST_COMPRESSION < level)
+			&& level != Deflater.DEFAULT_COMPRESSION)
+		{
+			throw new IllegalArgumentException("Invalid compression level: " + level);
+		}
+		this.level = level;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public OutputStream compress(final OutputStream outputStream)
+	{
+		final Deflater deflater = new Deflater(level);
+		return new DeflaterOutputStream(outputStream, deflater, BUFFER_SIZE)
+		{
+			@Override
+			public void close() throws IOException
+			{
+				try
+				{
+					super.close();
+				}
+				finally
+				{
+					deflater.end();
+				}
+			}
+		};
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public InputStream decompress(final InputStream inputStream)
+	{
+		final Inflater inflater = new Inflater();
+		return new InflaterInputStream(inputStream, inflater, BUFFER_SIZE)
+		{
+			@Override
+			public void close() throws IOException
+			{
+				try
+				{
+					super.close();
+				}
+				finally
+				{
+					inflater.end();
+				}
+			}
+		};
+	}
+
+	/**
+	 * Gets the compression level
+	 *
+	 * @return the compression level
+	 */
+	public int getLevel()
+	{
+		return level;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String getName()
+	{
+		return NAME;
+	}
+
+}
@@ -0,0 +1,126 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.mystic.crypt.core;
+
+import java.nio.ByteBuffer;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+
+/**
+ * The class {@link ByteBufferPool} holds {@link ByteBuffer} objects of one fixed size for reuse.
+ * A buffer is acquired, filled and given to a consumer, that releases it back to this pool after
+ * it is consumed, so a stream of chunks does not allocate a new buffer for every chunk. The pool
+ * is bounded, buffers that are released while the pool is full are left to the garbage collector,
+ * and buffers that are not released at all are simply not reused. Requests for more than the
+ * buffer size are served with new buffers of the requested size that are never pooled
+ */
+public final class ByteBufferPool
+{
+
+	/** The size of the pooled buffers. */
+	private final int bufferSize;
+
+	/** The idle buffers. */
+	private final ArrayBlockingQueue<ByteBuffer> idle;
+
+	/**
+	 * Instantiates a new {@link ByteBufferPool}
+	 *
+	 * @param bufferSize
+	 *            the size of the pooled buffers
+	 * @param maxIdleBuffers
+	 *            the maximum number of idle buffers that are kept
+	 */
+	public ByteBufferPool(final int bufferSize, final int maxIdleBuffers)
+	{
+		if (bufferSize < 1)
+		{
+			throw new IllegalArgumentException("bufferSize must be positive: " + bufferSize);
+		}
+		if (maxIdleBuffers < 1)
+		{
+			throw new IllegalArgumentException(
+				"maxIdleBuffers must be positive: " + maxIdleBuffers);
+		}
+		this.bufferSize = bufferSize;
+		this.idle = new ArrayBlockingQueue<>(maxIdleBuffers);
+	}
+
+	/**
+	 * Acquires a cleared buffer with at least the given capacity. An idle buffer is reused if the
+	 * given capacity does not exceed the buffer size
+	 *
+	 * @param minCapacity
+	 *            the minimum capacity of the buffer
+	 * @return the buffer
+	 */
+	public ByteBuffer acquire(final int minCapacity)
+	{
+		if (bufferSize < minCapacity)
+		{
+			return ByteBuffer.allocate(minCapacity);
+		}
+		final ByteBuffer buffer = idle.poll();
+		return buffer != null ? buffer : ByteBuffer.allocate(bufferSize);
+	}
+
+	/**
+	 * Gets the size of the pooled buffers
+	 *
+	 * @return the size of the pooled buffers
+	 */
+	public int getBufferSize()
+	{
+		return bufferSize;
+	}
+
+	/**
+	 * Gets the number of idle buffers
+	 *
+	 * @return the number of idle buffers
+	 */
+	public int getIdleCount()
+	{
+		return idle.size();
+	}
+
+	/**
+	 * Releases the given buffer after it is consumed, so it can be acquired again. The buffer
+	 * must not be used by the caller after this call
+	 *
+	 * @param buffer
+	 *            the buffer
+	 */
+	public void release(final ByteBuffer buffer)
+	{
+		Objects.requireNonNull(buffer);
+		if (buffer.capacity() == bufferSize && !buffer.isReadOnly() && !buffer.isDirect())
+		{
+			buffer.clear();
+			idle.offer(buffer);
+		}
+	}
+
+}
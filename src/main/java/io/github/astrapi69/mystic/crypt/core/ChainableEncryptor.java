@@ -28,7 +28,9 @@ import io.github.astrapi69.crypt.api.Encryptor;
 
 /**
  * The class {@link ChainableEncryptor} can take many {@code Encryptor} objects and encrypts the
- * given string with all the given {@code Encryptor} objects.
+ * given string with all the given {@code Encryptor} objects. Every stage materializes its full
+ * result, for large data the ciphers can be stacked as streams with the
+ * {@link io.github.astrapi69.mystic.crypt.io.ChainedCipherOutputStream}
  */
 public abstract class ChainableEncryptor<T> implements Encryptor<T, T>
 {
@@ -0,0 +1,114 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.mystic.crypt.core;
+
+import java.security.GeneralSecurityException;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import javax.crypto.Cipher;
+
+/**
+ * The class {@link CipherPool} holds initialized {@link Cipher} objects for concurrent use. A
+ * {@link Cipher} is not thread safe, so every concurrent call acquires its own cipher from this
+ * pool and releases it after a successful operation. New ciphers, and so new key derivations, are
+ * only created if all pooled ciphers are in use, so the number of key derivations is bounded by
+ * the number of concurrent calls instead of the number of calls. A cipher whose operation failed
+ * must not be released, because its state is unknown
+ */
+public final class CipherPool
+{
+
+	/** The factory of the new ciphers. */
+	private final Callable<Cipher> factory;
+
+	/** The idle ciphers. */
+	private final Queue<Cipher> idle = new ConcurrentLinkedQueue<>();
+
+	/**
+	 * Instantiates a new {@link CipherPool}
+	 *
+	 * @param factory
+	 *            the factory of the new ciphers
+	 */
+	public CipherPool(final Callable<Cipher> factory)
+	{
+		Objects.requireNonNull(factory);
+		this.factory = factory;
+	}
+
+	/**
+	 * Acquires an idle cipher or creates a new cipher if no cipher is idle
+	 *
+	 * @return the cipher
+	 * @throws GeneralSecurityException
+	 *             is thrown if a new cipher could not be created
+	 */
+	public Cipher acquire() throws GeneralSecurityException
+	{
+		final Cipher cipher = idle.poll();
+		if (cipher != null)
+		{
+			return cipher;
+		}
+		try
+		{
+			return factory.call();
+		}
+		catch (final GeneralSecurityException exception)
+		{
+			throw exception;
+		}
+		catch (final Exception exception)
+		{
+			throw new GeneralSecurityException(exception);
+		}
+	}
+
+	/**
+	 * Gets the number of idle ciphers
+	 *
+	 * @return the number of idle ciphers
+	 */
+	public int getIdleCount()
+	{
+		return idle.size();
+	}
+
+	/**
+	 * Releases the given cipher after a successful operation, so it can be acquired again
+	 *
+	 * @param cipher
+	 *            the cipher
+	 */
+	public void release(final Cipher cipher)
+	{
+		Objects.requireNonNull(cipher);
+		idle.offer(cipher);
+	}
+
+}
@@ -0,0 +1,161 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.mystic.crypt.core;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * The class {@link VirtualThreadExtensions} provides virtual threads for the bulk and parallel
+ * APIs of this library, for instance as the thread factory of the {@code DirectoryEncryptor} or as
+ * the executor of the {@code AsynchronousFileEncryptor}. This library is compiled for java 17, so
+ * the virtual threads of java 21 and newer are resolved reflectively at runtime. The coordination
+ * points of the blocking crypt operations use locks of the package
+ * {@code java.util.concurrent.locks} instead of monitors, so a blocked virtual thread does not pin
+ * its carrier thread
+ */
+public final class VirtualThreadExtensions
+{
+
+	/** The method Thread.Builder#factory() or null if virtual threads are not supported. */
+	private static final Method FACTORY;
+
+	/** The method Thread.Builder#name(String, long) or null if not supported. */
+	private static final Method NAME;
+
+	/** The method Executors#newVirtualThreadPerTaskExecutor() or null if not supported. */
+	private static final Method NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR;
+
+	/** The method Thread#ofVirtual() or null if virtual threads are not supported. */
+	private static final Method OF_VIRTUAL;
+
+	static
+	{
+		Method factory = null;
+		Method name = null;
+		Method newExecutor = null;
+		Method ofVirtual = null;
+		try
+		{
+			final Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+			ofVirtual = Thread.class.getMethod("ofVirtual");
+			name = builderClass.getMethod("name", String.class, long.class);
+			factory = builderClass.getMethod("factory");
+			newExecutor = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+			// virtual threads are a preview feature in java 19 and 20
+			factory.invoke(ofVirtual.invoke(null));
+		}
+		catch (final ReflectiveOperationException | RuntimeException exception)
+		{
+			factory = null;
+		}
+		FACTORY = factory;
+		NAME = factory != null ? name : null;
+		NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR = factory != null ? newExecutor : null;
+		OF_VIRTUAL = factory != null ? ofVirtual : null;
+	}
+
+	private VirtualThreadExtensions()
+	{
+	}
+
+	/**
+	 * Checks if the runtime supports virtual threads
+	 *
+	 * @return true if the runtime supports virtual threads
+	 */
+	public static boolean isSupported()
+	{
+		return FACTORY != null;
+	}
+
+	/**
+	 * Factory method for creating a new executor that starts a new virtual thread for every task
+	 *
+	 * @return the new executor
+	 * @throws UnsupportedOperationException
+	 *             is thrown if the runtime does not support virtual threads
+	 */
+	public static ExecutorService newVirtualThreadPerTaskExecutor()
+	{
+		return (ExecutorService)invoke(requireSupported(NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR),
+			null);
+	}
+
+	/**
+	 * Factory method for creating a new thread factory of virtual threads with the given name
+	 * prefix and a counter as suffix
+	 *
+	 * @param prefix
+	 *            the prefix of the thread names
+	 * @return the new thread factory
+	 * @throws UnsupportedOperationException
+	 *             is thrown if the runtime does not support virtual threads
+	 */
+	public static ThreadFactory newThreadFactory(final String prefix)
+	{
+		Objects.requireNonNull(prefix);
+		final Object builder = invoke(NAME, invoke(requireSupported(OF_VIRTUAL), null), prefix,
+			0L);
+		return (ThreadFactory)invoke(FACTORY, builder);
+	}
+
+	private static Object invoke(final Method method, final Object target,
+		final Object... arguments)
+	{
+		try
+		{
+			return method.invoke(target, arguments);
+		}
+		catch (final InvocationTargetException exception)
+		{
+			final Throwable cause = exception.getCause();
+			if (cause instanceof RuntimeException)
+			{
+				throw (RuntimeException)cause;
+			}
+			throw new IllegalStateException(cause);
+		}
+		catch (final IllegalAccessException exception)
+		{
+			throw new IllegalStateException(exception);
+		}
+	}
+
+	private static Method requireSupported(final Method method)
+	{
+		if (method == null)
+		{
+			throw new UnsupportedOperationException(
+				"Virtual threads are not supported by this runtime, java 21 or newer is required");
+		}
+		return method;
+	}
+
+}
@@ -0,0 +1,374 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.mystic.crypt.file;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.CompletionHandler;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.GeneralSecurityException;
+import java.text.Normalizer;
+import java.util.EnumSet;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+
+import javax.crypto.Cipher;
+
+import io.github.astrapi69.crypt.api.algorithm.SunJCEAlgorithm;
+import io.github.astrapi69.crypt.data.factory.CipherFactory;
+import io.github.astrapi69.crypt.data.model.CryptModel;
+import io.github.astrapi69.mystic.crypt.core.CipherPool;
+
+/**
+ * The abstract class {@link AbstractAsynchronousFileCryptor} encrypts or decrypts files without
+ * blocking the calling thread. The files are read and written with an
+ * {@link AsynchronousFileChannel} in chunks and the result is a {@link CompletableFuture}. The
+ * read, the cipher and the write stages overlap: while a chunk is processed by the cipher the next
+ * chunk is already read and the processed chunks are written concurrently at their positions, so
+ * one call keeps the storage device and the processor busy at the same time.<br>
+ * <br>
+ * The key derivation and the opening of the files are also executed on the executor and not on
+ * the calling thread. The ciphers are pooled, so an instance can be shared for concurrent calls.
+ * The encrypted files have the same format as the files of the {@link PBEFileEncryptor} without
+ * decorators and compression
+ */
+public abstract class AbstractAsynchronousFileCryptor
+{
+
+	/** The constant for the default chunk size. */
+	public static final int DEFAULT_CHUNK_SIZE = 64 * 1024;
+
+	/** The algorithm of the cipher. */
+	private final String algorithm;
+
+	/** The chunk size of the read and write operations. */
+	private final int chunkSize;
+
+	/** The pool of the ciphers for the concurrent calls. */
+	private final CipherPool cipherPool;
+
+	/** The executor of the channels or null for the default thread pool of the channels. */
+	private final ExecutorService executor;
+
+	/** The normalized password. */
+	private final char[] password;
+
+	/**
+	 * Instantiates a new {@link AbstractAsynchronousFileCryptor}
+	 *
+	 * @param model
+	 *            the model with the password and the algorithm
+	 * @param executor
+	 *            the executor of the channels and the cipher stages or null for the default thread
+	 *            pools
+	 * @param chunkSize
+	 *            the chunk size of the read and write operations
+	 */
+	protected AbstractAsynchronousFileCryptor(final CryptModel<Cipher, String, String> model,
+		final ExecutorService executor, final int chunkSize)
+	{
+		Objects.requireNonNull(model);
+		Objects.requireNonNull(model.getKey());
+		if (chunkSize < 1)
+		{
+			throw new IllegalArgumentException("chunkSize must be positive: " + chunkSize);
+		}
+		this.password = Normalizer.normalize(model.getKey(), Normalizer.Form.NFC).toCharArray();
+		this.algorithm = model.getAlgorithm() != null
+			? model.getAlgorithm().getAlgorithm()
+			: SunJCEAlgorithm.PBEWithMD5AndDES.getAlgorithm();
+		this.executor = executor;
+		this.chunkSize = chunkSize;
+		this.cipherPool = new CipherPool(this::newCipher);
+	}
+
+	/**
+	 * Gets the operation mode of the ciphers
+	 *
+	 * @return the operation mode
+	 */
+	protected abstract int getOperationMode();
+
+	/**
+	 * Factory method for creating a new cipher. This method is invoked once per concurrent call and
+	 * can be overridden so users can provide their own version of a cipher
+	 *
+	 * @return the new cipher
+	 * @throws GeneralSecurityException
+	 *             is thrown if the cipher can not be created
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	protected Cipher newCipher() throws GeneralSecurityException, IOException
+	{
+		return CipherFactory.newPBECipher(password.clone(), getOperationMode(), algorithm);
+	}
+
+	/**
+	 * Processes the given source file asynchronously into the given target file. If the
+	 * processing fails the returned future completes exceptionally and the target file is deleted
+	 *
+	 * @param source
+	 *            the source file
+	 * @param target
+	 *            the target file
+	 * @return the future of the target file
+	 */
+	protected CompletableFuture<File> process(final File source, final File target)
+	{
+		Objects.requireNonNull(source);
+		Objects.requireNonNull(target);
+		final Executor stageExecutor = executor != null ? executor : ForkJoinPool.commonPool();
+		return CompletableFuture.supplyAsync(() -> {
+			try
+			{
+				return new Transfer(source.toPath(), target.toPath(), stageExecutor);
+			}
+			catch (final GeneralSecurityException | IOException exception)
+			{
+				throw new CompletionException(exception);
+			}
+		}, stageExecutor).thenCompose(Transfer::start).thenApply(ignored -> target);
+	}
+
+	/**
+	 * The class {@link Transfer} holds the state of one asynchronous processing of a file
+	 */
+	private final class Transfer
+	{
+
+		/** The cipher of this transfer. */
+		private final Cipher cipher;
+
+		/** The channel of the source file. */
+		private final AsynchronousFileChannel input;
+
+		/** The channel of the target file. */
+		private final AsynchronousFileChannel output;
+
+		/** The two output buffers that are used alternately. */
+		private final ByteBuffer[] outputBuffers = new ByteBuffer[2];
+
+		/** The two read buffers that are used alternately. */
+		private final ByteBuffer[] readBuffers = new ByteBuffer[2];
+
+		/** The executor of the cipher stages. */
+		private final Executor stageExecutor;
+
+		/** The target file. */
+		private final Path target;
+
+		/** The position of the next read. */
+		private long readPosition;
+
+		/** The position of the next write. */
+		private long writePosition;
+
+		private Transfer(final Path source, final Path target, final Executor stageExecutor)
+			throws GeneralSecurityException, IOException
+		{
+			this.target = target;
+			this.stageExecutor = stageExecutor;
+			this.cipher = cipherPool.acquire();
+			this.input = AsynchronousFileChannel.open(source,
+				EnumSet.of(StandardOpenOption.READ), executor);
+			try
+			{
+				this.output = AsynchronousFileChannel.open(target,
+					EnumSet.of(StandardOpenOption.WRITE, StandardOpenOption.CREATE,
+						StandardOpenOption.TRUNCATE_EXISTING),
+					executor);
+			}
+			catch (final IOException | RuntimeException exception)
+			{
+				input.close();
+				throw exception;
+			}
+			final int outputSize = cipher.getOutputSize(chunkSize + cipher.getBlockSize());
+			for (int i = 0; i < 2; i++)
+			{
+				readBuffers[i] = ByteBuffer.allocate(chunkSize);
+				outputBuffers[i] = ByteBuffer.allocate(outputSize);
+			}
+		}
+
+		private void close()
+		{
+			try
+			{
+				input.close();
+			}
+			catch (final IOException exception)
+			{
+				// the source file is only read
+			}
+			try
+			{
+				output.close();
+			}
+			catch (final IOException exception)
+			{
+				// the target file is deleted on a failure
+			}
+		}
+
+		private CompletableFuture<Integer> read(final ByteBuffer buffer, final long position)
+		{
+			final CompletableFuture<Integer> future = new CompletableFuture<>();
+			try
+			{
+				input.read(buffer, position, null, new CompletionHandler<Integer, Void>()
+				{
+					@Override
+					public void completed(final Integer count, final Void attachment)
+					{
+						future.complete(count);
+					}
+
+					@Override
+					public void failed(final Throwable throwable, final Void attachment)
+					{
+						future.completeExceptionally(throwable);
+					}
+				});
+			}
+			catch (final RuntimeException exception)
+			{
+				future.completeExceptionally(exception);
+			}
+			return future;
+		}
+
+		/**
+		 * Processes the chunk with the given index after it is read and after the write of the
+		 * chunk before the last chunk is completed, because its output buffer is reused. The read
+		 * of the next chunk is started before the cipher processes this chunk and the write of
+		 * this chunk is not awaited
+		 */
+		private CompletableFuture<Void> stage(final int index,
+			final CompletableFuture<Integer> read, final CompletableFuture<Void> writeBeforeLast,
+			final CompletableFuture<Void> lastWrite)
+		{
+			return read.thenCombine(writeBeforeLast, (count, ignored) -> count)
+				.thenComposeAsync(count -> {
+					final ByteBuffer in = readBuffers[index & 1];
+					final ByteBuffer out = outputBuffers[index & 1];
+					out.clear();
+					try
+					{
+						if (count < 0)
+						{
+							cipher.doFinal(ByteBuffer.allocate(0), out);
+							out.flip();
+							return CompletableFuture.allOf(lastWrite, write(out, writePosition));
+						}
+						readPosition += count;
+						final CompletableFuture<Integer> nextRead = read(
+							readBuffers[(index + 1) & 1], readPosition);
+						in.flip();
+						cipher.update(in, out);
+						in.clear();
+						out.flip();
+						final long position = writePosition;
+						writePosition += out.remaining();
+						return stage(index + 1, nextRead, lastWrite, write(out, position));
+					}
+					catch (final GeneralSecurityException exception)
+					{
+						return CompletableFuture.failedFuture(exception);
+					}
+				}, stageExecutor);
+		}
+
+		private CompletableFuture<Void> start()
+		{
+			final CompletableFuture<Void> completed = CompletableFuture.completedFuture(null);
+			return stage(0, read(readBuffers[0], 0), completed, completed)
+				.whenComplete((ignored, throwable) -> {
+					close();
+					if (throwable == null)
+					{
+						cipherPool.release(cipher);
+						return;
+					}
+					try
+					{
+						Files.deleteIfExists(target);
+					}
+					catch (final IOException exception)
+					{
+						throwable.addSuppressed(exception);
+					}
+				});
+		}
+
+		private CompletableFuture<Void> write(final ByteBuffer buffer, final long position)
+		{
+			final CompletableFuture<Void> future = new CompletableFuture<>();
+			write(buffer, position, future);
+			return future;
+		}
+
+		private void write(final ByteBuffer buffer, final long position,
+			final CompletableFuture<Void> future)
+		{
+			if (!buffer.hasRemaining())
+			{
+				future.complete(null);
+				return;
+			}
+			try
+			{
+				output.write(buffer, position, null, new CompletionHandler<Integer, Void>()
+				{
+					@Override
+					public void completed(final Integer count, final Void attachment)
+					{
+						write(buffer, position + count, future);
+					}
+
+					@Override
+					public void failed(final Throwable throwable, final Void attachment)
+					{
+						future.completeExceptionally(throwable);
+					}
+				});
+			}
+			catch (final RuntimeException exception)
+			{
+				future.completeExceptionally(exception);
+			}
+		}
+	}
+
+}
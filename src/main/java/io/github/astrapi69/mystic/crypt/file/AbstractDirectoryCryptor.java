@@ -0,0 +1,447 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.mystic.crypt.file;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.GeneralSecurityException;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.crypto.Cipher;
+
+import io.github.astrapi69.crypt.api.algorithm.SunJCEAlgorithm;
+import io.github.astrapi69.crypt.data.factory.CipherFactory;
+import io.github.astrapi69.crypt.data.model.CryptModel;
+import io.github.astrapi69.mystic.crypt.core.VirtualThreadExtensions;
+
+/**
+ * The abstract class {@link AbstractDirectoryCryptor} encrypts or decrypts all files of a
+ * directory tree in parallel. The cipher is created once per worker thread and reused for all
+ * files of the worker, instead of one key derivation per file. Small files are scheduled in
+ * batches to reduce the scheduling overhead and large files are streamed in chunks through
+ * reusable buffers. The work queue of the pool is bounded, so the walk of the directory tree
+ * waits if the workers can not keep up.<br>
+ * <br>
+ * With atomic writes every target is written to a temporary file and all targets of a batch are
+ * committed together with an {@link AtomicFileBatch}, so a crash or a failed file never leaves a
+ * truncated target file and an existing target file is only replaced by a complete one. If the
+ * commit of a batch fails all files of the batch are reported as failed.<br>
+ * <br>
+ * The encrypted files have the same format as the files of the {@link PBEFileEncryptor} without
+ * decorators, so they can also be decrypted with the {@link PBEFileDecryptor}
+ */
+public abstract class AbstractDirectoryCryptor
+{
+
+	/** The constant for the default number of files in a batch of small files. */
+	public static final int DEFAULT_BATCH_SIZE = 64;
+
+	/** The constant for the default chunk size of the streamed files. */
+	public static final int DEFAULT_CHUNK_SIZE = 64 * 1024;
+
+	/** The constant for the default size up to that a file is scheduled in a batch. */
+	public static final long DEFAULT_SMALL_FILE_SIZE = 64 * 1024;
+
+	/** The algorithm of the cipher. */
+	private final String algorithm;
+
+	/** The flag if the targets are written to temporary files and committed per batch. */
+	private final boolean atomicWrite;
+
+	/** The maximal number of files in a batch of small files. */
+	private final int batchSize;
+
+	/** The chunk size of the streamed files. */
+	private final int chunkSize;
+
+	/** The number of worker threads. */
+	private final int parallelism;
+
+	/** The normalized password. */
+	private final char[] password;
+
+	/** The size up to that a file is scheduled in a batch. */
+	private final long smallFileSize;
+
+	/** The thread factory of the worker threads or null for daemon platform threads. */
+	private final ThreadFactory threadFactory;
+
+	/**
+	 * Instantiates a new {@link AbstractDirectoryCryptor}
+	 *
+	 * @param model
+	 *            the model with the password and the algorithm
+	 * @param parallelism
+	 *            the number of worker threads
+	 * @param smallFileSize
+	 *            the size up to that a file is scheduled in a batch
+	 * @param batchSize
+	 *            the maximal number of files in a batch of small files
+	 * @param chunkSize
+	 *            the chunk size of the streamed files
+	 */
+	protected AbstractDirectoryCryptor(final CryptModel<Cipher, String, String> model,
+		final int parallelism, final long smallFileSize, final int batchSize, final int chunkSize)
+	{
+		this(model, parallelism, smallFileSize, batchSize, chunkSize, null);
+	}
+
+	/**
+	 * Instantiates a new {@link AbstractDirectoryCryptor} with the given thread factory of the
+	 * worker threads. With the thread factory of
+	 * {@link VirtualThreadExtensions#newThreadFactory(String)} the workers are virtual threads, so
+	 * a high parallelism for directory trees on slow storage does not cost one platform thread per
+	 * worker
+	 *
+	 * @param model
+	 *            the model with the password and the algorithm
+	 * @param parallelism
+	 *            the number of worker threads
+	 * @param smallFileSize
+	 *            the size up to that a file is scheduled in a batch
+	 * @param batchSize
+	 *            the maximal number of files in a batch of small files
+	 * @param chunkSize
+	 *            the chunk size of the streamed files
+	 * @param threadFactory
+	 *            the thread factory of the worker threads or null for daemon platform threads
+	 */
+	protected AbstractDirectoryCryptor(final CryptModel<Cipher, String, String> model,
+		final int parallelism, final long smallFileSize, final int batchSize, final int chunkSize,
+		final ThreadFactory threadFactory)
+	{
+		this(model, parallelism, smallFileSize, batchSize, chunkSize, threadFactory, false);
+	}
+
+	/**
+	 * Instantiates a new {@link AbstractDirectoryCryptor} with the given flag for atomic writes
+	 *
+	 * @param model
+	 *            the model with the password and the algorithm
+	 * @param parallelism
+	 *            the number of worker threads
+	 * @param smallFileSize
+	 *            the size up to that a file is scheduled in a batch
+	 * @param batchSize
+	 *            the maximal number of files in a batch of small files
+	 * @param chunkSize
+	 *            the chunk size of the streamed files
+	 * @param threadFactory
+	 *            the thread factory of the worker threads or null for daemon platform threads
+	 * @param atomicWrite
+	 *            if this flag is true the targets are written to temporary files that are
+	 *            committed with an {@link AtomicFileBatch} per batch of files
+	 */
+	protected AbstractDirectoryCryptor(final CryptModel<Cipher, String, String> model,
+		final int parallelism, final long smallFileSize, final int batchSize, final int chunkSize,
+		final ThreadFactory threadFactory, final boolean atomicWrite)
+	{
+		Objects.requireNonNull(model);
+		Objects.requireNonNull(model.getKey());
+		if (parallelism < 1 || batchSize < 1 || chunkSize < 1 || smallFileSize < 0)
+		{
+			throw new IllegalArgumentException(
+				"parallelism, batchSize and chunkSize must be positive");
+		}
+		this.password = Normalizer.normalize(model.getKey(), Normalizer.Form.NFC).toCharArray();
+		this.algorithm = model.getAlgorithm() != null
+			? model.getAlgorithm().getAlgorithm()
+			: SunJCEAlgorithm.PBEWithMD5AndDES.getAlgorithm();
+		this.parallelism = parallelism;
+		this.smallFileSize = smallFileSize;
+		this.batchSize = batchSize;
+		this.chunkSize = chunkSize;
+		this.threadFactory = threadFactory;
+		this.atomicWrite = atomicWrite;
+	}
+
+	/**
+	 * Gets the operation mode of the ciphers
+	 *
+	 * @return the operation mode
+	 */
+	protected abstract int getOperationMode();
+
+	/**
+	 * Factory method for creating the target path of the given source file
+	 *
+	 * @param targetDirectory
+	 *            the target directory
+	 * @param relativeSource
+	 *            the path of the source file relative to the source directory
+	 * @return the target path
+	 */
+	protected abstract Path newTarget(Path targetDirectory, Path relativeSource);
+
+	/**
+	 * Factory method for creating the cipher of a worker thread. This method is invoked once per
+	 * worker thread and can be overridden so users can provide their own version of a cipher
+	 *
+	 * @return the new cipher
+	 * @throws GeneralSecurityException
+	 *             is thrown if the cipher can not be created
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	protected Cipher newCipher() throws GeneralSecurityException, IOException
+	{
+		return CipherFactory.newPBECipher(password.clone(), getOperationMode(), algorithm);
+	}
+
+	/**
+	 * Processes all files of the given source directory tree into the given target directory
+	 *
+	 * @param sourceDirectory
+	 *            the source directory
+	 * @param targetDirectory
+	 *            the target directory, that must not be inside the source directory
+	 * @return the results per file and the aggregate throughput
+	 * @throws IOException
+	 *             Signals that the directory tree could not be walked
+	 */
+	protected DirectoryCryptResult process(final File sourceDirectory, final File targetDirectory)
+		throws IOException
+	{
+		Objects.requireNonNull(sourceDirectory);
+		Objects.requireNonNull(targetDirectory);
+		final Path source = sourceDirectory.toPath().toAbsolutePath().normalize();
+		final Path target = targetDirectory.toPath().toAbsolutePath().normalize();
+		if (!Files.isDirectory(source))
+		{
+			throw new IllegalArgumentException(sourceDirectory + " is not a directory");
+		}
+		if (target.startsWith(source))
+		{
+			throw new IllegalArgumentException(
+				"The target directory must not be inside the source directory");
+		}
+		final long start = System.nanoTime();
+		final Queue<DirectoryCryptResult.FileResult> results = new ConcurrentLinkedQueue<>();
+		final ThreadLocal<Worker> workers = new ThreadLocal<>();
+		final AtomicInteger threadNumber = new AtomicInteger();
+		final ThreadFactory workerFactory = threadFactory != null ? threadFactory : runnable -> {
+			final Thread thread = new Thread(runnable,
+				getClass().getSimpleName() + "-" + threadNumber.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		};
+		final ThreadPoolExecutor executor = new ThreadPoolExecutor(parallelism, parallelism, 0L,
+			TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(parallelism * 2), workerFactory,
+			new ThreadPoolExecutor.CallerRunsPolicy());
+		try
+		{
+			final List<Path[]> batch = new ArrayList<>();
+			Files.walkFileTree(source, new SimpleFileVisitor<Path>()
+			{
+				@Override
+				public FileVisitResult visitFile(final Path file, final BasicFileAttributes attrs)
+				{
+					if (!attrs.isRegularFile())
+					{
+						return FileVisitResult.CONTINUE;
+					}
+					final Path[] task = { file, newTarget(target, source.relativize(file)) };
+					if (smallFileSize < attrs.size())
+					{
+						submit(executor, Collections.singletonList(task), results, workers);
+						return FileVisitResult.CONTINUE;
+					}
+					batch.add(task);
+					if (batch.size() == batchSize)
+					{
+						submit(executor, new ArrayList<>(batch), results, workers);
+						batch.clear();
+					}
+					return FileVisitResult.CONTINUE;
+				}
+
+				@Override
+				public FileVisitResult visitFileFailed(final Path file, final IOException exception)
+				{
+					results.add(new DirectoryCryptResult.FileResult(file.toFile(), null, 0, 0,
+						exception));
+					return FileVisitResult.CONTINUE;
+				}
+			});
+			if (!batch.isEmpty())
+			{
+				submit(executor, batch, results, workers);
+			}
+		}
+		finally
+		{
+			workers.remove();
+			executor.shutdown();
+			try
+			{
+				executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+			}
+			catch (final InterruptedException exception)
+			{
+				executor.shutdownNow();
+				Thread.currentThread().interrupt();
+			}
+		}
+		final List<DirectoryCryptResult.FileResult> sorted = new ArrayList<>(results);
+		sorted.sort(Comparator.comparing(DirectoryCryptResult.FileResult::getSource));
+		return new DirectoryCryptResult(sorted, System.nanoTime() - start);
+	}
+
+	private void submit(final ThreadPoolExecutor executor, final List<Path[]> batch,
+		final Queue<DirectoryCryptResult.FileResult> results, final ThreadLocal<Worker> workers)
+	{
+		executor.execute(() -> results.addAll(process(batch, workers)));
+	}
+
+	private List<DirectoryCryptResult.FileResult> process(final List<Path[]> batch,
+		final ThreadLocal<Worker> workers)
+	{
+		final AtomicFileBatch fileBatch = atomicWrite
+			? new AtomicFileBatch(Integer.MAX_VALUE)
+			: null;
+		final List<DirectoryCryptResult.FileResult> batchResults = new ArrayList<>(batch.size());
+		for (final Path[] task : batch)
+		{
+			batchResults.add(process(task[0], task[1], workers, fileBatch));
+		}
+		if (fileBatch != null)
+		{
+			try
+			{
+				fileBatch.commit();
+			}
+			catch (final IOException | RuntimeException exception)
+			{
+				// the pending temporary files are deleted, so no file of the batch is durable
+				batchResults.replaceAll(result -> result.isSuccess()
+					? new DirectoryCryptResult.FileResult(result.getSource(), result.getTarget(),
+						result.getBytes(), result.getNanos(), exception)
+					: result);
+			}
+		}
+		return batchResults;
+	}
+
+	private DirectoryCryptResult.FileResult process(final Path source, final Path target,
+		final ThreadLocal<Worker> workers, final AtomicFileBatch fileBatch)
+	{
+		final long start = System.nanoTime();
+		long bytes = 0;
+		Path output = target;
+		try
+		{
+			Worker worker = workers.get();
+			if (worker == null)
+			{
+				worker = new Worker(newCipher(), chunkSize);
+				workers.set(worker);
+			}
+			Files.createDirectories(target.getParent());
+			if (fileBatch != null)
+			{
+				output = fileBatch.newTemporaryFile(target.toFile()).toPath();
+			}
+			try (InputStream in = Files.newInputStream(source);
+				OutputStream out = Files.newOutputStream(output))
+			{
+				int read;
+				while ((read = in.read(worker.input)) != -1)
+				{
+					out.write(worker.output, 0,
+						worker.cipher.update(worker.input, 0, read, worker.output));
+					bytes += read;
+				}
+				out.write(worker.output, 0, worker.cipher.doFinal(worker.output, 0));
+			}
+			if (fileBatch != null)
+			{
+				fileBatch.add(output.toFile(), target.toFile(), null);
+			}
+			return new DirectoryCryptResult.FileResult(source.toFile(), target.toFile(), bytes,
+				System.nanoTime() - start, null);
+		}
+		catch (final IOException | GeneralSecurityException | RuntimeException exception)
+		{
+			// the state of the cipher is unknown after a failure
+			workers.remove();
+			try
+			{
+				// with atomic writes only the temporary file is deleted and the target is kept
+				Files.deleteIfExists(output);
+			}
+			catch (final IOException deleteException)
+			{
+				exception.addSuppressed(deleteException);
+			}
+			return new DirectoryCryptResult.FileResult(source.toFile(), target.toFile(), bytes,
+				System.nanoTime() - start, exception);
+		}
+	}
+
+	/**
+	 * The class {@link Worker} holds the cipher and the reusable buffers of a worker thread
+	 */
+	private static final class Worker
+	{
+
+		/** The cipher of the worker thread. */
+		private final Cipher cipher;
+
+		/** The buffer for the source bytes. */
+		private final byte[] input;
+
+		/** The buffer for the target bytes. */
+		private final byte[] output;
+
+		private Worker(final Cipher cipher, final int chunkSize)
+		{
+			this.cipher = cipher;
+			this.input = new byte[chunkSize];
+			// the margin covers the buffered block and the padding of the final block
+			this.output = new byte[Math.max(cipher.getOutputSize(chunkSize), chunkSize) + 64];
+		}
+
+	}
+
+}
@@ -0,0 +1,112 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.mystic.crypt.file;
+
+import java.io.File;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+
+import javax.crypto.Cipher;
+
+import io.github.astrapi69.crypt.data.model.CryptModel;
+
+/**
+ * The class {@link AsynchronousFileEncryptor} encrypts files asynchronously with an
+ * {@link java.nio.channels.AsynchronousFileChannel}, the calling thread is never blocked
+ */
+public class AsynchronousFileEncryptor extends AbstractAsynchronousFileCryptor
+{
+
+	/**
+	 * Instantiates a new {@link AsynchronousFileEncryptor} with the default thread pools and the
+	 * default chunk size
+	 *
+	 * @param model
+	 *            the model with the password and the algorithm
+	 */
+	public AsynchronousFileEncryptor(final CryptModel<Cipher, String, String> model)
+	{
+		this(model, null);
+	}
+
+	/**
+	 * Instantiates a new {@link AsynchronousFileEncryptor} with the given executor and the
+	 * default chunk size
+	 *
+	 * @param model
+	 *            the model with the password and the algorithm
+	 * @param executor
+	 *            the executor of the channels and the cipher stages or null for the default thread
+	 *            pools
+	 */
+	public AsynchronousFileEncryptor(final CryptModel<Cipher, String, String> model,
+		final ExecutorService executor)
+	{
+		this(model, executor, DEFAULT_CHUNK_SIZE);
+	}
+
+	/**
+	 * Instantiates a new {@link AsynchronousFileEncryptor}
+	 *
+	 * @param model
+	 *            the model with the password and the algorithm
+	 * @param executor
+	 *            the executor of the channels and the cipher stages or null for the default thread
+	 *            pools
+	 * @param chunkSize
+	 *            the chunk size of the read and write operations
+	 */
+	public AsynchronousFileEncryptor(final CryptModel<Cipher, String, String> model,
+		final ExecutorService executor, final int chunkSize)
+	{
+		super(model, executor, chunkSize);
+	}
+
+	/**
+	 * Encrypts the given file asynchronously into the given target file. This method returns
+	 * immediately, the returned future completes with the target file or exceptionally if the
+	 * encryption fails, in that case the target file is deleted
+	 *
+	 * @param toEncrypt
+	 *            the file to encrypt
+	 * @param target
+	 *            the target of the encrypted data
+	 * @return the future of the target file
+	 */
+	public CompletableFuture<File> encrypt(final File toEncrypt, final File target)
+	{
+		return process(toEncrypt, target);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected int getOperationMode()
+	{
+		return Cipher.ENCRYPT_MODE;
+	}
+
+}
@@ -0,0 +1,332 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.mystic.crypt.file;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The class {@link AtomicFileBatch} makes written files durable and visible in an atomic way. The
+ * data is written to a temporary file in the directory of the target file and registered in this
+ * batch. On {@link #commit()} all pending temporary files are forced to the storage device, then
+ * renamed atomically to their target files, then the parent directories are forced once per
+ * directory and only after that the source files are deleted. So a crash leaves either the old
+ * state or the complete new target file, but never a truncated target file without its source.
+ * <br>
+ * <br>
+ * The expensive forces are batched: instead of forcing every file directly after it is written,
+ * the files are forced together when the batch size is reached or on {@link #commit()}, when the
+ * operating system has already written most of the data in the background, and every directory is
+ * forced only once per batch. This class is thread safe
+ */
+public final class AtomicFileBatch implements Closeable
+{
+
+	/** The constant for the default batch size. */
+	public static final int DEFAULT_BATCH_SIZE = 64;
+
+	/** The constant for the suffix of the temporary files. */
+	public static final String TEMPORARY_FILE_SUFFIX = ".tmp";
+
+	/** The number of pending files after that the batch is committed. */
+	private final int batchSize;
+
+	/** The lock of the pending files, that is also held while the files are forced. */
+	private final Lock lock = new ReentrantLock();
+
+	/** The pending files. */
+	private final List<Pending> pending = new ArrayList<>();
+
+	/**
+	 * Instantiates a new {@link AtomicFileBatch} with the default batch size
+	 */
+	public AtomicFileBatch()
+	{
+		this(DEFAULT_BATCH_SIZE);
+	}
+
+	/**
+	 * Instantiates a new {@link AtomicFileBatch} with the given batch size
+	 *
+	 * @param batchSize
+	 *            the number of pending files after that the batch is committed, a batch size of one
+	 *            commits every file directly
+	 */
+	public AtomicFileBatch(final int batchSize)
+	{
+		if (batchSize < 1)
+		{
+			throw new IllegalArgumentException("batchSize must be positive: " + batchSize);
+		}
+		this.batchSize = batchSize;
+	}
+
+	/**
+	 * Forces the given directory to the storage device, so a rename or a deletion in it is durable.
+	 * Not all platforms can open a directory, in that case this method does nothing
+	 *
+	 * @param directory
+	 *            the directory
+	 */
+	static void forceDirectory(final Path directory)
+	{
+		try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ))
+		{
+			channel.force(true);
+		}
+		catch (final IOException exception)
+		{
+			// the platform does not support to force a directory
+		}
+	}
+
+	/**
+	 * Forces the content of the given file to the storage device
+	 *
+	 * @param file
+	 *            the file
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	static void forceFile(final Path file) throws IOException
+	{
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE))
+		{
+			channel.force(true);
+		}
+	}
+
+	/**
+	 * Moves the given temporary file to the given target file atomically, if the file system does
+	 * not support an atomic move the target file is replaced
+	 *
+	 * @param temporary
+	 *            the temporary file
+	 * @param target
+	 *            the target file
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	static void move(final Path temporary, final Path target) throws IOException
+	{
+		try
+		{
+			Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE,
+				StandardCopyOption.REPLACE_EXISTING);
+		}
+		catch (final AtomicMoveNotSupportedException exception)
+		{
+			Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+	/**
+	 * Discards all pending files of this batch. The temporary files are deleted, the target files
+	 * and the source files are not touched
+	 */
+	public void abort()
+	{
+		lock.lock();
+		try
+		{
+			for (final Pending file : pending)
+			{
+				file.temporary.delete();
+			}
+			pending.clear();
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Registers the given temporary file that is written completely and will be renamed to the
+	 * given target file. If the batch size is reached the batch is committed
+	 *
+	 * @param temporary
+	 *            the temporary file, created with {@link #newTemporaryFile(File)}
+	 * @param target
+	 *            the target file
+	 * @param source
+	 *            the source file that is deleted after the target file is durable or null if no
+	 *            file has to be deleted
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred on the commit
+	 */
+	public void add(final File temporary, final File target, final File source) throws IOException
+	{
+		Objects.requireNonNull(temporary);
+		Objects.requireNonNull(target);
+		lock.lock();
+		try
+		{
+			pending.add(new Pending(temporary, target, source));
+			if (batchSize <= pending.size())
+			{
+				commit();
+			}
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Commits all pending files of this batch. If forcing or renaming fails the remaining
+	 * temporary files are deleted and no source file is deleted
+	 *
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	public void commit() throws IOException
+	{
+		lock.lock();
+		try
+		{
+			if (pending.isEmpty())
+			{
+				return;
+			}
+			final Set<Path> directories = new LinkedHashSet<>();
+			try
+			{
+				for (final Pending file : pending)
+				{
+					forceFile(file.temporary.toPath());
+				}
+				for (final Pending file : pending)
+				{
+					final Path target = file.target.toPath().toAbsolutePath();
+					move(file.temporary.toPath(), target);
+					directories.add(target.getParent());
+				}
+			}
+			catch (final IOException | RuntimeException exception)
+			{
+				abort();
+				throw exception;
+			}
+			for (final Path directory : directories)
+			{
+				forceDirectory(directory);
+			}
+			for (final Pending file : pending)
+			{
+				if (file.source != null)
+				{
+					Files.deleteIfExists(file.source.toPath());
+				}
+			}
+			pending.clear();
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Commits all pending files of this batch
+	 *
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	@Override
+	public void close() throws IOException
+	{
+		commit();
+	}
+
+	/**
+	 * Gets the number of pending files
+	 *
+	 * @return the number of pending files
+	 */
+	public int getPendingCount()
+	{
+		lock.lock();
+		try
+		{
+			return pending.size();
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Factory method for creating a new temporary file in the directory of the given target file,
+	 * so the temporary file can be renamed atomically to the target file
+	 *
+	 * @param target
+	 *            the target file
+	 * @return the new temporary file
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	public File newTemporaryFile(final File target) throws IOException
+	{
+		Objects.requireNonNull(target);
+		final Path directory = target.toPath().toAbsolutePath().getParent();
+		return Files.createTempFile(directory, "." + target.getName() + ".", TEMPORARY_FILE_SUFFIX)
+			.toFile();
+	}
+
+	private static final class Pending
+	{
+
+		private final File source;
+
+		private final File target;
+
+		private final File temporary;
+
+		private Pending(final File temporary, final File target, final File source)
+		{
+			this.temporary = temporary;
+			this.target = target;
+			this.source = source;
+		}
+	}
+
+}
@@ -0,0 +1,268 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.mystic.crypt.file;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The class {@link DirectoryCryptResult} holds the results per file and the aggregate throughput
+ * of the encryption or decryption of a directory tree
+ */
+public final class DirectoryCryptResult
+{
+
+	/** The elapsed time in nanoseconds. */
+	private final long elapsedNanos;
+
+	/** The results per file sorted by the source file. */
+	private final List<FileResult> fileResults;
+
+	/** The number of failed files. */
+	private final int failedCount;
+
+	/** The number of processed source bytes. */
+	private final long totalBytes;
+
+	/**
+	 * Instantiates a new {@link DirectoryCryptResult}
+	 *
+	 * @param fileResults
+	 *            the results per file
+	 * @param elapsedNanos
+	 *            the elapsed time in nanoseconds
+	 */
+	DirectoryCryptResult(final List<FileResult> fileResults, final long elapsedNanos)
+	{
+		Objects.requireNonNull(fileResults);
+		this.fileResults = Collections.unmodifiableList(fileResults);
+		this.elapsedNanos = elapsedNanos;
+		int failed = 0;
+		long bytes = 0;
+		for (final FileResult fileResult : fileResults)
+		{
+			if (fileResult.isSuccess())
+			{
+				bytes += fileResult.getBytes();
+			}
+			else
+			{
+				failed++;
+			}
+		}
+		this.failedCount = failed;
+		this.totalBytes = bytes;
+	}
+
+	/**
+	 * Gets the elapsed time in nanoseconds
+	 *
+	 * @return the elapsed time in nanoseconds
+	 */
+	public long getElapsedNanos()
+	{
+		return elapsedNanos;
+	}
+
+	/**
+	 * Gets the number of failed files
+	 *
+	 * @return the number of failed files
+	 */
+	public int getFailedCount()
+	{
+		return failedCount;
+	}
+
+	/**
+	 * Gets the results per file sorted by the source file
+	 *
+	 * @return the results per file
+	 */
+	public List<FileResult> getFileResults()
+	{
+		return fileResults;
+	}
+
+	/**
+	 * Gets the aggregate throughput in source bytes per second
+	 *
+	 * @return the throughput in bytes per second
+	 */
+	public double getThroughput()
+	{
+		return elapsedNanos == 0 ? 0 : totalBytes * 1_000_000_000d / elapsedNanos;
+	}
+
+	/**
+	 * Gets the number of successfully processed source bytes
+	 *
+	 * @return the number of processed source bytes
+	 */
+	public long getTotalBytes()
+	{
+		return totalBytes;
+	}
+
+	/**
+	 * Checks if all files were processed successfully
+	 *
+	 * @return true if no file failed
+	 */
+	public boolean isSuccess()
+	{
+		return failedCount == 0;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString()
+	{
+		return "DirectoryCryptResult [files=" + fileResults.size() + ", failed=" + failedCount
+			+ ", totalBytes=" + totalBytes + ", elapsedNanos=" + elapsedNanos + "]";
+	}
+
+	/**
+	 * The class {@link FileResult} holds the result of one file
+	 */
+	public static final class FileResult
+	{
+
+		/** The number of source bytes. */
+		private final long bytes;
+
+		/** The failure or null if the file was processed successfully. */
+		private final Exception failure;
+
+		/** The elapsed time in nanoseconds. */
+		private final long nanos;
+
+		/** The source file. */
+		private final File source;
+
+		/** The target file. */
+		private final File target;
+
+		/**
+		 * Instantiates a new {@link FileResult}
+		 *
+		 * @param source
+		 *            the source file
+		 * @param target
+		 *            the target file
+		 * @param bytes
+		 *            the number of source bytes
+		 * @param nanos
+		 *            the elapsed time in nanoseconds
+		 * @param failure
+		 *            the failure or null if the file was processed successfully
+		 */
+		FileResult(final File source, final File target, final long bytes, final long nanos,
+			final Exception failure)
+		{
+			this.source = source;
+			this.target = target;
+			this.bytes = bytes;
+			this.nanos = nanos;
+			this.failure = failure;
+		}
+
+		/**
+		 * Gets the number of source bytes
+		 *
+		 * @return the number of source bytes
+		 */
+		public long getBytes()
+		{
+			return bytes;
+		}
+
+		/**
+		 * Gets the failure
+		 *
+		 * @return the failure or null if the file was processed successfully
+		 */
+		public Exception getFailure()
+		{
+			return failure;
+		}
+
+		/**
+		 * Gets the elapsed time in nanoseconds
+		 *
+		 * @return the elapsed time in nanoseconds
+		 */
+		public long getNanos()
+		{
+			return nanos;
+		}
+
+		/**
+		 * Gets the source file
+		 *
+		 * @return the source file
+		 */
+		public File getSource()
+		{
+			return source;
+		}
+
+		/**
+		 * Gets the target file
+		 *
+		 * @return the target file
+		 */
+		public File getTarget()
+		{
+			return target;
+		}
+
+		/**
+		 * Checks if the file was processed successfully
+		 *
+		 * @return true if the file was processed successfully
+		 */
+		public boolean isSuccess()
+		{
+			return failure == null;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public String toString()
+		{
+			return "FileResult [source=" + source + ", bytes=" + bytes + ", nanos=" + nanos
+				+ ", failure=" + failure + "]";
+		}
+
+	}
+
+}
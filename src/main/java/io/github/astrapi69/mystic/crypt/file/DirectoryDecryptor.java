@@ -0,0 +1,175 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.mystic.crypt.file;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Objects;
+import java.util.concurrent.ThreadFactory;
+
+import javax.crypto.Cipher;
+
+import io.github.astrapi69.crypt.data.model.CryptModel;
+import io.github.astrapi69.mystic.crypt.core.VirtualThreadExtensions;
+
+/**
+ * The class {@link DirectoryDecryptor} decrypts all files of a directory tree in parallel into a
+ * target directory with the same structure. The extension '.enc' is removed from the
+ * decrypted files
+ */
+public class DirectoryDecryptor extends AbstractDirectoryCryptor
+{
+
+	/**
+	 * Instantiates a new {@link DirectoryDecryptor} with one worker thread per available processor
+	 *
+	 * @param model
+	 *            the model with the password and the algorithm
+	 */
+	public DirectoryDecryptor(final CryptModel<Cipher, String, String> model)
+	{
+		this(model, Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Instantiates a new {@link DirectoryDecryptor} with the given number of worker threads
+	 *
+	 * @param model
+	 *            the model with the password and the algorithm
+	 * @param parallelism
+	 *            the number of worker threads
+	 */
+	public DirectoryDecryptor(final CryptModel<Cipher, String, String> model, final int parallelism)
+	{
+		this(model, parallelism, DEFAULT_SMALL_FILE_SIZE, DEFAULT_BATCH_SIZE, DEFAULT_CHUNK_SIZE);
+	}
+
+	/**
+	 * Instantiates a new {@link DirectoryDecryptor}
+	 *
+	 * @param model
+	 *            the model with the password and the algorithm
+	 * @param parallelism
+	 *            the number of worker threads
+	 * @param smallFileSize
+	 *            the size up to that a file is scheduled in a batch
+	 * @param batchSize
+	 *            the maximal number of files in a batch of small files
+	 * @param chunkSize
+	 *            the chunk size of the streamed files
+	 */
+	public DirectoryDecryptor(final CryptModel<Cipher, String, String> model, final int parallelism,
+		final long smallFileSize, final int batchSize, final int chunkSize)
+	{
+		super(model, parallelism, smallFileSize, batchSize, chunkSize);
+	}
+
+	/**
+	 * Instantiates a new {@link DirectoryDecryptor} with the given flag for atomic writes. If the
+	 * flag is true every target is written to a temporary file and the temporary files of a batch
+	 * are renamed together to their target files, so an existing target file is never truncated
+	 *
+	 * @param model
+	 *            the model with the password and the algorithm
+	 * @param parallelism
+	 *            the number of worker threads
+	 * @param smallFileSize
+	 *            the size up to that a file is scheduled in a batch
+	 * @param batchSize
+	 *            the maximal number of files in a batch of small files
+	 * @param chunkSize
+	 *            the chunk size of the streamed files
+	 * @param atomicWrite
+	 *            if this flag is true the target files are written atomically
+	 */
+	public DirectoryDecryptor(final CryptModel<Cipher, String, String> model, final int parallelism,
+		final long smallFileSize, final int batchSize, final int chunkSize,
+		final boolean atomicWrite)
+	{
+		super(model, parallelism, smallFileSize, batchSize, chunkSize, null, atomicWrite);
+	}
+
+	/**
+	 * Instantiates a new {@link DirectoryDecryptor} with the given number of worker threads and the
+	 * given thread factory, for instance the factory of virtual threads of
+	 * {@link VirtualThreadExtensions#newThreadFactory(String)}
+	 *
+	 * @param model
+	 *            the model with the password and the algorithm
+	 * @param parallelism
+	 *            the number of worker threads
+	 * @param threadFactory
+	 *            the thread factory of the worker threads
+	 */
+	public DirectoryDecryptor(final CryptModel<Cipher, String, String> model, final int parallelism,
+		final ThreadFactory threadFactory)
+	{
+		super(model, parallelism, DEFAULT_SMALL_FILE_SIZE, DEFAULT_BATCH_SIZE, DEFAULT_CHUNK_SIZE,
+			Objects.requireNonNull(threadFactory));
+	}
+
+	/**
+	 * Decrypts all files of the given source directory tree into the given target directory
+	 *
+	 * @param sourceDirectory
+	 *            the source directory
+	 * @param targetDirectory
+	 *            the target directory, that must not be inside the source directory
+	 * @return the results per file and the aggregate throughput
+	 * @throws IOException
+	 *             Signals that the directory tree could not be walked
+	 */
+	public DirectoryCryptResult decrypt(final File sourceDirectory, final File targetDirectory)
+		throws IOException
+	{
+		return process(sourceDirectory, targetDirectory);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected int getOperationMode()
+	{
+		return Cipher.DECRYPT_MODE;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected Path newTarget(final Path targetDirectory, final Path relativeSource)
+	{
+		final String relative = relativeSource.toString();
+		if (relative.endsWith(PBEFileEncryptor.DEFAULT_ENCRYPTED_FILE_EXTENSION))
+		{
+			return targetDirectory.resolve(relative.substring(0,
+				relative.length() - PBEFileEncryptor.DEFAULT_ENCRYPTED_FILE_EXTENSION.length()));
+		}
+		return targetDirectory.resolve(relative);
+	}
+
+}
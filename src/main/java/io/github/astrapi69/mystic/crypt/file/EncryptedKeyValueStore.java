@@ -0,0 +1,833 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.mystic.crypt.file;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.GeneralSecurityException;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32;
+
+import javax.crypto.Cipher;
+
+import io.github.astrapi69.crypt.data.model.CryptModel;
+import io.github.astrapi69.mystic.crypt.serialization.JavaObjectSerializer;
+import io.github.astrapi69.mystic.crypt.serialization.ObjectSerializer;
+
+/**
+ * The class {@link EncryptedKeyValueStore} is a small embedded store for point lookups of
+ * encrypted records by a string key. All records are appended to one data file and every record
+ * is encrypted on its own with the cipher configuration of the given {@link CryptModel} and
+ * authenticated with a HmacSHA256. An in-memory open addressing index maps a keyed tag of the key
+ * to the offset of the record, so a lookup is one positioned read and the decryption of one small
+ * record and the plain keys are never stored unencrypted.<br>
+ * <br>
+ * Overwritten and removed records stay in the data file as dead records until a compaction copies
+ * the live records to a new data file. The compaction runs on a background thread if the dead
+ * records exceed the given ratio of the data file and can also be started explicitly with
+ * {@link #compact()}. A failed background compaction is thrown by the next call of
+ * {@link #put(String, Object)}, {@link #remove(String)}, {@link #flush()} or {@link #close()}.
+ * The record format is: the int length of the encrypted bytes, the long tag of the key, the type
+ * byte, the int checksum of the header, the random salt and initialization vector of the record,
+ * the encrypted key and value and the 32 bytes of the mac. A header with a wrong checksum before
+ * the end of the data file fails the loading, so a corrupted length is not mistaken for an
+ * incomplete last record. This class is thread safe
+ *
+ * @param <V>
+ *            the generic type of the values
+ */
+public class EncryptedKeyValueStore<V> implements Closeable
+{
+
+	/** The constant for the default ratio of dead records that triggers a compaction. */
+	public static final double DEFAULT_COMPACTION_RATIO = 0.5;
+
+	/** The constant for the minimal size of the dead records that triggers a compaction. */
+	public static final long MIN_COMPACTION_SIZE = 1024 * 1024;
+
+	/** The constant for the magic number at the start of the data file. */
+	static final int FILE_MAGIC = 0x4D434B56;
+
+	/** The constant for the offset of the checksum in the record header. */
+	static final int CHECKSUM_OFFSET = Integer.BYTES + Long.BYTES + 1;
+
+	/** The constant for the size of the record header. */
+	static final int RECORD_HEADER_SIZE = CHECKSUM_OFFSET + Integer.BYTES;
+
+	/** The constant for the type of a record with a value. */
+	private static final byte PUT = 0;
+
+	/** The constant for the type of a record that removes a key. */
+	private static final byte REMOVE = 1;
+
+	/** The constant for the number of bytes that are read speculative on a lookup. */
+	private static final int READ_AHEAD_SIZE = 512;
+
+	/** The ratio of dead records that triggers a background compaction. */
+	private final double compactionRatio;
+
+	/** The failure of the last background compaction that is not yet reported. */
+	private final AtomicReference<IOException> compactionFailure = new AtomicReference<>();
+
+	/** The lock that serializes the compactions. */
+	private final Lock compactionLock = new ReentrantLock();
+
+	/** The data file. */
+	private final File dataFile;
+
+	/** The index from the key tags to the record offsets. */
+	private final OffsetIndex index = new OffsetIndex(16);
+
+	/** The lock that guards the index and the data file. */
+	private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+	/** The cipher for the encryption and authentication of the records. */
+	private final RecordCipher recordCipher;
+
+	/** The serializer of the values. */
+	private final ObjectSerializer<V> serializer;
+
+	/** The channel of the data file. */
+	private FileChannel channel;
+
+	/** The flag if this store is closed. */
+	private boolean closed;
+
+	/** The running or last compaction. */
+	private Future<?> compaction;
+
+	/** The executor of the background compaction, created on the first compaction. */
+	private ExecutorService compactionExecutor;
+
+	/** The end position of the data file. */
+	private long endPosition;
+
+	/** The size of all live records. */
+	private long liveSize;
+
+	/**
+	 * Instantiates a new {@link EncryptedKeyValueStore} with the java serialization
+	 *
+	 * @param model
+	 *            the crypt model with the cipher configuration
+	 * @param dataFile
+	 *            the data file
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 * @throws GeneralSecurityException
+	 *             is thrown if the ciphers or the mac can not be created
+	 */
+	public EncryptedKeyValueStore(final CryptModel<Cipher, String, ?> model, final File dataFile)
+		throws IOException, GeneralSecurityException
+	{
+		this(model, dataFile, new JavaObjectSerializer<>());
+	}
+
+	/**
+	 * Instantiates a new {@link EncryptedKeyValueStore} with the default compaction ratio
+	 *
+	 * @param model
+	 *            the crypt model with the cipher configuration
+	 * @param dataFile
+	 *            the data file
+	 * @param serializer
+	 *            the serializer of the values
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 * @throws GeneralSecurityException
+	 *             is thrown if the ciphers or the mac can not be created
+	 */
+	public EncryptedKeyValueStore(final CryptModel<Cipher, String, ?> model, final File dataFile,
+		final ObjectSerializer<V> serializer) throws IOException, GeneralSecurityException
+	{
+		this(model, dataFile, serializer, DEFAULT_COMPACTION_RATIO);
+	}
+
+	/**
+	 * Instantiates a new {@link EncryptedKeyValueStore}. An existing data file is loaded and an
+	 * incomplete record at its end is truncated
+	 *
+	 * @param model
+	 *            the crypt model with the cipher configuration
+	 * @param dataFile
+	 *            the data file
+	 * @param serializer
+	 *            the serializer of the values
+	 * @param compactionRatio
+	 *            the ratio of dead records in the data file that triggers a background compaction,
+	 *            a value greater or equal 1 disables the background compaction
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 * @throws GeneralSecurityException
+	 *             is thrown if the ciphers or the mac can not be created
+	 */
+	public EncryptedKeyValueStore(final CryptModel<Cipher, String, ?> model, final File dataFile,
+		final ObjectSerializer<V> serializer, final double compactionRatio)
+		throws IOException, GeneralSecurityException
+	{
+		Objects.requireNonNull(model);
+		Objects.requireNonNull(dataFile);
+		Objects.requireNonNull(serializer);
+		if (!(0 < compactionRatio))
+		{
+			throw new IllegalArgumentException("compactionRatio must be positive");
+		}
+		this.dataFile = dataFile;
+		this.serializer = serializer;
+		this.compactionRatio = compactionRatio;
+		this.recordCipher = new RecordCipher(model);
+		load();
+	}
+
+	private static ByteBuffer newHeader(final int length, final long tag, final byte type)
+	{
+		final ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER_SIZE).putInt(length)
+			.putLong(tag).put(type);
+		final CRC32 checksum = new CRC32();
+		checksum.update(header.array(), 0, CHECKSUM_OFFSET);
+		return header.putInt((int)checksum.getValue()).flip();
+	}
+
+	/**
+	 * Closes this store, waits for a running compaction and forces the data file to the storage
+	 * device
+	 *
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred or the last background compaction
+	 *             failed
+	 */
+	@Override
+	public void close() throws IOException
+	{
+		final ExecutorService executor;
+		lock.writeLock().lock();
+		try
+		{
+			if (closed)
+			{
+				return;
+			}
+			closed = true;
+			executor = compactionExecutor;
+		}
+		finally
+		{
+			lock.writeLock().unlock();
+		}
+		if (executor != null)
+		{
+			executor.shutdown();
+			try
+			{
+				executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+			}
+			catch (final InterruptedException exception)
+			{
+				Thread.currentThread().interrupt();
+			}
+		}
+		compactionLock.lock();
+		try
+		{
+			lock.writeLock().lock();
+			try
+			{
+				channel.force(false);
+				channel.close();
+			}
+			finally
+			{
+				lock.writeLock().unlock();
+			}
+		}
+		finally
+		{
+			compactionLock.unlock();
+		}
+		throwCompactionFailure();
+	}
+
+	/**
+	 * Copies all live records to a new data file and replaces the current data file with it.
+	 * Lookups and writes are only blocked while the records that were written during the
+	 * compaction are copied. If the data file can not be replaced, the store keeps the current
+	 * data file and its offsets
+	 *
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	public void compact() throws IOException
+	{
+		compactionLock.lock();
+		try
+		{
+			final long[] liveOffsets;
+			final long snapshotEnd;
+			lock.readLock().lock();
+			try
+			{
+				ensureOpen();
+				liveOffsets = index.sortedOffsets();
+				snapshotEnd = endPosition;
+			}
+			finally
+			{
+				lock.readLock().unlock();
+			}
+			final File compactFile = new File(dataFile.getPath() + ".compact");
+			final long[] newOffsets = new long[liveOffsets.length];
+			try (FileChannel target = FileChannel.open(compactFile.toPath(),
+				StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING))
+			{
+				long position = writeMagic(target);
+				for (int i = 0; i < liveOffsets.length; i++)
+				{
+					// records are never modified, so the copy needs no lock
+					final ByteBuffer record = readRecord(liveOffsets[i], snapshotEnd);
+					newOffsets[i] = position;
+					position += write(target, record, position);
+				}
+				lock.writeLock().lock();
+				try
+				{
+					ensureOpen();
+					final long shift = position - snapshotEnd;
+					target.position(position);
+					for (long copied = snapshotEnd; copied < endPosition;)
+					{
+						copied += channel.transferTo(copied, endPosition - copied, target);
+					}
+					position += endPosition - snapshotEnd;
+					target.force(false);
+					channel.close();
+					try
+					{
+						Files.move(compactFile.toPath(), dataFile.toPath(),
+							StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+					}
+					catch (final IOException exception)
+					{
+						// the data file is unchanged, so the index is still valid
+						channel = openChannel();
+						throw exception;
+					}
+					index.replaceOffsets(offset -> offset < snapshotEnd
+						? newOffsets[Arrays.binarySearch(liveOffsets, offset)]
+						: offset + shift);
+					endPosition = position;
+					channel = openChannel();
+				}
+				finally
+				{
+					lock.writeLock().unlock();
+				}
+			}
+			finally
+			{
+				Files.deleteIfExists(compactFile.toPath());
+			}
+		}
+		finally
+		{
+			compactionLock.unlock();
+		}
+	}
+
+	/**
+	 * Checks if this store contains the given key
+	 *
+	 * @param key
+	 *            the key
+	 * @return true if this store contains the given key
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	public boolean containsKey(final String key) throws IOException
+	{
+		return get(key) != null;
+	}
+
+	/**
+	 * Forces all written records to the storage device
+	 *
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred or the last background compaction
+	 *             failed
+	 */
+	public void flush() throws IOException
+	{
+		throwCompactionFailure();
+		lock.readLock().lock();
+		try
+		{
+			ensureOpen();
+			channel.force(false);
+		}
+		finally
+		{
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Gets the value of the given key
+	 *
+	 * @param key
+	 *            the key
+	 * @return the value or null if this store does not contain the given key
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred or a record failed the
+	 *             authentication
+	 */
+	public V get(final String key) throws IOException
+	{
+		Objects.requireNonNull(key);
+		final byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+		final long tag = recordCipher.tag(keyBytes);
+		lock.readLock().lock();
+		try
+		{
+			ensureOpen();
+			for (int slot = index.find(tag, -1); 0 <= slot; slot = index.find(tag, slot))
+			{
+				final DataInputStream plain = decrypt(
+					readRecord(index.offsetAt(slot), endPosition));
+				if (key.equals(plain.readUTF()))
+				{
+					return serializer.deserialize(plain);
+				}
+			}
+			return null;
+		}
+		finally
+		{
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Gets the size of the data file including the dead records
+	 *
+	 * @return the size of the data file
+	 */
+	public long getFileSize()
+	{
+		lock.readLock().lock();
+		try
+		{
+			return endPosition;
+		}
+		finally
+		{
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Stores the given value with the given key and replaces an existing value
+	 *
+	 * @param key
+	 *            the key
+	 * @param value
+	 *            the value
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred or the last background compaction
+	 *             failed
+	 */
+	public void put(final String key, final V value) throws IOException
+	{
+		Objects.requireNonNull(key);
+		Objects.requireNonNull(value);
+		throwCompactionFailure();
+		final byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+		final long tag = recordCipher.tag(keyBytes);
+		final ByteArrayOutputStream plainBuffer = new ByteArrayOutputStream();
+		final DataOutputStream output = new DataOutputStream(plainBuffer);
+		output.writeUTF(key);
+		serializer.serialize(value, output);
+		output.flush();
+		final ByteBuffer record = newRecord(tag, PUT, plainBuffer);
+		lock.writeLock().lock();
+		try
+		{
+			ensureOpen();
+			final long offset = endPosition;
+			endPosition += write(channel, record, offset);
+			liveSize += record.capacity();
+			final int slot = findSlot(key, tag);
+			if (slot < 0)
+			{
+				index.add(tag, offset);
+			}
+			else
+			{
+				liveSize -= readRecord(index.offsetAt(slot), endPosition).capacity();
+				index.setOffset(slot, offset);
+			}
+		}
+		finally
+		{
+			lock.writeLock().unlock();
+		}
+		compactIfNeeded();
+	}
+
+	/**
+	 * Removes the given key
+	 *
+	 * @param key
+	 *            the key
+	 * @return true if this store contained the given key
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred or the last background compaction
+	 *             failed
+	 */
+	public boolean remove(final String key) throws IOException
+	{
+		Objects.requireNonNull(key);
+		throwCompactionFailure();
+		final byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+		final long tag = recordCipher.tag(keyBytes);
+		final ByteArrayOutputStream plainBuffer = new ByteArrayOutputStream();
+		final DataOutputStream output = new DataOutputStream(plainBuffer);
+		output.writeUTF(key);
+		output.flush();
+		lock.writeLock().lock();
+		try
+		{
+			ensureOpen();
+			final int slot = findSlot(key, tag);
+			if (slot < 0)
+			{
+				return false;
+			}
+			final ByteBuffer record = newRecord(tag, REMOVE, plainBuffer);
+			endPosition += write(channel, record, endPosition);
+			liveSize -= readRecord(index.offsetAt(slot), endPosition).capacity();
+			index.removeAt(slot);
+		}
+		finally
+		{
+			lock.writeLock().unlock();
+		}
+		compactIfNeeded();
+		return true;
+	}
+
+	/**
+	 * Gets the number of keys in this store
+	 *
+	 * @return the number of keys
+	 */
+	public int size()
+	{
+		lock.readLock().lock();
+		try
+		{
+			return index.size();
+		}
+		finally
+		{
+			lock.readLock().unlock();
+		}
+	}
+
+	private void compactIfNeeded()
+	{
+		lock.writeLock().lock();
+		try
+		{
+			final long deadSize = endPosition - Integer.BYTES - liveSize;
+			if (closed || compactionRatio >= 1 || deadSize < MIN_COMPACTION_SIZE
+				|| deadSize < endPosition * compactionRatio
+				|| compaction != null && !compaction.isDone())
+			{
+				return;
+			}
+			if (compactionExecutor == null)
+			{
+				compactionExecutor = Executors.newSingleThreadExecutor(runnable -> {
+					final Thread thread = new Thread(runnable, "compaction-" + dataFile.getName());
+					thread.setDaemon(true);
+					return thread;
+				});
+			}
+			compaction = compactionExecutor.submit(this::compactInBackground);
+		}
+		finally
+		{
+			lock.writeLock().unlock();
+		}
+	}
+
+	private void compactInBackground()
+	{
+		try
+		{
+			compact();
+		}
+		catch (final IOException | RuntimeException exception)
+		{
+			lock.readLock().lock();
+			try
+			{
+				// the compaction of a closed store stops and did not fail
+				if (!closed)
+				{
+					compactionFailure.set(new IOException(
+						"The background compaction of the file " + dataFile + " failed",
+						exception));
+				}
+			}
+			finally
+			{
+				lock.readLock().unlock();
+			}
+		}
+	}
+
+	private DataInputStream decrypt(final ByteBuffer record) throws IOException
+	{
+		final int length = record.getInt(0);
+		final byte[] encrypted = new byte[length];
+		final byte[] recordMac = new byte[RecordCipher.MAC_LENGTH];
+		record.get(RECORD_HEADER_SIZE, encrypted);
+		record.get(RECORD_HEADER_SIZE + length, recordMac);
+		if (!recordCipher.verify(record.slice(0, RECORD_HEADER_SIZE), encrypted, recordMac))
+		{
+			throw new IOException("A record of the data file failed the authentication");
+		}
+		return new DataInputStream(new ByteArrayInputStream(recordCipher.decrypt(encrypted)));
+	}
+
+	private void ensureOpen() throws IOException
+	{
+		if (closed)
+		{
+			throw new IOException("The store is closed");
+		}
+	}
+
+	private int findSlot(final String key, final long tag) throws IOException
+	{
+		for (int slot = index.find(tag, -1); 0 <= slot; slot = index.find(tag, slot))
+		{
+			if (key.equals(decrypt(readRecord(index.offsetAt(slot), endPosition)).readUTF()))
+			{
+				return slot;
+			}
+		}
+		return -1;
+	}
+
+	private void load() throws IOException
+	{
+		channel = FileChannel.open(dataFile.toPath(), StandardOpenOption.CREATE,
+			StandardOpenOption.READ, StandardOpenOption.WRITE);
+		final long fileSize = channel.size();
+		if (fileSize < Integer.BYTES)
+		{
+			endPosition = writeMagic(channel);
+			channel.truncate(endPosition);
+			return;
+		}
+		long position = Integer.BYTES;
+		try (DataInputStream input = new DataInputStream(
+			new BufferedInputStream(new FileInputStream(dataFile))))
+		{
+			if (input.readInt() != FILE_MAGIC)
+			{
+				channel.close();
+				throw new IOException("The file " + dataFile + " is not a key value store");
+			}
+			while (RECORD_HEADER_SIZE <= fileSize - position)
+			{
+				endPosition = position;
+				final int length = input.readInt();
+				final long tag = input.readLong();
+				final byte type = input.readByte();
+				final int checksum = input.readInt();
+				if (length < 0 || newHeader(length, tag, type).getInt(CHECKSUM_OFFSET) != checksum)
+				{
+					channel.close();
+					throw new IOException("The header of the record at the offset " + position
+						+ " of the file " + dataFile + " is corrupted");
+				}
+				final long recordSize = (long)RECORD_HEADER_SIZE + length
+					+ RecordCipher.MAC_LENGTH;
+				if (fileSize - position < recordSize)
+				{
+					// the length is verified, so the record is incomplete at the end of the file
+					break;
+				}
+				final byte[] encrypted = new byte[length];
+				final byte[] recordMac = new byte[RecordCipher.MAC_LENGTH];
+				input.readFully(encrypted);
+				input.readFully(recordMac);
+				if (!recordCipher.verify(newHeader(length, tag, type), encrypted, recordMac))
+				{
+					// only the last record can be a torn write
+					if (position + recordSize == fileSize)
+					{
+						break;
+					}
+					channel.close();
+					throw new IOException("The record at the offset " + position
+						+ " of the file " + dataFile + " failed the authentication");
+				}
+				final String key = new DataInputStream(
+					new ByteArrayInputStream(recordCipher.decrypt(encrypted))).readUTF();
+				final int slot = findSlot(key, tag);
+				if (0 <= slot)
+				{
+					liveSize -= readRecord(index.offsetAt(slot), endPosition).capacity();
+					if (type == PUT)
+					{
+						index.setOffset(slot, position);
+					}
+					else
+					{
+						index.removeAt(slot);
+					}
+				}
+				else if (type == PUT)
+				{
+					index.add(tag, position);
+				}
+				if (type == PUT)
+				{
+					liveSize += recordSize;
+				}
+				position += recordSize;
+			}
+		}
+		endPosition = position;
+		channel.truncate(endPosition);
+	}
+
+	private ByteBuffer newRecord(final long tag, final byte type,
+		final ByteArrayOutputStream plainBuffer) throws IOException
+	{
+		final byte[] encrypted = recordCipher.encrypt(plainBuffer.toByteArray(), 0,
+			plainBuffer.size());
+		final ByteBuffer header = newHeader(encrypted.length, tag, type);
+		final byte[] recordMac = recordCipher.authenticate(header, encrypted);
+		final ByteBuffer record = ByteBuffer
+			.allocate(RECORD_HEADER_SIZE + encrypted.length + RecordCipher.MAC_LENGTH);
+		record.put(header).put(encrypted).put(recordMac).flip();
+		return record;
+	}
+
+	private FileChannel openChannel() throws IOException
+	{
+		return FileChannel.open(dataFile.toPath(), StandardOpenOption.READ,
+			StandardOpenOption.WRITE);
+	}
+
+	private ByteBuffer readRecord(final long offset, final long limit) throws IOException
+	{
+		final ByteBuffer buffer = ByteBuffer
+			.allocate((int)Math.min(READ_AHEAD_SIZE, limit - offset));
+		readFully(buffer, offset);
+		final int recordSize = RECORD_HEADER_SIZE + buffer.getInt(0) + RecordCipher.MAC_LENGTH;
+		if (buffer.capacity() == recordSize)
+		{
+			return buffer.flip();
+		}
+		if (recordSize < buffer.capacity())
+		{
+			return buffer.flip().limit(recordSize).slice();
+		}
+		final ByteBuffer record = ByteBuffer.allocate(recordSize);
+		record.put(buffer.flip());
+		readFully(record, offset + buffer.limit());
+		return record.flip();
+	}
+
+	private void readFully(final ByteBuffer buffer, final long offset) throws IOException
+	{
+		long position = offset;
+		while (buffer.hasRemaining())
+		{
+			final int read = channel.read(buffer, position);
+			if (read < 0)
+			{
+				throw new EOFException("Unexpected end of the data file");
+			}
+			position += read;
+		}
+	}
+
+	private void throwCompactionFailure() throws IOException
+	{
+		final IOException failure = compactionFailure.getAndSet(null);
+		if (failure != null)
+		{
+			throw failure;
+		}
+	}
+
+	private static long write(final FileChannel target, final ByteBuffer record,
+		final long position) throws IOException
+	{
+		final ByteBuffer source = record.duplicate();
+		long current = position;
+		while (source.hasRemaining())
+		{
+			current += target.write(source, current);
+		}
+		return current - position;
+	}
+
+	private static long writeMagic(final FileChannel target) throws IOException
+	{
+		return write(target, ByteBuffer.allocate(Integer.BYTES).putInt(0, FILE_MAGIC), 0);
+	}
+
+}
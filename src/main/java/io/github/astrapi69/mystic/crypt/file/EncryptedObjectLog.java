@@ -0,0 +1,709 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.mystic.crypt.file;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.security.GeneralSecurityException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+import javax.crypto.Cipher;
+
+import io.github.astrapi69.crypt.data.model.CryptModel;
+import io.github.astrapi69.mystic.crypt.serialization.JavaObjectSerializer;
+import io.github.astrapi69.mystic.crypt.serialization.ObjectSerializer;
+
+/**
+ * The class {@link EncryptedObjectLog} is an encrypted append-only log of objects. In difference
+ * to the {@link GenericObjectEncryptor} that writes one object to one file, all records are
+ * appended to segment files in a given directory. Every record is length-prefixed, encrypted with
+ * the cipher configuration of the given {@link CryptModel} and authenticated with a HmacSHA256
+ * over the sequence number and the encrypted bytes, so a modified, truncated or reordered record
+ * is detected on replay.<br>
+ * <br>
+ * The records are written sequentially through a write buffer and the segment file is forced to
+ * the storage device only once per group of records (group commit). A record is durable after
+ * {@link #commit()} returned or after the group commit size is reached. On opening an existing log
+ * an incomplete record at the end of the last segment, for instance from a crash, is truncated,
+ * while a record before the end that fails the verification fails the opening. The header of every
+ * record has its own CRC32 checksum, so a corrupted length is not mistaken for the end of the
+ * segment.<br>
+ * <br>
+ * The record format is: the int length of the encrypted bytes, the long sequence number, the int
+ * checksum of the length and the sequence number, the encrypted bytes with the random salt and
+ * initialization vector of the record in front and the 32 bytes of the mac. This class is thread
+ * safe
+ *
+ * @param <T>
+ *            the generic type of the objects in the log
+ */
+public class EncryptedObjectLog<T> implements Closeable
+{
+
+	/** The constant for the default group commit size. */
+	public static final int DEFAULT_GROUP_COMMIT_SIZE = 64;
+
+	/** The constant for the default segment size. */
+	public static final long DEFAULT_SEGMENT_SIZE = 64L * 1024 * 1024;
+
+	/** The constant for the file extension of the segment files. */
+	public static final String SEGMENT_FILE_EXTENSION = ".log";
+
+	/** The constant for the offset of the checksum in the record header. */
+	static final int CHECKSUM_OFFSET = Integer.BYTES + Long.BYTES;
+
+	/** The constant for the size of the record header. */
+	static final int RECORD_HEADER_SIZE = CHECKSUM_OFFSET + Integer.BYTES;
+
+	/** The constant for the length of the record mac. */
+	static final int MAC_LENGTH = RecordCipher.MAC_LENGTH;
+
+	/** The constant for the magic number at the start of every segment file. */
+	static final int SEGMENT_MAGIC = 0x4D43454C;
+
+	/** The constant for the size of the write buffer. */
+	private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+	/** The directory of the segment files. */
+	private final File directory;
+
+	/** The number of records after that the segment file is forced. */
+	private final int groupCommitSize;
+
+	/** The cipher for the encryption and authentication of the records. */
+	private final RecordCipher recordCipher;
+
+	/** The reusable buffer for the serialized objects. */
+	private final ByteArrayOutputStream plainBuffer = new ByteArrayOutputStream();
+
+	/** The maximum size of a segment file. */
+	private final long segmentSize;
+
+	/** The serializer of the objects. */
+	private final ObjectSerializer<T> serializer;
+
+	/** The write buffer of the current segment. */
+	private final ByteBuffer writeBuffer = ByteBuffer.allocate(WRITE_BUFFER_SIZE);
+
+	/** The lock of the writes, that is also held while the segment file is forced. */
+	private final Lock lock = new ReentrantLock();
+
+	/** The flag if this log is closed. */
+	private boolean closed;
+
+	/** The channel of the current segment. */
+	private FileChannel segmentChannel;
+
+	/** The position in the current segment including the write buffer. */
+	private long segmentPosition;
+
+	/** The sequence number of the next record. */
+	private long nextSequence;
+
+	/** The number of records that are written but not forced. */
+	private int uncommitted;
+
+	/**
+	 * Instantiates a new {@link EncryptedObjectLog} with the java serialization and the default
+	 * sizes
+	 *
+	 * @param model
+	 *            the crypt model with the cipher configuration
+	 * @param directory
+	 *            the directory of the segment files
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 * @throws GeneralSecurityException
+	 *             is thrown if the ciphers or the mac can not be created
+	 */
+	public EncryptedObjectLog(final CryptModel<Cipher, String, ?> model, final File directory)
+		throws IOException, GeneralSecurityException
+	{
+		this(model, directory, new JavaObjectSerializer<>());
+	}
+
+	/**
+	 * Instantiates a new {@link EncryptedObjectLog} with the default sizes
+	 *
+	 * @param model
+	 *            the crypt model with the cipher configuration
+	 * @param directory
+	 *            the directory of the segment files
+	 * @param serializer
+	 *            the serializer of the objects
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 * @throws GeneralSecurityException
+	 *             is thrown if the ciphers or the mac can not be created
+	 */
+	public EncryptedObjectLog(final CryptModel<Cipher, String, ?> model, final File directory,
+		final ObjectSerializer<T> serializer) throws IOException, GeneralSecurityException
+	{
+		this(model, directory, serializer, DEFAULT_SEGMENT_SIZE, DEFAULT_GROUP_COMMIT_SIZE);
+	}
+
+	/**
+	 * Instantiates a new {@link EncryptedObjectLog}
+	 *
+	 * @param model
+	 *            the crypt model with the cipher configuration
+	 * @param directory
+	 *            the directory of the segment files
+	 * @param serializer
+	 *            the serializer of the objects
+	 * @param segmentSize
+	 *            the size after that a new segment file is started
+	 * @param groupCommitSize
+	 *            the number of records after that the segment file is forced to the storage device
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 * @throws GeneralSecurityException
+	 *             is thrown if the ciphers or the mac can not be created
+	 */
+	public EncryptedObjectLog(final CryptModel<Cipher, String, ?> model, final File directory,
+		final ObjectSerializer<T> serializer, final long segmentSize, final int groupCommitSize)
+		throws IOException, GeneralSecurityException
+	{
+		Objects.requireNonNull(model);
+		Objects.requireNonNull(directory);
+		Objects.requireNonNull(serializer);
+		if (segmentSize <= Integer.BYTES)
+		{
+			throw new IllegalArgumentException("segmentSize must be greater than 4");
+		}
+		if (groupCommitSize < 1)
+		{
+			throw new IllegalArgumentException("groupCommitSize must be positive");
+		}
+		if (!directory.isDirectory() && !directory.mkdirs())
+		{
+			throw new IOException("Could not create directory " + directory);
+		}
+		this.directory = directory;
+		this.serializer = serializer;
+		this.segmentSize = segmentSize;
+		this.groupCommitSize = groupCommitSize;
+		this.recordCipher = new RecordCipher(model);
+		recover();
+	}
+
+	/**
+	 * Appends the given object to this log. The record is durable after the next group commit
+	 *
+	 * @param object
+	 *            the object to append
+	 * @return the sequence number of the record
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	public long append(final T object) throws IOException
+	{
+		Objects.requireNonNull(object);
+		lock.lock();
+		try
+		{
+			ensureOpen();
+			final long sequence = write(object);
+			if (groupCommitSize <= uncommitted)
+			{
+				commit();
+			}
+			return sequence;
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Appends the given objects to this log and forces them to the storage device with one group
+	 * commit
+	 *
+	 * @param objects
+	 *            the objects to append
+	 * @return the sequence number of the first appended record
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	public long appendAll(final Collection<? extends T> objects) throws IOException
+	{
+		Objects.requireNonNull(objects);
+		lock.lock();
+		try
+		{
+			ensureOpen();
+			final long first = nextSequence;
+			for (final T object : objects)
+			{
+				Objects.requireNonNull(object);
+				write(object);
+			}
+			commit();
+			return first;
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Writes all buffered records to the current segment file and forces it to the storage device
+	 *
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	public void commit() throws IOException
+	{
+		lock.lock();
+		try
+		{
+			ensureOpen();
+			flushWriteBuffer();
+			if (0 < uncommitted)
+			{
+				segmentChannel.force(false);
+				uncommitted = 0;
+			}
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Gets the sequence number of the next appended record, that is also the number of records in
+	 * this log
+	 *
+	 * @return the sequence number of the next appended record
+	 */
+	public long getNextSequence()
+	{
+		lock.lock();
+		try
+		{
+			return nextSequence;
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Gets the segment files of this log in the order of the records
+	 *
+	 * @return the segment files
+	 */
+	public List<File> getSegmentFiles()
+	{
+		final File[] files = directory
+			.listFiles((dir, name) -> name.endsWith(SEGMENT_FILE_EXTENSION));
+		if (files == null)
+		{
+			return new ArrayList<>();
+		}
+		Arrays.sort(files);
+		return new ArrayList<>(Arrays.asList(files));
+	}
+
+	/**
+	 * Commits the buffered records and returns an iterator that replays all records of this log
+	 * sequentially. A record that fails the authentication causes an {@link UncheckedIOException}
+	 * on iteration
+	 *
+	 * @return the iterator over the objects of this log
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	public RecordIterator replay() throws IOException
+	{
+		lock.lock();
+		try
+		{
+			ensureOpen();
+			commit();
+			return new RecordIterator(getSegmentFiles(), nextSequence);
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Commits the buffered records and closes this log
+	 *
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	@Override
+	public void close() throws IOException
+	{
+		lock.lock();
+		try
+		{
+			if (closed)
+			{
+				return;
+			}
+			try
+			{
+				commit();
+			}
+			finally
+			{
+				closed = true;
+				segmentChannel.close();
+			}
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	private void ensureOpen() throws IOException
+	{
+		if (closed)
+		{
+			throw new IOException("The log is closed");
+		}
+	}
+
+	private void flushWriteBuffer() throws IOException
+	{
+		writeBuffer.flip();
+		while (writeBuffer.hasRemaining())
+		{
+			segmentChannel.write(writeBuffer);
+		}
+		writeBuffer.clear();
+	}
+
+	private File newSegmentFile(final long firstSequence)
+	{
+		return new File(directory, String.format("%020d", firstSequence) + SEGMENT_FILE_EXTENSION);
+	}
+
+	private void openSegment(final File segmentFile, final long position) throws IOException
+	{
+		segmentChannel = FileChannel.open(segmentFile.toPath(), StandardOpenOption.CREATE,
+			StandardOpenOption.WRITE);
+		if (position == 0)
+		{
+			final ByteBuffer magic = ByteBuffer.allocate(Integer.BYTES).putInt(0, SEGMENT_MAGIC);
+			segmentChannel.write(magic, 0);
+			segmentChannel.force(true);
+			segmentPosition = Integer.BYTES;
+		}
+		else
+		{
+			segmentChannel.truncate(position);
+			segmentPosition = position;
+		}
+		segmentChannel.position(segmentPosition);
+	}
+
+	private void recover() throws IOException
+	{
+		final List<File> segmentFiles = getSegmentFiles();
+		if (segmentFiles.isEmpty())
+		{
+			openSegment(newSegmentFile(0), 0);
+			return;
+		}
+		final File lastSegment = segmentFiles.get(segmentFiles.size() - 1);
+		long sequence = Long.parseLong(lastSegment.getName().substring(0,
+			lastSegment.getName().length() - SEGMENT_FILE_EXTENSION.length()));
+		long validPosition = 0;
+		try (DataInputStream input = new DataInputStream(
+			new BufferedInputStream(new FileInputStream(lastSegment))))
+		{
+			if (lastSegment.length() < Integer.BYTES)
+			{
+				validPosition = 0;
+			}
+			else if (input.readInt() != SEGMENT_MAGIC)
+			{
+				throw new IOException("The file " + lastSegment + " is not a log segment");
+			}
+			else
+			{
+				validPosition = Integer.BYTES;
+				byte[] encrypted;
+				while ((encrypted = readRecord(input, sequence,
+					lastSegment.length() - validPosition)) != null)
+				{
+					validPosition += RECORD_HEADER_SIZE + encrypted.length + MAC_LENGTH;
+					sequence++;
+				}
+			}
+		}
+		nextSequence = sequence;
+		openSegment(lastSegment, validPosition);
+	}
+
+	/**
+	 * Reads the record at the current position of the given input. An incomplete record or a
+	 * record that fails the verification and ends at the end of the file is a torn write of the
+	 * last record and not an error. A complete header with a wrong checksum is always an error
+	 *
+	 * @param input
+	 *            the input of the segment file
+	 * @param expectedSequence
+	 *            the expected sequence number of the record
+	 * @param remaining
+	 *            the number of bytes from the start of the record to the end of the file
+	 * @return the encrypted bytes of the record or null if the record is a torn write
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred or that a record before the end of the
+	 *             file failed the verification
+	 */
+	private byte[] readRecord(final DataInputStream input, final long expectedSequence,
+		final long remaining) throws IOException
+	{
+		if (remaining < RECORD_HEADER_SIZE)
+		{
+			return null;
+		}
+		final int length = input.readInt();
+		final long sequence = input.readLong();
+		final int checksum = input.readInt();
+		if (length < 0 || newHeader(length, sequence).getInt(CHECKSUM_OFFSET) != checksum)
+		{
+			throw new IOException("The header of the record " + expectedSequence + " is corrupted");
+		}
+		final long recordSize = (long)RECORD_HEADER_SIZE + length + MAC_LENGTH;
+		if (remaining < recordSize)
+		{
+			// the length is verified, so the record is incomplete at the end of the file
+			return null;
+		}
+		final byte[] encrypted = new byte[length];
+		final byte[] recordMac = new byte[MAC_LENGTH];
+		input.readFully(encrypted);
+		input.readFully(recordMac);
+		if (sequence != expectedSequence
+			|| !recordCipher.verify(newHeader(length, sequence), encrypted, recordMac))
+		{
+			// only the last record can be a torn write
+			if (remaining == recordSize)
+			{
+				return null;
+			}
+			throw new IOException(
+				"The record " + expectedSequence + " is modified or out of sequence");
+		}
+		return encrypted;
+	}
+
+	private static ByteBuffer newHeader(final int length, final long sequence)
+	{
+		final ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER_SIZE).putInt(length)
+			.putLong(sequence);
+		final CRC32 checksum = new CRC32();
+		checksum.update(header.array(), 0, CHECKSUM_OFFSET);
+		return header.putInt((int)checksum.getValue()).flip();
+	}
+
+	private long write(final T object) throws IOException
+	{
+		plainBuffer.reset();
+		serializer.serialize(object, plainBuffer);
+		final byte[] encrypted = recordCipher.encrypt(plainBuffer.toByteArray(), 0,
+			plainBuffer.size());
+		final long sequence = nextSequence;
+		final int recordSize = RECORD_HEADER_SIZE + encrypted.length + MAC_LENGTH;
+		if (segmentSize < segmentPosition + recordSize && Integer.BYTES < segmentPosition)
+		{
+			commit();
+			segmentChannel.close();
+			openSegment(newSegmentFile(sequence), 0);
+		}
+		final ByteBuffer header = newHeader(encrypted.length, sequence);
+		final byte[] recordMac = recordCipher.authenticate(header, encrypted);
+		if (writeBuffer.remaining() < recordSize)
+		{
+			flushWriteBuffer();
+		}
+		if (writeBuffer.remaining() < recordSize)
+		{
+			final ByteBuffer record = ByteBuffer.allocate(recordSize);
+			record.put(header).put(encrypted).put(recordMac);
+			record.flip();
+			while (record.hasRemaining())
+			{
+				segmentChannel.write(record);
+			}
+		}
+		else
+		{
+			writeBuffer.put(header).put(encrypted).put(recordMac);
+		}
+		segmentPosition += recordSize;
+		nextSequence = sequence + 1;
+		uncommitted++;
+		return sequence;
+	}
+
+	/**
+	 * The class {@link RecordIterator} replays the records of the log sequentially and verifies
+	 * the sequence numbers and the mac of every record
+	 */
+	public final class RecordIterator implements Iterator<T>, Closeable
+	{
+
+		/** The end sequence number that is exclusive. */
+		private final long endSequence;
+
+		/** The segment files to read. */
+		private final Iterator<File> segmentFiles;
+
+		/** The input of the current segment. */
+		private DataInputStream input;
+
+		/** The length of the current segment file. */
+		private long segmentLength;
+
+		/** The position of the next record in the current segment file. */
+		private long segmentPosition;
+
+		/** The sequence number of the next record. */
+		private long sequence;
+
+		private RecordIterator(final List<File> segmentFiles, final long endSequence)
+		{
+			this.segmentFiles = segmentFiles.iterator();
+			this.endSequence = endSequence;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public void close() throws IOException
+		{
+			if (input != null)
+			{
+				input.close();
+				input = null;
+			}
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public boolean hasNext()
+		{
+			return sequence < endSequence;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public T next()
+		{
+			if (!hasNext())
+			{
+				throw new NoSuchElementException();
+			}
+			try
+			{
+				final byte[] encrypted = readNext();
+				final byte[] plain = recordCipher.decrypt(encrypted);
+				sequence++;
+				final T object = serializer.deserialize(new ByteArrayInputStream(plain));
+				if (!hasNext())
+				{
+					close();
+				}
+				return object;
+			}
+			catch (final IOException exception)
+			{
+				throw new UncheckedIOException(exception);
+			}
+		}
+
+		private byte[] readNext() throws IOException
+		{
+			while (true)
+			{
+				if (input != null)
+				{
+					final byte[] encrypted = readRecord(input, sequence,
+						segmentLength - segmentPosition);
+					if (encrypted != null)
+					{
+						segmentPosition += RECORD_HEADER_SIZE + encrypted.length + MAC_LENGTH;
+						return encrypted;
+					}
+					input.close();
+					input = null;
+				}
+				if (!segmentFiles.hasNext())
+				{
+					throw new IOException(
+						"The record " + sequence + " is missing or failed the authentication");
+				}
+				final File segmentFile = segmentFiles.next();
+				segmentLength = segmentFile.length();
+				segmentPosition = Integer.BYTES;
+				input = new DataInputStream(
+					new BufferedInputStream(new FileInputStream(segmentFile)));
+				if (input.readInt() != SEGMENT_MAGIC)
+				{
+					throw new IOException("The segment file is not a log segment");
+				}
+			}
+		}
+
+	}
+
+}
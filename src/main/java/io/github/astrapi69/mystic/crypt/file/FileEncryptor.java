@@ -24,9 +24,12 @@
  */
 package io.github.astrapi69.mystic.crypt.file;
 
+import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.UnsupportedEncodingException;
 import java.security.InvalidAlgorithmParameterException;
@@ -34,6 +37,7 @@ import java.security.InvalidKeyException;
 import java.security.NoSuchAlgorithmException;
 import java.security.spec.InvalidKeySpecException;
 import java.util.List;
+import java.util.Objects;
 
 import javax.crypto.Cipher;
 import javax.crypto.NoSuchPaddingException;
@@ -43,9 +47,13 @@ import org.apache.commons.io.FilenameUtils;
 import io.github.astrapi69.crypt.data.factory.CipherFactory;
 import io.github.astrapi69.crypt.data.model.CryptModel;
 import io.github.astrapi69.crypt.data.model.CryptObjectDecorator;
+import io.github.astrapi69.mystic.crypt.compress.CompressionCodec;
+import io.github.astrapi69.mystic.crypt.compress.CompressionCodecs;
 import io.github.astrapi69.mystic.crypt.core.AbstractFileEncryptor;
+import io.github.astrapi69.mystic.crypt.core.CipherPool;
 import io.github.astrapi69.mystic.crypt.decorator.CryptObjectDecoratorExtensions;
 import io.github.astrapi69.mystic.crypt.io.CryptoCipherInputStream;
+import io.github.astrapi69.mystic.crypt.io.CryptoCipherOutputStream;
 
 /**
  * The class {@link FileEncryptor} can encrypt files with the given crypt model.
@@ -59,6 +67,12 @@ public class FileEncryptor extends AbstractFileEncryptor
 	/** The encrypted file. */
 	private File encryptedFile;
 
+	/** The optional codec that compresses the data before the encryption. */
+	private transient CompressionCodec compressionCodec;
+
+	/** The pool of the ciphers for the concurrent calls with a given target. */
+	private transient CipherPool cipherPool;
+
 	/**
 	 * Instantiates a new {@link FileEncryptor} object with the given {@link CryptModel}
 	 *
@@ -130,6 +144,41 @@ public class FileEncryptor extends AbstractFileEncryptor
 		this.encryptedFile = encryptedFile;
 	}
 
+	/**
+	 * Instantiates a new {@link FileEncryptor} object with the given {@link CryptModel}, the given
+	 * file and the given compression codec. The data is compressed before the encryption and the
+	 * codec is recorded in the header of the encrypted data, so the {@link FileDecryptor} can
+	 * decompress it while decrypting
+	 *
+	 * @param model
+	 *            the model
+	 * @param encryptedFile
+	 *            The file that is the target of the result from the encryption, if null the default
+	 *            file will be created.
+	 * @param compressionCodec
+	 *            the compression codec
+	 * @throws InvalidKeyException
+	 *             is thrown if initialization of the cipher object fails.
+	 * @throws NoSuchAlgorithmException
+	 *             is thrown if instantiation of the SecretKeyFactory object fails.
+	 * @throws InvalidKeySpecException
+	 *             is thrown if generation of the SecretKey object fails.
+	 * @throws NoSuchPaddingException
+	 *             the no such padding exception
+	 * @throws InvalidAlgorithmParameterException
+	 *             is thrown if initialization of the cipher object fails.
+	 * @throws UnsupportedEncodingException
+	 *             is thrown if the named charset is not supported.
+	 */
+	public FileEncryptor(final CryptModel<Cipher, String, String> model, final File encryptedFile,
+		final CompressionCodec compressionCodec)
+		throws InvalidKeyException, NoSuchAlgorithmException, InvalidKeySpecException,
+		NoSuchPaddingException, InvalidAlgorithmParameterException, UnsupportedEncodingException
+	{
+		this(model, encryptedFile);
+		this.compressionCodec = Objects.requireNonNull(compressionCodec);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -141,28 +190,37 @@ public class FileEncryptor extends AbstractFileEncryptor
 			final String filename = FilenameUtils.getBaseName(toEncrypt.getName());
 			encryptedFile = newEncryptedFile(toEncrypt.getParent(), filename + ".enc");
 		}
-		List<CryptObjectDecorator<String>> decorators = getModel().getDecorators();
-		if (decorators != null && !decorators.isEmpty())
-		{
-			for (int i = 0; i < decorators.size(); i++)
-			{
-				CryptObjectDecoratorExtensions.decorateFile(toEncrypt, decorators.get(i));
-			}
-		}
-		try (
-			CryptoCipherInputStream cis = new CryptoCipherInputStream(
-				new FileInputStream(toEncrypt), getModel().getCipher());
-			OutputStream out = new FileOutputStream(encryptedFile))
-		{
-			int c;
-			while ((c = cis.read()) != -1)
-			{
-				out.write(c);
-			}
-		}
+		decorate(toEncrypt);
+		write(toEncrypt, encryptedFile, getModel().getCipher());
 		return encryptedFile;
 	}
 
+	/**
+	 * Encrypts the given file to the given target file. In difference to {@link #encrypt(File)}
+	 * this method keeps no state, so the same instance can be reused for many files and shared
+	 * between threads. Every concurrent call uses its own pooled cipher, so the key is only derived
+	 * once per concurrent call and not once per file
+	 *
+	 * @param toEncrypt
+	 *            the file to encrypt
+	 * @param target
+	 *            the target of the encrypted data
+	 * @return the target file
+	 * @throws Exception
+	 *             is thrown if any error occurs on the execution
+	 */
+	public File encrypt(final File toEncrypt, final File target) throws Exception
+	{
+		Objects.requireNonNull(toEncrypt);
+		Objects.requireNonNull(target);
+		decorate(toEncrypt);
+		final CipherPool pool = getCipherPool();
+		final Cipher cipher = pool.acquire();
+		write(toEncrypt, target, cipher);
+		pool.release(cipher);
+		return target;
+	}
+
 	/**
 	 *
 	 * Factory method for creating the new decrypted {@link File} if it is not exists. This method
@@ -180,4 +238,54 @@ public class FileEncryptor extends AbstractFileEncryptor
 		return new File(parent, child);
 	}
 
+	private void decorate(final File toEncrypt) throws IOException
+	{
+		List<CryptObjectDecorator<String>> decorators = getModel().getDecorators();
+		if (decorators != null && !decorators.isEmpty())
+		{
+			for (int i = 0; i < decorators.size(); i++)
+			{
+				CryptObjectDecoratorExtensions.decorateFile(toEncrypt, decorators.get(i));
+			}
+		}
+	}
+
+	private synchronized CipherPool getCipherPool()
+	{
+		if (cipherPool == null)
+		{
+			cipherPool = new CipherPool(() -> newCipher(getModel().getKey()));
+		}
+		return cipherPool;
+	}
+
+	private void write(final File source, final File target, final Cipher cipher)
+		throws IOException
+	{
+		if (compressionCodec != null)
+		{
+			try (InputStream in = new FileInputStream(source);
+				OutputStream out = CompressionCodecs.compress(new CryptoCipherOutputStream(
+					new BufferedOutputStream(new FileOutputStream(target)), cipher),
+					compressionCodec))
+			{
+				in.transferTo(out);
+			}
+		}
+		else
+		{
+			try (
+				CryptoCipherInputStream cis = new CryptoCipherInputStream(
+					new FileInputStream(source), cipher);
+				OutputStream out = new FileOutputStream(target))
+			{
+				int c;
+				while ((c = cis.read()) != -1)
+				{
+					out.write(c);
+				}
+			}
+		}
+	}
+
 }
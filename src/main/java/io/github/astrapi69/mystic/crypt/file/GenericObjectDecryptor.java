@@ -28,12 +28,13 @@ import java.io.BufferedInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
-import java.io.ObjectInputStream;
 import java.io.UnsupportedEncodingException;
 import java.security.InvalidAlgorithmParameterException;
 import java.security.InvalidKeyException;
 import java.security.NoSuchAlgorithmException;
 import java.security.spec.InvalidKeySpecException;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Objects;
 
 import javax.crypto.Cipher;
@@ -42,6 +43,9 @@ import javax.crypto.NoSuchPaddingException;
 
 import io.github.astrapi69.crypt.data.model.CryptModel;
 import io.github.astrapi69.mystic.crypt.core.AbstractObjectDecryptor;
+import io.github.astrapi69.mystic.crypt.serialization.JavaObjectSerializer;
+import io.github.astrapi69.mystic.crypt.serialization.ObjectSerializer;
+import io.github.astrapi69.mystic.crypt.serialization.SerializerExtensions;
 
 /**
  * The class {@link GenericObjectDecryptor} can decrypt files from the given crypt model bean
@@ -57,6 +61,9 @@ public class GenericObjectDecryptor<R, D> extends AbstractObjectDecryptor<R, D>
 	/** The Constant serialVersionUID. */
 	private static final long serialVersionUID = 1L;
 
+	/** The known serializers, if empty the java serialization is used. */
+	private transient List<ObjectSerializer<? extends R>> serializers = List.of();
+
 	/**
 	 * Instantiates a new {@link GenericObjectDecryptor}
 	 *
@@ -82,6 +89,41 @@ public class GenericObjectDecryptor<R, D> extends AbstractObjectDecryptor<R, D>
 		super(model);
 	}
 
+	/**
+	 * Instantiates a new {@link GenericObjectDecryptor} that knows the given serializers. The
+	 * serializer is selected by the name that is recorded in the encrypted file, files without a
+	 * recorded serializer are read with the java serialization. The java serialization is only
+	 * used if a {@link JavaObjectSerializer} is in the given serializers, otherwise such files are
+	 * rejected
+	 *
+	 * @param model
+	 *            the model
+	 * @param serializers
+	 *            the known serializers
+	 * @throws InvalidKeyException
+	 *             the invalid key exception
+	 * @throws NoSuchAlgorithmException
+	 *             is thrown if instantiation of the SecretKeyFactory object fails.
+	 * @throws InvalidKeySpecException
+	 *             is thrown if generation of the SecretKey object fails.
+	 * @throws NoSuchPaddingException
+	 *             the no such padding exception
+	 * @throws InvalidAlgorithmParameterException
+	 *             is thrown if initialization of the cipher object fails.
+	 * @throws UnsupportedEncodingException
+	 *             is thrown if the named charset is not supported.
+	 */
+	@SafeVarargs
+	public GenericObjectDecryptor(final CryptModel<Cipher, String, D> model,
+		final ObjectSerializer<? extends R>... serializers)
+		throws InvalidKeyException, NoSuchAlgorithmException, InvalidKeySpecException,
+		NoSuchPaddingException, InvalidAlgorithmParameterException, UnsupportedEncodingException
+	{
+		this(model);
+		Objects.requireNonNull(serializers);
+		this.serializers = List.copyOf(Arrays.asList(serializers));
+	}
+
 	@Override
 	protected Cipher newCipher(String key, String algorithm, byte[] salt, int iterationCount,
 		int operationMode)
@@ -126,21 +168,18 @@ public class GenericObjectDecryptor<R, D> extends AbstractObjectDecryptor<R, D>
 		Objects.requireNonNull(encrypted);
 	}
 
-	@SuppressWarnings("unchecked")
-	private R onDecrypt(final File encrypted) throws IOException, ClassNotFoundException
+	private R onDecrypt(final File encrypted) throws IOException
 	{
 		Objects.requireNonNull(encrypted);
-		R genericObject = null;
 		Cipher cipher = getModel().getCipher();
-		try (
-			CipherInputStream cipherInputStream = new CipherInputStream(
-				new BufferedInputStream(new FileInputStream(encrypted)), cipher);
-			ObjectInputStream inputStream = new ObjectInputStream(cipherInputStream);)
+		final List<ObjectSerializer<? extends R>> knownSerializers = serializers != null
+			? serializers
+			: List.of();
+		try (CipherInputStream cipherInputStream = new CipherInputStream(
+			new BufferedInputStream(new FileInputStream(encrypted)), cipher))
 		{
-			genericObject = (R)inputStream.readObject();
-			inputStream.close();
+			return SerializerExtensions.read(cipherInputStream, knownSerializers);
 		}
-		return genericObject;
 	}
 
 }
@@ -42,6 +42,8 @@ import javax.crypto.NoSuchPaddingException;
 
 import io.github.astrapi69.crypt.data.model.CryptModel;
 import io.github.astrapi69.mystic.crypt.core.AbstractObjectEncryptor;
+import io.github.astrapi69.mystic.crypt.serialization.ObjectSerializer;
+import io.github.astrapi69.mystic.crypt.serialization.SerializerExtensions;
 
 /**
  * The class {@link GenericObjectEncryptor} can encrypt files with the given crypt model.
@@ -61,6 +63,11 @@ public class GenericObjectEncryptor<T, D> extends AbstractObjectEncryptor<T, D>
 	/** The encrypted file. */
 	private File encryptedFile;
 
+	/**
+	 * The optional serializer, if null the java serialization is used without a serializer header
+	 */
+	private transient ObjectSerializer<? super T> serializer;
+
 	/**
 	 * Instantiates a new file encryptor.
 	 *
@@ -93,6 +100,40 @@ public class GenericObjectEncryptor<T, D> extends AbstractObjectEncryptor<T, D>
 		this.encryptedFile = encryptedFile;
 	}
 
+	/**
+	 * Instantiates a new file encryptor that serializes the objects with the given serializer. The
+	 * name of the serializer is recorded in the encrypted file, so the
+	 * {@link GenericObjectDecryptor} can select the matching serializer
+	 *
+	 * @param model
+	 *            the model
+	 * @param encryptedFile
+	 *            is the target of the result from the encryption
+	 * @param serializer
+	 *            the serializer for the objects
+	 * @throws InvalidKeyException
+	 *             the invalid key exception
+	 * @throws NoSuchAlgorithmException
+	 *             is thrown if instantiation of the SecretKeyFactory object fails.
+	 * @throws InvalidKeySpecException
+	 *             is thrown if generation of the SecretKey object fails.
+	 * @throws NoSuchPaddingException
+	 *             the no such padding exception
+	 * @throws InvalidAlgorithmParameterException
+	 *             is thrown if initialization of the cipher object fails.
+	 * @throws UnsupportedEncodingException
+	 *             is thrown if the named charset is not supported.
+	 */
+	public GenericObjectEncryptor(final CryptModel<Cipher, String, D> model,
+		final File encryptedFile, final ObjectSerializer<? super T> serializer)
+		throws InvalidKeyException, NoSuchAlgorithmException, InvalidKeySpecException,
+		NoSuchPaddingException, InvalidAlgorithmParameterException, UnsupportedEncodingException
+	{
+		this(model, encryptedFile);
+		Objects.requireNonNull(serializer);
+		this.serializer = serializer;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -150,10 +191,16 @@ public class GenericObjectEncryptor<T, D> extends AbstractObjectEncryptor<T, D>
 		Cipher cipher = getModel().getCipher();
 		try (
 			CipherOutputStream cipherOutputStream = new CipherOutputStream(
-				new BufferedOutputStream(new FileOutputStream(this.encryptedFile)), cipher);
-			ObjectOutputStream outputStream = new ObjectOutputStream(cipherOutputStream);)
+				new BufferedOutputStream(new FileOutputStream(this.encryptedFile)), cipher))
 		{
+			if (serializer != null)
+			{
+				SerializerExtensions.write(toEncrypt, serializer, cipherOutputStream);
+				return;
+			}
+			ObjectOutputStream outputStream = new ObjectOutputStream(cipherOutputStream);
 			outputStream.writeObject(toEncrypt);
+			outputStream.flush();
 		}
 	}
 
@@ -0,0 +1,247 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.mystic.crypt.file;
+
+import java.util.Arrays;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * The class {@link OffsetIndex} is an open addressing hash table with linear probing from a 64 bit
+ * key tag to a file offset. The tags and the offsets are stored in two primitive arrays, so no
+ * objects are allocated per entry. Different keys can have the same tag, so a lookup iterates over
+ * all slots with the given tag and the caller compares the real keys. Removed entries are deleted
+ * with backward shifting, so no tombstones slow down later lookups. This class is not thread safe
+ */
+final class OffsetIndex
+{
+
+	/** The constant for an empty slot. */
+	static final long EMPTY = -1L;
+
+	/** The constant for the maximal load factor. */
+	private static final double MAX_LOAD_FACTOR = 0.6;
+
+	/** The offsets of the slots. */
+	private long[] offsets;
+
+	/** The number of entries. */
+	private int size;
+
+	/** The tags of the slots. */
+	private long[] tags;
+
+	/**
+	 * Instantiates a new {@link OffsetIndex}
+	 *
+	 * @param expectedSize
+	 *            the expected number of entries
+	 */
+	OffsetIndex(final int expectedSize)
+	{
+		int capacity = 16;
+		while (capacity * MAX_LOAD_FACTOR < expectedSize)
+		{
+			capacity <<= 1;
+		}
+		allocate(capacity);
+	}
+
+	private static int mix(final long tag)
+	{
+		final long hash = tag * 0x9E3779B97F4A7C15L;
+		return (int)(hash ^ hash >>> 32);
+	}
+
+	/**
+	 * Adds a new entry. An existing entry with the same tag is not replaced
+	 *
+	 * @param tag
+	 *            the tag
+	 * @param offset
+	 *            the offset that must not be negative
+	 */
+	void add(final long tag, final long offset)
+	{
+		if (tags.length * MAX_LOAD_FACTOR <= size + 1)
+		{
+			final long[] oldTags = tags;
+			final long[] oldOffsets = offsets;
+			allocate(tags.length << 1);
+			for (int i = 0; i < oldTags.length; i++)
+			{
+				if (oldOffsets[i] != EMPTY)
+				{
+					insert(oldTags[i], oldOffsets[i]);
+				}
+			}
+		}
+		insert(tag, offset);
+		size++;
+	}
+
+	/**
+	 * Finds the next slot with the given tag
+	 *
+	 * @param tag
+	 *            the tag
+	 * @param previousSlot
+	 *            the slot of the previous match or -1 for the first match
+	 * @return the slot or -1 if there are no more slots with the given tag
+	 */
+	int find(final long tag, final int previousSlot)
+	{
+		final int mask = tags.length - 1;
+		int slot = previousSlot < 0 ? mix(tag) & mask : previousSlot + 1 & mask;
+		while (offsets[slot] != EMPTY)
+		{
+			if (tags[slot] == tag)
+			{
+				return slot;
+			}
+			slot = slot + 1 & mask;
+		}
+		return -1;
+	}
+
+	/**
+	 * Gets the offset of the given slot
+	 *
+	 * @param slot
+	 *            the slot
+	 * @return the offset
+	 */
+	long offsetAt(final int slot)
+	{
+		return offsets[slot];
+	}
+
+	/**
+	 * Removes the entry of the given slot and shifts the following entries of the same probe
+	 * sequence backwards
+	 *
+	 * @param slot
+	 *            the slot
+	 */
+	void removeAt(final int slot)
+	{
+		final int mask = tags.length - 1;
+		int hole = slot;
+		int next = slot + 1 & mask;
+		while (offsets[next] != EMPTY)
+		{
+			final int home = mix(tags[next]) & mask;
+			// move the entry into the hole if the hole lies between its home and its slot
+			if ((next - home & mask) >= (next - hole & mask))
+			{
+				tags[hole] = tags[next];
+				offsets[hole] = offsets[next];
+				hole = next;
+			}
+			next = next + 1 & mask;
+		}
+		offsets[hole] = EMPTY;
+		size--;
+	}
+
+	/**
+	 * Replaces every offset with the result of the given function
+	 *
+	 * @param function
+	 *            the function
+	 */
+	void replaceOffsets(final LongUnaryOperator function)
+	{
+		for (int i = 0; i < offsets.length; i++)
+		{
+			if (offsets[i] != EMPTY)
+			{
+				offsets[i] = function.applyAsLong(offsets[i]);
+			}
+		}
+	}
+
+	/**
+	 * Sets the offset of the given slot
+	 *
+	 * @param slot
+	 *            the slot
+	 * @param offset
+	 *            the offset that must not be negative
+	 */
+	void setOffset(final int slot, final long offset)
+	{
+		offsets[slot] = offset;
+	}
+
+	/**
+	 * Gets the number of entries
+	 *
+	 * @return the number of entries
+	 */
+	int size()
+	{
+		return size;
+	}
+
+	/**
+	 * Gets the sorted offsets of all entries
+	 *
+	 * @return the sorted offsets
+	 */
+	long[] sortedOffsets()
+	{
+		final long[] result = new long[size];
+		int index = 0;
+		for (final long offset : offsets)
+		{
+			if (offset != EMPTY)
+			{
+				result[index++] = offset;
+			}
+		}
+		Arrays.sort(result);
+		return result;
+	}
+
+	private void allocate(final int capacity)
+	{
+		tags = new long[capacity];
+		offsets = new long[capacity];
+		Arrays.fill(offsets, EMPTY);
+	}
+
+	private void insert(final long tag, final long offset)
+	{
+		final int mask = tags.length - 1;
+		int slot = mix(tag) & mask;
+		while (offsets[slot] != EMPTY)
+		{
+			slot = slot + 1 & mask;
+		}
+		tags[slot] = tag;
+		offsets[slot] = offset;
+	}
+
+}
@@ -24,11 +24,14 @@
  */
 package io.github.astrapi69.mystic.crypt.file;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.UnsupportedEncodingException;
 import java.nio.charset.Charset;
 import java.security.InvalidAlgorithmParameterException;
@@ -50,9 +53,11 @@ import io.github.astrapi69.crypt.data.model.CryptObjectDecorator;
 import io.github.astrapi69.file.delete.DeleteFileExtensions;
 import io.github.astrapi69.file.read.ReadFileExtensions;
 import io.github.astrapi69.file.write.StoreFileExtensions;
+import io.github.astrapi69.mystic.crypt.compress.CompressionCodecs;
 import io.github.astrapi69.mystic.crypt.core.AbstractFileDecryptor;
+import io.github.astrapi69.mystic.crypt.core.CipherPool;
 import io.github.astrapi69.mystic.crypt.decorator.CryptObjectDecoratorExtensions;
-import io.github.astrapi69.mystic.crypt.io.CryptoCipherOutputStream;
+import io.github.astrapi69.mystic.crypt.io.CryptoCipherInputStream;
 
 /**
  * The class {@link PBEFileDecryptor} can decrypt files from the given crypt model bean.
@@ -70,6 +75,8 @@ public class PBEFileDecryptor extends AbstractFileDecryptor
 	 * deleted
 	 */
 	private final boolean deleteEncryptedFileAfterDecryption;
+	/** The pool of the ciphers for the concurrent calls with a given target. */
+	private transient CipherPool cipherPool;
 	/** The decrypted file. */
 	private File decryptedFile;
 	/** The decrypted file extension */
@@ -215,6 +222,36 @@ public class PBEFileDecryptor extends AbstractFileDecryptor
 		return decryptedFile;
 	}
 
+	/**
+	 * Decrypts the given encrypted file to the given target file. In difference to
+	 * {@link #decrypt(File)} this method keeps no state, so the same instance can be reused for
+	 * many files and shared between threads. Every concurrent call uses its own pooled cipher, so
+	 * the key is only derived once per concurrent call and not once per file
+	 *
+	 * @param encrypted
+	 *            the encrypted file
+	 * @param target
+	 *            the target of the decrypted data
+	 * @return the target file
+	 * @throws Exception
+	 *             is thrown if any error occurs on the execution
+	 */
+	public File decrypt(final File encrypted, final File target) throws Exception
+	{
+		Objects.requireNonNull(encrypted);
+		Objects.requireNonNull(target);
+		final CipherPool pool = getCipherPool();
+		final Cipher cipher = pool.acquire();
+		write(encrypted, target, cipher);
+		pool.release(cipher);
+		undecorate(target);
+		if (this.deleteEncryptedFileAfterDecryption)
+		{
+			DeleteFileExtensions.delete(encrypted);
+		}
+		return target;
+	}
+
 	/**
 	 *
 	 * Factory method for creating the new decrypted {@link File} if it is not exists. This method
@@ -243,18 +280,7 @@ public class PBEFileDecryptor extends AbstractFileDecryptor
 	protected void onAfterDecrypt(final File encrypted) throws IOException
 	{
 		Objects.requireNonNull(encrypted);
-		List<CryptObjectDecorator<String>> decorators = getModel().getDecorators();
-		if (decorators != null && !decorators.isEmpty())
-		{
-			String decryptedFileString = ReadFileExtensions.fromFile(decryptedFile);
-			for (int i = decorators.size() - 1; 0 <= i; i--)
-			{
-				decryptedFileString = CryptObjectDecoratorExtensions.undecorateFile(decryptedFile,
-					decorators.get(i));
-			}
-			StoreFileExtensions.toFile(decryptedFile, decryptedFileString,
-				Charset.forName("UTF-8").name());
-		}
+		undecorate(decryptedFile);
 		if (this.deleteEncryptedFileAfterDecryption)
 		{
 			DeleteFileExtensions.delete(encrypted);
@@ -289,17 +315,7 @@ public class PBEFileDecryptor extends AbstractFileDecryptor
 	protected void onDecrypt(final File encrypted) throws Exception
 	{
 		Objects.requireNonNull(encrypted);
-		try (FileOutputStream decryptedOut = new FileOutputStream(decryptedFile);
-			CryptoCipherOutputStream cos = new CryptoCipherOutputStream(decryptedOut,
-				getModel().getCipher());
-			InputStream fileInputStream = new FileInputStream(encrypted))
-		{
-			int c;
-			while ((c = fileInputStream.read()) != -1)
-			{
-				cos.write(c);
-			}
-		}
+		write(encrypted, decryptedFile, getModel().getCipher());
 	}
 
 	/**
@@ -316,4 +332,40 @@ public class PBEFileDecryptor extends AbstractFileDecryptor
 			algorithm);
 		return cipher;
 	}
+
+	private synchronized CipherPool getCipherPool()
+	{
+		if (cipherPool == null)
+		{
+			cipherPool = new CipherPool(() -> newCipher(getModel().getKey()));
+		}
+		return cipherPool;
+	}
+
+	private void undecorate(final File target) throws IOException
+	{
+		List<CryptObjectDecorator<String>> decorators = getModel().getDecorators();
+		if (decorators != null && !decorators.isEmpty())
+		{
+			String targetString = ReadFileExtensions.fromFile(target);
+			for (int i = decorators.size() - 1; 0 <= i; i--)
+			{
+				targetString = CryptObjectDecoratorExtensions.undecorateFile(target,
+					decorators.get(i));
+			}
+			StoreFileExtensions.toFile(target, targetString, Charset.forName("UTF-8").name());
+		}
+	}
+
+	private void write(final File encrypted, final File target, final Cipher cipher)
+		throws IOException
+	{
+		try (
+			InputStream decrypted = CompressionCodecs.decompress(new CryptoCipherInputStream(
+				new BufferedInputStream(new FileInputStream(encrypted)), cipher));
+			OutputStream decryptedOut = new BufferedOutputStream(new FileOutputStream(target)))
+		{
+			decrypted.transferTo(decryptedOut);
+		}
+	}
 }
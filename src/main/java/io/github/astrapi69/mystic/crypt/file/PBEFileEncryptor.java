@@ -24,9 +24,12 @@
  */
 package io.github.astrapi69.mystic.crypt.file;
 
+import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.UnsupportedEncodingException;
 import java.security.InvalidAlgorithmParameterException;
@@ -35,6 +38,7 @@ import java.security.NoSuchAlgorithmException;
 import java.security.spec.InvalidKeySpecException;
 import java.text.Normalizer;
 import java.util.List;
+import java.util.Objects;
 
 import javax.crypto.Cipher;
 import javax.crypto.NoSuchPaddingException;
@@ -45,9 +49,13 @@ import io.github.astrapi69.crypt.data.factory.CipherFactory;
 import io.github.astrapi69.crypt.data.model.CryptModel;
 import io.github.astrapi69.crypt.data.model.CryptObjectDecorator;
 import io.github.astrapi69.file.delete.DeleteFileExtensions;
+import io.github.astrapi69.mystic.crypt.compress.CompressionCodec;
+import io.github.astrapi69.mystic.crypt.compress.CompressionCodecs;
 import io.github.astrapi69.mystic.crypt.core.AbstractFileEncryptor;
+import io.github.astrapi69.mystic.crypt.core.CipherPool;
 import io.github.astrapi69.mystic.crypt.decorator.CryptObjectDecoratorExtensions;
 import io.github.astrapi69.mystic.crypt.io.CryptoCipherInputStream;
+import io.github.astrapi69.mystic.crypt.io.CryptoCipherOutputStream;
 
 /**
  * The class {@link PBEFileEncryptor} can encrypt files with the given crypt model.
@@ -64,6 +72,18 @@ public class PBEFileEncryptor extends AbstractFileEncryptor
 	 * only the encrypted file will be the result, otherwise both files will not be deleted
 	 */
 	private final boolean deleteFileAfterEncryption;
+
+	/**
+	 * If this flag is true the encrypted data is written to a temporary file that is forced and
+	 * renamed atomically to the encrypted file, the file to encrypt is deleted only after that
+	 */
+	private boolean atomicWrite;
+
+	/** The optional codec that compresses the data before the encryption. */
+	private transient CompressionCodec compressionCodec;
+
+	/** The pool of the ciphers for the concurrent calls with a given target. */
+	private transient CipherPool cipherPool;
 	/** The encrypted file. */
 	private File encryptedFile;
 	/** The encrypted file extension */
@@ -205,6 +225,89 @@ public class PBEFileEncryptor extends AbstractFileEncryptor
 		this.deleteFileAfterEncryption = deleteFileAfterEncryption;
 	}
 
+	/**
+	 * Instantiates a new {@link PBEFileEncryptor} object with the given {@link CryptModel}, the
+	 * given file and the given compression codec. The data is compressed before the encryption and
+	 * the codec is recorded in the header of the encrypted data, so the {@link PBEFileDecryptor}
+	 * can decompress it while decrypting
+	 *
+	 * @param model
+	 *            the model
+	 * @param encryptedFile
+	 *            The file that is the target of the result from the encryption, if null the default
+	 *            file will be created.
+	 * @param encryptedFileExtension
+	 *            the encrypted file extension
+	 * @param deleteFileAfterEncryption
+	 *            if this flag is true the given file that will be given for encryption will be
+	 *            deleted and only the encrypted file will be the result
+	 * @param compressionCodec
+	 *            the compression codec
+	 * @throws InvalidKeyException
+	 *             is thrown if initialization of the cipher object fails.
+	 * @throws NoSuchAlgorithmException
+	 *             is thrown if instantiation of the SecretKeyFactory object fails.
+	 * @throws InvalidKeySpecException
+	 *             is thrown if generation of the SecretKey object fails.
+	 * @throws NoSuchPaddingException
+	 *             the no such padding exception
+	 * @throws InvalidAlgorithmParameterException
+	 *             is thrown if initialization of the cipher object fails.
+	 * @throws UnsupportedEncodingException
+	 *             is thrown if the named charset is not supported.
+	 */
+	public PBEFileEncryptor(final CryptModel<Cipher, String, String> model,
+		final File encryptedFile, final String encryptedFileExtension,
+		final boolean deleteFileAfterEncryption, final CompressionCodec compressionCodec)
+		throws InvalidKeyException, NoSuchAlgorithmException, InvalidKeySpecException,
+		NoSuchPaddingException, InvalidAlgorithmParameterException, UnsupportedEncodingException
+	{
+		this(model, encryptedFile, encryptedFileExtension, deleteFileAfterEncryption);
+		this.compressionCodec = Objects.requireNonNull(compressionCodec);
+	}
+
+	/**
+	 * Instantiates a new {@link PBEFileEncryptor} object with the given {@link CryptModel}, the
+	 * given file and the given flag for atomic writes. If the flag is true a crash during the
+	 * encryption never leaves a truncated encrypted file, the encrypted data is written to a
+	 * temporary file that is forced to the storage device and renamed atomically to the encrypted
+	 * file. The file to encrypt is deleted only after the rename is durable
+	 *
+	 * @param model
+	 *            the model
+	 * @param encryptedFile
+	 *            The file that is the target of the result from the encryption, if null the default
+	 *            file will be created.
+	 * @param encryptedFileExtension
+	 *            the encrypted file extension
+	 * @param deleteFileAfterEncryption
+	 *            if this flag is true the given file that will be given for encryption will be
+	 *            deleted and only the encrypted file will be the result
+	 * @param atomicWrite
+	 *            if this flag is true the encrypted file is written atomically
+	 * @throws InvalidKeyException
+	 *             is thrown if initialization of the cipher object fails.
+	 * @throws NoSuchAlgorithmException
+	 *             is thrown if instantiation of the SecretKeyFactory object fails.
+	 * @throws InvalidKeySpecException
+	 *             is thrown if generation of the SecretKey object fails.
+	 * @throws NoSuchPaddingException
+	 *             the no such padding exception
+	 * @throws InvalidAlgorithmParameterException
+	 *             is thrown if initialization of the cipher object fails.
+	 * @throws UnsupportedEncodingException
+	 *             is thrown if the named charset is not supported.
+	 */
+	public PBEFileEncryptor(final CryptModel<Cipher, String, String> model,
+		final File encryptedFile, final String encryptedFileExtension,
+		final boolean deleteFileAfterEncryption, final boolean atomicWrite)
+		throws InvalidKeyException, NoSuchAlgorithmException, InvalidKeySpecException,
+		NoSuchPaddingException, InvalidAlgorithmParameterException, UnsupportedEncodingException
+	{
+		this(model, encryptedFile, encryptedFileExtension, deleteFileAfterEncryption);
+		this.atomicWrite = atomicWrite;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -217,32 +320,68 @@ public class PBEFileEncryptor extends AbstractFileEncryptor
 			encryptedFile = newEncryptedFile(toEncrypt.getParent(),
 				filename + encryptedFileExtension);
 		}
-		List<CryptObjectDecorator<String>> decorators = getModel().getDecorators();
-		if (decorators != null && !decorators.isEmpty())
-		{
-			for (int i = 0; i < decorators.size(); i++)
-			{
-				CryptObjectDecoratorExtensions.decorateFile(toEncrypt, decorators.get(i));
-			}
-		}
-		try (
-			CryptoCipherInputStream cis = new CryptoCipherInputStream(
-				new FileInputStream(toEncrypt), getModel().getCipher());
-			OutputStream out = new FileOutputStream(encryptedFile))
-		{
-			int c;
-			while ((c = cis.read()) != -1)
-			{
-				out.write(c);
-			}
-		}
-		if (this.deleteFileAfterEncryption)
-		{
-			DeleteFileExtensions.delete(toEncrypt);
-		}
+		decorate(toEncrypt);
+		encrypt(toEncrypt, encryptedFile, getModel().getCipher(), newAtomicFileBatch());
 		return encryptedFile;
 	}
 
+	/**
+	 * Encrypts the given file to the given target file. In difference to {@link #encrypt(File)}
+	 * this method keeps no state, so the same instance can be reused for many files and shared
+	 * between threads. Every concurrent call uses its own pooled cipher, so the key is only derived
+	 * once per concurrent call and not once per file
+	 *
+	 * @param toEncrypt
+	 *            the file to encrypt
+	 * @param target
+	 *            the target of the encrypted data
+	 * @return the target file
+	 * @throws Exception
+	 *             is thrown if any error occurs on the execution
+	 */
+	public File encrypt(final File toEncrypt, final File target) throws Exception
+	{
+		Objects.requireNonNull(toEncrypt);
+		Objects.requireNonNull(target);
+		decorate(toEncrypt);
+		final CipherPool pool = getCipherPool();
+		final Cipher cipher = pool.acquire();
+		encrypt(toEncrypt, target, cipher, newAtomicFileBatch());
+		pool.release(cipher);
+		return target;
+	}
+
+	/**
+	 * Encrypts the given file atomically to the given target file as part of the given batch. The
+	 * encrypted data is written to a temporary file that is renamed to the target file when the
+	 * given batch is committed, so the forces of many files are batched in bulk runs. The file to
+	 * encrypt is deleted on the commit of the batch if the flag deleteFileAfterEncryption is set.
+	 * Like {@link #encrypt(File, File)} this method keeps no state and can be called concurrently
+	 *
+	 * @param toEncrypt
+	 *            the file to encrypt
+	 * @param target
+	 *            the target of the encrypted data, it exists after the commit of the given batch
+	 * @param batch
+	 *            the batch that commits the target file
+	 * @return the target file
+	 * @throws Exception
+	 *             is thrown if any error occurs on the execution
+	 */
+	public File encrypt(final File toEncrypt, final File target, final AtomicFileBatch batch)
+		throws Exception
+	{
+		Objects.requireNonNull(toEncrypt);
+		Objects.requireNonNull(target);
+		Objects.requireNonNull(batch);
+		decorate(toEncrypt);
+		final CipherPool pool = getCipherPool();
+		final Cipher cipher = pool.acquire();
+		encrypt(toEncrypt, target, cipher, batch);
+		pool.release(cipher);
+		return target;
+	}
+
 	/**
 	 *
 	 * Factory method for creating the new decrypted {@link File} if it is not exists. This method
@@ -274,4 +413,85 @@ public class PBEFileEncryptor extends AbstractFileEncryptor
 			operationMode, algorithm);
 		return cipher;
 	}
+
+	private void decorate(final File toEncrypt) throws IOException
+	{
+		List<CryptObjectDecorator<String>> decorators = getModel().getDecorators();
+		if (decorators != null && !decorators.isEmpty())
+		{
+			for (int i = 0; i < decorators.size(); i++)
+			{
+				CryptObjectDecoratorExtensions.decorateFile(toEncrypt, decorators.get(i));
+			}
+		}
+	}
+
+	private void encrypt(final File toEncrypt, final File target, final Cipher cipher,
+		final AtomicFileBatch batch) throws IOException
+	{
+		if (batch == null)
+		{
+			write(toEncrypt, target, cipher);
+			if (this.deleteFileAfterEncryption)
+			{
+				DeleteFileExtensions.delete(toEncrypt);
+			}
+			return;
+		}
+		final File temporary = batch.newTemporaryFile(target);
+		try
+		{
+			write(toEncrypt, temporary, cipher);
+		}
+		catch (final IOException | RuntimeException exception)
+		{
+			temporary.delete();
+			throw exception;
+		}
+		batch.add(temporary, target, this.deleteFileAfterEncryption ? toEncrypt : null);
+	}
+
+	private synchronized CipherPool getCipherPool()
+	{
+		if (cipherPool == null)
+		{
+			cipherPool = new CipherPool(() -> newCipher(getModel().getKey()));
+		}
+		return cipherPool;
+	}
+
+	private AtomicFileBatch newAtomicFileBatch()
+	{
+		return this.atomicWrite ? new AtomicFileBatch(1) : null;
+	}
+
+	private void write(final File source, final File target, final Cipher cipher)
+		throws IOException
+	{
+		if (compressionCodec != null)
+		{
+			try (InputStream in = new FileInputStream(source);
+				OutputStream out = CompressionCodecs.compress(new CryptoCipherOutputStream(
+					new BufferedOutputStream(new FileOutputStream(target)), cipher),
+					compressionCodec))
+			{
+				in.transferTo(out);
+			}
+		}
+		else
+		{
+			try (
+				CryptoCipherInputStream cis = new CryptoCipherInputStream(
+					new FileInputStream(source), cipher);
+				OutputStream out = new FileOutputStream(target))
+			{
+				int c;
+				while ((c = cis.read()) != -1)
+				{
+					out.write(c);
+				}
+			}
+		}
+	}
+
 }
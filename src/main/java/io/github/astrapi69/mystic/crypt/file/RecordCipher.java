@@ -0,0 +1,264 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.mystic.crypt.file;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.security.spec.AlgorithmParameterSpec;
+import java.util.Arrays;
+import java.util.Objects;
+
+import javax.crypto.Cipher;
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.PBEKeySpec;
+import javax.crypto.spec.PBEParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+import io.github.astrapi69.crypt.api.algorithm.SunJCEAlgorithm;
+import io.github.astrapi69.crypt.api.algorithm.compound.CompoundAlgorithm;
+import io.github.astrapi69.crypt.data.model.CryptModel;
+
+/**
+ * The class {@link RecordCipher} encrypts, decrypts and authenticates small records with the
+ * password based cipher configuration of a {@link CryptModel}. The ciphers are created once and
+ * initialized for every record with a random salt and, for block ciphers with an initialization
+ * vector like AES, a random initialization vector. The salt and the initialization vector are
+ * stored in front of the encrypted bytes, so the record mac covers them and equal records never
+ * get the same key stream. As the key is derived for every record, a high iteration count of the
+ * model slows down every record. The mac key is derived from the key and the salt of the model
+ * with PBKDF2. This class is thread safe
+ */
+final class RecordCipher
+{
+
+	/** The constant for the length of a mac. */
+	static final int MAC_LENGTH = 32;
+
+	/** The constant for the length of the random salt of a record. */
+	static final int SALT_LENGTH = 8;
+
+	/** The constant for the algorithm of the mac. */
+	private static final String MAC_ALGORITHM = "HmacSHA256";
+
+	/** The constant for the domain of the record macs. */
+	private static final byte RECORD_DOMAIN = 0;
+
+	/** The constant for the domain of the key tags. */
+	private static final byte TAG_DOMAIN = 1;
+
+	/** The cipher for the decryption. */
+	private final Cipher decryptCipher;
+
+	/** The cipher for the encryption. */
+	private final Cipher encryptCipher;
+
+	/** The iteration count of the key derivation. */
+	private final int iterationCount;
+
+	/** The length of the initialization vector, 0 if the cipher is no block cipher. */
+	private final int ivLength;
+
+	/** The mac for the authentication. */
+	private final Mac mac;
+
+	/** The random generator of the salts and the initialization vectors. */
+	private final SecureRandom random = new SecureRandom();
+
+	/** The password based key. */
+	private final SecretKey secretKey;
+
+	/**
+	 * Instantiates a new {@link RecordCipher}
+	 *
+	 * @param model
+	 *            the crypt model with the cipher configuration
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 * @throws GeneralSecurityException
+	 *             is thrown if the ciphers or the mac can not be created
+	 */
+	RecordCipher(final CryptModel<Cipher, String, ?> model)
+		throws IOException, GeneralSecurityException
+	{
+		Objects.requireNonNull(model);
+		Objects.requireNonNull(model.getKey());
+		final String algorithm = model.getAlgorithm() != null
+			? model.getAlgorithm().getAlgorithm()
+			: SunJCEAlgorithm.PBEWithMD5AndDES.getAlgorithm();
+		final byte[] salt = model.getSalt() != null && 0 < model.getSalt().length
+			? model.getSalt()
+			: CompoundAlgorithm.SALT;
+		final int iterationCount = model.getIterationCount() != null
+			? model.getIterationCount()
+			: CompoundAlgorithm.ITERATIONCOUNT;
+		this.secretKey = SecretKeyFactory.getInstance(algorithm)
+			.generateSecret(new PBEKeySpec(model.getKey().toCharArray()));
+		this.iterationCount = iterationCount;
+		this.encryptCipher = Cipher.getInstance(algorithm);
+		this.decryptCipher = Cipher.getInstance(algorithm);
+		this.ivLength = encryptCipher.getBlockSize();
+		final byte[] macSalt = Arrays.copyOf(salt, salt.length + MAC_ALGORITHM.length());
+		System.arraycopy(MAC_ALGORITHM.getBytes(StandardCharsets.US_ASCII), 0, macSalt,
+			salt.length, MAC_ALGORITHM.length());
+		final byte[] macKey = SecretKeyFactory.getInstance("PBKDF2WithHmacSHA256")
+			.generateSecret(new PBEKeySpec(model.getKey().toCharArray(), macSalt,
+				Math.max(1, iterationCount), 256))
+			.getEncoded();
+		this.mac = Mac.getInstance(MAC_ALGORITHM);
+		this.mac.init(new SecretKeySpec(macKey, MAC_ALGORITHM));
+	}
+
+	/**
+	 * Computes the mac of a record from the given header and the given encrypted bytes
+	 *
+	 * @param header
+	 *            the header of the record
+	 * @param encrypted
+	 *            the encrypted bytes
+	 * @return the mac with the length {@link #MAC_LENGTH}
+	 */
+	synchronized byte[] authenticate(final ByteBuffer header, final byte[] encrypted)
+	{
+		mac.update(RECORD_DOMAIN);
+		mac.update(header.duplicate());
+		mac.update(encrypted);
+		return mac.doFinal();
+	}
+
+	/**
+	 * Decrypts the given bytes
+	 *
+	 * @param encrypted
+	 *            the encrypted bytes with the salt and the initialization vector in front
+	 * @return the decrypted bytes
+	 * @throws IOException
+	 *             Signals that the bytes can not be decrypted
+	 */
+	synchronized byte[] decrypt(final byte[] encrypted) throws IOException
+	{
+		final int parameterLength = SALT_LENGTH + ivLength;
+		if (encrypted.length < parameterLength)
+		{
+			throw new IOException("The encrypted bytes are shorter than the salt");
+		}
+		try
+		{
+			decryptCipher.init(Cipher.DECRYPT_MODE, secretKey,
+				newParameterSpec(Arrays.copyOf(encrypted, parameterLength)));
+			return decryptCipher.doFinal(encrypted, parameterLength,
+				encrypted.length - parameterLength);
+		}
+		catch (final GeneralSecurityException exception)
+		{
+			throw new IOException(exception);
+		}
+	}
+
+	/**
+	 * Encrypts the given bytes with a new random salt and initialization vector
+	 *
+	 * @param plain
+	 *            the array with the plain bytes
+	 * @param offset
+	 *            the offset in the array
+	 * @param length
+	 *            the number of bytes
+	 * @return the encrypted bytes with the salt and the initialization vector in front
+	 * @throws IOException
+	 *             Signals that the bytes can not be encrypted
+	 */
+	synchronized byte[] encrypt(final byte[] plain, final int offset, final int length)
+		throws IOException
+	{
+		final byte[] parameters = new byte[SALT_LENGTH + ivLength];
+		random.nextBytes(parameters);
+		try
+		{
+			encryptCipher.init(Cipher.ENCRYPT_MODE, secretKey, newParameterSpec(parameters));
+			final byte[] encrypted = Arrays.copyOf(parameters,
+				parameters.length + encryptCipher.getOutputSize(length));
+			final int encryptedLength = encryptCipher.doFinal(plain, offset, length, encrypted,
+				parameters.length);
+			return encrypted.length == parameters.length + encryptedLength
+				? encrypted
+				: Arrays.copyOf(encrypted, parameters.length + encryptedLength);
+		}
+		catch (final GeneralSecurityException exception)
+		{
+			throw new IOException(exception);
+		}
+	}
+
+	private AlgorithmParameterSpec newParameterSpec(final byte[] parameters)
+	{
+		final byte[] salt = Arrays.copyOf(parameters, SALT_LENGTH);
+		if (ivLength == 0)
+		{
+			return new PBEParameterSpec(salt, iterationCount);
+		}
+		// the initialization vector is ignored by the ciphers that derive it from the salt
+		return new PBEParameterSpec(salt, iterationCount,
+			new IvParameterSpec(parameters, SALT_LENGTH, ivLength));
+	}
+
+	/**
+	 * Computes a keyed 64 bit tag of the given bytes, so equal keys can be found without that the
+	 * plain keys are stored
+	 *
+	 * @param bytes
+	 *            the bytes
+	 * @return the tag
+	 */
+	synchronized long tag(final byte[] bytes)
+	{
+		mac.update(TAG_DOMAIN);
+		mac.update(bytes);
+		return ByteBuffer.wrap(mac.doFinal()).getLong();
+	}
+
+	/**
+	 * Verifies the given mac of a record
+	 *
+	 * @param header
+	 *            the header of the record
+	 * @param encrypted
+	 *            the encrypted bytes
+	 * @param recordMac
+	 *            the mac to verify
+	 * @return true if the mac is valid
+	 */
+	boolean verify(final ByteBuffer header, final byte[] encrypted, final byte[] recordMac)
+	{
+		return MessageDigest.isEqual(recordMac, authenticate(header, encrypted));
+	}
+
+}
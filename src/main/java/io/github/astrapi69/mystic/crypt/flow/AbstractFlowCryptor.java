@@ -0,0 +1,445 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.mystic.crypt.flow;
+
+import java.nio.ByteBuffer;
+import java.security.GeneralSecurityException;
+import java.text.Normalizer;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.crypto.Cipher;
+
+import io.github.astrapi69.crypt.api.algorithm.SunJCEAlgorithm;
+import io.github.astrapi69.crypt.data.factory.CipherFactory;
+import io.github.astrapi69.crypt.data.model.CryptModel;
+import io.github.astrapi69.mystic.crypt.core.ByteBufferPool;
+
+/**
+ * The abstract class {@link AbstractFlowCryptor} is a {@link Flow.Processor} that encrypts or
+ * decrypts the byte buffers of a publisher and publishes the processed byte buffers to one
+ * subscriber. Every published buffer is processed by the cipher as soon as it arrives, and the
+ * final block, for instance the padding or the authentication tag, is published when the publisher
+ * completes.<br>
+ * <br>
+ * The demand of the subscriber is passed to the publisher, so this processor never buffers more
+ * than the requested chunks and the final block. A chunk that the cipher only buffers, because it
+ * is smaller than a block, does not count to the demand and the next chunk is requested
+ * instead.<br>
+ * <br>
+ * The processed chunks are written into buffers of a {@link ByteBufferPool}. The subscriber can
+ * release a buffer with {@link #release(ByteBuffer)} after it is consumed, so the buffers are
+ * reused for the next chunks. A failure is signaled immediately and the chunks that are not yet
+ * published are dropped. An instance processes one stream and can not be subscribed again
+ */
+public abstract class AbstractFlowCryptor implements Flow.Processor<ByteBuffer, ByteBuffer>
+{
+
+	/** The constant for the default size of the pooled buffers. */
+	public static final int DEFAULT_BUFFER_SIZE = 64 * 1024 + 64;
+
+	/** The constant for the default maximum number of idle pooled buffers. */
+	public static final int DEFAULT_MAX_IDLE_BUFFERS = 16;
+
+	/** The pool of the buffers of the processed chunks. */
+	private final ByteBufferPool bufferPool;
+
+	/** The cipher of the stream. */
+	private final Cipher cipher;
+
+	/** The requests of the subscriber before this processor is subscribed to the publisher. */
+	private final AtomicLong deferredRequests = new AtomicLong();
+
+	/** The subscriber of the processed chunks. */
+	private final AtomicReference<Flow.Subscriber<? super ByteBuffer>> downstream;
+
+	/** The processed chunks that are not yet published. */
+	private final Queue<ByteBuffer> queue = new ConcurrentLinkedQueue<>();
+
+	/** The demand of the subscriber. */
+	private final AtomicLong requested = new AtomicLong();
+
+	/** The counter of the drain calls, so only one thread publishes at a time. */
+	private final AtomicInteger wip = new AtomicInteger();
+
+	/** The flag that indicates if the stream is cancelled or terminated. */
+	private volatile boolean cancelled;
+
+	/** The flag that indicates if the publisher is completed or failed. */
+	private volatile boolean done;
+
+	/** The failure of the stream or null. */
+	private volatile Throwable error;
+
+	/** The flag that indicates if the subscriber has received its subscription. */
+	private volatile boolean subscribed;
+
+	/** The subscription of the publisher. */
+	private volatile Flow.Subscription upstream;
+
+	/**
+	 * Instantiates a new {@link AbstractFlowCryptor}
+	 *
+	 * @param model
+	 *            the model with the password and the algorithm
+	 * @param bufferPool
+	 *            the pool of the buffers of the processed chunks
+	 * @throws GeneralSecurityException
+	 *             is thrown if the cipher can not be created
+	 */
+	protected AbstractFlowCryptor(final CryptModel<Cipher, String, String> model,
+		final ByteBufferPool bufferPool) throws GeneralSecurityException
+	{
+		Objects.requireNonNull(model);
+		Objects.requireNonNull(model.getKey());
+		Objects.requireNonNull(bufferPool);
+		final String algorithm = model.getAlgorithm() != null
+			? model.getAlgorithm().getAlgorithm()
+			: SunJCEAlgorithm.PBEWithMD5AndDES.getAlgorithm();
+		this.cipher = CipherFactory.newPBECipher(
+			Normalizer.normalize(model.getKey(), Normalizer.Form.NFC).toCharArray(),
+			getOperationMode(), algorithm);
+		this.bufferPool = bufferPool;
+		this.downstream = new AtomicReference<>();
+	}
+
+	/**
+	 * Gets the operation mode of the cipher
+	 *
+	 * @return the operation mode
+	 */
+	protected abstract int getOperationMode();
+
+	/**
+	 * Gets the pool of the buffers of the processed chunks
+	 *
+	 * @return the pool of the buffers
+	 */
+	public ByteBufferPool getBufferPool()
+	{
+		return bufferPool;
+	}
+
+	/**
+	 * Releases the given published buffer after it is consumed, so it can be reused for the next
+	 * chunks
+	 *
+	 * @param buffer
+	 *            the published buffer
+	 */
+	public void release(final ByteBuffer buffer)
+	{
+		bufferPool.release(buffer);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void subscribe(final Flow.Subscriber<? super ByteBuffer> subscriber)
+	{
+		Objects.requireNonNull(subscriber);
+		if (!downstream.compareAndSet(null, subscriber))
+		{
+			subscriber.onSubscribe(new Flow.Subscription()
+			{
+				@Override
+				public void request(final long n)
+				{
+				}
+
+				@Override
+				public void cancel()
+				{
+				}
+			});
+			subscriber.onError(new IllegalStateException("The processor is already subscribed"));
+			return;
+		}
+		subscriber.onSubscribe(new Subscription());
+		subscribed = true;
+		drain();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void onSubscribe(final Flow.Subscription subscription)
+	{
+		Objects.requireNonNull(subscription);
+		if (upstream != null || cancelled || done)
+		{
+			subscription.cancel();
+			return;
+		}
+		upstream = subscription;
+		final long deferred = deferredRequests.getAndSet(0);
+		if (0 < deferred)
+		{
+			subscription.request(deferred);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void onNext(final ByteBuffer item)
+	{
+		Objects.requireNonNull(item);
+		if (done || cancelled)
+		{
+			return;
+		}
+		ByteBuffer buffer = null;
+		try
+		{
+			buffer = bufferPool.acquire(cipher.getOutputSize(item.remaining()));
+			cipher.update(item, buffer);
+		}
+		catch (final GeneralSecurityException | RuntimeException exception)
+		{
+			upstream.cancel();
+			onError(exception);
+			return;
+		}
+		buffer.flip();
+		if (!buffer.hasRemaining())
+		{
+			bufferPool.release(buffer);
+			upstream.request(1);
+			return;
+		}
+		queue.offer(buffer);
+		drain();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void onError(final Throwable throwable)
+	{
+		Objects.requireNonNull(throwable);
+		if (done)
+		{
+			return;
+		}
+		error = throwable;
+		done = true;
+		drain();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void onComplete()
+	{
+		if (done || cancelled)
+		{
+			return;
+		}
+		try
+		{
+			final ByteBuffer buffer = bufferPool.acquire(cipher.getOutputSize(0));
+			cipher.doFinal(ByteBuffer.allocate(0), buffer);
+			buffer.flip();
+			if (buffer.hasRemaining())
+			{
+				queue.offer(buffer);
+			}
+			else
+			{
+				bufferPool.release(buffer);
+			}
+		}
+		catch (final GeneralSecurityException | RuntimeException exception)
+		{
+			error = exception;
+		}
+		done = true;
+		drain();
+	}
+
+	/**
+	 * Publishes the processed chunks as long as the subscriber demands them and signals the
+	 * termination after the last chunk. Only one thread publishes at a time, a call while another
+	 * thread publishes is executed by that thread
+	 */
+	private void drain()
+	{
+		if (wip.getAndIncrement() != 0)
+		{
+			return;
+		}
+		int missed = 1;
+		do
+		{
+			final Flow.Subscriber<? super ByteBuffer> subscriber = subscribed
+				? downstream.get()
+				: null;
+			while (subscriber != null && !cancelled)
+			{
+				final boolean terminated = done;
+				final Throwable throwable = error;
+				if (terminated && throwable != null)
+				{
+					cancelled = true;
+					clear();
+					subscriber.onError(throwable);
+					break;
+				}
+				final ByteBuffer buffer = queue.peek();
+				if (buffer == null)
+				{
+					if (terminated)
+					{
+						cancelled = true;
+						subscriber.onComplete();
+					}
+					break;
+				}
+				if (requested.get() == 0)
+				{
+					break;
+				}
+				queue.poll();
+				if (requested.get() != Long.MAX_VALUE)
+				{
+					requested.decrementAndGet();
+				}
+				subscriber.onNext(buffer);
+			}
+			if (cancelled)
+			{
+				clear();
+			}
+			missed = wip.addAndGet(-missed);
+		}
+		while (missed != 0);
+	}
+
+	/**
+	 * Releases the processed chunks that will not be published
+	 */
+	private void clear()
+	{
+		ByteBuffer buffer;
+		while ((buffer = queue.poll()) != null)
+		{
+			bufferPool.release(buffer);
+		}
+	}
+
+	/**
+	 * Passes the given demand to the publisher, or defers it until this processor is subscribed to
+	 * the publisher
+	 */
+	private void requestUpstream(final long n)
+	{
+		final Flow.Subscription subscription = upstream;
+		if (subscription != null)
+		{
+			subscription.request(n);
+			return;
+		}
+		add(deferredRequests, n);
+		final Flow.Subscription subscribed = upstream;
+		if (subscribed != null)
+		{
+			final long deferred = deferredRequests.getAndSet(0);
+			if (0 < deferred)
+			{
+				subscribed.request(deferred);
+			}
+		}
+	}
+
+	/**
+	 * Adds the given demand to the given counter, the sum is capped at {@link Long#MAX_VALUE}
+	 */
+	private static void add(final AtomicLong counter, final long n)
+	{
+		counter.accumulateAndGet(n, (current, added) -> {
+			final long sum = current + added;
+			return sum < 0 ? Long.MAX_VALUE : sum;
+		});
+	}
+
+	/**
+	 * The class {@link Subscription} is the subscription of the subscriber of the processed chunks
+	 */
+	private final class Subscription implements Flow.Subscription
+	{
+
+		@Override
+		public void request(final long n)
+		{
+			if (cancelled)
+			{
+				return;
+			}
+			if (n < 1)
+			{
+				final Flow.Subscription subscription = upstream;
+				if (subscription != null)
+				{
+					subscription.cancel();
+				}
+				error = new IllegalArgumentException("The demand must be positive: " + n);
+				done = true;
+				drain();
+				return;
+			}
+			add(requested, n);
+			requestUpstream(n);
+			drain();
+		}
+
+		@Override
+		public void cancel()
+		{
+			if (cancelled)
+			{
+				return;
+			}
+			cancelled = true;
+			final Flow.Subscription subscription = upstream;
+			if (subscription != null)
+			{
+				subscription.cancel();
+			}
+			drain();
+		}
+	}
+
+}
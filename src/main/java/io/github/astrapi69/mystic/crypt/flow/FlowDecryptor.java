@@ -0,0 +1,80 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.mystic.crypt.flow;
+
+import java.security.GeneralSecurityException;
+
+import javax.crypto.Cipher;
+
+import io.github.astrapi69.crypt.data.model.CryptModel;
+import io.github.astrapi69.mystic.crypt.core.ByteBufferPool;
+
+/**
+ * The class {@link FlowDecryptor} is a {@link java.util.concurrent.Flow.Processor} that decrypts
+ * the byte buffers of a publisher with respect to the demand of its subscriber
+ */
+public class FlowDecryptor extends AbstractFlowCryptor
+{
+
+	/**
+	 * Instantiates a new {@link FlowDecryptor} with a new buffer pool of the default size
+	 *
+	 * @param model
+	 *            the model with the password and the algorithm
+	 * @throws GeneralSecurityException
+	 *             is thrown if the cipher can not be created
+	 */
+	public FlowDecryptor(final CryptModel<Cipher, String, String> model)
+		throws GeneralSecurityException
+	{
+		this(model, new ByteBufferPool(DEFAULT_BUFFER_SIZE, DEFAULT_MAX_IDLE_BUFFERS));
+	}
+
+	/**
+	 * Instantiates a new {@link FlowDecryptor}
+	 *
+	 * @param model
+	 *            the model with the password and the algorithm
+	 * @param bufferPool
+	 *            the pool of the buffers of the decrypted chunks
+	 * @throws GeneralSecurityException
+	 *             is thrown if the cipher can not be created
+	 */
+	public FlowDecryptor(final CryptModel<Cipher, String, String> model,
+		final ByteBufferPool bufferPool) throws GeneralSecurityException
+	{
+		super(model, bufferPool);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected int getOperationMode()
+	{
+		return Cipher.DECRYPT_MODE;
+	}
+
+}
@@ -43,6 +43,7 @@ import io.github.astrapi69.crypt.data.factory.KeySpecFactory;
 import io.github.astrapi69.crypt.data.hex.HexExtensions;
 import io.github.astrapi69.crypt.data.model.CryptModel;
 import io.github.astrapi69.crypt.data.model.CryptObjectDecorator;
+import io.github.astrapi69.mystic.crypt.chainable.FusibleDecryptor;
 import io.github.astrapi69.mystic.crypt.core.AbstractStringDecryptor;
 import io.github.astrapi69.mystic.crypt.decorator.CryptObjectDecoratorExtensions;
 
@@ -51,7 +52,7 @@ import io.github.astrapi69.mystic.crypt.decorator.CryptObjectDecoratorExtensions
  * given String objects that was encrypted with {@link HexableEncryptor}. For an example see the
  * unit test.
  */
-public class HexableDecryptor extends AbstractStringDecryptor
+public class HexableDecryptor extends AbstractStringDecryptor implements FusibleDecryptor
 {
 
 	/** The Constant serialVersionUID. */
@@ -157,6 +158,25 @@ public class HexableDecryptor extends AbstractStringDecryptor
 		return string;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public byte[] decryptFused(byte[] encrypted) throws Exception
+	{
+		return getModel().getCipher().doFinal(encrypted);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean isFusible()
+	{
+		List<CryptObjectDecorator<String>> decorators = getModel().getDecorators();
+		return decorators == null || decorators.isEmpty();
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -46,6 +46,7 @@ import io.github.astrapi69.crypt.api.algorithm.Algorithm;
 import io.github.astrapi69.crypt.data.factory.KeySpecFactory;
 import io.github.astrapi69.crypt.data.model.CryptModel;
 import io.github.astrapi69.crypt.data.model.CryptObjectDecorator;
+import io.github.astrapi69.mystic.crypt.chainable.FusibleEncryptor;
 import io.github.astrapi69.mystic.crypt.core.AbstractStringEncryptor;
 import io.github.astrapi69.mystic.crypt.decorator.CryptObjectDecoratorExtensions;
 
@@ -54,7 +55,7 @@ import io.github.astrapi69.mystic.crypt.decorator.CryptObjectDecoratorExtensions
  * given String objects that can be decrypted with {@link HexableDecryptor}. For an example see the
  * unit test.
  */
-public class HexableEncryptor extends AbstractStringEncryptor
+public class HexableEncryptor extends AbstractStringEncryptor implements FusibleEncryptor
 {
 
 	/** The Constant serialVersionUID. */
@@ -110,10 +111,32 @@ public class HexableEncryptor extends AbstractStringEncryptor
 		this(privateKey, AesAlgorithm.AES);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
 	@Override
 	public byte[] encrypt(byte[] toEncrypt) throws Exception
 	{
-		throw new UnsupportedOperationException("");
+		return getModel().getCipher().doFinal(toEncrypt);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public byte[] encryptFused(byte[] toEncrypt) throws Exception
+	{
+		return encrypt(toEncrypt);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean isFusible()
+	{
+		List<CryptObjectDecorator<String>> decorators = getModel().getDecorators();
+		return decorators == null || decorators.isEmpty();
 	}
 
 	/**
@@ -0,0 +1,97 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.mystic.crypt.io;
+
+import java.io.FilterInputStream;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Objects;
+
+import javax.crypto.Cipher;
+
+/**
+ * The class {@link ChainedCipherInputStream} stacks the given {@link Cipher} objects as nested
+ * {@link CryptoCipherInputStream} objects over the given input stream. The read data is processed
+ * by the ciphers in the given order and flows through all layers in one pass, so only the small
+ * internal buffers of the cipher streams are held in memory instead of the full intermediate result
+ * of every stage. Closing this stream closes all layers and the given input stream
+ */
+public class ChainedCipherInputStream extends FilterInputStream
+{
+
+	/** The number of the stacked ciphers. */
+	private final int stageCount;
+
+	/**
+	 * Instantiates a new {@link ChainedCipherInputStream} object
+	 *
+	 * @param inputStream
+	 *            the input stream that provides the input of the first cipher
+	 * @param ciphers
+	 *            the initialized ciphers in the order of the processing
+	 */
+	public ChainedCipherInputStream(final InputStream inputStream, final Cipher... ciphers)
+	{
+		super(stack(inputStream, List.of(ciphers)));
+		this.stageCount = ciphers.length;
+	}
+
+	/**
+	 * Instantiates a new {@link ChainedCipherInputStream} object
+	 *
+	 * @param inputStream
+	 *            the input stream that provides the input of the first cipher
+	 * @param ciphers
+	 *            the initialized ciphers in the order of the processing
+	 */
+	public ChainedCipherInputStream(final InputStream inputStream, final List<Cipher> ciphers)
+	{
+		super(stack(inputStream, ciphers));
+		this.stageCount = ciphers.size();
+	}
+
+	private static InputStream stack(final InputStream inputStream, final List<Cipher> ciphers)
+	{
+		Objects.requireNonNull(inputStream);
+		Objects.requireNonNull(ciphers);
+		InputStream stacked = inputStream;
+		for (final Cipher cipher : ciphers)
+		{
+			stacked = new CryptoCipherInputStream(stacked, Objects.requireNonNull(cipher));
+		}
+		return stacked;
+	}
+
+	/**
+	 * Gets the number of the stacked ciphers
+	 *
+	 * @return the number of the stacked ciphers
+	 */
+	public int getStageCount()
+	{
+		return stageCount;
+	}
+
+}
@@ -0,0 +1,108 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.mystic.crypt.io;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Objects;
+
+import javax.crypto.Cipher;
+
+/**
+ * The class {@link ChainedCipherOutputStream} stacks the given {@link Cipher} objects as nested
+ * {@link CryptoCipherOutputStream} objects over the given output stream. The written data is
+ * processed by the ciphers in the given order and flows through all layers in one pass, so only the
+ * small internal buffers of the cipher streams are held in memory instead of the full intermediate
+ * result of every stage. Closing this stream finishes all ciphers from the first to the last and
+ * closes the given output stream
+ */
+public class ChainedCipherOutputStream extends FilterOutputStream
+{
+
+	/** The number of the stacked ciphers. */
+	private final int stageCount;
+
+	/**
+	 * Instantiates a new {@link ChainedCipherOutputStream} object
+	 *
+	 * @param outputStream
+	 *            the output stream that receives the result of the last cipher
+	 * @param ciphers
+	 *            the initialized ciphers in the order of the processing
+	 */
+	public ChainedCipherOutputStream(final OutputStream outputStream, final Cipher... ciphers)
+	{
+		super(stack(outputStream, List.of(ciphers)));
+		this.stageCount = ciphers.length;
+	}
+
+	/**
+	 * Instantiates a new {@link ChainedCipherOutputStream} object
+	 *
+	 * @param outputStream
+	 *            the output stream that receives the result of the last cipher
+	 * @param ciphers
+	 *            the initialized ciphers in the order of the processing
+	 */
+	public ChainedCipherOutputStream(final OutputStream outputStream, final List<Cipher> ciphers)
+	{
+		super(stack(outputStream, ciphers));
+		this.stageCount = ciphers.size();
+	}
+
+	private static OutputStream stack(final OutputStream outputStream, final List<Cipher> ciphers)
+	{
+		Objects.requireNonNull(outputStream);
+		Objects.requireNonNull(ciphers);
+		OutputStream stacked = outputStream;
+		for (int i = ciphers.size() - 1; 0 <= i; i--)
+		{
+			stacked = new CryptoCipherOutputStream(stacked, Objects.requireNonNull(ciphers.get(i)));
+		}
+		return stacked;
+	}
+
+	/**
+	 * Gets the number of the stacked ciphers
+	 *
+	 * @return the number of the stacked ciphers
+	 */
+	public int getStageCount()
+	{
+		return stageCount;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void write(final byte[] bytes, final int offset, final int length) throws IOException
+	{
+		out.write(bytes, offset, length);
+	}
+
+}
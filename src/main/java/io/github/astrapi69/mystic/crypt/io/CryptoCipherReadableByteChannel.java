@@ -0,0 +1,231 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.mystic.crypt.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ReadableByteChannel;
+import java.security.GeneralSecurityException;
+import java.util.Objects;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import javax.crypto.Cipher;
+
+/**
+ * The class {@link CryptoCipherReadableByteChannel} is a {@link ReadableByteChannel} that reads
+ * the bytes of the given channel into a direct buffer and processes them with a {@link Cipher}.
+ * The processed bytes are written directly into the buffer of the caller if it has enough space,
+ * otherwise they are held in a direct buffer until they are read, so a transfer from this channel
+ * into a file or a socket needs no intermediate byte arrays. The final block is processed when the
+ * given channel reaches its end. If the given channel is in non-blocking mode and has no bytes
+ * available, a read returns zero
+ */
+public class CryptoCipherReadableByteChannel implements ReadableByteChannel
+{
+
+	/** The constant for the default buffer size. */
+	public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+	/** The source channel. */
+	private final ReadableByteChannel channel;
+
+	/** The cipher. */
+	private final Cipher cipher;
+
+	/** The flag that indicates if the final block is processed. */
+	private boolean finished;
+
+	/** The buffer of the bytes that are read from the source channel. */
+	private final ByteBuffer input;
+
+	/** The lock of the reads and the close. */
+	private final Lock lock = new ReentrantLock();
+
+	/** The flag that indicates if this channel is open. */
+	private volatile boolean open = true;
+
+	/** The buffer of the processed bytes that are not yet read. */
+	private ByteBuffer output;
+
+	/**
+	 * Instantiates a new {@link CryptoCipherReadableByteChannel} with the default buffer size
+	 *
+	 * @param channel
+	 *            the source channel
+	 * @param cipher
+	 *            the cipher
+	 */
+	public CryptoCipherReadableByteChannel(final ReadableByteChannel channel, final Cipher cipher)
+	{
+		this(channel, cipher, DEFAULT_BUFFER_SIZE);
+	}
+
+	/**
+	 * Instantiates a new {@link CryptoCipherReadableByteChannel}
+	 *
+	 * @param channel
+	 *            the source channel
+	 * @param cipher
+	 *            the cipher
+	 * @param bufferSize
+	 *            the size of the buffer of the bytes that are read from the source channel
+	 */
+	public CryptoCipherReadableByteChannel(final ReadableByteChannel channel, final Cipher cipher,
+		final int bufferSize)
+	{
+		Objects.requireNonNull(channel);
+		Objects.requireNonNull(cipher);
+		if (bufferSize < 1)
+		{
+			throw new IllegalArgumentException("bufferSize must be positive: " + bufferSize);
+		}
+		this.channel = channel;
+		this.cipher = cipher;
+		this.input = ByteBuffer.allocateDirect(bufferSize);
+		this.output = ByteBuffer.allocateDirect(bufferSize);
+		this.output.flip();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int read(final ByteBuffer target) throws IOException
+	{
+		Objects.requireNonNull(target);
+		lock.lock();
+		try
+		{
+			if (!open)
+			{
+				throw new ClosedChannelException();
+			}
+			if (!target.hasRemaining())
+			{
+				return 0;
+			}
+			while (!output.hasRemaining())
+			{
+				if (finished)
+				{
+					return -1;
+				}
+				final int count = channel.read(input);
+				if (count == 0)
+				{
+					return 0;
+				}
+				input.flip();
+				try
+				{
+					final int outputSize = cipher.getOutputSize(input.remaining());
+					final ByteBuffer processed = outputSize <= target.remaining()
+						? target
+						: output(outputSize);
+					final int position = processed.position();
+					if (count < 0)
+					{
+						finished = true;
+						cipher.doFinal(input, processed);
+					}
+					else
+					{
+						cipher.update(input, processed);
+					}
+					input.clear();
+					if (processed == output)
+					{
+						output.flip();
+					}
+					else if (position < target.position())
+					{
+						return target.position() - position;
+					}
+				}
+				catch (final GeneralSecurityException exception)
+				{
+					throw new IOException(exception);
+				}
+			}
+			final int count = Math.min(output.remaining(), target.remaining());
+			final int limit = output.limit();
+			output.limit(output.position() + count);
+			target.put(output);
+			output.limit(limit);
+			return count;
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean isOpen()
+	{
+		return open;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void close() throws IOException
+	{
+		lock.lock();
+		try
+		{
+			if (!open)
+			{
+				return;
+			}
+			open = false;
+			channel.close();
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Gets the cleared output buffer with at least the given capacity
+	 */
+	private ByteBuffer output(final int capacity)
+	{
+		if (output.capacity() < capacity)
+		{
+			output = ByteBuffer.allocateDirect(capacity);
+		}
+		output.clear();
+		return output;
+	}
+
+}
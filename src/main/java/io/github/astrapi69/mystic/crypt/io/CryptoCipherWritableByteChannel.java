@@ -0,0 +1,219 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.mystic.crypt.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.WritableByteChannel;
+import java.security.GeneralSecurityException;
+import java.util.Objects;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import javax.crypto.Cipher;
+
+/**
+ * The class {@link CryptoCipherWritableByteChannel} is a {@link WritableByteChannel} that
+ * processes the written bytes with a {@link Cipher} and writes the result to the given channel.
+ * The bytes are processed from the given buffers into one direct buffer, so a transfer from a
+ * file or a socket into this channel needs no intermediate byte arrays. The final block is
+ * written when this channel is closed, the given channel must be in blocking mode
+ */
+public class CryptoCipherWritableByteChannel implements WritableByteChannel
+{
+
+	/** The constant for the default buffer size. */
+	public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+	/** The maximum number of bytes that are processed by one cipher update. */
+	private final int bufferSize;
+
+	/** The target channel. */
+	private final WritableByteChannel channel;
+
+	/** The cipher. */
+	private final Cipher cipher;
+
+	/** The lock of the writes and the close. */
+	private final Lock lock = new ReentrantLock();
+
+	/** The flag that indicates if this channel is open. */
+	private volatile boolean open = true;
+
+	/** The buffer of the processed bytes. */
+	private ByteBuffer output;
+
+	/**
+	 * Instantiates a new {@link CryptoCipherWritableByteChannel} with the default buffer size
+	 *
+	 * @param channel
+	 *            the target channel
+	 * @param cipher
+	 *            the cipher
+	 */
+	public CryptoCipherWritableByteChannel(final WritableByteChannel channel, final Cipher cipher)
+	{
+		this(channel, cipher, DEFAULT_BUFFER_SIZE);
+	}
+
+	/**
+	 * Instantiates a new {@link CryptoCipherWritableByteChannel}
+	 *
+	 * @param channel
+	 *            the target channel
+	 * @param cipher
+	 *            the cipher
+	 * @param bufferSize
+	 *            the maximum number of bytes that are processed by one cipher update
+	 */
+	public CryptoCipherWritableByteChannel(final WritableByteChannel channel, final Cipher cipher,
+		final int bufferSize)
+	{
+		Objects.requireNonNull(channel);
+		Objects.requireNonNull(cipher);
+		if (bufferSize < 1)
+		{
+			throw new IllegalArgumentException("bufferSize must be positive: " + bufferSize);
+		}
+		this.channel = channel;
+		this.cipher = cipher;
+		this.bufferSize = bufferSize;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int write(final ByteBuffer source) throws IOException
+	{
+		Objects.requireNonNull(source);
+		lock.lock();
+		try
+		{
+			if (!open)
+			{
+				throw new ClosedChannelException();
+			}
+			final int count = source.remaining();
+			final int limit = source.limit();
+			try
+			{
+				while (source.position() < limit)
+				{
+					final int length = Math.min(limit - source.position(), bufferSize);
+					source.limit(source.position() + length);
+					final ByteBuffer target = output(cipher.getOutputSize(source.remaining()));
+					cipher.update(source, target);
+					source.limit(limit);
+					writeFully(target);
+				}
+			}
+			catch (final GeneralSecurityException exception)
+			{
+				throw new IOException(exception);
+			}
+			finally
+			{
+				source.limit(limit);
+			}
+			return count;
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean isOpen()
+	{
+		return open;
+	}
+
+	/**
+	 * Writes the final block of the cipher and closes the target channel
+	 *
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred or that the final block could not be
+	 *             processed
+	 */
+	@Override
+	public void close() throws IOException
+	{
+		lock.lock();
+		try
+		{
+			if (!open)
+			{
+				return;
+			}
+			open = false;
+			try (WritableByteChannel target = channel)
+			{
+				final ByteBuffer finalBlock = output(cipher.getOutputSize(0));
+				cipher.doFinal(ByteBuffer.allocate(0), finalBlock);
+				writeFully(finalBlock);
+			}
+			catch (final GeneralSecurityException exception)
+			{
+				throw new IOException(exception);
+			}
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Gets the cleared output buffer with at least the given capacity
+	 */
+	private ByteBuffer output(final int capacity)
+	{
+		if (output == null || output.capacity() < capacity)
+		{
+			output = ByteBuffer.allocateDirect(Math.max(capacity, bufferSize));
+		}
+		output.clear();
+		return output;
+	}
+
+	/**
+	 * Writes the processed bytes of the given buffer to the target channel
+	 */
+	private void writeFully(final ByteBuffer buffer) throws IOException
+	{
+		buffer.flip();
+		while (buffer.hasRemaining())
+		{
+			channel.write(buffer);
+		}
+	}
+
+}
@@ -1,4 +1,4 @@
 /**
- * This package provides classes for crypting input- and outputstreams
+ * This package provides classes for crypting input- and outputstreams and byte channels
  */
 package io.github.astrapi69.mystic.crypt.io;
@@ -24,6 +24,9 @@
  */
 package io.github.astrapi69.mystic.crypt.obfuscation.character;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
 import java.util.Objects;
 
 import com.google.common.collect.BiMap;
@@ -43,6 +46,12 @@ import io.github.astrapi69.crypt.data.obfuscation.rule.ObfuscationOperationRule;
  * of disentanglement based on the provided rules and the key.
  * </p>
  *
+ * <p>
+ * The rules are compiled on construction to an immutable {@link CompiledObfuscationRules} snapshot.
+ * An instance holds no mutable state and can be used concurrently from any number of threads
+ * without locks.
+ * </p>
+ *
  * <h2>Usage:</h2>
  * 
  * <pre>
@@ -66,14 +75,14 @@ public class CharacterObfuscator implements Obfuscatable
 	private final String key;
 
 	/**
-	 * Mapping of characters to their corresponding obfuscation rules.
+	 * The immutable compiled snapshot of the obfuscation rules.
 	 */
-	private final BiMap<Character, ObfuscationOperationRule<Character, Character>> rules;
+	private final CompiledObfuscationRules compiledRules;
 
 	/**
 	 * Indicates whether the obfuscation can be reversed using the current rules and key.
 	 */
-	private boolean disentanglable;
+	private final boolean disentanglable;
 
 	/**
 	 * Constructs a new {@code CharacterObfuscator} instance with the specified rules and key.
@@ -95,7 +104,9 @@ public class CharacterObfuscator implements Obfuscatable
 
 	/**
 	 * Constructs a new {@code CharacterObfuscator} with validation option. This constructor allows
-	 * enabling the validation check for reversible obfuscation based on the provided rules.
+	 * enabling the validation check for reversible obfuscation based on the provided rules. The
+	 * rules are compiled to an immutable snapshot, so later changes on the given rules have no
+	 * effect on this instance.
 	 *
 	 * @param rules
 	 *            the character to rule bi-directional map, must not be empty
@@ -114,12 +125,33 @@ public class CharacterObfuscator implements Obfuscatable
 		Objects.requireNonNull(key);
 		Check.get().notEmpty(rules, "rules");
 		Check.get().notEmpty(key, "key");
-		this.rules = rules;
+		this.compiledRules = CompiledObfuscationRules.compile(rules);
 		this.key = key;
-		if (validate)
-		{
-			this.disentanglable = ObfuscatorExtensions.validate(this.rules);
-		}
+		this.disentanglable = validate && this.compiledRules.isDisentanglable();
+	}
+
+	/**
+	 * Constructs a new {@code CharacterObfuscator} from already compiled rules. Instances that are
+	 * created from the same compiled rules share the lookup tables.
+	 *
+	 * @param compiledRules
+	 *            the compiled rules
+	 * @param key
+	 *            the key for obfuscation, must not be empty
+	 * @param validate
+	 *            if {@code true}, checks if disentanglement is possible
+	 * @throws NullPointerException
+	 *             if compiledRules or key are null
+	 */
+	public CharacterObfuscator(final CompiledObfuscationRules compiledRules, final String key,
+		final boolean validate)
+	{
+		Objects.requireNonNull(compiledRules);
+		Objects.requireNonNull(key);
+		Check.get().notEmpty(key, "key");
+		this.compiledRules = compiledRules;
+		this.key = key;
+		this.disentanglable = validate && this.compiledRules.isDisentanglable();
 	}
 
 	/**
@@ -130,7 +162,59 @@ public class CharacterObfuscator implements Obfuscatable
 	@Override
 	public String disentangle()
 	{
-		return ObfuscatorExtensions.disentangle(rules, obfuscate());
+		return compiledRules.disentangle(obfuscate());
+	}
+
+	/**
+	 * Disentangles the given obfuscated text based on the rules of this instance.
+	 *
+	 * @param obfuscated
+	 *            the obfuscated text
+	 * @return the disentangled text
+	 */
+	public String disentangle(final CharSequence obfuscated)
+	{
+		return compiledRules.disentangle(obfuscated);
+	}
+
+	/**
+	 * Disentangles the characters of the given reader based on the rules of this instance and
+	 * writes them to the given writer. The text is streamed in chunks with a running global index.
+	 *
+	 * @param reader
+	 *            the reader with the obfuscated text
+	 * @param writer
+	 *            the writer for the disentangled text
+	 * @return the number of the read characters
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	public long disentangle(final Reader reader, final Writer writer) throws IOException
+	{
+		return ObfuscatorExtensions.disentangle(compiledRules, reader, writer);
+	}
+
+	/**
+	 * Disentangles the given obfuscated text based on the rules of this instance in parallel on the
+	 * common fork join pool.
+	 *
+	 * @param obfuscated
+	 *            the obfuscated text
+	 * @return the disentangled text
+	 */
+	public String disentangleParallel(final CharSequence obfuscated)
+	{
+		return ObfuscatorExtensions.disentangleParallel(compiledRules, obfuscated);
+	}
+
+	/**
+	 * Gets the immutable compiled snapshot of the obfuscation rules.
+	 *
+	 * @return the compiled rules
+	 */
+	public CompiledObfuscationRules getCompiledRules()
+	{
+		return this.compiledRules;
 	}
 
 	/**
@@ -151,6 +235,48 @@ public class CharacterObfuscator implements Obfuscatable
 	@Override
 	public String obfuscate()
 	{
-		return ObfuscatorExtensions.obfuscateWith(rules, this.key);
+		return compiledRules.obfuscate(this.key);
+	}
+
+	/**
+	 * Obfuscates the given text based on the rules of this instance.
+	 *
+	 * @param toObfuscate
+	 *            the text to obfuscate
+	 * @return the obfuscated text
+	 */
+	public String obfuscate(final CharSequence toObfuscate)
+	{
+		return compiledRules.obfuscate(toObfuscate);
+	}
+
+	/**
+	 * Obfuscates the characters of the given reader based on the rules of this instance and writes
+	 * them to the given writer. The text is streamed in chunks with a running global index.
+	 *
+	 * @param reader
+	 *            the reader with the text to obfuscate
+	 * @param writer
+	 *            the writer for the obfuscated text
+	 * @return the number of the read characters
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	public long obfuscate(final Reader reader, final Writer writer) throws IOException
+	{
+		return ObfuscatorExtensions.obfuscate(compiledRules, reader, writer);
+	}
+
+	/**
+	 * Obfuscates the given text based on the rules of this instance in parallel on the common fork
+	 * join pool.
+	 *
+	 * @param toObfuscate
+	 *            the text to obfuscate
+	 * @return the obfuscated text
+	 */
+	public String obfuscateParallel(final CharSequence toObfuscate)
+	{
+		return ObfuscatorExtensions.obfuscateParallel(compiledRules, toObfuscate);
 	}
 }
@@ -0,0 +1,84 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.mystic.crypt.obfuscation.character;
+
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+/**
+ * The class {@link ChunkTask} splits a range of chunk indexes recursively until a single chunk is
+ * left and processes the chunk with the given action. The action receives the index of the chunk
+ * and derives the absolute offsets of the chunk from it, so chunks can be processed in any order
+ * and on any thread
+ */
+final class ChunkTask extends RecursiveAction
+{
+
+	private static final long serialVersionUID = 1L;
+
+	/** The action that processes one chunk. */
+	private final transient IntConsumer action;
+
+	/** The first chunk index, inclusive. */
+	private final int from;
+
+	/** The last chunk index, exclusive. */
+	private final int to;
+
+	/**
+	 * Instantiates a new {@link ChunkTask} object
+	 *
+	 * @param from
+	 *            the first chunk index, inclusive
+	 * @param to
+	 *            the last chunk index, exclusive
+	 * @param action
+	 *            the action that processes one chunk
+	 */
+	ChunkTask(final int from, final int to, final IntConsumer action)
+	{
+		this.from = from;
+		this.to = to;
+		this.action = action;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected void compute()
+	{
+		if (to - from <= 1)
+		{
+			if (from < to)
+			{
+				action.accept(from);
+			}
+			return;
+		}
+		final int middle = (from + to) >>> 1;
+		invokeAll(new ChunkTask(from, middle, action), new ChunkTask(middle, to, action));
+	}
+}
@@ -0,0 +1,409 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.mystic.crypt.obfuscation.character;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+import com.google.common.collect.BiMap;
+
+import io.github.astrapi69.crypt.api.obfuscation.rule.Operation;
+import io.github.astrapi69.crypt.data.obfuscation.rule.ObfuscationOperationRule;
+
+/**
+ * The class {@link CompiledObfuscationRules} is an immutable snapshot of obfuscation operation
+ * rules that are compiled to primitive lookup tables. Every character is obfuscated and disentangled
+ * with a few array lookups and a positional {@link BitSet} check, so no {@link Character} objects
+ * are boxed, no {@link Operation} is operated and no rule object is mutated while processing.<br>
+ * <br>
+ * The compiled tables produce the same results as
+ * {@link ObfuscatorExtensions#obfuscateWith(BiMap, String)} and
+ * {@link ObfuscatorExtensions#disentangle(BiMap, String)}. Because the tables are never modified
+ * after compilation, one {@link CompiledObfuscationRules} object can be shared between threads
+ */
+public final class CompiledObfuscationRules
+{
+
+	/** The marker for a missing character in the int tables. */
+	private static final int NONE = -1;
+
+	/** The disentangle results for a character on a positional index, or {@link #NONE}. */
+	private final int[] entryIndexed;
+
+	/** The disentangle results for a character on any other index, or {@link #NONE}. */
+	private final int[] entryOther;
+
+	/** The positional indexes of the disentangle entries, null if positional rules not apply. */
+	private final BitSet[] entryPositions;
+
+	/** The start of the disentangle entries of a character, with one more element at the end. */
+	private final int[] entryStart;
+
+	/** The flag if the rules can be disentangled after obfuscation, null until it is checked. */
+	private volatile Boolean disentanglable;
+
+	/** The flags for the characters that are keys of a rule. */
+	private final boolean[] mapped;
+
+	/** The maximum number of characters that are disentangled from one character. */
+	private final int maxDisentangledLength;
+
+	/** The operated characters of the rules, or {@link #NONE}. */
+	private final int[] operated;
+
+	/** The positional indexes of the rules, null if a rule has no indexes. */
+	private final BitSet[] positions;
+
+	/** The replace characters of the rules. */
+	private final char[] replaceWith;
+
+	/** The characters of the rules for the check if the rules can be disentangled. */
+	private final char[] ruleCharacters;
+
+	/** The operations of the rules for the check if the rules can be disentangled. */
+	private final Operation[] ruleOperations;
+
+	/** The size of the lookup tables. */
+	private final int tableSize;
+
+	private CompiledObfuscationRules(final int tableSize, final boolean[] mapped,
+		final char[] replaceWith, final int[] operated, final BitSet[] positions,
+		final int[] entryStart, final BitSet[] entryPositions, final int[] entryIndexed,
+		final int[] entryOther, final int maxDisentangledLength, final char[] ruleCharacters,
+		final Operation[] ruleOperations)
+	{
+		this.tableSize = tableSize;
+		this.mapped = mapped;
+		this.replaceWith = replaceWith;
+		this.operated = operated;
+		this.positions = positions;
+		this.entryStart = entryStart;
+		this.entryPositions = entryPositions;
+		this.entryIndexed = entryIndexed;
+		this.entryOther = entryOther;
+		this.maxDisentangledLength = maxDisentangledLength;
+		this.ruleCharacters = ruleCharacters;
+		this.ruleOperations = ruleOperations;
+	}
+
+	/**
+	 * Compiles the given rules to a new {@link CompiledObfuscationRules} object. The given rules are
+	 * only read and not modified
+	 *
+	 * @param rules
+	 *            the rules
+	 * @return the new {@link CompiledObfuscationRules} object
+	 */
+	public static CompiledObfuscationRules compile(
+		final BiMap<Character, ObfuscationOperationRule<Character, Character>> rules)
+	{
+		Objects.requireNonNull(rules);
+		int maxChar = 0;
+		for (final Entry<Character, ObfuscationOperationRule<Character, Character>> entry : rules
+			.entrySet())
+		{
+			final ObfuscationOperationRule<Character, Character> rule = entry.getValue();
+			Objects.requireNonNull(rule.getCharacter());
+			Objects.requireNonNull(rule.getReplaceWith());
+			maxChar = Math.max(maxChar, entry.getKey());
+			maxChar = Math.max(maxChar, rule.getCharacter());
+			maxChar = Math.max(maxChar, rule.getReplaceWith());
+			maxChar = Math.max(maxChar, operatedCharacter(entry.getKey(), rule));
+			if (rule.getOperation() != null)
+			{
+				maxChar = Math.max(maxChar,
+					Operation.operate(rule.getCharacter(), rule.getOperation()));
+			}
+		}
+		final int tableSize = maxChar + 1;
+		final boolean[] mapped = new boolean[tableSize];
+		final char[] replaceWith = new char[tableSize];
+		final int[] operated = new int[tableSize];
+		final BitSet[] positions = new BitSet[tableSize];
+		Arrays.fill(operated, NONE);
+		for (final Entry<Character, ObfuscationOperationRule<Character, Character>> entry : rules
+			.entrySet())
+		{
+			final char character = entry.getKey();
+			final ObfuscationOperationRule<Character, Character> rule = entry.getValue();
+			mapped[character] = true;
+			replaceWith[character] = rule.getReplaceWith();
+			operated[character] = operatedCharacter(character, rule);
+			positions[character] = toBitSet(rule.getIndexes());
+		}
+		final Map<Character, List<int[]>> entries = new LinkedHashMap<>();
+		final Map<int[], BitSet> entryBitSets = new LinkedHashMap<>();
+		final char[] ruleCharacters = new char[rules.size()];
+		final Operation[] ruleOperations = new Operation[rules.size()];
+		int ruleIndex = 0;
+		for (final ObfuscationOperationRule<Character, Character> rule : rules.values())
+		{
+			final char character = rule.getCharacter();
+			final char replace = rule.getReplaceWith();
+			final Operation operation = rule.getOperation();
+			ruleCharacters[ruleIndex] = character;
+			ruleOperations[ruleIndex] = operation;
+			ruleIndex++;
+			final BitSet indexes = toBitSet(rule.getIndexes());
+			final boolean positional = indexes != null && operation != null;
+			final int keyOfReplace = rules.containsKey(replace) ? character : NONE;
+			char operatedKey = 0;
+			if (positional)
+			{
+				operatedKey = Operation.operate(character, operation);
+				final boolean reverse = (operation.equals(Operation.UPPERCASE)
+					&& Character.isUpperCase(operatedKey))
+					|| (operation.equals(Operation.LOWERCASE) && Character.isLowerCase(operatedKey));
+				final int[] entry = { Operation.operate(operatedKey, operation, reverse),
+						operatedKey == replace ? keyOfReplace : NONE };
+				entries.computeIfAbsent(operatedKey, key -> new ArrayList<>()).add(entry);
+				entryBitSets.put(entry, indexes);
+			}
+			if (!positional || operatedKey != replace)
+			{
+				final int[] entry = { positional ? character : keyOfReplace, keyOfReplace };
+				if (entry[0] != NONE || entry[1] != NONE)
+				{
+					entries.computeIfAbsent(replace, key -> new ArrayList<>()).add(entry);
+					entryBitSets.put(entry, positional ? indexes : null);
+				}
+			}
+		}
+		final int entryCount = entryBitSets.size();
+		final int[] entryStart = new int[tableSize + 1];
+		final BitSet[] entryPositions = new BitSet[entryCount];
+		final int[] entryIndexed = new int[entryCount];
+		final int[] entryOther = new int[entryCount];
+		int maxDisentangledLength = 1;
+		int next = 0;
+		for (int character = 0; character < tableSize; character++)
+		{
+			entryStart[character] = next;
+			final List<int[]> characterEntries = entries.get((char)character);
+			if (characterEntries != null)
+			{
+				maxDisentangledLength = Math.max(maxDisentangledLength, characterEntries.size());
+				for (final int[] entry : characterEntries)
+				{
+					entryPositions[next] = entryBitSets.get(entry);
+					entryIndexed[next] = entry[0];
+					entryOther[next] = entry[1];
+					next++;
+				}
+			}
+		}
+		entryStart[tableSize] = next;
+		return new CompiledObfuscationRules(tableSize, mapped, replaceWith, operated, positions,
+			entryStart, entryPositions, entryIndexed, entryOther, maxDisentangledLength,
+			ruleCharacters, ruleOperations);
+	}
+
+	private static int operatedCharacter(final char character,
+		final ObfuscationOperationRule<Character, Character> rule)
+	{
+		if (rule.getOperation() != null)
+		{
+			return Operation.operate(character, rule.getOperation());
+		}
+		final Optional<Character> operatedCharacter = rule.getOperatedCharacter();
+		return operatedCharacter != null && operatedCharacter.isPresent()
+			? operatedCharacter.get()
+			: NONE;
+	}
+
+	private static BitSet toBitSet(final Set<Integer> indexes)
+	{
+		if (indexes == null || indexes.isEmpty())
+		{
+			return null;
+		}
+		final BitSet bitSet = new BitSet();
+		for (final Integer index : indexes)
+		{
+			if (index != null && 0 <= index)
+			{
+				bitSet.set(index);
+			}
+		}
+		return bitSet;
+	}
+
+	private static boolean contains(final BitSet bitSet, final long index)
+	{
+		return bitSet != null && index <= Integer.MAX_VALUE && bitSet.get((int)index);
+	}
+
+	/**
+	 * Disentangles the given obfuscated character sequence
+	 *
+	 * @param obfuscated
+	 *            the obfuscated character sequence
+	 * @return the disentangled string
+	 */
+	public String disentangle(final CharSequence obfuscated)
+	{
+		Objects.requireNonNull(obfuscated);
+		final int length = obfuscated.length();
+		final char[] result = new char[length * maxDisentangledLength];
+		int position = 0;
+		for (int i = 0; i < length; i++)
+		{
+			position += disentangle(obfuscated.charAt(i), i, result, position);
+		}
+		return new String(result, 0, position);
+	}
+
+	/**
+	 * Disentangles the given obfuscated character on the given index and writes the result to the
+	 * given target array. The target array must have space for at least
+	 * {@link #getMaxDisentangledLength()} characters at the given offset
+	 *
+	 * @param character
+	 *            the obfuscated character
+	 * @param index
+	 *            the index of the character in the obfuscated text
+	 * @param target
+	 *            the target array
+	 * @param offset
+	 *            the offset in the target array
+	 * @return the number of the written characters
+	 */
+	public int disentangle(final char character, final long index, final char[] target,
+		final int offset)
+	{
+		if (tableSize <= character)
+		{
+			target[offset] = character;
+			return 1;
+		}
+		int written = 0;
+		for (int entry = entryStart[character]; entry < entryStart[character + 1]; entry++)
+		{
+			final int result = contains(entryPositions[entry], index)
+				? entryIndexed[entry]
+				: entryOther[entry];
+			if (result != NONE)
+			{
+				target[offset + written++] = (char)result;
+			}
+		}
+		if (written == 0 && !mapped[character])
+		{
+			target[offset] = character;
+			return 1;
+		}
+		return written;
+	}
+
+	/**
+	 * Gets the maximum number of characters that are disentangled from one obfuscated character
+	 *
+	 * @return the maximum number of characters
+	 */
+	public int getMaxDisentangledLength()
+	{
+		return maxDisentangledLength;
+	}
+
+	/**
+	 * Checks if the compiled rules can be disentangled after obfuscation as validated with
+	 * {@link ObfuscatorExtensions#validate(BiMap)}. The check is computed on the first call and
+	 * cached, so compiled rules that are never validated do not pay for it
+	 *
+	 * @return true if the compiled rules are disentanglable, otherwise false
+	 */
+	public boolean isDisentanglable()
+	{
+		Boolean result = disentanglable;
+		if (result == null)
+		{
+			result = validate();
+			disentanglable = result;
+		}
+		return result;
+	}
+
+	private boolean validate()
+	{
+		for (int i = 0; i < ruleCharacters.length; i++)
+		{
+			final char operatedCharacter = Operation.operate(ruleCharacters[i], ruleOperations[i]);
+			if (operatedCharacter < tableSize && mapped[operatedCharacter])
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Obfuscates the given character sequence
+	 *
+	 * @param toObfuscate
+	 *            the character sequence to obfuscate
+	 * @return the obfuscated string
+	 */
+	public String obfuscate(final CharSequence toObfuscate)
+	{
+		Objects.requireNonNull(toObfuscate);
+		final int length = toObfuscate.length();
+		final char[] result = new char[length];
+		for (int i = 0; i < length; i++)
+		{
+			result[i] = obfuscate(toObfuscate.charAt(i), i);
+		}
+		return new String(result);
+	}
+
+	/**
+	 * Obfuscates the given character on the given index
+	 *
+	 * @param character
+	 *            the character to obfuscate
+	 * @param index
+	 *            the index of the character in the text
+	 * @return the obfuscated character
+	 */
+	public char obfuscate(final char character, final long index)
+	{
+		if (tableSize <= character || !mapped[character])
+		{
+			return character;
+		}
+		if (operated[character] != NONE && contains(positions[character], index))
+		{
+			return (char)operated[character];
+		}
+		return replaceWith[character];
+	}
+}
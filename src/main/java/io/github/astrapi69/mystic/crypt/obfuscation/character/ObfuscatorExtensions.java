@@ -24,14 +24,20 @@
  */
 package io.github.astrapi69.mystic.crypt.obfuscation.character;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
 import java.lang.reflect.InvocationTargetException;
+import java.nio.CharBuffer;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 
 import com.google.common.collect.BiMap;
 import com.google.common.collect.HashBiMap;
@@ -44,14 +50,324 @@ import io.github.astrapi69.crypt.data.obfuscation.rule.ObfuscationOperationRule;
 
 /**
  * The class {@link ObfuscatorExtensions} provides algorithms to obfuscate and disentangle strings.
+ * The given rules are only read and never modified, so the same rules can be used from several
+ * threads.
  */
 public final class ObfuscatorExtensions
 {
 
+	/** The constant for the number of characters that are processed in one chunk of a stream. */
+	public static final int DEFAULT_CHUNK_SIZE = 8192;
+
+	/** The constant for the number of characters that are processed in one parallel chunk. */
+	public static final int DEFAULT_PARALLEL_CHUNK_SIZE = 1 << 16;
+
 	private ObfuscatorExtensions()
 	{
 	}
 
+	/**
+	 * Creates a copy of the given rule. The copy shares no mutable state with the given rule
+	 *
+	 * @param rule
+	 *            the rule
+	 * @return the copy of the given rule
+	 */
+	public static ObfuscationOperationRule<Character, Character> copy(
+		final ObfuscationOperationRule<Character, Character> rule)
+	{
+		Objects.requireNonNull(rule);
+		ObfuscationOperationRule<Character, Character> copy = ObfuscationOperationRule
+			.<Character, Character> builder().character(rule.getCharacter())
+			.replaceWith(rule.getReplaceWith()).operation(rule.getOperation())
+			.indexes(rule.getIndexes() != null
+				? new HashSet<>(rule.getIndexes())
+				: new HashSet<>())
+			.build();
+		copy.setOperatedCharacter(rule.getOperatedCharacter());
+		copy.setInverted(rule.isInverted());
+		return copy;
+	}
+
+	/**
+	 * Disentangles the given obfuscated text with the given compiled rules in parallel on the common
+	 * fork join pool
+	 *
+	 * @param rules
+	 *            the compiled rules
+	 * @param obfuscated
+	 *            the obfuscated text
+	 * @return the disentangled string
+	 */
+	public static String disentangleParallel(final CompiledObfuscationRules rules,
+		final CharSequence obfuscated)
+	{
+		return disentangleParallel(rules, obfuscated, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Disentangles the given obfuscated text with the given compiled rules in parallel. The text is
+	 * split in chunks of {@link #DEFAULT_PARALLEL_CHUNK_SIZE} characters that are disentangled with
+	 * their absolute offsets into one shared array and are compacted afterwards, because one
+	 * obfuscated character can be disentangled to none or several characters
+	 *
+	 * @param rules
+	 *            the compiled rules
+	 * @param obfuscated
+	 *            the obfuscated text
+	 * @param pool
+	 *            the fork join pool that executes the chunks
+	 * @return the disentangled string
+	 */
+	public static String disentangleParallel(final CompiledObfuscationRules rules,
+		final CharSequence obfuscated, final ForkJoinPool pool)
+	{
+		Objects.requireNonNull(rules);
+		Objects.requireNonNull(obfuscated);
+		Objects.requireNonNull(pool);
+		final int length = obfuscated.length();
+		if (length <= DEFAULT_PARALLEL_CHUNK_SIZE)
+		{
+			return rules.disentangle(obfuscated);
+		}
+		final int maxLength = rules.getMaxDisentangledLength();
+		final int chunkCount = chunkCount(length);
+		final char[] scratch = new char[Math.multiplyExact(length, maxLength)];
+		final int[] written = new int[chunkCount];
+		pool.invoke(new ChunkTask(0, chunkCount, chunk -> {
+			final int from = chunk * DEFAULT_PARALLEL_CHUNK_SIZE;
+			final int to = Math.min(length, from + DEFAULT_PARALLEL_CHUNK_SIZE);
+			final int offset = from * maxLength;
+			int position = offset;
+			for (int i = from; i < to; i++)
+			{
+				position += rules.disentangle(obfuscated.charAt(i), i, scratch, position);
+			}
+			written[chunk] = position - offset;
+		}));
+		final int[] targetOffsets = new int[chunkCount];
+		int total = 0;
+		for (int chunk = 0; chunk < chunkCount; chunk++)
+		{
+			targetOffsets[chunk] = total;
+			total += written[chunk];
+		}
+		final char[] result = new char[total];
+		pool.invoke(new ChunkTask(0, chunkCount,
+			chunk -> System.arraycopy(scratch, chunk * DEFAULT_PARALLEL_CHUNK_SIZE * maxLength,
+				result, targetOffsets[chunk], written[chunk])));
+		return new String(result);
+	}
+
+	/**
+	 * Disentangles all characters of the given reader with the given compiled rules and writes the
+	 * result to the given writer. The characters are processed in chunks of
+	 * {@link #DEFAULT_CHUNK_SIZE} characters with a running global index, so the memory usage is
+	 * constant for any length of the input. The reader and the writer are not closed
+	 *
+	 * @param rules
+	 *            the compiled rules
+	 * @param reader
+	 *            the reader with the obfuscated text
+	 * @param writer
+	 *            the writer for the disentangled text
+	 * @return the number of the read characters
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	public static long disentangle(final CompiledObfuscationRules rules, final Reader reader,
+		final Writer writer) throws IOException
+	{
+		Objects.requireNonNull(rules);
+		Objects.requireNonNull(reader);
+		Objects.requireNonNull(writer);
+		final char[] chunk = new char[DEFAULT_CHUNK_SIZE];
+		final char[] result = new char[DEFAULT_CHUNK_SIZE * rules.getMaxDisentangledLength()];
+		long index = 0;
+		int read;
+		while ((read = reader.read(chunk)) != -1)
+		{
+			int written = 0;
+			for (int i = 0; i < read; i++)
+			{
+				written += rules.disentangle(chunk[i], index++, result, written);
+			}
+			writer.write(result, 0, written);
+		}
+		writer.flush();
+		return index;
+	}
+
+	/**
+	 * Disentangles the remaining characters of the given source buffer with the given compiled
+	 * rules into the given target buffer. The processing stops if the source buffer is empty or the
+	 * target buffer has not enough space for the next character. The positions of both buffers are
+	 * advanced
+	 *
+	 * @param rules
+	 *            the compiled rules
+	 * @param source
+	 *            the source buffer with the obfuscated characters
+	 * @param target
+	 *            the target buffer for the disentangled characters
+	 * @param index
+	 *            the global index of the first remaining character of the source buffer
+	 * @return the global index of the next character that is not yet processed
+	 */
+	public static long disentangle(final CompiledObfuscationRules rules, final CharBuffer source,
+		final CharBuffer target, final long index)
+	{
+		Objects.requireNonNull(rules);
+		Objects.requireNonNull(source);
+		Objects.requireNonNull(target);
+		final char[] result = new char[rules.getMaxDisentangledLength()];
+		long current = index;
+		while (source.hasRemaining() && rules.getMaxDisentangledLength() <= target.remaining())
+		{
+			final int written = rules.disentangle(source.get(), current++, result, 0);
+			target.put(result, 0, written);
+		}
+		return current;
+	}
+
+	/**
+	 * Obfuscates the given text with the given compiled rules in parallel on the common fork join
+	 * pool
+	 *
+	 * @param rules
+	 *            the compiled rules
+	 * @param toObfuscate
+	 *            the text to obfuscate
+	 * @return the obfuscated string
+	 */
+	public static String obfuscateParallel(final CompiledObfuscationRules rules,
+		final CharSequence toObfuscate)
+	{
+		return obfuscateParallel(rules, toObfuscate, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Obfuscates the given text with the given compiled rules in parallel. The text is split in
+	 * chunks of {@link #DEFAULT_PARALLEL_CHUNK_SIZE} characters and every chunk is obfuscated with
+	 * the absolute indexes of its characters into one shared array, so the index based rules give
+	 * the same result as the sequential obfuscation
+	 *
+	 * @param rules
+	 *            the compiled rules
+	 * @param toObfuscate
+	 *            the text to obfuscate
+	 * @param pool
+	 *            the fork join pool that executes the chunks
+	 * @return the obfuscated string
+	 */
+	public static String obfuscateParallel(final CompiledObfuscationRules rules,
+		final CharSequence toObfuscate, final ForkJoinPool pool)
+	{
+		Objects.requireNonNull(rules);
+		Objects.requireNonNull(toObfuscate);
+		Objects.requireNonNull(pool);
+		final int length = toObfuscate.length();
+		if (length <= DEFAULT_PARALLEL_CHUNK_SIZE)
+		{
+			return rules.obfuscate(toObfuscate);
+		}
+		final char[] result = new char[length];
+		pool.invoke(new ChunkTask(0, chunkCount(length), chunk -> {
+			final int from = chunk * DEFAULT_PARALLEL_CHUNK_SIZE;
+			final int to = Math.min(length, from + DEFAULT_PARALLEL_CHUNK_SIZE);
+			for (int i = from; i < to; i++)
+			{
+				result[i] = rules.obfuscate(toObfuscate.charAt(i), i);
+			}
+		}));
+		return new String(result);
+	}
+
+	private static int chunkCount(final int length)
+	{
+		return (length + DEFAULT_PARALLEL_CHUNK_SIZE - 1) / DEFAULT_PARALLEL_CHUNK_SIZE;
+	}
+
+	/**
+	 * Obfuscates all characters of the given reader with the given compiled rules and writes the
+	 * result to the given writer. The characters are processed in chunks of
+	 * {@link #DEFAULT_CHUNK_SIZE} characters with a running global index, so the memory usage is
+	 * constant for any length of the input. The reader and the writer are not closed
+	 *
+	 * @param rules
+	 *            the compiled rules
+	 * @param reader
+	 *            the reader with the text to obfuscate
+	 * @param writer
+	 *            the writer for the obfuscated text
+	 * @return the number of the read characters
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	public static long obfuscate(final CompiledObfuscationRules rules, final Reader reader,
+		final Writer writer) throws IOException
+	{
+		Objects.requireNonNull(rules);
+		Objects.requireNonNull(reader);
+		Objects.requireNonNull(writer);
+		final char[] chunk = new char[DEFAULT_CHUNK_SIZE];
+		long index = 0;
+		int read;
+		while ((read = reader.read(chunk)) != -1)
+		{
+			for (int i = 0; i < read; i++)
+			{
+				chunk[i] = rules.obfuscate(chunk[i], index++);
+			}
+			writer.write(chunk, 0, read);
+		}
+		writer.flush();
+		return index;
+	}
+
+	/**
+	 * Obfuscates the remaining characters of the given source buffer with the given compiled rules
+	 * into the given target buffer. The processing stops if the source buffer is empty or the target
+	 * buffer is full. The positions of both buffers are advanced
+	 *
+	 * @param rules
+	 *            the compiled rules
+	 * @param source
+	 *            the source buffer with the characters to obfuscate
+	 * @param target
+	 *            the target buffer for the obfuscated characters
+	 * @param index
+	 *            the global index of the first remaining character of the source buffer
+	 * @return the global index of the next character that is not yet processed
+	 */
+	public static long obfuscate(final CompiledObfuscationRules rules, final CharBuffer source,
+		final CharBuffer target, final long index)
+	{
+		Objects.requireNonNull(rules);
+		Objects.requireNonNull(source);
+		Objects.requireNonNull(target);
+		long current = index;
+		while (source.hasRemaining() && target.hasRemaining())
+		{
+			target.put(rules.obfuscate(source.get(), current++));
+		}
+		return current;
+	}
+
+	/**
+	 * Compiles the given {@link BiMap} rules to immutable lookup tables that obfuscate and
+	 * disentangle in linear time
+	 *
+	 * @param rules
+	 *            the rules
+	 * @return the compiled rules
+	 */
+	public static CompiledObfuscationRules compile(
+		final BiMap<Character, ObfuscationOperationRule<Character, Character>> rules)
+	{
+		return CompiledObfuscationRules.compile(rules);
+	}
+
 	/**
 	 * Disentangle the given obfuscated text using the specified {@link BiMap} rules
 	 *
@@ -88,11 +404,6 @@ public final class ObfuscatorExtensions
 					.getValue();
 				Set<Integer> indexes = obfuscationOperationRule.getIndexes();
 				Operation operation = obfuscationOperationRule.getOperation();
-				if (operation != null)
-				{
-					obfuscationOperationRule.setOperatedCharacter(
-						Optional.of(Operation.operate(currentCharacter, operation)));
-				}
 				Character character = obfuscationOperationRule.getCharacter();
 				Character replaceWith = obfuscationOperationRule.getReplaceWith();
 				if (!indexes.isEmpty() && indexes.contains(i) && operation != null)
@@ -217,7 +528,8 @@ public final class ObfuscatorExtensions
 	}
 
 	/**
-	 * Inverse the given BiMap rules
+	 * Inverse the given BiMap rules. The given rules are not modified, the keys of the returned
+	 * BiMap are inverted copies of the given rules
 	 *
 	 * @param rules
 	 *            the rules
@@ -227,23 +539,12 @@ public final class ObfuscatorExtensions
 		final BiMap<Character, ObfuscationOperationRule<Character, Character>> rules)
 	{
 		Objects.requireNonNull(rules);
-		BiMap<Character, ObfuscationOperationRule<Character, Character>> cloned;
-		Optional<BiMap<Character, ObfuscationOperationRule<Character, Character>>> optional = tryToClone(
-			rules);
-		if (optional.isPresent())
-		{
-			cloned = optional.get();
-		}
-		else
-		{
-			cloned = rules;
-		}
-		BiMap<ObfuscationOperationRule<Character, Character>, Character> invertedBiMap = cloned
-			.inverse();
-		invertedBiMap.entrySet().forEach(entry -> {
-			ObfuscationOperationRule<Character, Character> key = entry.getKey();
-			inverse(key);
-			entry.setValue(key.getCharacter());
+		BiMap<ObfuscationOperationRule<Character, Character>, Character> invertedBiMap = HashBiMap
+			.create(rules.size());
+		rules.values().forEach(rule -> {
+			ObfuscationOperationRule<Character, Character> inverted = copy(rule);
+			inverse(inverted);
+			invertedBiMap.put(inverted, inverted.getCharacter());
 		});
 		return invertedBiMap;
 	}
@@ -277,7 +578,7 @@ public final class ObfuscatorExtensions
 		Objects.requireNonNull(rules);
 		Map<ObfuscationOperationRule<Character, Character>, Character> invertedMap = new HashMap<>();
 		rules.entrySet().forEach(entry -> {
-			invertedMap.put(tryToClone(entry.getValue()).get(), tryToClone(entry.getKey()).get());
+			invertedMap.put(copy(entry.getValue()), entry.getKey());
 		});
 		return invertedMap;
 	}
@@ -332,16 +633,14 @@ public final class ObfuscatorExtensions
 					.get(asCharacter);
 				final Set<Integer> indexes = obfuscationOperationRule.getIndexes();
 				final Operation operation = obfuscationOperationRule.getOperation();
-				if (operation != null)
-				{
-					obfuscationOperationRule.setOperatedCharacter(
-						Optional.of(Operation.operate(currentCharacter, operation)));
-				}
+				final Optional<Character> operatedCharacter = operation != null
+					? Optional.of(Operation.operate(currentCharacter, operation))
+					: obfuscationOperationRule.getOperatedCharacter();
 				if (indexes.contains(i))
 				{
-					if (obfuscationOperationRule.getOperatedCharacter().isPresent())
+					if (operatedCharacter.isPresent())
 					{
-						sb.append(obfuscationOperationRule.getOperatedCharacter().get());
+						sb.append(operatedCharacter.get());
 						continue;
 					}
 				}
@@ -380,16 +679,15 @@ public final class ObfuscatorExtensions
 					.get(asCharacter);
 				final Set<Integer> indexes = obfuscationOperationRule.getIndexes();
 				final Operation operation = obfuscationOperationRule.getOperation();
-				if (operation != null && !operation.equals(Operation.NONE))
-				{
-					obfuscationOperationRule.setOperatedCharacter(
-						Optional.of(Operation.operate(currentCharacter, operation)));
-				}
+				final Optional<Character> operatedCharacter = operation != null
+					&& !operation.equals(Operation.NONE)
+						? Optional.of(Operation.operate(currentCharacter, operation))
+						: obfuscationOperationRule.getOperatedCharacter();
 				if (indexes.contains(i))
 				{
-					if (obfuscationOperationRule.getOperatedCharacter().isPresent())
+					if (operatedCharacter.isPresent())
 					{
-						result[i] = obfuscationOperationRule.getOperatedCharacter().get();
+						result[i] = operatedCharacter.get();
 						continue;
 					}
 				}
@@ -421,9 +719,8 @@ public final class ObfuscatorExtensions
 			if (value.getOperation() != null && !value.getOperation().equals(Operation.NONE)
 				&& !value.getIndexes().isEmpty())
 			{
-				value.setOperatedCharacter(
-					Optional.of(Operation.operate(value.getCharacter(), value.getOperation())));
-				swapped.put(value.getOperatedCharacter().get(), entry.getKey());
+				swapped.put(Operation.operate(value.getCharacter(), value.getOperation()),
+					entry.getKey());
 			}
 			swapped.put(value.getReplaceWith(), entry.getKey());
 		});
@@ -448,9 +745,7 @@ public final class ObfuscatorExtensions
 			if (value.getOperation() != null && !value.getOperation().equals(Operation.NONE)
 				&& !value.getIndexes().isEmpty())
 			{
-				value.setOperatedCharacter(
-					Optional.of(Operation.operate(value.getCharacter(), value.getOperation())));
-				swapped.put(value.getOperatedCharacter().get(), value);
+				swapped.put(Operation.operate(value.getCharacter(), value.getOperation()), value);
 			}
 			swapped.put(value.getReplaceWith(), value);
 		});
@@ -24,6 +24,9 @@
  */
 package io.github.astrapi69.mystic.crypt.obfuscation.simple;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
 import java.util.Objects;
 
 import com.google.common.collect.BiMap;
@@ -33,18 +36,17 @@ import io.github.astrapi69.crypt.api.obfuscation.Obfuscatable;
 import io.github.astrapi69.crypt.data.obfuscation.rule.ObfuscationRule;
 
 /**
- * The class {@link SimpleCharacterObfuscator} provide as the name says obfuscation of a given text
+ * The class {@link SimpleCharacterObfuscator} provide as the name says obfuscation of a given text.
+ * The rules are transformed once to a {@link SimpleCharacterTable} on construction
  */
 public class SimpleCharacterObfuscator implements Obfuscatable
 {
 
-	private final BiMap<Character, Character> biMap;
-
 	/** The key. */
 	private final String key;
 
-	/** The rule. */
-	private final BiMap<Character, ObfuscationRule<Character, Character>> rules;
+	/** The lookup table that is build once from the rules. */
+	private final SimpleCharacterTable table;
 
 	/**
 	 * Instantiates a new {@link SimpleCharacterObfuscator}
@@ -61,8 +63,7 @@ public class SimpleCharacterObfuscator implements Obfuscatable
 		Objects.requireNonNull(key);
 		Check.get().notEmpty(rules, "rules");
 		Check.get().notEmpty(key, "key");
-		this.rules = rules;
-		this.biMap = SimpleObfuscatorExtensions.toCharacterBiMap(rules);
+		this.table = SimpleObfuscatorExtensions.toCharacterTable(rules);
 		this.key = key;
 	}
 
@@ -72,8 +73,7 @@ public class SimpleCharacterObfuscator implements Obfuscatable
 	@Override
 	public String disentangle()
 	{
-		final String obfuscated = SimpleObfuscatorExtensions.obfuscateWith(rules, this.key);
-		return disentangle(obfuscated);
+		return table.disentangle(table.obfuscate(this.key));
 	}
 
 	/**
@@ -85,8 +85,24 @@ public class SimpleCharacterObfuscator implements Obfuscatable
 	 */
 	public String disentangle(String obfuscated)
 	{
-		final String disentangled = SimpleObfuscatorExtensions.disentangleBiMap(biMap, obfuscated);
-		return disentangled;
+		return table.disentangle(obfuscated);
+	}
+
+	/**
+	 * Disentangle the characters of the given reader and writes them to the given writer. The text
+	 * is streamed in chunks, so the memory usage is constant for any length of the input
+	 *
+	 * @param reader
+	 *            the reader with the obfuscated text
+	 * @param writer
+	 *            the writer for the disentangled text
+	 * @return the number of the read characters
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	public long disentangle(final Reader reader, final Writer writer) throws IOException
+	{
+		return table.disentangle(reader, writer);
 	}
 
 	/**
@@ -95,8 +111,24 @@ public class SimpleCharacterObfuscator implements Obfuscatable
 	@Override
 	public String obfuscate()
 	{
-		final String obfuscated = SimpleObfuscatorExtensions.obfuscateWith(rules, this.key);
-		return obfuscated;
+		return table.obfuscate(this.key);
+	}
+
+	/**
+	 * Obfuscate the characters of the given reader and writes them to the given writer. The text is
+	 * streamed in chunks, so the memory usage is constant for any length of the input
+	 *
+	 * @param reader
+	 *            the reader with the text to obfuscate
+	 * @param writer
+	 *            the writer for the obfuscated text
+	 * @return the number of the read characters
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	public long obfuscate(final Reader reader, final Writer writer) throws IOException
+	{
+		return table.obfuscate(reader, writer);
 	}
 
 }
@@ -0,0 +1,345 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.mystic.crypt.obfuscation.simple;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.CharBuffer;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+import com.google.common.collect.BiMap;
+
+/**
+ * The class {@link SimpleCharacterTable} is an immutable character to character lookup table for
+ * the simple obfuscation. The forward and the backward mapping are stored in dense {@code char}
+ * arrays that are indexed by the character, characters from {@link #DENSE_LIMIT} on are stored in
+ * sorted sparse arrays and are looked up with a binary search. So no {@link Character} is boxed and
+ * no map is probed while obfuscating or disentangling and one table can be shared between threads
+ */
+public final class SimpleCharacterTable
+{
+
+	/** The constant for the first character that is not stored in the dense arrays. */
+	public static final int DENSE_LIMIT = 0x3000;
+
+	/** The dense backward table. */
+	private final char[] backward;
+
+	/** The sparse backward keys in ascending order. */
+	private final char[] backwardKeys;
+
+	/** The sparse backward values. */
+	private final char[] backwardValues;
+
+	/** The dense forward table. */
+	private final char[] forward;
+
+	/** The sparse forward keys in ascending order. */
+	private final char[] forwardKeys;
+
+	/** The sparse forward values. */
+	private final char[] forwardValues;
+
+	private SimpleCharacterTable(final Map<Character, Character> forwardMapping,
+		final Map<Character, Character> backwardMapping)
+	{
+		this.forward = newDenseTable(forwardMapping);
+		final char[][] forwardSparse = newSparseTable(forwardMapping);
+		this.forwardKeys = forwardSparse[0];
+		this.forwardValues = forwardSparse[1];
+		this.backward = newDenseTable(backwardMapping);
+		final char[][] backwardSparse = newSparseTable(backwardMapping);
+		this.backwardKeys = backwardSparse[0];
+		this.backwardValues = backwardSparse[1];
+	}
+
+	/**
+	 * Factory method for create a new {@link SimpleCharacterTable} from the given {@link BiMap}.
+	 * The backward mapping is the inverse of the given {@link BiMap}
+	 *
+	 * @param rules
+	 *            the rules
+	 * @return the new {@link SimpleCharacterTable}
+	 */
+	public static SimpleCharacterTable of(final BiMap<Character, Character> rules)
+	{
+		Objects.requireNonNull(rules);
+		return new SimpleCharacterTable(rules, rules.inverse());
+	}
+
+	/**
+	 * Factory method for create a new {@link SimpleCharacterTable} from the given forward and
+	 * backward mapping
+	 *
+	 * @param forwardMapping
+	 *            the mapping for obfuscate
+	 * @param backwardMapping
+	 *            the mapping for disentangle
+	 * @return the new {@link SimpleCharacterTable}
+	 */
+	public static SimpleCharacterTable of(final Map<Character, Character> forwardMapping,
+		final Map<Character, Character> backwardMapping)
+	{
+		Objects.requireNonNull(forwardMapping);
+		Objects.requireNonNull(backwardMapping);
+		return new SimpleCharacterTable(forwardMapping, backwardMapping);
+	}
+
+	private static char[] newDenseTable(final Map<Character, Character> mapping)
+	{
+		int size = 0;
+		for (final Character character : mapping.keySet())
+		{
+			if (character < DENSE_LIMIT)
+			{
+				size = Math.max(size, character + 1);
+			}
+		}
+		final char[] table = new char[size];
+		for (int character = 0; character < size; character++)
+		{
+			table[character] = (char)character;
+		}
+		mapping.forEach((character, replaceWith) -> {
+			if (character < DENSE_LIMIT)
+			{
+				table[character] = replaceWith;
+			}
+		});
+		return table;
+	}
+
+	private static char[][] newSparseTable(final Map<Character, Character> mapping)
+	{
+		final TreeMap<Character, Character> sparse = new TreeMap<>();
+		mapping.forEach((character, replaceWith) -> {
+			if (DENSE_LIMIT <= character)
+			{
+				sparse.put(character, replaceWith);
+			}
+		});
+		final char[] keys = new char[sparse.size()];
+		final char[] values = new char[sparse.size()];
+		int index = 0;
+		for (final Map.Entry<Character, Character> entry : sparse.entrySet())
+		{
+			keys[index] = entry.getKey();
+			values[index++] = entry.getValue();
+		}
+		return new char[][] { keys, values };
+	}
+
+	private static char lookup(final char character, final char[] dense, final char[] keys,
+		final char[] values)
+	{
+		if (character < dense.length)
+		{
+			return dense[character];
+		}
+		if (keys.length == 0 || character < DENSE_LIMIT)
+		{
+			return character;
+		}
+		final int index = Arrays.binarySearch(keys, character);
+		return index < 0 ? character : values[index];
+	}
+
+	private static String map(final CharSequence text, final char[] dense, final char[] keys,
+		final char[] values)
+	{
+		Objects.requireNonNull(text);
+		final int length = text.length();
+		final char[] result = new char[length];
+		if (text instanceof String)
+		{
+			((String)text).getChars(0, length, result, 0);
+		}
+		else
+		{
+			for (int i = 0; i < length; i++)
+			{
+				result[i] = text.charAt(i);
+			}
+		}
+		for (int i = 0; i < length; i++)
+		{
+			result[i] = lookup(result[i], dense, keys, values);
+		}
+		return new String(result);
+	}
+
+	private static int map(final CharBuffer source, final CharBuffer target, final char[] dense,
+		final char[] keys, final char[] values)
+	{
+		Objects.requireNonNull(source);
+		Objects.requireNonNull(target);
+		int count = 0;
+		while (source.hasRemaining() && target.hasRemaining())
+		{
+			target.put(lookup(source.get(), dense, keys, values));
+			count++;
+		}
+		return count;
+	}
+
+	private static long map(final Reader reader, final Writer writer, final char[] dense,
+		final char[] keys, final char[] values) throws IOException
+	{
+		Objects.requireNonNull(reader);
+		Objects.requireNonNull(writer);
+		final char[] chunk = new char[SimpleObfuscatorExtensions.DEFAULT_CHUNK_SIZE];
+		long count = 0;
+		int read;
+		while ((read = reader.read(chunk)) != -1)
+		{
+			for (int i = 0; i < read; i++)
+			{
+				chunk[i] = lookup(chunk[i], dense, keys, values);
+			}
+			writer.write(chunk, 0, read);
+			count += read;
+		}
+		writer.flush();
+		return count;
+	}
+
+	/**
+	 * Disentangles the given character
+	 *
+	 * @param character
+	 *            the obfuscated character
+	 * @return the disentangled character
+	 */
+	public char disentangle(final char character)
+	{
+		return lookup(character, backward, backwardKeys, backwardValues);
+	}
+
+	/**
+	 * Disentangles the given obfuscated text
+	 *
+	 * @param obfuscated
+	 *            the obfuscated text
+	 * @return the disentangled string
+	 */
+	public String disentangle(final CharSequence obfuscated)
+	{
+		return map(obfuscated, backward, backwardKeys, backwardValues);
+	}
+
+	/**
+	 * Disentangles the remaining characters of the given source buffer into the given target
+	 * buffer. The processing stops if the source buffer is empty or the target buffer is full
+	 *
+	 * @param source
+	 *            the source buffer with the obfuscated characters
+	 * @param target
+	 *            the target buffer for the disentangled characters
+	 * @return the number of the processed characters
+	 */
+	public int disentangle(final CharBuffer source, final CharBuffer target)
+	{
+		return map(source, target, backward, backwardKeys, backwardValues);
+	}
+
+	/**
+	 * Disentangles all characters of the given reader and writes them to the given writer in chunks
+	 * of {@link SimpleObfuscatorExtensions#DEFAULT_CHUNK_SIZE} characters. The reader and the
+	 * writer are not closed
+	 *
+	 * @param reader
+	 *            the reader with the obfuscated text
+	 * @param writer
+	 *            the writer for the disentangled text
+	 * @return the number of the read characters
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	public long disentangle(final Reader reader, final Writer writer) throws IOException
+	{
+		return map(reader, writer, backward, backwardKeys, backwardValues);
+	}
+
+	/**
+	 * Obfuscates the given character
+	 *
+	 * @param character
+	 *            the character to obfuscate
+	 * @return the obfuscated character
+	 */
+	public char obfuscate(final char character)
+	{
+		return lookup(character, forward, forwardKeys, forwardValues);
+	}
+
+	/**
+	 * Obfuscates the given text
+	 *
+	 * @param toObfuscate
+	 *            the text to obfuscate
+	 * @return the obfuscated string
+	 */
+	public String obfuscate(final CharSequence toObfuscate)
+	{
+		return map(toObfuscate, forward, forwardKeys, forwardValues);
+	}
+
+	/**
+	 * Obfuscates the remaining characters of the given source buffer into the given target buffer.
+	 * The processing stops if the source buffer is empty or the target buffer is full
+	 *
+	 * @param source
+	 *            the source buffer with the characters to obfuscate
+	 * @param target
+	 *            the target buffer for the obfuscated characters
+	 * @return the number of the processed characters
+	 */
+	public int obfuscate(final CharBuffer source, final CharBuffer target)
+	{
+		return map(source, target, forward, forwardKeys, forwardValues);
+	}
+
+	/**
+	 * Obfuscates all characters of the given reader and writes them to the given writer in chunks
+	 * of {@link SimpleObfuscatorExtensions#DEFAULT_CHUNK_SIZE} characters. The reader and the
+	 * writer are not closed
+	 *
+	 * @param reader
+	 *            the reader with the text to obfuscate
+	 * @param writer
+	 *            the writer for the obfuscated text
+	 * @return the number of the read characters
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	public long obfuscate(final Reader reader, final Writer writer) throws IOException
+	{
+		return map(reader, writer, forward, forwardKeys, forwardValues);
+	}
+}
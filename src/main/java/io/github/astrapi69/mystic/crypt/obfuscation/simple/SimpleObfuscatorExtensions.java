@@ -24,25 +24,70 @@
  */
 package io.github.astrapi69.mystic.crypt.obfuscation.simple;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.CharBuffer;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
 
 import com.google.common.collect.BiMap;
 import com.google.common.collect.HashBiMap;
+import com.google.common.collect.ImmutableBiMap;
+import com.google.common.collect.MapMaker;
 
 import io.github.astrapi69.crypt.data.obfuscation.rule.ObfuscationRule;
 
 /**
- * The class {@link SimpleObfuscatorExtensions} provides algorithms for obfuscate strings.
+ * The class {@link SimpleObfuscatorExtensions} provides algorithms for obfuscate strings. The
+ * methods with {@link BiMap} rules look up the characters in a {@link SimpleCharacterTable} that is
+ * cached per rules object and only rebuilt if the rules are modified.
  */
 public final class SimpleObfuscatorExtensions
 {
 
+	/** The constant for the number of characters that are processed in one chunk of a stream. */
+	public static final int DEFAULT_CHUNK_SIZE = 8192;
+
+	/** The cached lookup tables, the rules are weak keys that are compared by identity. */
+	private static final ConcurrentMap<BiMap<Character, Character>, CachedTable> TABLES;
+
+	static
+	{
+		TABLES = new MapMaker().weakKeys().makeMap();
+	}
+
 	private SimpleObfuscatorExtensions()
 	{
 	}
 
+	/**
+	 * Gets the lookup table of the given rules from the cache or builds it if the rules are new or
+	 * modified since the table was built
+	 *
+	 * @param rules
+	 *            the rules
+	 * @return the lookup table
+	 */
+	static SimpleCharacterTable getCharacterTable(final BiMap<Character, Character> rules)
+	{
+		Objects.requireNonNull(rules);
+		final CachedTable cached = TABLES.get(rules);
+		if (cached != null && cached.rules.equals(rules))
+		{
+			return cached.table;
+		}
+		final ImmutableBiMap<Character, Character> snapshot = ImmutableBiMap.copyOf(rules);
+		final SimpleCharacterTable table = SimpleCharacterTable.of(snapshot);
+		TABLES.put(rules, new CachedTable(snapshot, table));
+		return table;
+	}
+
 	/**
 	 * Disentangle the given obfuscated text with the given {@link BiMap} rules
 	 *
@@ -56,35 +101,20 @@ public final class SimpleObfuscatorExtensions
 		final BiMap<Character, ObfuscationRule<Character, Character>> rules,
 		final String obfuscated)
 	{
-		boolean processed = false;
-		char currentChar;
-		Character currentCharacter;
-		final StringBuilder sb = new StringBuilder();
-		for (int i = 0; i < obfuscated.length(); i++)
+		Objects.requireNonNull(rules);
+		Objects.requireNonNull(obfuscated);
+		final Map<Character, Character> backward = new HashMap<>();
+		for (final Entry<Character, ObfuscationRule<Character, Character>> entry : rules
+			.entrySet())
 		{
-			currentChar = obfuscated.charAt(i);
-			currentCharacter = Character.valueOf(currentChar);
-
-			for (final Entry<Character, ObfuscationRule<Character, Character>> entry : rules
-				.entrySet())
-			{
-				ObfuscationRule<Character, Character> obfuscationRule = entry.getValue();
-				Character replaceWith = obfuscationRule.getReplaceWith();
-				Character character = obfuscationRule.getCharacter();
-				if (currentCharacter.equals(replaceWith) && rules.containsKey(replaceWith))
-				{
-					sb.append(character);
-					processed = true;
-					break;
-				}
-			}
-			if (!processed)
+			ObfuscationRule<Character, Character> obfuscationRule = entry.getValue();
+			Character replaceWith = obfuscationRule.getReplaceWith();
+			if (rules.containsKey(replaceWith))
 			{
-				sb.append(currentChar);
+				backward.putIfAbsent(replaceWith, obfuscationRule.getCharacter());
 			}
-			processed = false;
 		}
-		return sb.toString();
+		return SimpleCharacterTable.of(Collections.emptyMap(), backward).disentangle(obfuscated);
 	}
 
 	/**
@@ -99,7 +129,89 @@ public final class SimpleObfuscatorExtensions
 	public static String disentangleBiMap(final BiMap<Character, Character> rules,
 		final String obfuscated)
 	{
-		return obfuscateBiMap(rules.inverse(), obfuscated);
+		return getCharacterTable(rules).disentangle(obfuscated);
+	}
+
+	/**
+	 * Disentangle all characters of the given reader with the given {@link BiMap} rules and writes
+	 * the result to the given writer. The characters are processed in chunks of
+	 * {@link #DEFAULT_CHUNK_SIZE} characters, so the memory usage is constant for any length of the
+	 * input. The reader and the writer are not closed
+	 *
+	 * @param rules
+	 *            the rules
+	 * @param reader
+	 *            the reader with the obfuscated text
+	 * @param writer
+	 *            the writer for the disentangled text
+	 * @return the number of the read characters
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	public static long disentangleBiMap(final BiMap<Character, Character> rules,
+		final Reader reader, final Writer writer) throws IOException
+	{
+		return getCharacterTable(rules).disentangle(reader, writer);
+	}
+
+	/**
+	 * Disentangle the remaining characters of the given source buffer with the given {@link BiMap}
+	 * rules into the given target buffer. The processing stops if the source buffer is empty or the
+	 * target buffer is full. The positions of both buffers are advanced
+	 *
+	 * @param rules
+	 *            the rules
+	 * @param source
+	 *            the source buffer with the obfuscated characters
+	 * @param target
+	 *            the target buffer for the disentangled characters
+	 * @return the number of the processed characters
+	 */
+	public static int disentangleBiMap(final BiMap<Character, Character> rules,
+		final CharBuffer source, final CharBuffer target)
+	{
+		return getCharacterTable(rules).disentangle(source, target);
+	}
+
+	/**
+	 * Obfuscate all characters of the given reader with the given {@link BiMap} rules and writes
+	 * the result to the given writer. The characters are processed in chunks of
+	 * {@link #DEFAULT_CHUNK_SIZE} characters, so the memory usage is constant for any length of the
+	 * input. The reader and the writer are not closed
+	 *
+	 * @param rules
+	 *            the rules
+	 * @param reader
+	 *            the reader with the text to obfuscate
+	 * @param writer
+	 *            the writer for the obfuscated text
+	 * @return the number of the read characters
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	public static long obfuscateBiMap(final BiMap<Character, Character> rules,
+		final Reader reader, final Writer writer) throws IOException
+	{
+		return getCharacterTable(rules).obfuscate(reader, writer);
+	}
+
+	/**
+	 * Obfuscate the remaining characters of the given source buffer with the given {@link BiMap}
+	 * rules into the given target buffer. The processing stops if the source buffer is empty or the
+	 * target buffer is full. The positions of both buffers are advanced
+	 *
+	 * @param rules
+	 *            the rules
+	 * @param source
+	 *            the source buffer with the characters to obfuscate
+	 * @param target
+	 *            the target buffer for the obfuscated characters
+	 * @return the number of the processed characters
+	 */
+	public static int obfuscateBiMap(final BiMap<Character, Character> rules,
+		final CharBuffer source, final CharBuffer target)
+	{
+		return getCharacterTable(rules).obfuscate(source, target);
 	}
 
 	/**
@@ -114,23 +226,7 @@ public final class SimpleObfuscatorExtensions
 	public static String obfuscateBiMap(final BiMap<Character, Character> rules,
 		final String toObfuscate)
 	{
-		char currentChar;
-		Character currentCharacter;
-		final StringBuilder sb = new StringBuilder();
-		for (int i = 0; i < toObfuscate.length(); i++)
-		{
-			currentChar = toObfuscate.charAt(i);
-			currentCharacter = Character.valueOf(currentChar);
-			if (rules.containsKey(currentCharacter))
-			{
-				sb.append(rules.get(currentCharacter));
-			}
-			else
-			{
-				sb.append(currentChar);
-			}
-		}
-		return sb.toString();
+		return getCharacterTable(rules).obfuscate(toObfuscate);
 	}
 
 	/**
@@ -184,6 +280,25 @@ public final class SimpleObfuscatorExtensions
 		return biMap;
 	}
 
+	/**
+	 * Transforms the given obfuscation rules {@link BiMap} to a {@link SimpleCharacterTable}. The
+	 * forward table maps every key to the replace character of its rule like
+	 * {@link #obfuscateWith(BiMap, String)} and the backward table maps the replace character back
+	 * to the character of the rule like {@link #disentangleBiMap(BiMap, String)}
+	 *
+	 * @param rules
+	 *            the rules
+	 * @return the {@link SimpleCharacterTable}
+	 */
+	public static SimpleCharacterTable toCharacterTable(
+		final BiMap<Character, ObfuscationRule<Character, Character>> rules)
+	{
+		Objects.requireNonNull(rules);
+		final Map<Character, Character> forward = new HashMap<>();
+		rules.forEach((key, rule) -> forward.put(key, rule.getReplaceWith()));
+		return SimpleCharacterTable.of(forward, toCharacterBiMap(rules).inverse());
+	}
+
 	/**
 	 * Validate the given {@link BiMap} if a before obfuscated String can be disentangled
 	 *
@@ -205,4 +320,25 @@ public final class SimpleObfuscatorExtensions
 		return true;
 	}
 
+	/**
+	 * The class {@link CachedTable} holds a lookup table and the snapshot of the rules it was built
+	 * from
+	 */
+	private static final class CachedTable
+	{
+
+		/** The snapshot of the rules. */
+		final ImmutableBiMap<Character, Character> rules;
+
+		/** The lookup table of the rules. */
+		final SimpleCharacterTable table;
+
+		CachedTable(final ImmutableBiMap<Character, Character> rules,
+			final SimpleCharacterTable table)
+		{
+			this.rules = rules;
+			this.table = table;
+		}
+	}
+
 }
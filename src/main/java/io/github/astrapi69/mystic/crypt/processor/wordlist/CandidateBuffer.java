@@ -0,0 +1,257 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.mystic.crypt.processor.wordlist;
+
+import java.nio.CharBuffer;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * The class {@link CandidateBuffer} is a reusable and growable character buffer that holds the
+ * current password candidate of a {@link ManglingRules} expansion. The candidate is exposed as a
+ * {@link CharSequence}, so no {@link String} object is created for a candidate unless
+ * {@link CandidateBuffer#toString()} is called. A {@link CandidateBuffer} object is not thread
+ * safe and should be used from one thread only
+ */
+public final class CandidateBuffer implements CharSequence
+{
+
+	/** The characters of the candidate. */
+	private char[] chars;
+
+	/** The cached char buffer view over the characters. */
+	private CharBuffer charBuffer;
+
+	/** The length of the candidate. */
+	private int length;
+
+	/**
+	 * Instantiates a new {@link CandidateBuffer} object with an initial capacity of 64 characters
+	 */
+	public CandidateBuffer()
+	{
+		this(64);
+	}
+
+	/**
+	 * Instantiates a new {@link CandidateBuffer} object
+	 *
+	 * @param capacity
+	 *            the initial capacity
+	 */
+	public CandidateBuffer(final int capacity)
+	{
+		this.chars = new char[Math.max(1, capacity)];
+	}
+
+	/**
+	 * Appends the given character to the end of the candidate
+	 *
+	 * @param character
+	 *            the character to append
+	 */
+	public void append(final char character)
+	{
+		ensureCapacity(length + 1);
+		chars[length++] = character;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public char charAt(final int index)
+	{
+		Objects.checkIndex(index, length);
+		return chars[index];
+	}
+
+	/**
+	 * Checks if the candidate is equal to the given character sequence
+	 *
+	 * @param other
+	 *            the other character sequence
+	 * @return true if the candidate is equal to the given character sequence
+	 */
+	public boolean contentEquals(final CharSequence other)
+	{
+		if (other.length() != length)
+		{
+			return false;
+		}
+		for (int i = 0; i < length; i++)
+		{
+			if (chars[i] != other.charAt(i))
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Inserts the given character at the given index
+	 *
+	 * @param index
+	 *            the index
+	 * @param character
+	 *            the character to insert
+	 */
+	public void insert(final int index, final char character)
+	{
+		Objects.checkIndex(index, length + 1);
+		ensureCapacity(length + 1);
+		System.arraycopy(chars, index, chars, index + 1, length - index);
+		chars[index] = character;
+		length++;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int length()
+	{
+		return length;
+	}
+
+	/**
+	 * Replaces the candidate with the given character sequence
+	 *
+	 * @param sequence
+	 *            the character sequence
+	 */
+	public void set(final CharSequence sequence)
+	{
+		final int sequenceLength = sequence.length();
+		ensureCapacity(sequenceLength);
+		if (sequence instanceof String)
+		{
+			((String)sequence).getChars(0, sequenceLength, chars, 0);
+		}
+		else if (sequence instanceof CandidateBuffer)
+		{
+			System.arraycopy(((CandidateBuffer)sequence).chars, 0, chars, 0, sequenceLength);
+		}
+		else
+		{
+			for (int i = 0; i < sequenceLength; i++)
+			{
+				chars[i] = sequence.charAt(i);
+			}
+		}
+		length = sequenceLength;
+	}
+
+	/**
+	 * Sets the character at the given index
+	 *
+	 * @param index
+	 *            the index
+	 * @param character
+	 *            the new character
+	 */
+	public void setCharAt(final int index, final char character)
+	{
+		Objects.checkIndex(index, length);
+		chars[index] = character;
+	}
+
+	/**
+	 * Sets the length of the candidate. If the new length is greater than the current length the
+	 * new characters are undefined and have to be set
+	 *
+	 * @param newLength
+	 *            the new length
+	 */
+	public void setLength(final int newLength)
+	{
+		if (newLength < 0)
+		{
+			throw new IllegalArgumentException("newLength must not be negative");
+		}
+		ensureCapacity(newLength);
+		length = newLength;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public CharSequence subSequence(final int start, final int end)
+	{
+		Objects.checkFromToIndex(start, end, length);
+		return new String(chars, start, end - start);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString()
+	{
+		return new String(chars, 0, length);
+	}
+
+	/**
+	 * Gets a {@link CharBuffer} view over the backing array with the whole capacity as limit. The
+	 * view is cached and recreated only if the backing array grows
+	 *
+	 * @return the char buffer view
+	 */
+	CharBuffer charBuffer()
+	{
+		if (charBuffer == null || charBuffer.array() != chars)
+		{
+			charBuffer = CharBuffer.wrap(chars);
+		}
+		charBuffer.clear();
+		return charBuffer;
+	}
+
+	/**
+	 * Ensures that the backing array can hold the given number of characters
+	 *
+	 * @param capacity
+	 *            the minimum capacity
+	 */
+	void ensureCapacity(final int capacity)
+	{
+		if (chars.length < capacity)
+		{
+			chars = Arrays.copyOf(chars, Math.max(capacity, chars.length * 2));
+		}
+	}
+
+	/**
+	 * Gets the backing character array
+	 *
+	 * @return the backing character array
+	 */
+	char[] array()
+	{
+		return chars;
+	}
+}
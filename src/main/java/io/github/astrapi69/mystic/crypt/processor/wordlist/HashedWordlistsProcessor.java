@@ -0,0 +1,615 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.mystic.crypt.processor.wordlist;
+
+import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.codec.DecoderException;
+import org.apache.commons.codec.binary.Hex;
+
+import io.github.astrapi69.crypt.api.algorithm.HashAlgorithm;
+import io.github.astrapi69.mystic.crypt.hex.HexableDecryptor;
+import io.github.astrapi69.mystic.crypt.pw.PasswordEncryptor;
+
+/**
+ * The class {@link HashedWordlistsProcessor} runs a dictionary attack against a set of hashed
+ * passwords. Every word of a word list is hashed with the given {@link HashAlgorithm} and salt and
+ * checked against the target hashes. The digest is computed over the salt bytes followed by the
+ * word bytes like in {@link io.github.astrapi69.crypt.data.hash.HashExtensions}.<br>
+ * <br>
+ * The hashes that are stored by {@link PasswordEncryptor#hashAndHexPassword(String, String)} are
+ * not raw digests, the digest is decoded to a {@link String} with the charset and encrypted with a
+ * private key. For this format the processor decrypts the stored hashes once with the private key
+ * and compares the decoded digests of the candidates, every stored hash can have its own salt.<br>
+ * <br>
+ * The word list is split in chunks that are processed in parallel by worker threads, where every
+ * worker thread holds its own {@link MessageDigest} object. Every word can be expanded with
+ * {@link ManglingRules} into password candidates that are hashed without creating a {@link String}
+ * object per candidate. The processing stops as soon as all target hashes are found
+ */
+public class HashedWordlistsProcessor
+{
+
+	/** The constant for the number of words in one chunk of a word list. */
+	public static final int DEFAULT_CHUNK_SIZE = 4096;
+
+	/** The constant for the number of bytes in one chunk of a memory mapped word list. */
+	public static final int DEFAULT_MAPPED_CHUNK_SIZE = 1 << 20;
+
+	/** The rules that try every word verbatim. */
+	private static final ManglingRules VERBATIM = ManglingRules.compile(":");
+
+	/** The charset for encode the words. */
+	private final Charset charset;
+
+	/** The hash algorithm. */
+	private final HashAlgorithm hashAlgorithm;
+
+	/** The number of the worker threads. */
+	private final int parallelism;
+
+	/**
+	 * The flag that indicates if the digests are compared as decoded {@link String} objects like
+	 * in the format of the {@link PasswordEncryptor}.
+	 */
+	private final boolean decodedDigests;
+
+	/** The target hashes grouped by their salts. */
+	private final List<SaltedHashes> saltedHashes;
+
+	/** The number of the target hashes. */
+	private final int targetCount;
+
+	/**
+	 * Instantiates a new {@link HashedWordlistsProcessor} object with as many worker threads as
+	 * processors are available
+	 *
+	 * @param hashAlgorithm
+	 *            the hash algorithm
+	 * @param salt
+	 *            the salt
+	 * @param charset
+	 *            the charset for encode the words
+	 * @param targetHashes
+	 *            the target hashes
+	 * @throws NoSuchAlgorithmException
+	 *             is thrown if the given hash algorithm is not supported
+	 */
+	public HashedWordlistsProcessor(final HashAlgorithm hashAlgorithm, final byte[] salt,
+		final Charset charset, final Collection<byte[]> targetHashes)
+		throws NoSuchAlgorithmException
+	{
+		this(hashAlgorithm, salt, charset, targetHashes,
+			Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Instantiates a new {@link HashedWordlistsProcessor} object
+	 *
+	 * @param hashAlgorithm
+	 *            the hash algorithm
+	 * @param salt
+	 *            the salt
+	 * @param charset
+	 *            the charset for encode the words
+	 * @param targetHashes
+	 *            the target hashes
+	 * @param parallelism
+	 *            the number of the worker threads
+	 * @throws NoSuchAlgorithmException
+	 *             is thrown if the given hash algorithm is not supported
+	 */
+	public HashedWordlistsProcessor(final HashAlgorithm hashAlgorithm, final byte[] salt,
+		final Charset charset, final Collection<byte[]> targetHashes, final int parallelism)
+		throws NoSuchAlgorithmException
+	{
+		Objects.requireNonNull(hashAlgorithm);
+		Objects.requireNonNull(salt);
+		Objects.requireNonNull(charset);
+		Objects.requireNonNull(targetHashes);
+		if (parallelism <= 0)
+		{
+			throw new IllegalArgumentException("parallelism must be positive");
+		}
+		MessageDigest.getInstance(hashAlgorithm.getAlgorithm());
+		this.hashAlgorithm = hashAlgorithm;
+		this.charset = charset;
+		this.parallelism = parallelism;
+		this.decodedDigests = false;
+		final SaltedHashes hashes = new SaltedHashes(salt.clone());
+		for (final byte[] targetHash : targetHashes)
+		{
+			hashes.hashes.put(ByteBuffer.wrap(targetHash.clone()),
+				Hex.encodeHexString(targetHash));
+		}
+		this.saltedHashes = List.of(hashes);
+		this.targetCount = hashes.hashes.size();
+	}
+
+	/**
+	 * Instantiates a new {@link HashedWordlistsProcessor} object for hashes in the format of
+	 * {@link PasswordEncryptor#hashAndHexPassword(String, String, HashAlgorithm, Charset)}
+	 * with as many worker threads as processors are available
+	 *
+	 * @param privateKey
+	 *            the private key of the stored hashes
+	 * @param hashAlgorithm
+	 *            the hash algorithm
+	 * @param charset
+	 *            the charset for encode the words and the salts
+	 * @param storedHashes
+	 *            the map with the stored hashes as keys and their salts as values
+	 * @throws GeneralSecurityException
+	 *             is thrown if the given hash algorithm is not supported or the cipher of the
+	 *             private key can not be created
+	 * @throws UnsupportedEncodingException
+	 *             is thrown if the private key can not be encoded
+	 */
+	public HashedWordlistsProcessor(final String privateKey, final HashAlgorithm hashAlgorithm,
+		final Charset charset, final Map<String, String> storedHashes)
+		throws GeneralSecurityException, UnsupportedEncodingException
+	{
+		this(privateKey, hashAlgorithm, charset, storedHashes,
+			Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Instantiates a new {@link HashedWordlistsProcessor} object for hashes in the format of
+	 * {@link PasswordEncryptor#hashAndHexPassword(String, String, HashAlgorithm, Charset)}.
+	 * The {@link PasswordEncryptor} uses the private key
+	 * {@link io.github.astrapi69.crypt.api.algorithm.compound.CompoundAlgorithm#PASSWORD}
+	 *
+	 * @param privateKey
+	 *            the private key of the stored hashes
+	 * @param hashAlgorithm
+	 *            the hash algorithm
+	 * @param charset
+	 *            the charset for encode the words and the salts
+	 * @param storedHashes
+	 *            the map with the stored hashes as keys and their salts as values
+	 * @param parallelism
+	 *            the number of the worker threads
+	 * @throws GeneralSecurityException
+	 *             is thrown if the given hash algorithm is not supported or the cipher of the
+	 *             private key can not be created
+	 * @throws UnsupportedEncodingException
+	 *             is thrown if the private key can not be encoded
+	 */
+	public HashedWordlistsProcessor(final String privateKey, final HashAlgorithm hashAlgorithm,
+		final Charset charset, final Map<String, String> storedHashes, final int parallelism)
+		throws GeneralSecurityException, UnsupportedEncodingException
+	{
+		Objects.requireNonNull(privateKey);
+		Objects.requireNonNull(hashAlgorithm);
+		Objects.requireNonNull(charset);
+		Objects.requireNonNull(storedHashes);
+		if (parallelism <= 0)
+		{
+			throw new IllegalArgumentException("parallelism must be positive");
+		}
+		MessageDigest.getInstance(hashAlgorithm.getAlgorithm());
+		this.hashAlgorithm = hashAlgorithm;
+		this.charset = charset;
+		this.parallelism = parallelism;
+		this.decodedDigests = true;
+		final HexableDecryptor decryptor = new HexableDecryptor(privateKey);
+		final Map<String, SaltedHashes> hashesBySalt = new LinkedHashMap<>();
+		for (final Map.Entry<String, String> storedHash : storedHashes.entrySet())
+		{
+			final String decodedDigest;
+			try
+			{
+				decodedDigest = decryptor.decrypt(storedHash.getKey());
+			}
+			catch (Exception e)
+			{
+				throw new IllegalArgumentException("The hash " + storedHash.getKey()
+					+ " is not encrypted with the private key", e);
+			}
+			hashesBySalt
+				.computeIfAbsent(Objects.requireNonNull(storedHash.getValue()),
+					salt -> new SaltedHashes(salt.getBytes(charset)))
+				.hashes.put(ByteBuffer.wrap(decodedDigest.getBytes(StandardCharsets.UTF_16BE)),
+					storedHash.getKey());
+		}
+		this.saltedHashes = new ArrayList<>(hashesBySalt.values());
+		this.targetCount = storedHashes.size();
+	}
+
+	/**
+	 * Decodes the given hex encoded hashes
+	 *
+	 * @param hexHashes
+	 *            the hex encoded hashes
+	 * @return the list with the decoded hashes
+	 */
+	public static List<byte[]> decodeHex(final Collection<String> hexHashes)
+	{
+		Objects.requireNonNull(hexHashes);
+		final List<byte[]> hashes = new ArrayList<>(hexHashes.size());
+		for (final String hexHash : hexHashes)
+		{
+			try
+			{
+				hashes.add(Hex.decodeHex(hexHash));
+			}
+			catch (DecoderException e)
+			{
+				throw new IllegalArgumentException("The hash " + hexHash + " is not hex encoded",
+					e);
+			}
+		}
+		return hashes;
+	}
+
+	/**
+	 * Processes the given word list
+	 *
+	 * @param words
+	 *            the words
+	 * @return a map with the found hex encoded hashes as keys and the matching words as values
+	 * @throws InterruptedException
+	 *             is thrown if the current thread was interrupted while waiting for the worker
+	 *             threads
+	 */
+	public Map<String, String> process(final List<String> words) throws InterruptedException
+	{
+		return process(words, VERBATIM);
+	}
+
+	/**
+	 * Processes the given word list and expands every word with the given mangling rules
+	 *
+	 * @param words
+	 *            the words
+	 * @param rules
+	 *            the mangling rules
+	 * @return a map with the found hex encoded hashes as keys and the matching candidates as values
+	 * @throws InterruptedException
+	 *             is thrown if the current thread was interrupted while waiting for the worker
+	 *             threads
+	 */
+	public Map<String, String> process(final List<String> words, final ManglingRules rules)
+		throws InterruptedException
+	{
+		Objects.requireNonNull(words);
+		Objects.requireNonNull(rules);
+		final Map<String, String> found = new ConcurrentHashMap<>();
+		final AtomicInteger nextChunk = new AtomicInteger();
+		final int chunkCount = (words.size() + DEFAULT_CHUNK_SIZE - 1) / DEFAULT_CHUNK_SIZE;
+		execute(() -> {
+			final Worker worker = new Worker(found);
+			int chunk;
+			while (!isComplete(found) && (chunk = nextChunk.getAndIncrement()) < chunkCount)
+			{
+				final int end = Math.min(words.size(), (chunk + 1) * DEFAULT_CHUNK_SIZE);
+				for (int i = chunk * DEFAULT_CHUNK_SIZE; i < end; i++)
+				{
+					if (!rules.forEachCandidate(words.get(i), worker.candidate, worker))
+					{
+						break;
+					}
+				}
+			}
+			return null;
+		});
+		return found;
+	}
+
+	/**
+	 * Processes the given memory mapped word list
+	 *
+	 * @param wordlist
+	 *            the memory mapped word list
+	 * @return a map with the found hex encoded hashes as keys and the matching words as values
+	 * @throws InterruptedException
+	 *             is thrown if the current thread was interrupted while waiting for the worker
+	 *             threads
+	 */
+	public Map<String, String> process(final MappedWordlist wordlist) throws InterruptedException
+	{
+		Objects.requireNonNull(wordlist);
+		final Map<String, String> found = new ConcurrentHashMap<>();
+		final List<int[]> chunks = newChunks(wordlist);
+		final AtomicInteger nextChunk = new AtomicInteger();
+		execute(() -> {
+			final MessageDigest digest = newMessageDigest();
+			int chunk;
+			while (!isComplete(found) && (chunk = nextChunk.getAndIncrement()) < chunks.size())
+			{
+				final int[] range = chunks.get(chunk);
+				final ByteBuffer segment = wordlist.getSegment(range[0]);
+				final ByteBuffer word = segment.duplicate();
+				MappedWordlist.forEachWord(segment, range[1], range[2], (buffer, offset, length) -> {
+					for (final SaltedHashes hashes : saltedHashes)
+					{
+						word.limit(offset + length).position(offset);
+						digest.update(hashes.salt);
+						digest.update(word);
+						final String key = hashes.match(digest.digest());
+						if (key != null)
+						{
+							final byte[] bytes = new byte[length];
+							buffer.get(offset, bytes);
+							found.putIfAbsent(key, new String(bytes, wordlist.getCharset()));
+						}
+					}
+					return !isComplete(found);
+				});
+			}
+			return null;
+		});
+		return found;
+	}
+
+	/**
+	 * Processes the given memory mapped word list and expands every word with the given mangling
+	 * rules. The words are decoded with the charset of the word list
+	 *
+	 * @param wordlist
+	 *            the memory mapped word list
+	 * @param rules
+	 *            the mangling rules
+	 * @return a map with the found hex encoded hashes as keys and the matching candidates as values
+	 * @throws InterruptedException
+	 *             is thrown if the current thread was interrupted while waiting for the worker
+	 *             threads
+	 */
+	public Map<String, String> process(final MappedWordlist wordlist, final ManglingRules rules)
+		throws InterruptedException
+	{
+		Objects.requireNonNull(wordlist);
+		Objects.requireNonNull(rules);
+		final Map<String, String> found = new ConcurrentHashMap<>();
+		final List<int[]> chunks = newChunks(wordlist);
+		final AtomicInteger nextChunk = new AtomicInteger();
+		execute(() -> {
+			final Worker worker = new Worker(found);
+			final CharsetDecoder decoder = wordlist.getCharset().newDecoder()
+				.onMalformedInput(CodingErrorAction.REPLACE)
+				.onUnmappableCharacter(CodingErrorAction.REPLACE);
+			final CandidateBuffer decoded = new CandidateBuffer();
+			int chunk;
+			while (!isComplete(found) && (chunk = nextChunk.getAndIncrement()) < chunks.size())
+			{
+				final int[] range = chunks.get(chunk);
+				final ByteBuffer segment = wordlist.getSegment(range[0]);
+				final ByteBuffer word = segment.duplicate();
+				MappedWordlist.forEachWord(segment, range[1], range[2], (buffer, offset, length) -> {
+					word.limit(offset + length).position(offset);
+					decode(decoder, word, decoded);
+					return rules.forEachCandidate(decoded, worker.candidate, worker);
+				});
+			}
+			return null;
+		});
+		return found;
+	}
+
+	private static void decode(final CharsetDecoder decoder, final ByteBuffer word,
+		final CandidateBuffer decoded)
+	{
+		decoded.ensureCapacity((int)(word.remaining() * (double)decoder.maxCharsPerByte()) + 1);
+		final CharBuffer chars = decoded.charBuffer();
+		decoder.reset();
+		decoder.decode(word, chars, true);
+		decoder.flush(chars);
+		decoded.setLength(chars.position());
+	}
+
+	private void execute(final Callable<Void> worker) throws InterruptedException
+	{
+		final ExecutorService executorService = Executors.newFixedThreadPool(parallelism);
+		try
+		{
+			final List<Future<Void>> futures = new ArrayList<>(parallelism);
+			for (int i = 0; i < parallelism; i++)
+			{
+				futures.add(executorService.submit(worker));
+			}
+			for (final Future<Void> future : futures)
+			{
+				try
+				{
+					future.get();
+				}
+				catch (ExecutionException e)
+				{
+					if (e.getCause() instanceof RuntimeException)
+					{
+						throw (RuntimeException)e.getCause();
+					}
+					throw new IllegalStateException(e.getCause());
+				}
+			}
+		}
+		finally
+		{
+			executorService.shutdownNow();
+		}
+	}
+
+	private boolean isComplete(final Map<String, String> found)
+	{
+		return found.size() == targetCount;
+	}
+
+	private MessageDigest newMessageDigest()
+	{
+		try
+		{
+			return MessageDigest.getInstance(hashAlgorithm.getAlgorithm());
+		}
+		catch (NoSuchAlgorithmException e)
+		{
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private List<int[]> newChunks(final MappedWordlist wordlist)
+	{
+		final List<int[]> chunks = new ArrayList<>();
+		for (int i = 0; i < wordlist.getSegmentCount(); i++)
+		{
+			final ByteBuffer segment = wordlist.getSegment(i);
+			final int limit = segment.limit();
+			int from = 0;
+			while (from < limit)
+			{
+				int to = (int)Math.min(limit, (long)from + DEFAULT_MAPPED_CHUNK_SIZE);
+				while (to < limit && segment.get(to - 1) != '\n')
+				{
+					to++;
+				}
+				chunks.add(new int[] { i, from, to });
+				from = to;
+			}
+		}
+		return chunks;
+	}
+
+	/**
+	 * The class {@link Worker} holds the thread confined state of one worker thread and hashes the
+	 * candidates without creating a {@link String} object for every candidate
+	 */
+	private final class Worker implements CandidateVisitor
+	{
+
+		/** The reusable buffer for the candidates. */
+		final CandidateBuffer candidate = new CandidateBuffer();
+
+		/** The message digest of this worker. */
+		final MessageDigest digest = newMessageDigest();
+
+		/** The encoder for the candidates. */
+		final CharsetEncoder encoder = charset.newEncoder()
+			.onMalformedInput(CodingErrorAction.REPLACE)
+			.onUnmappableCharacter(CodingErrorAction.REPLACE);
+
+		/** The map with the found hashes. */
+		final Map<String, String> found;
+
+		/** The reusable buffer for the encoded candidates. */
+		ByteBuffer encoded = ByteBuffer.allocate(256);
+
+		Worker(final Map<String, String> found)
+		{
+			this.found = found;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public boolean visit(final CandidateBuffer candidate)
+		{
+			final int maxLength = (int)(candidate.length() * (double)encoder.maxBytesPerChar());
+			if (encoded.capacity() < maxLength)
+			{
+				encoded = ByteBuffer.allocate(maxLength);
+			}
+			final CharBuffer chars = candidate.charBuffer();
+			chars.limit(candidate.length());
+			encoded.clear();
+			encoder.reset();
+			encoder.encode(chars, encoded, true);
+			encoder.flush(encoded);
+			encoded.flip();
+			boolean matched = false;
+			for (final SaltedHashes hashes : saltedHashes)
+			{
+				encoded.position(0);
+				digest.update(hashes.salt);
+				digest.update(encoded);
+				final String key = hashes.match(digest.digest());
+				if (key != null)
+				{
+					found.putIfAbsent(key, candidate.toString());
+					matched = true;
+				}
+			}
+			return !matched || !isComplete(found);
+		}
+	}
+
+	/**
+	 * The class {@link SaltedHashes} holds the target hashes that share one salt
+	 */
+	private final class SaltedHashes
+	{
+
+		/** The map with the compared digests as keys and the keys of the found map as values. */
+		final Map<ByteBuffer, String> hashes = new HashMap<>();
+
+		/** The salt. */
+		final byte[] salt;
+
+		SaltedHashes(final byte[] salt)
+		{
+			this.salt = salt;
+		}
+
+		/**
+		 * Matches the given digest of a candidate
+		 *
+		 * @param digest
+		 *            the digest of a candidate
+		 * @return the key of the found map or null if the digest does not match
+		 */
+		String match(final byte[] digest)
+		{
+			if (decodedDigests)
+			{
+				return hashes.get(ByteBuffer.wrap(
+					new String(digest, charset).getBytes(StandardCharsets.UTF_16BE)));
+			}
+			return hashes.get(ByteBuffer.wrap(digest));
+		}
+	}
+}
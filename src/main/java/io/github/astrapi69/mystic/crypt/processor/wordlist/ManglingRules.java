@@ -0,0 +1,389 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.mystic.crypt.processor.wordlist;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The class {@link ManglingRules} holds a compiled and immutable list of mangling rules that expand
+ * a word of a word list to password candidates. The rule syntax follows the common rule syntax of
+ * password crackers, every rule is a sequence of the following functions:
+ * <ul>
+ * <li><code>:</code> leaves the word unchanged</li>
+ * <li><code>l</code> converts the word to lower case</li>
+ * <li><code>u</code> converts the word to upper case</li>
+ * <li><code>c</code> capitalizes the first character and converts the rest to lower case</li>
+ * <li><code>C</code> lower cases the first character and converts the rest to upper case</li>
+ * <li><code>t</code> toggles the case of all characters</li>
+ * <li><code>TN</code> toggles the case of the character at position N</li>
+ * <li><code>r</code> reverses the word</li>
+ * <li><code>d</code> duplicates the word</li>
+ * <li><code>f</code> appends the reversed word</li>
+ * <li><code>[</code> deletes the first character</li>
+ * <li><code>]</code> deletes the last character</li>
+ * <li><code>$X</code> appends the character X</li>
+ * <li><code>^X</code> prepends the character X</li>
+ * <li><code>sXY</code> replaces all characters X with Y</li>
+ * </ul>
+ * Positions are given as 0-9 and A-Z for the positions 10 to 35, spaces between functions are
+ * ignored.<br>
+ * <br>
+ * The candidates are generated lazily into a reusable {@link CandidateBuffer}, so the expansion of
+ * a word allocates no objects. A {@link ManglingRules} object can be shared between threads as long
+ * as every thread uses its own {@link CandidateBuffer}
+ */
+public final class ManglingRules
+{
+
+	/** The compiled rules. */
+	private final Function[][] compiled;
+
+	/** The source of the rules. */
+	private final List<String> rules;
+
+	private ManglingRules(final List<String> rules, final Function[][] compiled)
+	{
+		this.rules = Collections.unmodifiableList(rules);
+		this.compiled = compiled;
+	}
+
+	/**
+	 * Compiles the given rules
+	 *
+	 * @param rules
+	 *            the rules
+	 * @return the compiled {@link ManglingRules} object
+	 * @throws IllegalArgumentException
+	 *             is thrown if a rule is not valid
+	 */
+	public static ManglingRules compile(final String... rules)
+	{
+		return compile(List.of(rules));
+	}
+
+	/**
+	 * Compiles the given rules
+	 *
+	 * @param rules
+	 *            the rules
+	 * @return the compiled {@link ManglingRules} object
+	 * @throws IllegalArgumentException
+	 *             is thrown if a rule is not valid
+	 */
+	public static ManglingRules compile(final List<String> rules)
+	{
+		Objects.requireNonNull(rules);
+		final Function[][] compiled = new Function[rules.size()][];
+		for (int i = 0; i < compiled.length; i++)
+		{
+			compiled[i] = compileRule(rules.get(i));
+		}
+		return new ManglingRules(new ArrayList<>(rules), compiled);
+	}
+
+	/**
+	 * Factory method for create the default {@link ManglingRules} object with case toggles,
+	 * leetspeak substitutions, appended digits and appended years
+	 *
+	 * @return the default {@link ManglingRules} object
+	 */
+	public static ManglingRules defaults()
+	{
+		final List<String> rules = new ArrayList<>(List.of(":", "l", "u", "c", "C", "t", "r", "d",
+			"sa4", "sa@", "se3", "si1", "si!", "so0", "ss5", "ss$", "st7", "sa4se3si1so0ss5st7",
+			"csa4se3si1so0ss5st7", "$!", "c$!", "$1$2$3", "c$1$2$3"));
+		for (char digit = '0'; digit <= '9'; digit++)
+		{
+			rules.add("$" + digit);
+			rules.add("c$" + digit);
+			for (char second = '0'; second <= '9'; second++)
+			{
+				rules.add("$" + digit + "$" + second);
+			}
+		}
+		for (int year = 1950; year <= 2030; year++)
+		{
+			final String appendYear = appendAll(String.valueOf(year));
+			rules.add(appendYear);
+			rules.add("c" + appendYear);
+		}
+		return compile(rules);
+	}
+
+	private static String appendAll(final String value)
+	{
+		final StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < value.length(); i++)
+		{
+			sb.append('$').append(value.charAt(i));
+		}
+		return sb.toString();
+	}
+
+	private static Function[] compileRule(final String rule)
+	{
+		Objects.requireNonNull(rule);
+		final List<Function> functions = new ArrayList<>();
+		int i = 0;
+		while (i < rule.length())
+		{
+			final char name = rule.charAt(i++);
+			switch (name)
+			{
+				case ' ' :
+				case ':' :
+					break;
+				case 'l' :
+					functions.add(ManglingRules::lower);
+					break;
+				case 'u' :
+					functions.add(ManglingRules::upper);
+					break;
+				case 'c' :
+					functions.add(candidate -> {
+						lower(candidate);
+						toggle(candidate, 0);
+					});
+					break;
+				case 'C' :
+					functions.add(candidate -> {
+						upper(candidate);
+						toggle(candidate, 0);
+					});
+					break;
+				case 't' :
+					functions.add(candidate -> {
+						for (int index = 0; index < candidate.length(); index++)
+						{
+							toggle(candidate, index);
+						}
+					});
+					break;
+				case 'T' :
+				{
+					final int position = position(rule, i++);
+					functions.add(candidate -> toggle(candidate, position));
+					break;
+				}
+				case 'r' :
+					functions.add(ManglingRules::reverse);
+					break;
+				case 'd' :
+					functions.add(candidate -> {
+						final int length = candidate.length();
+						candidate.setLength(length * 2);
+						System.arraycopy(candidate.array(), 0, candidate.array(), length, length);
+					});
+					break;
+				case 'f' :
+					functions.add(candidate -> {
+						final int length = candidate.length();
+						candidate.setLength(length * 2);
+						final char[] chars = candidate.array();
+						for (int index = 0; index < length; index++)
+						{
+							chars[length * 2 - 1 - index] = chars[index];
+						}
+					});
+					break;
+				case '[' :
+					functions.add(candidate -> {
+						if (0 < candidate.length())
+						{
+							final char[] chars = candidate.array();
+							System.arraycopy(chars, 1, chars, 0, candidate.length() - 1);
+							candidate.setLength(candidate.length() - 1);
+						}
+					});
+					break;
+				case ']' :
+					functions.add(candidate -> {
+						if (0 < candidate.length())
+						{
+							candidate.setLength(candidate.length() - 1);
+						}
+					});
+					break;
+				case '$' :
+				{
+					final char character = argument(rule, i++);
+					functions.add(candidate -> candidate.append(character));
+					break;
+				}
+				case '^' :
+				{
+					final char character = argument(rule, i++);
+					functions.add(candidate -> candidate.insert(0, character));
+					break;
+				}
+				case 's' :
+				{
+					final char character = argument(rule, i++);
+					final char replaceWith = argument(rule, i++);
+					functions.add(candidate -> {
+						final char[] chars = candidate.array();
+						for (int index = 0; index < candidate.length(); index++)
+						{
+							if (chars[index] == character)
+							{
+								chars[index] = replaceWith;
+							}
+						}
+					});
+					break;
+				}
+				default :
+					throw new IllegalArgumentException("Unknown function '" + name
+						+ "' at position " + (i - 1) + " in rule '" + rule + "'");
+			}
+		}
+		return functions.toArray(new Function[0]);
+	}
+
+	private static char argument(final String rule, final int index)
+	{
+		if (rule.length() <= index)
+		{
+			throw new IllegalArgumentException(
+				"Missing argument at position " + index + " in rule '" + rule + "'");
+		}
+		return rule.charAt(index);
+	}
+
+	private static int position(final String rule, final int index)
+	{
+		final int position = Character.digit(argument(rule, index), 36);
+		if (position < 0)
+		{
+			throw new IllegalArgumentException(
+				"Invalid position at position " + index + " in rule '" + rule + "'");
+		}
+		return position;
+	}
+
+	private static void lower(final CandidateBuffer candidate)
+	{
+		final char[] chars = candidate.array();
+		for (int index = 0; index < candidate.length(); index++)
+		{
+			chars[index] = Character.toLowerCase(chars[index]);
+		}
+	}
+
+	private static void upper(final CandidateBuffer candidate)
+	{
+		final char[] chars = candidate.array();
+		for (int index = 0; index < candidate.length(); index++)
+		{
+			chars[index] = Character.toUpperCase(chars[index]);
+		}
+	}
+
+	private static void reverse(final CandidateBuffer candidate)
+	{
+		final char[] chars = candidate.array();
+		for (int left = 0, right = candidate.length() - 1; left < right; left++, right--)
+		{
+			final char character = chars[left];
+			chars[left] = chars[right];
+			chars[right] = character;
+		}
+	}
+
+	private static void toggle(final CandidateBuffer candidate, final int index)
+	{
+		if (index < candidate.length())
+		{
+			final char[] chars = candidate.array();
+			final char character = chars[index];
+			chars[index] = Character.isUpperCase(character)
+				? Character.toLowerCase(character)
+				: Character.toUpperCase(character);
+		}
+	}
+
+	/**
+	 * Expands the given word with all rules and passes every candidate to the given visitor
+	 *
+	 * @param word
+	 *            the word to expand
+	 * @param candidate
+	 *            the reusable buffer for the candidates
+	 * @param visitor
+	 *            the visitor that receives the candidates
+	 * @return false if the visitor stopped the expansion otherwise true
+	 */
+	public boolean forEachCandidate(final CharSequence word, final CandidateBuffer candidate,
+		final CandidateVisitor visitor)
+	{
+		for (final Function[] functions : compiled)
+		{
+			candidate.set(word);
+			for (final Function function : functions)
+			{
+				function.apply(candidate);
+			}
+			if (!visitor.visit(candidate))
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Gets the source of the rules
+	 *
+	 * @return the unmodifiable list with the rules
+	 */
+	public List<String> getRules()
+	{
+		return rules;
+	}
+
+	/**
+	 * Gets the number of the rules, that is the number of candidates that are generated from one
+	 * word
+	 *
+	 * @return the number of the rules
+	 */
+	public int size()
+	{
+		return compiled.length;
+	}
+
+	/**
+	 * The interface {@link Function} is one compiled function of a rule that mutates the candidate
+	 * in place
+	 */
+	@FunctionalInterface
+	private interface Function
+	{
+		void apply(CandidateBuffer candidate);
+	}
+}
@@ -0,0 +1,490 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.mystic.crypt.processor.wordlist;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * The class {@link MappedWordlist} provides a word list that is memory mapped from a file and is
+ * never loaded on the heap. The words are separated by line breaks and are iterated as zero-copy
+ * byte slices with a {@link WordVisitor}, so even multi-GB word lists can be processed. For fast
+ * membership checks an on-disk hash index can be build or opened with the
+ * {@link WordlistIndex}.<br>
+ * <br>
+ * The word list is mapped in segments that always end on a line break, so a word is always located
+ * in exactly one segment
+ */
+public class MappedWordlist implements Closeable
+{
+
+	/** The constant for the default size of a mapped segment. */
+	public static final int DEFAULT_SEGMENT_SIZE = 1 << 30;
+
+	/** The FNV-1a 64 bit offset basis. */
+	private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+
+	/** The FNV-1a 64 bit prime. */
+	private static final long FNV_PRIME = 0x100000001b3L;
+
+	/** The charset of the word list. */
+	private final Charset charset;
+
+	/** The file channel of the word list. */
+	private final FileChannel channel;
+
+	/** The absolute start offsets of the segments in the word list file. */
+	private final long[] segmentOffsets;
+
+	/** The memory mapped segments. */
+	private final ByteBuffer[] segments;
+
+	/** The size of the word list file in bytes. */
+	private final long size;
+
+	/** The word list file. */
+	private final File wordlist;
+
+	/**
+	 * Instantiates a new {@link MappedWordlist} object from the given word list file with the
+	 * charset UTF-8
+	 *
+	 * @param wordlist
+	 *            the word list file
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	public MappedWordlist(final File wordlist) throws IOException
+	{
+		this(wordlist, StandardCharsets.UTF_8, DEFAULT_SEGMENT_SIZE);
+	}
+
+	/**
+	 * Instantiates a new {@link MappedWordlist} object from the given word list file
+	 *
+	 * @param wordlist
+	 *            the word list file
+	 * @param charset
+	 *            the charset of the word list
+	 * @param segmentSize
+	 *            the maximum size of a mapped segment in bytes
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	public MappedWordlist(final File wordlist, final Charset charset, final int segmentSize)
+		throws IOException
+	{
+		Objects.requireNonNull(wordlist);
+		Objects.requireNonNull(charset);
+		if (segmentSize <= 0)
+		{
+			throw new IllegalArgumentException("segmentSize must be positive");
+		}
+		this.wordlist = wordlist;
+		this.charset = charset;
+		this.channel = FileChannel.open(wordlist.toPath(), StandardOpenOption.READ);
+		this.size = channel.size();
+		final List<ByteBuffer> mappedSegments = new ArrayList<>();
+		final List<Long> offsets = new ArrayList<>();
+		long start = 0;
+		while (start < size)
+		{
+			final int length = (int)Math.min(segmentSize, size - start);
+			ByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+			int end = length;
+			if (start + length < size)
+			{
+				end = lastLineBreak(mapped, length) + 1;
+				if (end == 0)
+				{
+					channel.close();
+					throw new IOException("The word list " + wordlist.getName()
+						+ " contains a line that is longer than the segment size " + segmentSize);
+				}
+				mapped = mapped.slice(0, end);
+			}
+			mappedSegments.add(mapped);
+			offsets.add(start);
+			start += end;
+		}
+		this.segments = mappedSegments.toArray(new ByteBuffer[0]);
+		this.segmentOffsets = offsets.stream().mapToLong(Long::longValue).toArray();
+	}
+
+	/**
+	 * Computes the FNV-1a 64 bit hash of the given byte array
+	 *
+	 * @param bytes
+	 *            the byte array
+	 * @return the hash value
+	 */
+	static long hash(final byte[] bytes)
+	{
+		long hash = FNV_OFFSET_BASIS;
+		for (final byte b : bytes)
+		{
+			hash ^= b & 0xff;
+			hash *= FNV_PRIME;
+		}
+		return hash;
+	}
+
+	/**
+	 * Computes the FNV-1a 64 bit hash of the given byte slice
+	 *
+	 * @param buffer
+	 *            the buffer
+	 * @param offset
+	 *            the absolute offset of the slice
+	 * @param length
+	 *            the length of the slice
+	 * @return the hash value
+	 */
+	static long hash(final ByteBuffer buffer, final int offset, final int length)
+	{
+		long hash = FNV_OFFSET_BASIS;
+		for (int i = offset; i < offset + length; i++)
+		{
+			hash ^= buffer.get(i) & 0xff;
+			hash *= FNV_PRIME;
+		}
+		return hash;
+	}
+
+	/**
+	 * Checks if the given byte slice is equal to the given byte array
+	 *
+	 * @param buffer
+	 *            the buffer
+	 * @param offset
+	 *            the absolute offset of the slice
+	 * @param length
+	 *            the length of the slice
+	 * @param bytes
+	 *            the byte array to compare with
+	 * @return true if the slice is equal to the given byte array
+	 */
+	static boolean equals(final ByteBuffer buffer, final int offset, final int length,
+		final byte[] bytes)
+	{
+		if (length != bytes.length)
+		{
+			return false;
+		}
+		for (int i = 0; i < length; i++)
+		{
+			if (buffer.get(offset + i) != bytes[i])
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static int lastLineBreak(final ByteBuffer buffer, final int length)
+	{
+		for (int i = length - 1; 0 <= i; i--)
+		{
+			if (buffer.get(i) == '\n')
+			{
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private static int nextPowerOfTwo(final int value)
+	{
+		return value <= 1 ? 1 : Integer.highestOneBit(value - 1) << 1;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void close() throws IOException
+	{
+		channel.close();
+	}
+
+	/**
+	 * Checks if the given word is contained in this word list with a linear scan
+	 *
+	 * @param word
+	 *            the word to check
+	 * @return true if the given word is contained in this word list
+	 */
+	public boolean contains(final String word)
+	{
+		return !containsAll(Set.of(word)).isEmpty();
+	}
+
+	/**
+	 * Finds all words of the given targets that are contained in this word list. All targets are
+	 * checked together in one single pass over the word list that stops as soon as all targets are
+	 * found
+	 *
+	 * @param targets
+	 *            the words to check
+	 * @return a set with the targets that are contained in this word list
+	 */
+	public Set<String> containsAll(final Collection<String> targets)
+	{
+		Objects.requireNonNull(targets);
+		final String[] words = new LinkedHashSet<>(targets).toArray(new String[0]);
+		final byte[][] wordBytes = new byte[words.length][];
+		final long[] hashes = new long[words.length];
+		final int[] table = new int[nextPowerOfTwo(Math.max(2, words.length * 2))];
+		final int mask = table.length - 1;
+		Arrays.fill(table, -1);
+		for (int i = 0; i < words.length; i++)
+		{
+			wordBytes[i] = words[i].getBytes(charset);
+			hashes[i] = hash(wordBytes[i]);
+			int slot = (int)hashes[i] & mask;
+			while (table[slot] != -1)
+			{
+				slot = (slot + 1) & mask;
+			}
+			table[slot] = i;
+		}
+		final boolean[] found = new boolean[words.length];
+		final int[] remaining = { words.length };
+		forEachWord((buffer, offset, length) -> {
+			final long hash = hash(buffer, offset, length);
+			int slot = (int)hash & mask;
+			int index;
+			while ((index = table[slot]) != -1)
+			{
+				if (!found[index] && hashes[index] == hash
+					&& equals(buffer, offset, length, wordBytes[index]))
+				{
+					found[index] = true;
+					remaining[0]--;
+				}
+				slot = (slot + 1) & mask;
+			}
+			return 0 < remaining[0];
+		});
+		final Set<String> result = new LinkedHashSet<>();
+		for (int i = 0; i < words.length; i++)
+		{
+			if (found[i])
+			{
+				result.add(words[i]);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Iterates over all words of this word list
+	 *
+	 * @param visitor
+	 *            the visitor that receives the words
+	 * @return the number of visited words
+	 */
+	public long forEachWord(final WordVisitor visitor)
+	{
+		Objects.requireNonNull(visitor);
+		long count = 0;
+		for (int i = 0; i < segments.length; i++)
+		{
+			final long visited = forEachWord(i, visitor);
+			count += Math.abs(visited);
+			if (visited < 0)
+			{
+				break;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Iterates over all words of the segment with the given index
+	 *
+	 * @param segmentIndex
+	 *            the index of the segment
+	 * @param visitor
+	 *            the visitor that receives the words
+	 * @return the number of visited words, negative if the visitor stopped the iteration
+	 */
+	public long forEachWord(final int segmentIndex, final WordVisitor visitor)
+	{
+		Objects.requireNonNull(visitor);
+		return forEachWord(segments[segmentIndex], 0, segments[segmentIndex].limit(), visitor);
+	}
+
+	/**
+	 * Iterates over all words in the given range of the given buffer. The range have to start at
+	 * the beginning of a line
+	 *
+	 * @param buffer
+	 *            the buffer
+	 * @param from
+	 *            the absolute start offset of the range, inclusive
+	 * @param to
+	 *            the absolute end offset of the range, exclusive
+	 * @param visitor
+	 *            the visitor that receives the words
+	 * @return the number of visited words, negative if the visitor stopped the iteration
+	 */
+	static long forEachWord(final ByteBuffer buffer, final int from, final int to,
+		final WordVisitor visitor)
+	{
+		long count = 0;
+		int start = from;
+		for (int i = from; i <= to; i++)
+		{
+			if (i == to || buffer.get(i) == '\n')
+			{
+				int end = i;
+				if (start < end && buffer.get(end - 1) == '\r')
+				{
+					end--;
+				}
+				if (start < end)
+				{
+					count++;
+					if (!visitor.visit(buffer, start, end - start))
+					{
+						return -count;
+					}
+				}
+				start = i + 1;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Gets the charset of this word list
+	 *
+	 * @return the charset
+	 */
+	public Charset getCharset()
+	{
+		return charset;
+	}
+
+	/**
+	 * Gets the memory mapped segment with the given index
+	 *
+	 * @param segmentIndex
+	 *            the index of the segment
+	 * @return the read only segment
+	 */
+	public ByteBuffer getSegment(final int segmentIndex)
+	{
+		return segments[segmentIndex].asReadOnlyBuffer();
+	}
+
+	/**
+	 * Gets the number of the memory mapped segments
+	 *
+	 * @return the number of the segments
+	 */
+	public int getSegmentCount()
+	{
+		return segments.length;
+	}
+
+	/**
+	 * Gets the absolute start offset of the segment with the given index in the word list file
+	 *
+	 * @param segmentIndex
+	 *            the index of the segment
+	 * @return the absolute start offset of the segment
+	 */
+	public long getSegmentOffset(final int segmentIndex)
+	{
+		return segmentOffsets[segmentIndex];
+	}
+
+	/**
+	 * Gets the index of the segment that contains the given absolute offset
+	 *
+	 * @param offset
+	 *            the absolute offset in the word list file
+	 * @return the index of the segment
+	 */
+	public int getSegmentIndex(final long offset)
+	{
+		final int index = Arrays.binarySearch(segmentOffsets, offset);
+		return index < 0 ? -index - 2 : index;
+	}
+
+	/**
+	 * Gets the word list file
+	 *
+	 * @return the word list file
+	 */
+	public File getWordlist()
+	{
+		return wordlist;
+	}
+
+	/**
+	 * Gets the size of the word list file in bytes
+	 *
+	 * @return the size in bytes
+	 */
+	public long size()
+	{
+		return size;
+	}
+
+	/**
+	 * Checks if the word with the given absolute offset and length in the word list file is equal
+	 * to the given byte array
+	 *
+	 * @param offset
+	 *            the absolute offset of the word in the word list file
+	 * @param length
+	 *            the length of the word
+	 * @param bytes
+	 *            the byte array to compare with
+	 * @return true if the word is equal to the given byte array
+	 */
+	boolean wordEquals(final long offset, final int length, final byte[] bytes)
+	{
+		final int segmentIndex = getSegmentIndex(offset);
+		return equals(segments[segmentIndex], (int)(offset - segmentOffsets[segmentIndex]),
+			length, bytes);
+	}
+}
@@ -0,0 +1,51 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.mystic.crypt.processor.wordlist;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The functional interface {@link WordVisitor} receives the words of a {@link MappedWordlist} as
+ * zero-copy byte slices of the underlying memory mapped segment. The given buffer must not be
+ * modified and the slice is only valid for the duration of the call
+ */
+@FunctionalInterface
+public interface WordVisitor
+{
+
+	/**
+	 * Visits the word that is located in the given buffer at the given offset with the given
+	 * length
+	 *
+	 * @param buffer
+	 *            the buffer of the memory mapped segment that contains the word
+	 * @param offset
+	 *            the absolute offset of the word in the given buffer
+	 * @param length
+	 *            the length of the word in bytes
+	 * @return true if the iteration should continue, otherwise false
+	 */
+	boolean visit(ByteBuffer buffer, int offset, int length);
+}
@@ -0,0 +1,278 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.mystic.crypt.processor.wordlist;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+
+/**
+ * The class {@link WordlistIndex} is an on-disk open addressing hash index over a
+ * {@link MappedWordlist}. Every slot of the index references the offset and the length of a word in
+ * the word list file and holds a 32 bit fingerprint of the word, so a lookup touches only a few
+ * slots and compares the bytes of the word list only on a fingerprint match.<br>
+ * <br>
+ * The index is build once with {@link WordlistIndex#build(MappedWordlist, File)} and can be
+ * reopened with {@link WordlistIndex#open(MappedWordlist, File)} as long as the word list is not
+ * modified
+ */
+public class WordlistIndex implements Closeable
+{
+
+	/** The magic number at the start of an index file. */
+	static final int MAGIC = 0x57494458;
+
+	/** The size of the header of an index file in bytes. */
+	static final int HEADER_SIZE = 24;
+
+	/** The size of one slot in bytes. */
+	static final int SLOT_SIZE = 16;
+
+	/** The number of slots that are mapped in one segment. */
+	private static final int SLOTS_PER_SEGMENT = 1 << 26;
+
+	/** The file channel of the index file. */
+	private final FileChannel channel;
+
+	/** The mask for the slot index. */
+	private final long mask;
+
+	/** The memory mapped slot segments. */
+	private final MappedByteBuffer[] segments;
+
+	/** The number of slots. */
+	private final long slotCount;
+
+	/** The indexed word list. */
+	private final MappedWordlist wordlist;
+
+	private WordlistIndex(final MappedWordlist wordlist, final FileChannel channel,
+		final long slotCount, final FileChannel.MapMode mapMode) throws IOException
+	{
+		this.wordlist = wordlist;
+		this.channel = channel;
+		this.slotCount = slotCount;
+		this.mask = slotCount - 1;
+		final int segmentCount = (int)((slotCount + SLOTS_PER_SEGMENT - 1) / SLOTS_PER_SEGMENT);
+		this.segments = new MappedByteBuffer[segmentCount];
+		for (int i = 0; i < segmentCount; i++)
+		{
+			final long firstSlot = (long)i * SLOTS_PER_SEGMENT;
+			final long slots = Math.min(SLOTS_PER_SEGMENT, slotCount - firstSlot);
+			segments[i] = channel.map(mapMode, HEADER_SIZE + firstSlot * SLOT_SIZE,
+				slots * SLOT_SIZE);
+		}
+	}
+
+	/**
+	 * Builds a new index file for the given word list. An existing index file will be overwritten
+	 *
+	 * @param wordlist
+	 *            the word list to index
+	 * @param indexFile
+	 *            the index file
+	 * @return the new {@link WordlistIndex} object
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	public static WordlistIndex build(final MappedWordlist wordlist, final File indexFile)
+		throws IOException
+	{
+		Objects.requireNonNull(wordlist);
+		Objects.requireNonNull(indexFile);
+		final long wordCount = wordlist.forEachWord((buffer, offset, length) -> true);
+		final long slotCount = Math.max(2L, Long.highestOneBit(Math.max(1L, wordCount * 2 - 1)) << 1);
+		final FileChannel channel = FileChannel.open(indexFile.toPath(), StandardOpenOption.CREATE,
+			StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ,
+			StandardOpenOption.WRITE);
+		try
+		{
+			final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+			header.putInt(MAGIC).putInt(SLOT_SIZE).putLong(wordlist.size()).putLong(slotCount);
+			header.flip();
+			channel.write(header, 0);
+			final WordlistIndex index = new WordlistIndex(wordlist, channel, slotCount,
+				FileChannel.MapMode.READ_WRITE);
+			for (int i = 0; i < wordlist.getSegmentCount(); i++)
+			{
+				final long segmentOffset = wordlist.getSegmentOffset(i);
+				wordlist.forEachWord(i, (buffer, offset, length) -> {
+					index.insert(buffer, offset, length, segmentOffset + offset);
+					return true;
+				});
+			}
+			for (final MappedByteBuffer segment : index.segments)
+			{
+				segment.force();
+			}
+			return index;
+		}
+		catch (IOException | RuntimeException exception)
+		{
+			channel.close();
+			throw exception;
+		}
+	}
+
+	/**
+	 * Opens an existing index file for the given word list
+	 *
+	 * @param wordlist
+	 *            the indexed word list
+	 * @param indexFile
+	 *            the index file
+	 * @return the {@link WordlistIndex} object
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred or the index file does not match the
+	 *             given word list
+	 */
+	public static WordlistIndex open(final MappedWordlist wordlist, final File indexFile)
+		throws IOException
+	{
+		Objects.requireNonNull(wordlist);
+		Objects.requireNonNull(indexFile);
+		final FileChannel channel = FileChannel.open(indexFile.toPath(), StandardOpenOption.READ);
+		try
+		{
+			final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+			while (header.hasRemaining() && channel.read(header, header.position()) != -1)
+			{
+			}
+			header.flip();
+			if (header.remaining() < HEADER_SIZE || header.getInt() != MAGIC
+				|| header.getInt() != SLOT_SIZE)
+			{
+				throw new IOException(
+					"The file " + indexFile.getName() + " is not a valid word list index");
+			}
+			if (header.getLong() != wordlist.size())
+			{
+				throw new IOException("The index file " + indexFile.getName()
+					+ " does not match the word list " + wordlist.getWordlist().getName());
+			}
+			final long slotCount = header.getLong();
+			if (slotCount <= 0 || Long.bitCount(slotCount) != 1
+				|| channel.size() != HEADER_SIZE + slotCount * SLOT_SIZE)
+			{
+				throw new IOException("The index file " + indexFile.getName() + " is corrupted");
+			}
+			return new WordlistIndex(wordlist, channel, slotCount, FileChannel.MapMode.READ_ONLY);
+		}
+		catch (IOException | RuntimeException exception)
+		{
+			channel.close();
+			throw exception;
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void close() throws IOException
+	{
+		channel.close();
+	}
+
+	/**
+	 * Checks if the given word is contained in the indexed word list
+	 *
+	 * @param word
+	 *            the word to check
+	 * @return true if the given word is contained in the indexed word list
+	 */
+	public boolean contains(final String word)
+	{
+		Objects.requireNonNull(word);
+		final byte[] bytes = word.getBytes(wordlist.getCharset());
+		final long hash = MappedWordlist.hash(bytes);
+		final int fingerprint = (int)(hash >>> 32);
+		for (long slot = hash & mask;; slot = (slot + 1) & mask)
+		{
+			final ByteBuffer segment = segments[(int)(slot / SLOTS_PER_SEGMENT)];
+			final int position = (int)(slot % SLOTS_PER_SEGMENT) * SLOT_SIZE;
+			final long reference = segment.getLong(position);
+			if (reference == 0)
+			{
+				return false;
+			}
+			if (segment.getInt(position + 12) == fingerprint
+				&& segment.getInt(position + 8) == bytes.length
+				&& wordlist.wordEquals(reference - 1, bytes.length, bytes))
+			{
+				return true;
+			}
+		}
+	}
+
+	/**
+	 * Gets the number of the slots of this index
+	 *
+	 * @return the number of the slots
+	 */
+	public long getSlotCount()
+	{
+		return slotCount;
+	}
+
+	private void insert(final ByteBuffer buffer, final int offset, final int length,
+		final long absoluteOffset)
+	{
+		final long hash = MappedWordlist.hash(buffer, offset, length);
+		final int fingerprint = (int)(hash >>> 32);
+		for (long slot = hash & mask;; slot = (slot + 1) & mask)
+		{
+			final ByteBuffer segment = segments[(int)(slot / SLOTS_PER_SEGMENT)];
+			final int position = (int)(slot % SLOTS_PER_SEGMENT) * SLOT_SIZE;
+			final long reference = segment.getLong(position);
+			if (reference == 0)
+			{
+				segment.putLong(position, absoluteOffset + 1);
+				segment.putInt(position + 8, length);
+				segment.putInt(position + 12, fingerprint);
+				return;
+			}
+			if (segment.getInt(position + 12) == fingerprint
+				&& segment.getInt(position + 8) == length
+				&& duplicate(buffer, offset, length, reference - 1))
+			{
+				return;
+			}
+		}
+	}
+
+	private boolean duplicate(final ByteBuffer buffer, final int offset, final int length,
+		final long otherOffset)
+	{
+		final byte[] bytes = new byte[length];
+		buffer.get(offset, bytes);
+		return wordlist.wordEquals(otherOffset, length, bytes);
+	}
+}
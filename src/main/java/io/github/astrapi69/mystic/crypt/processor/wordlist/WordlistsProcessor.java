@@ -25,6 +25,7 @@
 package io.github.astrapi69.mystic.crypt.processor.wordlist;
 
 import java.util.List;
+import java.util.Objects;
 
 import io.github.astrapi69.check.Check;
 
@@ -129,19 +130,41 @@ public class WordlistsProcessor
 	 */
 	public boolean process()
 	{
-		boolean continueIterate = true;
-		boolean found = false;
 		String attempt = getCurrentAttempt();
-		while (continueIterate)
+		while (attempt != null)
 		{
 			if (attempt.equals(toCheckAgainst))
 			{
-				found = true;
-				break;
+				return true;
 			}
+			increment();
 			attempt = getCurrentAttempt();
-			continueIterate = increment();
 		}
-		return found;
+		return false;
+	}
+
+	/**
+	 * Processes the word list and expands every word with the given mangling rules.
+	 *
+	 * @param rules
+	 *            the mangling rules
+	 * @return true, if successful
+	 */
+	public boolean process(final ManglingRules rules)
+	{
+		Objects.requireNonNull(rules);
+		final CandidateBuffer candidate = new CandidateBuffer();
+		String attempt = getCurrentAttempt();
+		while (attempt != null)
+		{
+			if (!rules.forEachCandidate(attempt, candidate,
+				current -> !current.contentEquals(toCheckAgainst)))
+			{
+				return true;
+			}
+			increment();
+			attempt = getCurrentAttempt();
+		}
+		return false;
 	}
 }
@@ -30,6 +30,8 @@ import java.security.NoSuchAlgorithmException;
 import java.security.spec.InvalidKeySpecException;
 import java.text.Normalizer;
 import java.util.Objects;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 import javax.crypto.Cipher;
 import javax.crypto.NoSuchPaddingException;
@@ -54,12 +56,15 @@ public class PasswordByteDecryptor implements ByteArrayDecryptor, Cryptor
 	 */
 	private Cipher cipher;
 
+	/** The lock that guards the cipher and the password. */
+	private final Lock lock = new ReentrantLock();
+
 	/**
 	 * The flag initialized that indicates if the cipher is initialized for decryption.
 	 *
 	 * @return true, if is initialized
 	 */
-	private boolean initialized;
+	private volatile boolean initialized;
 
 	/**
 	 * The normalized password.
@@ -88,19 +93,32 @@ public class PasswordByteDecryptor implements ByteArrayDecryptor, Cryptor
 	{
 		Objects.requireNonNull(encryptedBytes);
 		final byte[] decryptedBytes;
-		synchronized (this.cipher)
+		lock.lock();
+		try
 		{
 			decryptedBytes = this.cipher.doFinal(encryptedBytes);
 		}
+		finally
+		{
+			lock.unlock();
+		}
 		return decryptedBytes;
 	}
 
 	/**
 	 * Resets the password
 	 */
-	public synchronized void resetPassword()
+	public void resetPassword()
 	{
-		this.normalizedPassword = null;
+		lock.lock();
+		try
+		{
+			this.normalizedPassword = null;
+		}
+		finally
+		{
+			lock.unlock();
+		}
 	}
 
 	/**
@@ -117,19 +135,27 @@ public class PasswordByteDecryptor implements ByteArrayDecryptor, Cryptor
 	 * @throws InvalidKeyException
 	 *             is thrown if initialization of the cipher object fails.
 	 */
-	private synchronized void initialize() throws NoSuchAlgorithmException, InvalidKeySpecException,
+	private void initialize() throws NoSuchAlgorithmException, InvalidKeySpecException,
 		NoSuchPaddingException, InvalidKeyException, InvalidAlgorithmParameterException
 	{
-		if (!isInitialized())
+		lock.lock();
+		try
+		{
+			if (!isInitialized())
+			{
+				this.cipher = CipherFactory.newPBECipher(this.normalizedPassword.toCharArray(),
+					newOperationMode(), CompoundAlgorithm.PBE_WITH_MD5_AND_DES.getAlgorithm());
+				resetPassword();
+				initialized = true;
+			}
+		}
+		finally
 		{
-			this.cipher = CipherFactory.newPBECipher(this.normalizedPassword.toCharArray(),
-				newOperationMode(), CompoundAlgorithm.PBE_WITH_MD5_AND_DES.getAlgorithm());
-			resetPassword();
-			initialized = true;
+			lock.unlock();
 		}
 	}
 
-	private synchronized boolean isInitialized()
+	private boolean isInitialized()
 	{
 		return this.initialized;
 	}
@@ -24,16 +24,22 @@
  */
 package io.github.astrapi69.mystic.crypt.pw;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.security.InvalidAlgorithmParameterException;
 import java.security.InvalidKeyException;
 import java.security.NoSuchAlgorithmException;
 import java.security.spec.InvalidKeySpecException;
 import java.text.Normalizer;
 import java.util.Objects;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 import javax.crypto.Cipher;
 import javax.crypto.NoSuchPaddingException;
@@ -45,7 +51,8 @@ import io.github.astrapi69.crypt.api.Cryptor;
 import io.github.astrapi69.crypt.api.FileDecryptor;
 import io.github.astrapi69.crypt.api.algorithm.compound.CompoundAlgorithm;
 import io.github.astrapi69.crypt.data.factory.CipherFactory;
-import io.github.astrapi69.mystic.crypt.io.CryptoCipherOutputStream;
+import io.github.astrapi69.mystic.crypt.compress.CompressionCodecs;
+import io.github.astrapi69.mystic.crypt.io.CryptoCipherInputStream;
 import io.github.astrapi69.throwable.RuntimeExceptionDecorator;
 
 /**
@@ -62,6 +69,9 @@ public class PasswordFileDecryptor implements FileDecryptor, Cryptor
 	 */
 	private Cipher cipher;
 
+	/** The lock that guards the cipher and the password. */
+	private final Lock lock = new ReentrantLock();
+
 	/** The decrypted file. */
 	private File decryptedFile;
 
@@ -70,7 +80,7 @@ public class PasswordFileDecryptor implements FileDecryptor, Cryptor
 	 *
 	 * @return true, if is initialized
 	 */
-	private boolean initialized;
+	private volatile boolean initialized;
 
 	/**
 	 * The normalized password.
@@ -109,25 +119,46 @@ public class PasswordFileDecryptor implements FileDecryptor, Cryptor
 			final String filename = FilenameUtils.getBaseName(encrypted.getName());
 			decryptedFile = newDecryptedFile(encrypted.getParent(), filename + ".decrypted");
 		}
-		try (FileOutputStream decryptedOut = new FileOutputStream(decryptedFile);
-			CryptoCipherOutputStream cos = new CryptoCipherOutputStream(decryptedOut, this.cipher);
-			InputStream fileInputStream = new FileInputStream(encrypted))
-		{
-			int c;
-			while ((c = fileInputStream.read()) != -1)
-			{
-				cos.write(c);
-			}
-		}
+		write(encrypted, decryptedFile);
 		return decryptedFile;
 	}
 
+	/**
+	 * Decrypts the given encrypted file to the given target file. In difference to
+	 * {@link #decrypt(File)} this method keeps no state, so the same instance can be reused for
+	 * many files. The password is discarded after the initialization, so concurrent calls share the
+	 * one cipher of this instance and are executed one after another
+	 *
+	 * @param encrypted
+	 *            the encrypted file
+	 * @param target
+	 *            the target of the decrypted data
+	 * @return the target file
+	 * @throws Exception
+	 *             is thrown if any error occurs on the execution
+	 */
+	public File decrypt(final File encrypted, final File target) throws Exception
+	{
+		Objects.requireNonNull(encrypted);
+		Objects.requireNonNull(target);
+		write(encrypted, target);
+		return target;
+	}
+
 	/**
 	 * Resets the password
 	 */
-	public synchronized void resetPassword()
+	public void resetPassword()
 	{
-		this.normalizedPassword = null;
+		lock.lock();
+		try
+		{
+			this.normalizedPassword = null;
+		}
+		finally
+		{
+			lock.unlock();
+		}
 	}
 
 	/**
@@ -144,19 +175,27 @@ public class PasswordFileDecryptor implements FileDecryptor, Cryptor
 	 * @throws InvalidKeyException
 	 *             is thrown if initialization of the cipher object fails.
 	 */
-	private synchronized void initialize() throws NoSuchAlgorithmException, InvalidKeySpecException,
+	private void initialize() throws NoSuchAlgorithmException, InvalidKeySpecException,
 		NoSuchPaddingException, InvalidKeyException, InvalidAlgorithmParameterException
 	{
-		if (!isInitialized())
+		lock.lock();
+		try
 		{
-			this.cipher = CipherFactory.newPBECipher(this.normalizedPassword.toCharArray(),
-				newOperationMode(), CompoundAlgorithm.PBE_WITH_MD5_AND_DES.getAlgorithm());
-			resetPassword();
-			initialized = true;
+			if (!isInitialized())
+			{
+				this.cipher = CipherFactory.newPBECipher(this.normalizedPassword.toCharArray(),
+					newOperationMode(), CompoundAlgorithm.PBE_WITH_MD5_AND_DES.getAlgorithm());
+				resetPassword();
+				initialized = true;
+			}
+		}
+		finally
+		{
+			lock.unlock();
 		}
 	}
 
-	private synchronized boolean isInitialized()
+	private boolean isInitialized()
 	{
 		return this.initialized;
 	}
@@ -186,4 +225,23 @@ public class PasswordFileDecryptor implements FileDecryptor, Cryptor
 	{
 		return new File(parent, child);
 	}
+
+	private void write(final File encrypted, final File target) throws IOException
+	{
+		lock.lock();
+		try
+		{
+			try (
+				InputStream decrypted = CompressionCodecs.decompress(new CryptoCipherInputStream(
+					new BufferedInputStream(new FileInputStream(encrypted)), this.cipher));
+				OutputStream decryptedOut = new BufferedOutputStream(new FileOutputStream(target)))
+			{
+				decrypted.transferTo(decryptedOut);
+			}
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
 }
@@ -24,9 +24,12 @@
  */
 package io.github.astrapi69.mystic.crypt.pw;
 
+import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
 import java.security.InvalidAlgorithmParameterException;
 import java.security.InvalidKeyException;
@@ -34,6 +37,8 @@ import java.security.NoSuchAlgorithmException;
 import java.security.spec.InvalidKeySpecException;
 import java.text.Normalizer;
 import java.util.Objects;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 import javax.crypto.Cipher;
 import javax.crypto.NoSuchPaddingException;
@@ -44,7 +49,10 @@ import io.github.astrapi69.crypt.api.Cryptor;
 import io.github.astrapi69.crypt.api.FileEncryptor;
 import io.github.astrapi69.crypt.api.algorithm.compound.CompoundAlgorithm;
 import io.github.astrapi69.crypt.data.factory.CipherFactory;
+import io.github.astrapi69.mystic.crypt.compress.CompressionCodec;
+import io.github.astrapi69.mystic.crypt.compress.CompressionCodecs;
 import io.github.astrapi69.mystic.crypt.io.CryptoCipherInputStream;
+import io.github.astrapi69.mystic.crypt.io.CryptoCipherOutputStream;
 import io.github.astrapi69.throwable.RuntimeExceptionDecorator;
 
 /**
@@ -61,15 +69,21 @@ public class PasswordFileEncryptor implements FileEncryptor, Cryptor
 	 */
 	private Cipher cipher;
 
+	/** The lock that guards the cipher and the password. */
+	private final Lock lock = new ReentrantLock();
+
 	/** The encrypted file. */
 	private File encryptedFile;
 
+	/** The optional codec that compresses the data before the encryption. */
+	private CompressionCodec compressionCodec;
+
 	/**
 	 * The flag initialized that indicates if the cipher is initialized for encryption
 	 *
 	 * @return true, if is initialized
 	 */
-	private boolean initialized;
+	private volatile boolean initialized;
 
 	/**
 	 * The normalized password.
@@ -106,6 +120,27 @@ public class PasswordFileEncryptor implements FileEncryptor, Cryptor
 		RuntimeExceptionDecorator.decorate(() -> initialize());
 	}
 
+	/**
+	 * Instantiates a new {@link PasswordFileEncryptor} with the given password, the given file and
+	 * the given compression codec. The data is compressed before the encryption and the codec is
+	 * recorded in the header of the encrypted data, so the {@link PasswordFileDecryptor} can
+	 * decompress it while decrypting
+	 *
+	 * @param password
+	 *            the password
+	 * @param encryptedFile
+	 *            is the target of the result from the encryption, if null the default file will be
+	 *            created.
+	 * @param compressionCodec
+	 *            the compression codec
+	 */
+	public PasswordFileEncryptor(final String password, final File encryptedFile,
+		final CompressionCodec compressionCodec)
+	{
+		this(password, encryptedFile);
+		this.compressionCodec = Objects.requireNonNull(compressionCodec);
+	}
+
 	public File encrypt(final File toEncrypt) throws Exception
 	{
 		Objects.requireNonNull(toEncrypt);
@@ -114,26 +149,46 @@ public class PasswordFileEncryptor implements FileEncryptor, Cryptor
 			final String filename = FilenameUtils.getBaseName(toEncrypt.getName());
 			encryptedFile = newEncryptedFile(toEncrypt.getParent(), filename + ".enc");
 		}
-		try (
-			CryptoCipherInputStream cis = new CryptoCipherInputStream(
-				new FileInputStream(toEncrypt), this.cipher);
-			OutputStream out = new FileOutputStream(encryptedFile))
-		{
-			int c;
-			while ((c = cis.read()) != -1)
-			{
-				out.write(c);
-			}
-		}
+		write(toEncrypt, encryptedFile);
 		return encryptedFile;
 	}
 
+	/**
+	 * Encrypts the given file to the given target file. In difference to {@link #encrypt(File)}
+	 * this method keeps no state, so the same instance can be reused for many files. The password
+	 * is discarded after the initialization, so concurrent calls share the one cipher of this
+	 * instance and are executed one after another
+	 *
+	 * @param toEncrypt
+	 *            the file to encrypt
+	 * @param target
+	 *            the target of the encrypted data
+	 * @return the target file
+	 * @throws Exception
+	 *             is thrown if any error occurs on the execution
+	 */
+	public File encrypt(final File toEncrypt, final File target) throws Exception
+	{
+		Objects.requireNonNull(toEncrypt);
+		Objects.requireNonNull(target);
+		write(toEncrypt, target);
+		return target;
+	}
+
 	/**
 	 * Resets the password
 	 */
-	public synchronized void resetPassword()
+	public void resetPassword()
 	{
-		this.normalizedPassword = null;
+		lock.lock();
+		try
+		{
+			this.normalizedPassword = null;
+		}
+		finally
+		{
+			lock.unlock();
+		}
 	}
 
 	/**
@@ -150,15 +205,23 @@ public class PasswordFileEncryptor implements FileEncryptor, Cryptor
 	 * @throws InvalidKeyException
 	 *             is thrown if initialization of the cipher object fails.
 	 */
-	private synchronized void initialize() throws NoSuchAlgorithmException, InvalidKeySpecException,
+	private void initialize() throws NoSuchAlgorithmException, InvalidKeySpecException,
 		NoSuchPaddingException, InvalidKeyException, InvalidAlgorithmParameterException
 	{
-		if (!isInitialized())
+		lock.lock();
+		try
 		{
-			this.cipher = CipherFactory.newPBECipher(this.normalizedPassword.toCharArray(),
-				newOperationMode(), CompoundAlgorithm.PBE_WITH_MD5_AND_DES.getAlgorithm());
-			resetPassword();
-			initialized = true;
+			if (!isInitialized())
+			{
+				this.cipher = CipherFactory.newPBECipher(this.normalizedPassword.toCharArray(),
+					newOperationMode(), CompoundAlgorithm.PBE_WITH_MD5_AND_DES.getAlgorithm());
+				resetPassword();
+				initialized = true;
+			}
+		}
+		finally
+		{
+			lock.unlock();
 		}
 	}
 
@@ -192,4 +255,40 @@ public class PasswordFileEncryptor implements FileEncryptor, Cryptor
 	{
 		return new File(parent, child);
 	}
+
+	private void write(final File source, final File target) throws IOException
+	{
+		lock.lock();
+		try
+		{
+			if (compressionCodec != null)
+			{
+				try (InputStream in = new FileInputStream(source);
+					OutputStream out = CompressionCodecs.compress(new CryptoCipherOutputStream(
+						new BufferedOutputStream(new FileOutputStream(target)), this.cipher),
+						compressionCodec))
+				{
+					in.transferTo(out);
+				}
+			}
+			else
+			{
+				try (
+					CryptoCipherInputStream cis = new CryptoCipherInputStream(
+						new FileInputStream(source), this.cipher);
+					OutputStream out = new FileOutputStream(target))
+				{
+					int c;
+					while ((c = cis.read()) != -1)
+					{
+						out.write(c);
+					}
+				}
+			}
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
 }
@@ -0,0 +1,156 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.mystic.crypt.serialization;
+
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Objects;
+
+/**
+ * The class {@link DataStreamSerializer} is a compact binary {@link ObjectSerializer} that writes
+ * the fields of an object in a fixed order with a {@link DataOutput} and reads them in the same
+ * order with a {@link DataInput}. No class descriptors and no field names are written, so the
+ * output is much smaller and faster to produce than the java serialization and no arbitrary classes
+ * are instantiated on deserialization. For an example see the unit test
+ *
+ * @param <T>
+ *            the generic type of the serialized objects
+ */
+public class DataStreamSerializer<T> implements ObjectSerializer<T>
+{
+
+	/** The name of this serializer. */
+	private final String name;
+
+	/** The reader of the fields. */
+	private final FieldReader<T> reader;
+
+	/** The writer of the fields. */
+	private final FieldWriter<T> writer;
+
+	/**
+	 * Instantiates a new {@link DataStreamSerializer}
+	 *
+	 * @param name
+	 *            the unique name of this serializer, should contain a version if the field order
+	 *            can change
+	 * @param writer
+	 *            the writer of the fields
+	 * @param reader
+	 *            the reader of the fields in the same order
+	 */
+	public DataStreamSerializer(final String name, final FieldWriter<T> writer,
+		final FieldReader<T> reader)
+	{
+		Objects.requireNonNull(name);
+		Objects.requireNonNull(writer);
+		Objects.requireNonNull(reader);
+		this.name = name;
+		this.writer = writer;
+		this.reader = reader;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public T deserialize(final InputStream inputStream) throws IOException
+	{
+		return reader.read(new DataInputStream(inputStream));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String getName()
+	{
+		return name;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void serialize(final T object, final OutputStream outputStream) throws IOException
+	{
+		final DataOutputStream dataOutputStream = new DataOutputStream(outputStream);
+		writer.write(object, dataOutputStream);
+		dataOutputStream.flush();
+	}
+
+	/**
+	 * The interface {@link FieldReader} reads the fields of an object
+	 *
+	 * @param <T>
+	 *            the generic type of the object
+	 */
+	@FunctionalInterface
+	public interface FieldReader<T>
+	{
+
+		/**
+		 * Reads the fields from the given input and creates the object
+		 *
+		 * @param input
+		 *            the input
+		 * @return the object
+		 * @throws IOException
+		 *             Signals that an I/O exception has occurred
+		 */
+		T read(DataInput input) throws IOException;
+
+	}
+
+	/**
+	 * The interface {@link FieldWriter} writes the fields of an object
+	 *
+	 * @param <T>
+	 *            the generic type of the object
+	 */
+	@FunctionalInterface
+	public interface FieldWriter<T>
+	{
+
+		/**
+		 * Writes the fields of the given object to the given output
+		 *
+		 * @param object
+		 *            the object
+		 * @param output
+		 *            the output
+		 * @throws IOException
+		 *             Signals that an I/O exception has occurred
+		 */
+		void write(T object, DataOutput output) throws IOException;
+
+	}
+
+}
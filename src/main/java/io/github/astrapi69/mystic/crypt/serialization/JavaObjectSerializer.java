@@ -0,0 +1,112 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.mystic.crypt.serialization;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+
+/**
+ * The class {@link JavaObjectSerializer} is an {@link ObjectSerializer} with the java
+ * serialization. An {@link ObjectInputFilter} can be given to restrict the classes that are
+ * deserialized
+ *
+ * @param <T>
+ *            the generic type of the serialized objects
+ */
+public class JavaObjectSerializer<T> implements ObjectSerializer<T>
+{
+
+	/** The constant for the name of this serializer. */
+	public static final String NAME = "java";
+
+	/** The optional filter for the deserialization. */
+	private final ObjectInputFilter filter;
+
+	/**
+	 * Instantiates a new {@link JavaObjectSerializer} without a filter
+	 */
+	public JavaObjectSerializer()
+	{
+		this(null);
+	}
+
+	/**
+	 * Instantiates a new {@link JavaObjectSerializer} with the given filter
+	 *
+	 * @param filter
+	 *            the filter for the deserialization, if null the process wide filter is used
+	 */
+	public JavaObjectSerializer(final ObjectInputFilter filter)
+	{
+		this.filter = filter;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public T deserialize(final InputStream inputStream) throws IOException
+	{
+		final ObjectInputStream objectInputStream = new ObjectInputStream(inputStream);
+		if (filter != null)
+		{
+			objectInputStream.setObjectInputFilter(filter);
+		}
+		try
+		{
+			return (T)objectInputStream.readObject();
+		}
+		catch (final ClassNotFoundException exception)
+		{
+			throw new IOException(exception);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String getName()
+	{
+		return NAME;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void serialize(final T object, final OutputStream outputStream) throws IOException
+	{
+		final ObjectOutputStream objectOutputStream = new ObjectOutputStream(outputStream);
+		objectOutputStream.writeObject(object);
+		objectOutputStream.flush();
+	}
+
+}
@@ -0,0 +1,72 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.mystic.crypt.serialization;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * The interface {@link ObjectSerializer} is the SPI for the conversion of objects to bytes before
+ * the encryption and back after the decryption. Every serializer has a unique name that is recorded
+ * in the encrypted output, so the decryption can select the matching serializer
+ *
+ * @param <T>
+ *            the generic type of the serialized objects
+ */
+public interface ObjectSerializer<T>
+{
+
+	/**
+	 * Deserialize an object from the given input stream. The input stream must not be closed
+	 *
+	 * @param inputStream
+	 *            the input stream
+	 * @return the deserialized object
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred or the data is invalid
+	 */
+	T deserialize(InputStream inputStream) throws IOException;
+
+	/**
+	 * Gets the unique name of this serializer that is recorded in the encrypted output
+	 *
+	 * @return the name of this serializer
+	 */
+	String getName();
+
+	/**
+	 * Serialize the given object to the given output stream. The output stream must not be closed
+	 *
+	 * @param object
+	 *            the object to serialize
+	 * @param outputStream
+	 *            the output stream
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	void serialize(T object, OutputStream outputStream) throws IOException;
+
+}
@@ -0,0 +1,145 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.mystic.crypt.serialization;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * The class {@link SerializerExtensions} writes and reads objects together with a small header
+ * that records the name of the used {@link ObjectSerializer}. Data without the header is read with
+ * the serializer with the name {@link JavaObjectSerializer#NAME}, so data that was written before
+ * the serializer SPI existed can still be read.<br>
+ * <br>
+ * The java serialization is only used if a {@link JavaObjectSerializer} is in the given
+ * serializers, for instance with an {@link java.io.ObjectInputFilter}, or if no serializers are
+ * given at all for the legacy behavior. So a caller that gives only other serializers never
+ * deserializes java serialized data
+ */
+public final class SerializerExtensions
+{
+
+	/** The magic number at the start of the header. */
+	public static final int MAGIC = 0x4D43534F;
+
+	private SerializerExtensions()
+	{
+	}
+
+	/**
+	 * Reads an object from the given input stream with the serializer that is recorded in the
+	 * header. If the given serializers are empty, the java serialization without a filter is used
+	 * for data without a header or with the recorded name {@link JavaObjectSerializer#NAME}
+	 *
+	 * @param <T>
+	 *            the generic type of the object
+	 * @param inputStream
+	 *            the input stream
+	 * @param serializers
+	 *            the known serializers, or an empty collection for the legacy java serialization
+	 * @return the object
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred or the recorded serializer is unknown
+	 */
+	public static <T> T read(final InputStream inputStream,
+		final Collection<? extends ObjectSerializer<? extends T>> serializers) throws IOException
+	{
+		Objects.requireNonNull(inputStream);
+		Objects.requireNonNull(serializers);
+		final Map<String, ObjectSerializer<? extends T>> byName = new HashMap<>();
+		serializers.forEach(serializer -> byName.put(serializer.getName(), serializer));
+		if (byName.isEmpty())
+		{
+			byName.put(JavaObjectSerializer.NAME, new JavaObjectSerializer<T>());
+		}
+		final InputStream markable = inputStream.markSupported()
+			? inputStream
+			: new BufferedInputStream(inputStream);
+		markable.mark(Integer.BYTES);
+		final DataInputStream dataInputStream = new DataInputStream(markable);
+		final byte[] magic = markable.readNBytes(Integer.BYTES);
+		if (magic.length < Integer.BYTES || toInt(magic) != MAGIC)
+		{
+			markable.reset();
+			return resolve(byName, JavaObjectSerializer.NAME).deserialize(markable);
+		}
+		final String name = dataInputStream.readUTF();
+		return resolve(byName, name).deserialize(markable);
+	}
+
+	/**
+	 * Writes the header with the name of the given serializer and the given object to the given
+	 * output stream
+	 *
+	 * @param <T>
+	 *            the generic type of the object
+	 * @param object
+	 *            the object
+	 * @param serializer
+	 *            the serializer
+	 * @param outputStream
+	 *            the output stream
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	public static <T> void write(final T object, final ObjectSerializer<? super T> serializer,
+		final OutputStream outputStream) throws IOException
+	{
+		Objects.requireNonNull(serializer);
+		Objects.requireNonNull(outputStream);
+		final DataOutputStream dataOutputStream = new DataOutputStream(outputStream);
+		dataOutputStream.writeInt(MAGIC);
+		dataOutputStream.writeUTF(serializer.getName());
+		dataOutputStream.flush();
+		serializer.serialize(object, outputStream);
+	}
+
+	private static <T> ObjectSerializer<? extends T> resolve(
+		final Map<String, ObjectSerializer<? extends T>> byName, final String name)
+		throws IOException
+	{
+		final ObjectSerializer<? extends T> serializer = byName.get(name);
+		if (serializer != null)
+		{
+			return serializer;
+		}
+		throw new IOException("No serializer is registered with the name " + name);
+	}
+
+	private static int toInt(final byte[] bytes)
+	{
+		return (bytes[0] & 0xFF) << 24 | (bytes[1] & 0xFF) << 16 | (bytes[2] & 0xFF) << 8
+			| bytes[3] & 0xFF;
+	}
+
+}
@@ -0,0 +1,282 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.mystic.crypt.simple;
+
+import java.nio.CharBuffer;
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The class {@link CharacterSetAlphabet} is an immutable precompiled character set for the
+ * {@link CharacterSetCrypt}. The characters are stored in a {@code char} array and the index of
+ * every character is stored in an {@code int} array that is indexed by the character, so encoding
+ * and decoding is a constant time array access per character without boxing. If a character
+ * occurs more than once in the character set the first index is used like
+ * {@link List#indexOf(Object)} does, a character that is not in the character set is encoded as
+ * {@code -1}
+ */
+public final class CharacterSetAlphabet
+{
+
+	/** The characters of the character set. */
+	private final char[] characters;
+
+	/** The index of every character or -1 if the character is not in the character set. */
+	private final int[] indexes;
+
+	private CharacterSetAlphabet(final char[] characters)
+	{
+		this.characters = characters;
+		int maxCharacter = -1;
+		for (final char character : characters)
+		{
+			maxCharacter = Math.max(maxCharacter, character);
+		}
+		this.indexes = new int[maxCharacter + 1];
+		Arrays.fill(indexes, -1);
+		for (int index = characters.length - 1; 0 <= index; index--)
+		{
+			indexes[characters[index]] = index;
+		}
+	}
+
+	/**
+	 * Factory method for create a new {@link CharacterSetAlphabet} from the given characters
+	 *
+	 * @param characters
+	 *            the characters of the character set
+	 * @return the new {@link CharacterSetAlphabet}
+	 */
+	public static CharacterSetAlphabet of(final CharSequence characters)
+	{
+		Objects.requireNonNull(characters);
+		return new CharacterSetAlphabet(characters.toString().toCharArray());
+	}
+
+	/**
+	 * Factory method for create a new {@link CharacterSetAlphabet} from the given characters
+	 *
+	 * @param characters
+	 *            the characters of the character set
+	 * @return the new {@link CharacterSetAlphabet}
+	 */
+	public static CharacterSetAlphabet of(final List<Character> characters)
+	{
+		Objects.requireNonNull(characters);
+		final char[] chars = new char[characters.size()];
+		int index = 0;
+		for (final Character character : characters)
+		{
+			chars[index++] = character;
+		}
+		return new CharacterSetAlphabet(chars);
+	}
+
+	/**
+	 * Gets the character with the given index
+	 *
+	 * @param index
+	 *            the index
+	 * @return the character
+	 * @throws IndexOutOfBoundsException
+	 *             if the index is not in the range of the character set
+	 */
+	public char charAt(final int index)
+	{
+		return characters[Objects.checkIndex(index, characters.length)];
+	}
+
+	/**
+	 * Decode the given indexes to a text
+	 *
+	 * @param indexes
+	 *            the indexes
+	 * @return the text
+	 * @throws IndexOutOfBoundsException
+	 *             if an index is not in the range of the character set
+	 */
+	public String decode(final int[] indexes)
+	{
+		Objects.requireNonNull(indexes);
+		return decode(indexes, 0, indexes.length);
+	}
+
+	/**
+	 * Decode the given range of the given indexes to a text
+	 *
+	 * @param indexes
+	 *            the indexes
+	 * @param offset
+	 *            the offset of the first index
+	 * @param length
+	 *            the number of indexes to decode
+	 * @return the text
+	 * @throws IndexOutOfBoundsException
+	 *             if an index is not in the range of the character set
+	 */
+	public String decode(final int[] indexes, final int offset, final int length)
+	{
+		Objects.requireNonNull(indexes);
+		Objects.checkFromIndexSize(offset, length, indexes.length);
+		final char[] text = new char[length];
+		for (int i = 0; i < length; i++)
+		{
+			text[i] = charAt(indexes[offset + i]);
+		}
+		return new String(text);
+	}
+
+	/**
+	 * Decode the remaining indexes of the given source buffer into the given target buffer. The
+	 * processing stops if the source buffer is empty or the target buffer is full. The positions of
+	 * both buffers are advanced
+	 *
+	 * @param source
+	 *            the source buffer with the indexes
+	 * @param target
+	 *            the target buffer for the characters
+	 * @return the number of the decoded characters
+	 * @throws IndexOutOfBoundsException
+	 *             if an index is not in the range of the character set
+	 */
+	public int decode(final IntBuffer source, final CharBuffer target)
+	{
+		Objects.requireNonNull(source);
+		Objects.requireNonNull(target);
+		final int length = Math.min(source.remaining(), target.remaining());
+		for (int i = 0; i < length; i++)
+		{
+			target.put(charAt(source.get()));
+		}
+		return length;
+	}
+
+	/**
+	 * Encode the given text to the indexes of its characters
+	 *
+	 * @param text
+	 *            the text
+	 * @return the indexes
+	 */
+	public int[] encode(final CharSequence text)
+	{
+		Objects.requireNonNull(text);
+		final int length = text.length();
+		final int[] encoded = new int[length];
+		for (int i = 0; i < length; i++)
+		{
+			encoded[i] = indexOf(text.charAt(i));
+		}
+		return encoded;
+	}
+
+	/**
+	 * Encode the remaining characters of the given source buffer into the given target buffer. The
+	 * processing stops if the source buffer is empty or the target buffer is full. The positions of
+	 * both buffers are advanced
+	 *
+	 * @param source
+	 *            the source buffer with the characters
+	 * @param target
+	 *            the target buffer for the indexes
+	 * @return the number of the encoded characters
+	 */
+	public int encode(final CharBuffer source, final IntBuffer target)
+	{
+		Objects.requireNonNull(source);
+		Objects.requireNonNull(target);
+		final int length = Math.min(source.remaining(), target.remaining());
+		for (int i = 0; i < length; i++)
+		{
+			target.put(indexOf(source.get()));
+		}
+		return length;
+	}
+
+	/**
+	 * Gets the index of the given character
+	 *
+	 * @param character
+	 *            the character
+	 * @return the index of the character or -1 if the character is not in the character set
+	 */
+	public int indexOf(final char character)
+	{
+		return character < indexes.length ? indexes[character] : -1;
+	}
+
+	/**
+	 * Gets the number of the characters of the character set
+	 *
+	 * @return the number of the characters
+	 */
+	public int size()
+	{
+		return characters.length;
+	}
+
+	/**
+	 * Encode the given text to a list with the indexes of its characters
+	 *
+	 * @param text
+	 *            the text
+	 * @return the list with the indexes
+	 */
+	public List<Integer> toIndexList(final CharSequence text)
+	{
+		final int[] encoded = encode(text);
+		final List<Integer> indexList = new ArrayList<>(encoded.length);
+		for (final int index : encoded)
+		{
+			indexList.add(index);
+		}
+		return indexList;
+	}
+
+	/**
+	 * Decode the given list with indexes to a text
+	 *
+	 * @param indexList
+	 *            the list with the indexes
+	 * @return the text
+	 * @throws IndexOutOfBoundsException
+	 *             if an index is not in the range of the character set
+	 */
+	public String toText(final List<Integer> indexList)
+	{
+		Objects.requireNonNull(indexList);
+		final char[] text = new char[indexList.size()];
+		int i = 0;
+		for (final int index : indexList)
+		{
+			text[i++] = charAt(index);
+		}
+		return new String(text);
+	}
+
+}
@@ -24,7 +24,6 @@
  */
 package io.github.astrapi69.mystic.crypt.simple;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 
@@ -32,7 +31,8 @@ import java.util.Objects;
  * The class {@link CharacterSetCrypt} provides algorithms for encrypt a text with a character set.
  * The text is encrypted with the character set over the index. The decryption builds the text over
  * the indexes and the character set. So the character set is the key element in this encryption
- * method.
+ * method. For repeated use of the same character set a precompiled {@link CharacterSetAlphabet}
+ * avoids the linear search in the character set
  */
 public final class CharacterSetCrypt
 {
@@ -54,13 +54,7 @@ public final class CharacterSetCrypt
 	{
 		Objects.requireNonNull(text);
 		Objects.requireNonNull(characters);
-		char[] chars = text.toCharArray();
-		List<Integer> integerList = new ArrayList<>();
-		for (char c : chars)
-		{
-			integerList.add(characters.indexOf(Character.valueOf(c)));
-		}
-		return integerList;
+		return CharacterSetAlphabet.of(characters).toIndexList(text);
 	}
 
 	/**
@@ -76,12 +70,7 @@ public final class CharacterSetCrypt
 	{
 		Objects.requireNonNull(integerList);
 		Objects.requireNonNull(characters);
-		StringBuilder sb = new StringBuilder();
-		for (int index : integerList)
-		{
-			sb.append(characters.get(index));
-		}
-		return sb.toString();
+		return CharacterSetAlphabet.of(characters).toText(integerList);
 	}
 
 }
@@ -24,6 +24,8 @@
  */
 package io.github.astrapi69.mystic.crypt.simple;
 
+import java.nio.CharBuffer;
+import java.nio.IntBuffer;
 import java.util.List;
 import java.util.Objects;
 
@@ -45,6 +47,11 @@ public class CharacterSetDecryptor implements Decryptor<List<Integer>, String>
 	 */
 	private List<Character> key;
 
+	/**
+	 * The precompiled alphabet of the key
+	 */
+	private final CharacterSetAlphabet alphabet;
+
 	/**
 	 * Instantiates a new {@link CharacterSetDecryptor} with the given key
 	 *
@@ -55,6 +62,7 @@ public class CharacterSetDecryptor implements Decryptor<List<Integer>, String>
 	{
 		Objects.requireNonNull(key);
 		this.key = key;
+		this.alphabet = CharacterSetAlphabet.of(key);
 	}
 
 	/**
@@ -63,7 +71,35 @@ public class CharacterSetDecryptor implements Decryptor<List<Integer>, String>
 	@Override
 	public String decrypt(List<Integer> encrypted) throws Exception
 	{
-		return CharacterSetCrypt.toText(encrypted, key);
+		return alphabet.toText(encrypted);
+	}
+
+	/**
+	 * Decrypt the given array with indexes to a text
+	 *
+	 * @param encrypted
+	 *            the array with the indexes
+	 * @return the decrypted text
+	 */
+	public String decrypt(int[] encrypted)
+	{
+		return alphabet.decode(encrypted);
+	}
+
+	/**
+	 * Decrypt the remaining indexes of the given source buffer into the given target buffer. The
+	 * processing stops if the source buffer is empty or the target buffer is full. The positions
+	 * of both buffers are advanced
+	 *
+	 * @param source
+	 *            the source buffer with the indexes
+	 * @param target
+	 *            the target buffer for the decrypted characters
+	 * @return the number of the decrypted characters
+	 */
+	public int decrypt(IntBuffer source, CharBuffer target)
+	{
+		return alphabet.decode(source, target);
 	}
 
 }
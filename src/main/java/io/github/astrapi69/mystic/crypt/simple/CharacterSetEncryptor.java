@@ -24,6 +24,8 @@
  */
 package io.github.astrapi69.mystic.crypt.simple;
 
+import java.nio.CharBuffer;
+import java.nio.IntBuffer;
 import java.util.List;
 import java.util.Objects;
 
@@ -44,6 +46,11 @@ public class CharacterSetEncryptor implements Encryptor<String, List<Integer>>
 	 */
 	private List<Character> key;
 
+	/**
+	 * The precompiled alphabet of the key
+	 */
+	private final CharacterSetAlphabet alphabet;
+
 	/**
 	 * Instantiates a new {@link CharacterSetEncryptor} with the given key
 	 *
@@ -54,6 +61,7 @@ public class CharacterSetEncryptor implements Encryptor<String, List<Integer>>
 	{
 		Objects.requireNonNull(key);
 		this.key = key;
+		this.alphabet = CharacterSetAlphabet.of(key);
 	}
 
 	/**
@@ -62,7 +70,35 @@ public class CharacterSetEncryptor implements Encryptor<String, List<Integer>>
 	@Override
 	public List<Integer> encrypt(String toEncrypt) throws Exception
 	{
-		return CharacterSetCrypt.toIndexList(toEncrypt, key);
+		return alphabet.toIndexList(toEncrypt);
+	}
+
+	/**
+	 * Encrypt the given text to an array with the indexes of its characters
+	 *
+	 * @param toEncrypt
+	 *            the text to encrypt
+	 * @return the array with the indexes
+	 */
+	public int[] encryptToIndexes(CharSequence toEncrypt)
+	{
+		return alphabet.encode(toEncrypt);
+	}
+
+	/**
+	 * Encrypt the remaining characters of the given source buffer into the given target buffer.
+	 * The processing stops if the source buffer is empty or the target buffer is full. The
+	 * positions of both buffers are advanced
+	 *
+	 * @param source
+	 *            the source buffer with the characters to encrypt
+	 * @param target
+	 *            the target buffer for the indexes
+	 * @return the number of the encrypted characters
+	 */
+	public int encrypt(CharBuffer source, IntBuffer target)
+	{
+		return alphabet.encode(source, target);
 	}
 
 }
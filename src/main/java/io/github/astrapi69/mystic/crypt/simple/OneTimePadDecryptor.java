@@ -24,12 +24,18 @@
  */
 package io.github.astrapi69.mystic.crypt.simple;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
 import io.github.astrapi69.check.Argument;
 import io.github.astrapi69.crypt.api.ByteArrayDecryptor;
 
 /**
  * The class {@link OneTimePadDecryptor} is a simple {@link ByteArrayDecryptor} for the one time pad
- * algorithm
+ * algorithm. Messages that are longer than the key and were encrypted with the version 9.1 have to
+ * be decrypted with {@link SimpleCrypt#legacyOneTimePadCrypt(byte[], byte[])}
  *
  * @author Asterios Raptis
  * @version 1.0
@@ -38,7 +44,7 @@ public class OneTimePadDecryptor implements ByteArrayDecryptor
 {
 
 	/**
-	 * The key
+	 * The key, short keys are expanded for the long lane processing
 	 */
 	private final byte[] key;
 
@@ -51,7 +57,7 @@ public class OneTimePadDecryptor implements ByteArrayDecryptor
 	public OneTimePadDecryptor(byte[] key)
 	{
 		Argument.notEmpty(key, "key");
-		this.key = key;
+		this.key = SimpleCrypt.expandKey(key);
 	}
 
 	/**
@@ -60,6 +66,45 @@ public class OneTimePadDecryptor implements ByteArrayDecryptor
 	@Override
 	public byte[] decrypt(byte[] encrypted) throws Exception
 	{
-		return SimpleCrypt.oneTimePadCrypt(this.key, encrypted);
+		final byte[] decrypted = new byte[encrypted.length];
+		SimpleCrypt.oneTimePadCrypt(this.key, 0, encrypted, 0, decrypted, 0,
+			encrypted.length);
+		return decrypted;
+	}
+
+	/**
+	 * Decrypt the remaining bytes of the given source buffer into the given target buffer. The
+	 * processing stops if the source buffer is empty or the target buffer is full. The positions
+	 * of both buffers are advanced
+	 *
+	 * @param source
+	 *            the source buffer with the encrypted data
+	 * @param target
+	 *            the target buffer for the decrypted data
+	 * @param position
+	 *            the position of the first remaining byte of the source buffer in the whole
+	 *            message
+	 * @return the number of the processed bytes
+	 */
+	public int decrypt(ByteBuffer source, ByteBuffer target, long position)
+	{
+		return SimpleCrypt.oneTimePadCrypt(this.key, position, source, target);
+	}
+
+	/**
+	 * Decrypt all bytes of the given input stream and writes the decrypted bytes to the given
+	 * output stream. The streams are not closed
+	 *
+	 * @param inputStream
+	 *            the input stream with the encrypted data
+	 * @param outputStream
+	 *            the output stream for the decrypted data
+	 * @return the number of the processed bytes
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	public long decrypt(InputStream inputStream, OutputStream outputStream) throws IOException
+	{
+		return SimpleCrypt.oneTimePadCrypt(this.key, inputStream, outputStream);
 	}
 }
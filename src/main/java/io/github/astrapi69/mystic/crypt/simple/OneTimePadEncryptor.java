@@ -24,6 +24,11 @@
  */
 package io.github.astrapi69.mystic.crypt.simple;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
 import io.github.astrapi69.check.Argument;
 import io.github.astrapi69.crypt.api.ByteArrayEncryptor;
 
@@ -38,7 +43,7 @@ public class OneTimePadEncryptor implements ByteArrayEncryptor
 {
 
 	/**
-	 * The key
+	 * The key, short keys are expanded for the long lane processing
 	 */
 	private final byte[] key;
 
@@ -51,7 +56,7 @@ public class OneTimePadEncryptor implements ByteArrayEncryptor
 	public OneTimePadEncryptor(byte[] key)
 	{
 		Argument.notEmpty(key, "key");
-		this.key = key;
+		this.key = SimpleCrypt.expandKey(key);
 	}
 
 	/**
@@ -60,6 +65,45 @@ public class OneTimePadEncryptor implements ByteArrayEncryptor
 	@Override
 	public byte[] encrypt(byte[] toEncrypt) throws Exception
 	{
-		return SimpleCrypt.oneTimePadCrypt(this.key, toEncrypt);
+		final byte[] encrypted = new byte[toEncrypt.length];
+		SimpleCrypt.oneTimePadCrypt(this.key, 0, toEncrypt, 0, encrypted, 0,
+			toEncrypt.length);
+		return encrypted;
+	}
+
+	/**
+	 * Encrypt the remaining bytes of the given source buffer into the given target buffer. The
+	 * processing stops if the source buffer is empty or the target buffer is full. The positions
+	 * of both buffers are advanced
+	 *
+	 * @param source
+	 *            the source buffer with the data to encrypt
+	 * @param target
+	 *            the target buffer for the encrypted data
+	 * @param position
+	 *            the position of the first remaining byte of the source buffer in the whole
+	 *            message
+	 * @return the number of the processed bytes
+	 */
+	public int encrypt(ByteBuffer source, ByteBuffer target, long position)
+	{
+		return SimpleCrypt.oneTimePadCrypt(this.key, position, source, target);
+	}
+
+	/**
+	 * Encrypt all bytes of the given input stream and writes the encrypted bytes to the given output
+	 * stream. The streams are not closed
+	 *
+	 * @param inputStream
+	 *            the input stream with the data to encrypt
+	 * @param outputStream
+	 *            the output stream for the encrypted data
+	 * @return the number of the processed bytes
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	public long encrypt(InputStream inputStream, OutputStream outputStream) throws IOException
+	{
+		return SimpleCrypt.oneTimePadCrypt(this.key, inputStream, outputStream);
 	}
 }
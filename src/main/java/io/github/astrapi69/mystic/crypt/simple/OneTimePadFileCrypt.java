@@ -0,0 +1,387 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.mystic.crypt.simple;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The class {@link OneTimePadFileCrypt} encrypts and decrypts files with the one time pad
+ * algorithm without loading the files or the pad on the heap. The pad file and the payload files
+ * are memory mapped in chunks of {@link #DEFAULT_MAPPING_SIZE} bytes, so files larger than the
+ * available memory can be processed.<br>
+ * <br>
+ * The consumed offset of the pad is recorded in a small journal file. Every encryption reserves the
+ * next unused range of the pad and forces the journal to the storage device before any byte is
+ * encrypted, so a pad byte is never used twice even if the process is killed. The offset of the
+ * used pad range is written at the start of the encrypted file, so the receiver that holds the
+ * same pad can decrypt the file with {@link #decrypt(File, File)}
+ */
+public class OneTimePadFileCrypt implements Closeable
+{
+
+	/** The default size of the memory mapped chunks in bytes. */
+	public static final int DEFAULT_MAPPING_SIZE = 1 << 26;
+
+	/** The size of the header of an encrypted file in bytes. */
+	static final int ENCRYPTED_HEADER_SIZE = 12;
+
+	/** The magic number at the start of an encrypted file. */
+	static final int ENCRYPTED_MAGIC = 0x4F545046;
+
+	/** The size of a journal file in bytes. */
+	static final int JOURNAL_SIZE = 24;
+
+	/** The magic number at the start of a journal file. */
+	static final int JOURNAL_MAGIC = 0x4F54504A;
+
+	/** The consumed offset of the pad. */
+	private long consumed;
+
+	/** The file channel of the journal file. */
+	private final FileChannel journal;
+
+	/** The lock of the consumed offset, that is also held while the journal file is forced. */
+	private final Lock lock = new ReentrantLock();
+
+	/** The size of the memory mapped chunks. */
+	private final int mappingSize;
+
+	/** The file channel of the pad file. */
+	private final FileChannel pad;
+
+	/** The size of the pad. */
+	private final long padSize;
+
+	/**
+	 * Instantiates a new {@link OneTimePadFileCrypt} with the given pad file and the given journal
+	 * file. If the journal file does not exist it will be created
+	 *
+	 * @param padFile
+	 *            the pad file
+	 * @param journalFile
+	 *            the journal file that records the consumed offset of the pad
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred or the journal file does not belong to
+	 *             the given pad file
+	 */
+	public OneTimePadFileCrypt(final File padFile, final File journalFile) throws IOException
+	{
+		this(padFile, journalFile, DEFAULT_MAPPING_SIZE);
+	}
+
+	/**
+	 * Instantiates a new {@link OneTimePadFileCrypt} with the given pad file, the given journal file
+	 * and the given size of the memory mapped chunks
+	 *
+	 * @param padFile
+	 *            the pad file
+	 * @param journalFile
+	 *            the journal file that records the consumed offset of the pad
+	 * @param mappingSize
+	 *            the size of the memory mapped chunks in bytes
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred or the journal file does not belong to
+	 *             the given pad file
+	 */
+	public OneTimePadFileCrypt(final File padFile, final File journalFile, final int mappingSize)
+		throws IOException
+	{
+		Objects.requireNonNull(padFile);
+		Objects.requireNonNull(journalFile);
+		if (mappingSize <= 0)
+		{
+			throw new IllegalArgumentException("mappingSize must be positive");
+		}
+		this.mappingSize = mappingSize;
+		this.pad = FileChannel.open(padFile.toPath(), StandardOpenOption.READ);
+		try
+		{
+			this.padSize = pad.size();
+			this.journal = FileChannel.open(journalFile.toPath(), StandardOpenOption.CREATE,
+				StandardOpenOption.READ, StandardOpenOption.WRITE);
+			try
+			{
+				this.consumed = readJournal(journalFile);
+			}
+			catch (IOException | RuntimeException exception)
+			{
+				journal.close();
+				throw exception;
+			}
+		}
+		catch (IOException | RuntimeException exception)
+		{
+			pad.close();
+			throw exception;
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void close() throws IOException
+	{
+		try
+		{
+			journal.close();
+		}
+		finally
+		{
+			pad.close();
+		}
+	}
+
+	/**
+	 * Decrypt the given encrypted file into the given target file with the pad range that is
+	 * referenced in the header of the encrypted file. The consumed offset in the journal is moved
+	 * behind the used pad range if it is not already behind it
+	 *
+	 * @param source
+	 *            the encrypted file
+	 * @param target
+	 *            the target file for the decrypted data, an existing file will be overwritten
+	 * @return the number of the decrypted bytes
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred, the file is not encrypted with a one
+	 *             time pad or the pad is too short
+	 */
+	public long decrypt(final File source, final File target) throws IOException
+	{
+		Objects.requireNonNull(source);
+		Objects.requireNonNull(target);
+		try (FileChannel sourceChannel = FileChannel.open(source.toPath(),
+			StandardOpenOption.READ);
+			FileChannel targetChannel = FileChannel.open(target.toPath(),
+				StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+				StandardOpenOption.READ, StandardOpenOption.WRITE))
+		{
+			final ByteBuffer header = ByteBuffer.allocate(ENCRYPTED_HEADER_SIZE);
+			readFully(sourceChannel, header, 0);
+			if (header.remaining() < ENCRYPTED_HEADER_SIZE || header.getInt() != ENCRYPTED_MAGIC)
+			{
+				throw new IOException(
+					"The file " + source.getName() + " is not encrypted with a one time pad");
+			}
+			final long padOffset = header.getLong();
+			final long length = sourceChannel.size() - ENCRYPTED_HEADER_SIZE;
+			if (padOffset < 0 || padSize - padOffset < length)
+			{
+				throw new IOException("The pad is too short for the file " + source.getName());
+			}
+			advance(padOffset + length);
+			xor(sourceChannel, ENCRYPTED_HEADER_SIZE, padOffset, targetChannel, 0, length);
+			return length;
+		}
+	}
+
+	/**
+	 * Encrypt the given file into the given target file with the next unused range of the pad. The
+	 * range is reserved in the journal before the encryption starts
+	 *
+	 * @param source
+	 *            the file to encrypt
+	 * @param target
+	 *            the target file for the encrypted data, an existing file will be overwritten
+	 * @return the offset of the used pad range
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred or the unused rest of the pad is too
+	 *             short
+	 */
+	public long encrypt(final File source, final File target) throws IOException
+	{
+		Objects.requireNonNull(source);
+		Objects.requireNonNull(target);
+		try (FileChannel sourceChannel = FileChannel.open(source.toPath(),
+			StandardOpenOption.READ))
+		{
+			final long length = sourceChannel.size();
+			final long padOffset = reserve(length);
+			try (FileChannel targetChannel = FileChannel.open(target.toPath(),
+				StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+				StandardOpenOption.READ, StandardOpenOption.WRITE))
+			{
+				final ByteBuffer header = ByteBuffer.allocate(ENCRYPTED_HEADER_SIZE);
+				header.putInt(ENCRYPTED_MAGIC).putLong(padOffset).flip();
+				while (header.hasRemaining())
+				{
+					targetChannel.write(header, header.position());
+				}
+				xor(sourceChannel, 0, padOffset, targetChannel, ENCRYPTED_HEADER_SIZE, length);
+			}
+			return padOffset;
+		}
+	}
+
+	/**
+	 * Gets the consumed offset of the pad
+	 *
+	 * @return the consumed offset of the pad
+	 */
+	public long getConsumed()
+	{
+		lock.lock();
+		try
+		{
+			return consumed;
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Gets the number of the unused bytes of the pad
+	 *
+	 * @return the number of the unused bytes of the pad
+	 */
+	public long getRemaining()
+	{
+		lock.lock();
+		try
+		{
+			return padSize - consumed;
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	private void advance(final long offset) throws IOException
+	{
+		lock.lock();
+		try
+		{
+			if (consumed < offset)
+			{
+				writeJournal(offset);
+				consumed = offset;
+			}
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	private long readJournal(final File journalFile) throws IOException
+	{
+		if (journal.size() == 0)
+		{
+			writeJournal(0);
+			return 0;
+		}
+		final ByteBuffer buffer = ByteBuffer.allocate(JOURNAL_SIZE);
+		readFully(journal, buffer, 0);
+		if (buffer.remaining() < JOURNAL_SIZE || buffer.getInt() != JOURNAL_MAGIC)
+		{
+			throw new IOException(
+				"The file " + journalFile.getName() + " is not a valid one time pad journal");
+		}
+		buffer.getInt();
+		final long journalPadSize = buffer.getLong();
+		final long journalConsumed = buffer.getLong();
+		if (journalPadSize != padSize || journalConsumed < 0 || padSize < journalConsumed)
+		{
+			throw new IOException(
+				"The journal " + journalFile.getName() + " does not belong to the given pad");
+		}
+		return journalConsumed;
+	}
+
+	private long reserve(final long length) throws IOException
+	{
+		lock.lock();
+		try
+		{
+			if (padSize - consumed < length)
+			{
+				throw new IOException("The unused rest of the pad has " + (padSize - consumed)
+					+ " bytes but " + length + " bytes are required");
+			}
+			final long padOffset = consumed;
+			writeJournal(padOffset + length);
+			consumed = padOffset + length;
+			return padOffset;
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	private void writeJournal(final long offset) throws IOException
+	{
+		final ByteBuffer buffer = ByteBuffer.allocate(JOURNAL_SIZE);
+		buffer.putInt(JOURNAL_MAGIC).putInt(0).putLong(padSize).putLong(offset).flip();
+		while (buffer.hasRemaining())
+		{
+			journal.write(buffer, buffer.position());
+		}
+		journal.force(true);
+	}
+
+	private void xor(final FileChannel sourceChannel, final long sourceOffset,
+		final long padOffset, final FileChannel targetChannel, final long targetOffset,
+		final long length) throws IOException
+	{
+		long done = 0;
+		while (done < length)
+		{
+			final int chunk = (int)Math.min(mappingSize, length - done);
+			final MappedByteBuffer sourceBuffer = sourceChannel
+				.map(FileChannel.MapMode.READ_ONLY, sourceOffset + done, chunk);
+			final MappedByteBuffer padBuffer = pad.map(FileChannel.MapMode.READ_ONLY,
+				padOffset + done, chunk);
+			final MappedByteBuffer targetBuffer = targetChannel
+				.map(FileChannel.MapMode.READ_WRITE, targetOffset + done, chunk);
+			SimpleCrypt.xor(padBuffer, 0, sourceBuffer, 0, targetBuffer, 0, chunk);
+			targetBuffer.force();
+			done += chunk;
+		}
+	}
+
+	private static void readFully(final FileChannel channel, final ByteBuffer buffer,
+		final long position) throws IOException
+	{
+		while (buffer.hasRemaining()
+			&& channel.read(buffer, position + buffer.position()) != -1)
+		{
+		}
+		buffer.flip();
+	}
+
+}
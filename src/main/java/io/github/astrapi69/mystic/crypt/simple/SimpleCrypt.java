@@ -24,6 +24,17 @@
  */
 package io.github.astrapi69.mystic.crypt.simple;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Objects;
+
+import io.github.astrapi69.check.Argument;
+
 /**
  * The class {@link SimpleCrypt} is an utility class for the use of encrypt or decrypt information.
  *
@@ -33,6 +44,20 @@ package io.github.astrapi69.mystic.crypt.simple;
 public final class SimpleCrypt
 {
 
+	/** The constant for the default chunk size of the stream processing. */
+	public static final int DEFAULT_CHUNK_SIZE = 8192;
+
+	/** The constant for the minimum length of an expanded one time pad key. */
+	static final int MIN_EXPANDED_KEY_LENGTH = 512;
+
+	/** The view for reading and writing long lanes from byte arrays. */
+	private static final VarHandle LONG_ARRAY_VIEW = MethodHandles
+		.byteArrayViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
+	/** The view for reading and writing long lanes from byte buffers. */
+	private static final VarHandle LONG_BUFFER_VIEW = MethodHandles
+		.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
 	private SimpleCrypt()
 	{
 	}
@@ -106,7 +131,8 @@ public final class SimpleCrypt
 	}
 
 	/**
-	 * Encrypt and decrypt with the simple one time pad algorithm
+	 * Encrypt and decrypt with the simple one time pad algorithm. If the key is shorter than the
+	 * message the key is repeated cyclically
 	 *
 	 * @param simpleKey
 	 *            the byte array that holds the key
@@ -116,12 +142,38 @@ public final class SimpleCrypt
 	 */
 	public static byte[] oneTimePadCrypt(byte[] simpleKey, byte[] message)
 	{
+		Objects.requireNonNull(message);
+		final byte[] encoded = new byte[message.length];
+		oneTimePadCrypt(expandKey(simpleKey), 0, message, 0, encoded, 0, message.length);
+		return encoded;
+	}
+
+	/**
+	 * Encrypt and decrypt with the simple one time pad algorithm of the version 9.1 and before. If
+	 * the key is shorter than the message, every byte after the key length is processed with the
+	 * key byte at the index of the message length modulo the key length minus one. The data that
+	 * was encrypted with the version 9.1 can only be decrypted with this method, because
+	 * {@link #oneTimePadCrypt(byte[], byte[])} repeats the key cyclically since the version 9.2
+	 *
+	 * @param simpleKey
+	 *            the byte array that holds the key, must have at least two bytes if it is shorter
+	 *            than the message
+	 * @param message
+	 *            the byte array with the data to encrypt or decrypt
+	 * @return The encrypted or decrypted byte array
+	 * @deprecated use only to decrypt data of the version 9.1 and encrypt it again with
+	 *             {@link #oneTimePadCrypt(byte[], byte[])}. <br>
+	 *             Note: will be removed with the next major version
+	 */
+	@Deprecated
+	public static byte[] legacyOneTimePadCrypt(byte[] simpleKey, byte[] message)
+	{
+		Argument.notEmpty(simpleKey, "simpleKey");
+		Objects.requireNonNull(message);
 		final byte[] encoded = new byte[message.length];
 		for (int index = 0; index < message.length; index++)
 		{
 			int keyIndex = index;
-			// prevent that key length is smaller than the length of the given byte array
-			// to encrypt or decrypt
 			if (index >= simpleKey.length)
 			{
 				keyIndex = message.length % (simpleKey.length - 1);
@@ -131,4 +183,227 @@ public final class SimpleCrypt
 		return encoded;
 	}
 
+	/**
+	 * Encrypt and decrypt the given range of the source array with the simple one time pad
+	 * algorithm into the given target array. The key byte for the first byte of the range is the
+	 * byte at the given key position modulo the key length, so a message that is processed in
+	 * several parts gives the same result as a message that is processed at once. The source and
+	 * the target array can be the same array
+	 *
+	 * @param simpleKey
+	 *            the byte array that holds the key
+	 * @param keyPosition
+	 *            the position of the first byte of the range in the whole message
+	 * @param source
+	 *            the byte array with the data to encrypt or decrypt
+	 * @param sourceOffset
+	 *            the offset in the source array
+	 * @param target
+	 *            the byte array for the encrypted or decrypted data
+	 * @param targetOffset
+	 *            the offset in the target array
+	 * @param length
+	 *            the number of bytes to process
+	 */
+	public static void oneTimePadCrypt(byte[] simpleKey, long keyPosition, byte[] source,
+		int sourceOffset, byte[] target, int targetOffset, int length)
+	{
+		Argument.notEmpty(simpleKey, "simpleKey");
+		Objects.checkFromIndexSize(sourceOffset, length, source.length);
+		Objects.checkFromIndexSize(targetOffset, length, target.length);
+		if (keyPosition < 0)
+		{
+			throw new IllegalArgumentException("keyPosition must not be negative");
+		}
+		int keyIndex = (int)(keyPosition % simpleKey.length);
+		int done = 0;
+		while (done < length)
+		{
+			final int part = Math.min(length - done, simpleKey.length - keyIndex);
+			xor(simpleKey, keyIndex, source, sourceOffset + done, target, targetOffset + done,
+				part);
+			done += part;
+			keyIndex = 0;
+		}
+	}
+
+	/**
+	 * Encrypt and decrypt the remaining bytes of the given source buffer with the simple one time
+	 * pad algorithm into the given target buffer. The processing stops if the source buffer is
+	 * empty or the target buffer is full. The positions of both buffers are advanced
+	 *
+	 * @param simpleKey
+	 *            the byte array that holds the key
+	 * @param keyPosition
+	 *            the position of the first remaining byte of the source buffer in the whole
+	 *            message
+	 * @param source
+	 *            the source buffer
+	 * @param target
+	 *            the target buffer
+	 * @return the number of the processed bytes
+	 */
+	public static int oneTimePadCrypt(byte[] simpleKey, long keyPosition, ByteBuffer source,
+		ByteBuffer target)
+	{
+		Argument.notEmpty(simpleKey, "simpleKey");
+		Objects.requireNonNull(source);
+		Objects.requireNonNull(target);
+		if (keyPosition < 0)
+		{
+			throw new IllegalArgumentException("keyPosition must not be negative");
+		}
+		final int length = Math.min(source.remaining(), target.remaining());
+		if (source.hasArray() && target.hasArray() && !target.isReadOnly())
+		{
+			oneTimePadCrypt(simpleKey, keyPosition, source.array(),
+				source.arrayOffset() + source.position(), target.array(),
+				target.arrayOffset() + target.position(), length);
+		}
+		else
+		{
+			int keyIndex = (int)(keyPosition % simpleKey.length);
+			int done = 0;
+			while (done < length)
+			{
+				final int part = Math.min(length - done, simpleKey.length - keyIndex);
+				xor(simpleKey, keyIndex, source, source.position() + done, target,
+					target.position() + done, part);
+				done += part;
+				keyIndex = 0;
+			}
+		}
+		source.position(source.position() + length);
+		target.position(target.position() + length);
+		return length;
+	}
+
+	/**
+	 * Encrypt and decrypt all bytes of the given input stream with the simple one time pad
+	 * algorithm and writes the result to the given output stream. The bytes are processed in
+	 * chunks of {@link #DEFAULT_CHUNK_SIZE} bytes, so the memory usage is constant for any length
+	 * of the input. The streams are not closed
+	 *
+	 * @param simpleKey
+	 *            the byte array that holds the key
+	 * @param inputStream
+	 *            the input stream
+	 * @param outputStream
+	 *            the output stream
+	 * @return the number of the processed bytes
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	public static long oneTimePadCrypt(byte[] simpleKey, InputStream inputStream,
+		OutputStream outputStream) throws IOException
+	{
+		Objects.requireNonNull(inputStream);
+		Objects.requireNonNull(outputStream);
+		final byte[] key = expandKey(simpleKey);
+		final byte[] chunk = new byte[DEFAULT_CHUNK_SIZE];
+		long count = 0;
+		int read;
+		while ((read = inputStream.read(chunk)) != -1)
+		{
+			oneTimePadCrypt(key, count, chunk, 0, chunk, 0, read);
+			outputStream.write(chunk, 0, read);
+			count += read;
+		}
+		outputStream.flush();
+		return count;
+	}
+
+	/**
+	 * Expands the given key by repeating it until it has at least {@link #MIN_EXPANDED_KEY_LENGTH}
+	 * bytes. The expanded key has a multiple of the length of the given key, so it gives the same
+	 * result for every position and the xor loop works on long lanes even for short keys
+	 *
+	 * @param simpleKey
+	 *            the byte array that holds the key
+	 * @return the expanded key or the given key if it is long enough
+	 */
+	static byte[] expandKey(byte[] simpleKey)
+	{
+		Argument.notEmpty(simpleKey, "simpleKey");
+		if (MIN_EXPANDED_KEY_LENGTH <= simpleKey.length)
+		{
+			return simpleKey;
+		}
+		final int repeats = (MIN_EXPANDED_KEY_LENGTH + simpleKey.length - 1) / simpleKey.length;
+		final byte[] expanded = new byte[repeats * simpleKey.length];
+		for (int i = 0; i < repeats; i++)
+		{
+			System.arraycopy(simpleKey, 0, expanded, i * simpleKey.length, simpleKey.length);
+		}
+		return expanded;
+	}
+
+	/**
+	 * Xor the given range of the source buffer with the given range of the key buffer into the
+	 * given range of the target buffer. The positions of the buffers are not changed
+	 *
+	 * @param key
+	 *            the buffer with the key bytes
+	 * @param keyIndex
+	 *            the index of the first key byte
+	 * @param source
+	 *            the source buffer
+	 * @param sourceIndex
+	 *            the index of the first source byte
+	 * @param target
+	 *            the target buffer
+	 * @param targetIndex
+	 *            the index of the first target byte
+	 * @param length
+	 *            the number of bytes to process
+	 */
+	static void xor(ByteBuffer key, int keyIndex, ByteBuffer source, int sourceIndex,
+		ByteBuffer target, int targetIndex, int length)
+	{
+		int i = 0;
+		for (final int bound = length - Long.BYTES; i <= bound; i += Long.BYTES)
+		{
+			final long value = (long)LONG_BUFFER_VIEW.get(source, sourceIndex + i)
+				^ (long)LONG_BUFFER_VIEW.get(key, keyIndex + i);
+			LONG_BUFFER_VIEW.set(target, targetIndex + i, value);
+		}
+		for (; i < length; i++)
+		{
+			target.put(targetIndex + i,
+				(byte)(source.get(sourceIndex + i) ^ key.get(keyIndex + i)));
+		}
+	}
+
+	private static void xor(byte[] key, int keyOffset, byte[] source, int sourceOffset,
+		byte[] target, int targetOffset, int length)
+	{
+		int i = 0;
+		for (final int bound = length - Long.BYTES; i <= bound; i += Long.BYTES)
+		{
+			final long value = (long)LONG_ARRAY_VIEW.get(source, sourceOffset + i)
+				^ (long)LONG_ARRAY_VIEW.get(key, keyOffset + i);
+			LONG_ARRAY_VIEW.set(target, targetOffset + i, value);
+		}
+		for (; i < length; i++)
+		{
+			target[targetOffset + i] = (byte)(source[sourceOffset + i] ^ key[keyOffset + i]);
+		}
+	}
+
+	private static void xor(byte[] key, int keyOffset, ByteBuffer source, int sourceIndex,
+		ByteBuffer target, int targetIndex, int length)
+	{
+		int i = 0;
+		for (final int bound = length - Long.BYTES; i <= bound; i += Long.BYTES)
+		{
+			final long value = (long)LONG_BUFFER_VIEW.get(source, sourceIndex + i)
+				^ (long)LONG_ARRAY_VIEW.get(key, keyOffset + i);
+			LONG_BUFFER_VIEW.set(target, targetIndex + i, value);
+		}
+		for (; i < length; i++)
+		{
+			target.put(targetIndex + i, (byte)(source.get(sourceIndex + i) ^ key[keyOffset + i]));
+		}
+	}
+
 }
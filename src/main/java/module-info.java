@@ -42,9 +42,11 @@ module io.github.astrapisixtynine.mystic.crypt
 
 	exports io.github.astrapi69.mystic.crypt.base;
 	exports io.github.astrapi69.mystic.crypt.chainable;
+	exports io.github.astrapi69.mystic.crypt.compress;
 	exports io.github.astrapi69.mystic.crypt.core;
 	exports io.github.astrapi69.mystic.crypt.decorator;
 	exports io.github.astrapi69.mystic.crypt.file;
+	exports io.github.astrapi69.mystic.crypt.flow;
 	exports io.github.astrapi69.mystic.crypt.gm;
 	exports io.github.astrapi69.mystic.crypt.hex;
 	exports io.github.astrapi69.mystic.crypt.io;
@@ -54,6 +56,7 @@ module io.github.astrapisixtynine.mystic.crypt
 	exports io.github.astrapi69.mystic.crypt.processor.bruteforce;
 	exports io.github.astrapi69.mystic.crypt.processor.wordlist;
 	exports io.github.astrapi69.mystic.crypt.pw;
+	exports io.github.astrapi69.mystic.crypt.serialization;
 	exports io.github.astrapi69.mystic.crypt.sha;
 	exports io.github.astrapi69.mystic.crypt.simple;
 	exports io.github.astrapi69.mystic.crypt.ssl;
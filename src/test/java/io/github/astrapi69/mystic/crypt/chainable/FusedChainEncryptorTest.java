@@ -0,0 +1,148 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.mystic.crypt.chainable;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.astrapi69.crypt.api.Decryptor;
+import io.github.astrapi69.crypt.api.Encryptor;
+import io.github.astrapi69.mystic.crypt.hex.HexableDecryptor;
+import io.github.astrapi69.mystic.crypt.hex.HexableEncryptor;
+import io.github.astrapi69.mystic.crypt.simple.OneTimePadDecryptor;
+import io.github.astrapi69.mystic.crypt.simple.OneTimePadEncryptor;
+
+/**
+ * The unit test class for the class {@link FusedChainEncryptor} and {@link FusedChainDecryptor}
+ */
+public class FusedChainEncryptorTest
+{
+
+	/**
+	 * Test fused encrypt and decrypt with {@link FusedChainEncryptor#encrypt(String)} and
+	 * {@link FusedChainDecryptor#decrypt(String)} with three hexable stages
+	 *
+	 * @throws Exception
+	 *             is thrown if any security exception occured
+	 */
+	@Test
+	public void testFusedHexableStages() throws Exception
+	{
+		final String secretMessage = "Lorem ipsum dolor sit amet, consetetur sadipscing elitr,;-)";
+		final String firstKey = "D1D15ED36B887AF1";
+		final String secondKey = "44850AD044361AE8";
+		final String thirdKey = "BD0F34C849772DC6";
+		final FusedChainEncryptor encryptor = FusedChainEncryptor.builder()
+			.stage(new HexableEncryptor(firstKey)).stage(new HexableEncryptor(secondKey))
+			.stage(new HexableEncryptor(thirdKey)).build();
+		assertEquals(3, encryptor.getFusedStageCount());
+
+		final String encrypted = encryptor.encrypt(secretMessage);
+		final FusedChainDecryptor decryptor = FusedChainDecryptor.builder()
+			.stage(new HexableDecryptor(thirdKey)).stage(new HexableDecryptor(secondKey))
+			.stage(new HexableDecryptor(firstKey)).build();
+		assertEquals(3, decryptor.getFusedStageCount());
+		assertEquals(secretMessage, decryptor.decrypt(encrypted));
+
+		// a single fused stage gives the same result as the string form
+		final FusedChainEncryptor single = FusedChainEncryptor.builder()
+			.stage(new HexableEncryptor(firstKey)).build();
+		assertEquals(new HexableEncryptor(firstKey).encrypt(secretMessage),
+			single.encrypt(secretMessage));
+	}
+
+	/**
+	 * Test fused encrypt and decrypt with byte stages and a string stage that can not be fused
+	 *
+	 * @throws Exception
+	 *             is thrown if any security exception occured
+	 */
+	@Test
+	public void testMixedStages() throws Exception
+	{
+		final String secretMessage = "top secret message";
+		final byte[] firstKey = "first-pad".getBytes(StandardCharsets.UTF_8);
+		final byte[] secondKey = "second-pad".getBytes(StandardCharsets.UTF_8);
+		final Encryptor<String, String> reverseEncryptor = toEncrypt -> new StringBuilder(
+			toEncrypt).reverse().toString();
+		final Decryptor<String, String> reverseDecryptor = encrypted -> new StringBuilder(
+			encrypted).reverse().toString();
+
+		final FusedChainEncryptor encryptor = FusedChainEncryptor.builder()
+			.byteStage(new OneTimePadEncryptor(firstKey)).stage(reverseEncryptor)
+			.byteStage(new OneTimePadEncryptor(secondKey)).build();
+		assertEquals(2, encryptor.getFusedStageCount());
+		final FusedChainDecryptor decryptor = FusedChainDecryptor.builder()
+			.byteStage(new OneTimePadDecryptor(secondKey)).stage(reverseDecryptor)
+			.byteStage(new OneTimePadDecryptor(firstKey)).build();
+
+		final String encrypted = encryptor.encrypt(secretMessage);
+		assertEquals(secretMessage, decryptor.decrypt(encrypted));
+
+		final byte[] plainBytes = secretMessage.getBytes(StandardCharsets.UTF_8);
+		assertArrayEquals(plainBytes, decryptor.decrypt(encryptor.encrypt(plainBytes)));
+	}
+
+	/**
+	 * Test encrypt and decrypt with stages that are added as {@link FusedChainStage} and the typed
+	 * stages of {@link FusedChainEncryptor#getStages()} and {@link FusedChainDecryptor#getStages()}
+	 *
+	 * @throws Exception
+	 *             is thrown if any security exception occured
+	 */
+	@Test
+	public void testFusedChainStages() throws Exception
+	{
+		final String secretMessage = "top secret message";
+		final byte[] key = "pad".getBytes(StandardCharsets.UTF_8);
+		final FusedChainStage reverse = FusedChainStage
+			.textStage(text -> new StringBuilder(text).reverse().toString());
+
+		final FusedChainEncryptor encryptor = FusedChainEncryptor.builder()
+			.byteStage(new OneTimePadEncryptor(key)).fusedStage(reverse).build();
+		final List<FusedChainStage> encryptorStages = encryptor.getStages();
+		assertEquals(2, encryptorStages.size());
+		assertTrue(encryptorStages.get(0).isByteStage());
+		assertFalse(encryptorStages.get(1).isByteStage());
+		assertSame(reverse, encryptorStages.get(1));
+		assertThrows(UnsupportedOperationException.class, () -> reverse.process(key));
+
+		final FusedChainDecryptor decryptor = FusedChainDecryptor.builder().fusedStage(reverse)
+			.byteStage(new OneTimePadDecryptor(key)).build();
+		assertEquals(1, decryptor.getFusedStageCount());
+		assertFalse(decryptor.getStages().get(0).isByteStage());
+		assertEquals(secretMessage, decryptor.decrypt(encryptor.encrypt(secretMessage)));
+	}
+
+}
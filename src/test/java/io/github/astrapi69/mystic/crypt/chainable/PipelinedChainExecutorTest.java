@@ -0,0 +1,227 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.mystic.crypt.chainable;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.astrapi69.mystic.crypt.hex.HexableDecryptor;
+import io.github.astrapi69.mystic.crypt.hex.HexableEncryptor;
+
+/**
+ * The unit test class for the class {@link PipelinedChainExecutor}
+ */
+public class PipelinedChainExecutorTest
+{
+
+	/**
+	 * Test method for {@link PipelinedChainExecutor#process(List)} with hexable stages
+	 *
+	 * @throws Exception
+	 *             is thrown if any security exception occured
+	 */
+	@Test
+	public void testProcessWithHexableStages() throws Exception
+	{
+		final String firstKey = "D1D15ED36B887AF1";
+		final String secondKey = "44850AD044361AE8";
+		final List<String> messages = new ArrayList<>();
+		for (int i = 0; i < 500; i++)
+		{
+			messages.add("message number " + i);
+		}
+		final List<String> encrypted;
+		try (PipelinedChainExecutor<String> encryptor = PipelinedChainExecutor.ofEncryptors(
+			new HexableEncryptor(firstKey), new HexableEncryptor(secondKey)))
+		{
+			encrypted = encryptor.process(messages);
+		}
+		final ChainableStringEncryptor sequential = new ChainableStringEncryptor(
+			new HexableEncryptor(firstKey), new HexableEncryptor(secondKey));
+		assertEquals(sequential.encrypt(messages.get(42)), encrypted.get(42));
+		try (PipelinedChainExecutor<String> decryptor = PipelinedChainExecutor.ofDecryptors(
+			new HexableDecryptor(secondKey), new HexableDecryptor(firstKey)))
+		{
+			assertEquals(messages, decryptor.process(encrypted));
+		}
+	}
+
+	/**
+	 * Test method for {@link PipelinedChainExecutor#submit(Object)} and
+	 * {@link PipelinedChainExecutor#take()} with a small capacity, the order must be preserved
+	 *
+	 * @throws Exception
+	 *             is thrown if the processing fails
+	 */
+	@Test
+	public void testSubmitAndTakeKeepOrder() throws Exception
+	{
+		final List<PipelinedChainExecutor.Stage<Integer>> stages = new ArrayList<>();
+		stages.add(message -> message * 2);
+		stages.add(message -> message + 1);
+		stages.add(message -> {
+			if (message == 21)
+			{
+				throw new IllegalArgumentException("unlucky");
+			}
+			return message;
+		});
+		final int count = 10000;
+		try (PipelinedChainExecutor<Integer> executor = new PipelinedChainExecutor<>(stages, 4))
+		{
+			final Thread producer = new Thread(() -> {
+				try
+				{
+					for (int i = 0; i < count; i++)
+					{
+						executor.submit(i);
+					}
+				}
+				catch (final InterruptedException exception)
+				{
+					Thread.currentThread().interrupt();
+				}
+			});
+			producer.start();
+			for (int i = 0; i < count; i++)
+			{
+				if (i == 10)
+				{
+					final ExecutionException exception = assertThrows(ExecutionException.class,
+						executor::take);
+					assertTrue(exception.getCause() instanceof IllegalArgumentException);
+				}
+				else
+				{
+					assertEquals(Integer.valueOf(i * 2 + 1), executor.take());
+				}
+			}
+			producer.join();
+			final List<StageStatistics> statistics = executor.getStatistics();
+			assertEquals(3, statistics.size());
+			assertEquals(count, statistics.get(0).getProcessedCount());
+			assertEquals(1, statistics.get(2).getFailedCount());
+		}
+	}
+
+	/**
+	 * Test method for {@link PipelinedChainExecutor#take()} with a stage that throws an error, the
+	 * worker must survive and process the following messages
+	 *
+	 * @throws Exception
+	 *             is thrown if the processing fails
+	 */
+	@Test
+	public void testStageThrowsError() throws Exception
+	{
+		final List<PipelinedChainExecutor.Stage<Integer>> stages = new ArrayList<>();
+		stages.add(message -> {
+			if (message == 1)
+			{
+				throw new AssertionError("broken");
+			}
+			return message;
+		});
+		stages.add(message -> message + 1);
+		try (PipelinedChainExecutor<Integer> executor = new PipelinedChainExecutor<>(stages, 4))
+		{
+			executor.submit(0);
+			executor.submit(1);
+			executor.submit(2);
+			assertEquals(Integer.valueOf(1), executor.take());
+			final ExecutionException exception = assertThrows(ExecutionException.class,
+				executor::take);
+			assertTrue(exception.getCause() instanceof AssertionError);
+			assertEquals(Integer.valueOf(3), executor.take());
+			assertEquals(1, executor.getStatistics().get(0).getFailedCount());
+		}
+	}
+
+	/**
+	 * Test method for {@link PipelinedChainExecutor} with a given thread factory, the names of the
+	 * threads are kept and idle workers park until a message is submitted
+	 *
+	 * @throws Exception
+	 *             is thrown if the processing fails
+	 */
+	@Test
+	public void testIdleWorkersWithThreadFactory() throws Exception
+	{
+		final List<PipelinedChainExecutor.Stage<Integer>> stages = new ArrayList<>();
+		stages.add(message -> message * 2);
+		stages.add(message -> message + 1);
+		final List<Thread> threads = new CopyOnWriteArrayList<>();
+		final ThreadFactory threadFactory = runnable -> {
+			final Thread thread = new Thread(runnable, "custom-worker-" + threads.size());
+			thread.setDaemon(true);
+			threads.add(thread);
+			return thread;
+		};
+		try (PipelinedChainExecutor<Integer> executor = new PipelinedChainExecutor<>(stages, 4,
+			threadFactory))
+		{
+			assertEquals(2, threads.size());
+			assertEquals("custom-worker-0", threads.get(0).getName());
+			assertEquals("custom-worker-1", threads.get(1).getName());
+			final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+			while (!isParked(threads) && System.nanoTime() < deadline)
+			{
+				Thread.sleep(10);
+			}
+			assertTrue(isParked(threads));
+
+			executor.submit(20);
+			assertEquals(Integer.valueOf(41), executor.take());
+		}
+		for (final Thread thread : threads)
+		{
+			assertFalse(thread.isAlive());
+		}
+	}
+
+	private static boolean isParked(final List<Thread> threads)
+	{
+		for (final Thread thread : threads)
+		{
+			if (thread.getState() != Thread.State.WAITING)
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+
+}
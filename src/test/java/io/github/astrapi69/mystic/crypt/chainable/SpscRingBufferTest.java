@@ -0,0 +1,97 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.mystic.crypt.chainable;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * The unit test class for the class {@link SpscRingBuffer}
+ */
+public class SpscRingBufferTest
+{
+
+	/**
+	 * Test method for {@link SpscRingBuffer#offer(Object)} and {@link SpscRingBuffer#poll()}
+	 */
+	@Test
+	public void testOfferAndPoll()
+	{
+		final SpscRingBuffer<Integer> ring = new SpscRingBuffer<>(3);
+		assertEquals(4, ring.capacity());
+		assertNull(ring.poll());
+		for (int i = 0; i < 4; i++)
+		{
+			assertTrue(ring.offer(i));
+		}
+		assertFalse(ring.offer(4));
+		assertEquals(4, ring.size());
+		assertEquals(Integer.valueOf(0), ring.poll());
+		assertTrue(ring.offer(4));
+		for (int i = 1; i <= 4; i++)
+		{
+			assertEquals(Integer.valueOf(i), ring.poll());
+		}
+		assertNull(ring.poll());
+	}
+
+	/**
+	 * Test method for {@link SpscRingBuffer} with one producer and one consumer thread
+	 *
+	 * @throws InterruptedException
+	 *             if the current thread was interrupted
+	 */
+	@Test
+	public void testProducerAndConsumer() throws InterruptedException
+	{
+		final SpscRingBuffer<Integer> ring = new SpscRingBuffer<>(8);
+		final int count = 200000;
+		final Thread producer = new Thread(() -> {
+			for (int i = 0; i < count; i++)
+			{
+				while (!ring.offer(i))
+				{
+					Thread.yield();
+				}
+			}
+		});
+		producer.start();
+		for (int i = 0; i < count; i++)
+		{
+			Integer value;
+			while ((value = ring.poll()) == null)
+			{
+				Thread.yield();
+			}
+			assertEquals(Integer.valueOf(i), value);
+		}
+		producer.join();
+	}
+
+}
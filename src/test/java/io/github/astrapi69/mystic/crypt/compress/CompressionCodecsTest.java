@@ -0,0 +1,178 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.mystic.crypt.compress;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.Deflater;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * The unit test class for the class {@link CompressionCodecs}
+ */
+public class CompressionCodecsTest
+{
+
+	private static byte[] compress(final byte[] data, final CompressionCodec codec)
+		throws IOException
+	{
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		try (OutputStream compressing = CompressionCodecs.compress(outputStream, codec))
+		{
+			compressing.write(data);
+		}
+		return outputStream.toByteArray();
+	}
+
+	private static byte[] decompress(final byte[] data) throws IOException
+	{
+		try (InputStream decompressing = CompressionCodecs
+			.decompress(new ByteArrayInputStream(data)))
+		{
+			return decompressing.readAllBytes();
+		}
+	}
+
+	private static byte[] newText()
+	{
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < 2000; i++)
+		{
+			sb.append("2024-01-01 12:00:00 INFO request ").append(i % 10).append(" done\n");
+		}
+		return sb.toString().getBytes(StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Test method for {@link CompressionCodecs#compress(OutputStream, CompressionCodec)} and
+	 * {@link CompressionCodecs#decompress(InputStream)} with the deflate codec
+	 *
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	@Test
+	public void testCompressDecompress() throws IOException
+	{
+		byte[] text = newText();
+		byte[] compressed = compress(text, new DeflateCompressionCodec(Deflater.BEST_SPEED));
+		assertTrue(compressed.length * 10 < text.length);
+		assertArrayEquals(text, decompress(compressed));
+	}
+
+	/**
+	 * Test method for {@link CompressionCodecs#decompress(InputStream)} with data without a header
+	 *
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	@Test
+	public void testDecompressWithoutHeader() throws IOException
+	{
+		byte[] text = newText();
+		assertArrayEquals(text, decompress(text));
+		byte[] shortData = { (byte)0x89, 'M' };
+		assertArrayEquals(shortData, decompress(shortData));
+		assertArrayEquals(new byte[0], decompress(new byte[0]));
+	}
+
+	/**
+	 * Test method for {@link CompressionCodecs#register(CompressionCodec)} with a custom codec
+	 *
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	@Test
+	public void testRegister() throws IOException
+	{
+		CompressionCodec invert = new CompressionCodec()
+		{
+			@Override
+			public OutputStream compress(final OutputStream outputStream)
+			{
+				return new FilterOutputStream(outputStream)
+				{
+					@Override
+					public void write(final int b) throws IOException
+					{
+						out.write(~b);
+					}
+				};
+			}
+
+			@Override
+			public InputStream decompress(final InputStream inputStream)
+			{
+				return new FilterInputStream(inputStream)
+				{
+					@Override
+					public int read() throws IOException
+					{
+						int b = in.read();
+						return b < 0 ? b : ~b & 0xFF;
+					}
+
+					@Override
+					public int read(final byte[] b, final int off, final int len)
+						throws IOException
+					{
+						int read = in.read(b, off, len);
+						for (int i = off; i < off + read; i++)
+						{
+							b[i] = (byte)~b[i];
+						}
+						return read;
+					}
+				};
+			}
+
+			@Override
+			public String getName()
+			{
+				return "invert";
+			}
+		};
+		byte[] text = "foo bar".getBytes(StandardCharsets.UTF_8);
+		byte[] compressed = compress(text, invert);
+		// an unknown codec is passed through unchanged
+		assertArrayEquals(compressed, decompress(compressed));
+		CompressionCodecs.register(invert);
+		assertSame(invert, CompressionCodecs.get("invert"));
+		assertArrayEquals(text, decompress(compressed));
+		assertThrows(IllegalArgumentException.class, () -> new DeflateCompressionCodec(10));
+	}
+
+}
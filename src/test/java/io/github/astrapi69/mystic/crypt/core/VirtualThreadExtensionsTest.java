@@ -0,0 +1,92 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.mystic.crypt.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * The unit test class for the class {@link VirtualThreadExtensions}
+ */
+public class VirtualThreadExtensionsTest
+{
+
+	/**
+	 * Test method for {@link VirtualThreadExtensions#newThreadFactory(String)}
+	 *
+	 * @throws Exception
+	 *             is thrown if any error occurs on the execution
+	 */
+	@Test
+	public void testNewThreadFactory() throws Exception
+	{
+		if (!VirtualThreadExtensions.isSupported())
+		{
+			assertThrows(UnsupportedOperationException.class,
+				() -> VirtualThreadExtensions.newThreadFactory("worker-"));
+			return;
+		}
+		ThreadFactory threadFactory = VirtualThreadExtensions.newThreadFactory("worker-");
+		Thread first = threadFactory.newThread(() -> {
+		});
+		Thread second = threadFactory.newThread(() -> {
+		});
+		assertEquals("worker-0", first.getName());
+		assertEquals("worker-1", second.getName());
+		assertEquals(Boolean.TRUE, Thread.class.getMethod("isVirtual").invoke(first));
+	}
+
+	/**
+	 * Test method for {@link VirtualThreadExtensions#newVirtualThreadPerTaskExecutor()}
+	 *
+	 * @throws Exception
+	 *             is thrown if any error occurs on the execution
+	 */
+	@Test
+	public void testNewVirtualThreadPerTaskExecutor() throws Exception
+	{
+		if (!VirtualThreadExtensions.isSupported())
+		{
+			assertThrows(UnsupportedOperationException.class,
+				VirtualThreadExtensions::newVirtualThreadPerTaskExecutor);
+			return;
+		}
+		ExecutorService executor = VirtualThreadExtensions.newVirtualThreadPerTaskExecutor();
+		Object virtual = executor
+			.submit(() -> Thread.class.getMethod("isVirtual").invoke(Thread.currentThread()))
+			.get();
+		executor.shutdown();
+		assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+		assertEquals(Boolean.TRUE, virtual);
+	}
+
+}
@@ -0,0 +1,176 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.mystic.crypt.file;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import javax.crypto.Cipher;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.github.astrapi69.crypt.api.algorithm.SunJCEAlgorithm;
+import io.github.astrapi69.crypt.data.model.CryptModel;
+import io.github.astrapi69.file.delete.DeleteFileExtensions;
+import io.github.astrapi69.file.search.PathFinder;
+
+/**
+ * The unit test class for the class {@link AsynchronousFileEncryptor} and the class
+ * {@link AsynchronousFileDecryptor}
+ */
+public class AsynchronousFileEncryptDecryptorTest
+{
+
+	CryptModel<Cipher, String, String> cryptModel;
+	ExecutorService executor;
+	File rootDir;
+
+	/**
+	 * Sets up method will be invoked before every unit test method in this class
+	 *
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	@BeforeEach
+	protected void setUp() throws IOException
+	{
+		rootDir = new File(PathFinder.getSrcTestResourcesDir(), "asynchronous-crypt");
+		Files.createDirectories(rootDir.toPath());
+		cryptModel = CryptModel.<Cipher, String, String> builder().key("foo")
+			.algorithm(SunJCEAlgorithm.PBEWithMD5AndDES).build();
+		executor = Executors.newFixedThreadPool(2);
+	}
+
+	/**
+	 * Tear down method will be invoked after every unit test method in this class
+	 *
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	@AfterEach
+	protected void tearDown() throws IOException
+	{
+		executor.shutdownNow();
+		DeleteFileExtensions.delete(rootDir);
+	}
+
+	/**
+	 * Test method for {@link AsynchronousFileEncryptor#encrypt(File, File)} and
+	 * {@link AsynchronousFileDecryptor#decrypt(File, File)} with files of many chunks, an empty
+	 * file and concurrent calls on one instance
+	 *
+	 * @throws Exception
+	 *             is thrown if any error occurs on the execution
+	 */
+	@Test
+	public void testEncryptDecrypt() throws Exception
+	{
+		AsynchronousFileEncryptor encryptor = new AsynchronousFileEncryptor(cryptModel, executor,
+			4096);
+		AsynchronousFileDecryptor decryptor = new AsynchronousFileDecryptor(cryptModel, executor,
+			4096);
+		Random random = new Random(11);
+		List<byte[]> contents = new ArrayList<>();
+		List<CompletableFuture<File>> futures = new ArrayList<>();
+		for (int i = 0; i < 4; i++)
+		{
+			byte[] content = new byte[i == 0 ? 0 : i * 50_000 + i];
+			random.nextBytes(content);
+			contents.add(content);
+			File source = new File(rootDir, "file" + i + ".bin");
+			File decrypted = new File(rootDir, "file" + i + ".decrypted");
+			Files.write(source.toPath(), content);
+			futures.add(encryptor.encrypt(source, new File(rootDir, "file" + i + ".enc"))
+				.thenCompose(encrypted -> decryptor.decrypt(encrypted, decrypted)));
+		}
+		for (int i = 0; i < 4; i++)
+		{
+			File decrypted = futures.get(i).get();
+			assertEquals(new File(rootDir, "file" + i + ".decrypted"), decrypted);
+			assertArrayEquals(contents.get(i), Files.readAllBytes(decrypted.toPath()));
+		}
+	}
+
+	/**
+	 * Test method for {@link AsynchronousFileEncryptor#encrypt(File, File)} with the default
+	 * thread pools and the compatibility with the {@link PBEFileDecryptor}
+	 *
+	 * @throws Exception
+	 *             is thrown if any error occurs on the execution
+	 */
+	@Test
+	public void testEncryptCompatibleWithPBEFileDecryptor() throws Exception
+	{
+		AsynchronousFileEncryptor encryptor = new AsynchronousFileEncryptor(cryptModel);
+		byte[] content = new byte[200_003];
+		new Random(3).nextBytes(content);
+		File source = new File(rootDir, "compatible.bin");
+		Files.write(source.toPath(), content);
+		File encrypted = encryptor.encrypt(source, new File(rootDir, "compatible.enc")).get();
+
+		PBEFileDecryptor decryptor = new PBEFileDecryptor(CryptModel
+			.<Cipher, String, String> builder().key("foo")
+			.algorithm(SunJCEAlgorithm.PBEWithMD5AndDES).build());
+		File decrypted = decryptor.decrypt(encrypted, new File(rootDir, "compatible.decrypted"));
+		assertArrayEquals(content, Files.readAllBytes(decrypted.toPath()));
+	}
+
+	/**
+	 * Test method for {@link AsynchronousFileDecryptor#decrypt(File, File)} with an invalid
+	 * encrypted file
+	 *
+	 * @throws Exception
+	 *             is thrown if any error occurs on the execution
+	 */
+	@Test
+	public void testDecryptInvalid() throws Exception
+	{
+		AsynchronousFileDecryptor decryptor = new AsynchronousFileDecryptor(cryptModel, executor);
+		File encrypted = new File(rootDir, "invalid.enc");
+		Files.write(encrypted.toPath(), new byte[] { 1, 2, 3, 4, 5 });
+		File target = new File(rootDir, "invalid.decrypted");
+		CompletableFuture<File> future = decryptor.decrypt(encrypted, target);
+		assertThrows(ExecutionException.class, future::get);
+		assertFalse(target.exists());
+		assertThrows(ExecutionException.class,
+			() -> decryptor.decrypt(new File(rootDir, "missing.enc"), target).get());
+	}
+
+}
@@ -0,0 +1,165 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.mystic.crypt.file;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.github.astrapi69.file.delete.DeleteFileExtensions;
+import io.github.astrapi69.file.search.PathFinder;
+
+/**
+ * The unit test class for the class {@link AtomicFileBatch}
+ */
+public class AtomicFileBatchTest
+{
+
+	File batchDir;
+
+	/**
+	 * Sets up method will be invoked before every unit test method in this class
+	 *
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	@BeforeEach
+	protected void setUp() throws IOException
+	{
+		batchDir = new File(PathFinder.getSrcTestResourcesDir(), "atomic-batch");
+		Files.createDirectories(batchDir.toPath());
+	}
+
+	/**
+	 * Tear down method will be invoked after every unit test method in this class
+	 *
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	@AfterEach
+	protected void tearDown() throws IOException
+	{
+		DeleteFileExtensions.delete(batchDir);
+	}
+
+	/**
+	 * Test method for {@link AtomicFileBatch#add(File, File, File)} and
+	 * {@link AtomicFileBatch#commit()}
+	 *
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	@Test
+	public void testCommit() throws IOException
+	{
+		File source = newFile("source.txt", "source");
+		File target = new File(batchDir, "target.enc");
+		try (AtomicFileBatch batch = new AtomicFileBatch())
+		{
+			File temporary = batch.newTemporaryFile(target);
+			assertEquals(batchDir.getAbsoluteFile(), temporary.getParentFile());
+			Files.writeString(temporary.toPath(), "encrypted", StandardCharsets.UTF_8);
+			batch.add(temporary, target, source);
+			assertEquals(1, batch.getPendingCount());
+			assertFalse(target.exists());
+			assertTrue(source.exists());
+
+			batch.commit();
+			assertEquals(0, batch.getPendingCount());
+			assertFalse(temporary.exists());
+			assertFalse(source.exists());
+			assertEquals("encrypted", Files.readString(target.toPath(), StandardCharsets.UTF_8));
+		}
+	}
+
+	/**
+	 * Test method for {@link AtomicFileBatch#add(File, File, File)} that commits the batch if the
+	 * batch size is reached and replaces existing target files
+	 *
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	@Test
+	public void testAddCommitsOnBatchSize() throws IOException
+	{
+		File first = newFile("first.enc", "old");
+		File second = new File(batchDir, "second.enc");
+		AtomicFileBatch batch = new AtomicFileBatch(2);
+		File temporary = batch.newTemporaryFile(first);
+		Files.writeString(temporary.toPath(), "new", StandardCharsets.UTF_8);
+		batch.add(temporary, first, null);
+		assertEquals("old", Files.readString(first.toPath(), StandardCharsets.UTF_8));
+
+		temporary = batch.newTemporaryFile(second);
+		Files.writeString(temporary.toPath(), "second", StandardCharsets.UTF_8);
+		batch.add(temporary, second, null);
+		assertEquals(0, batch.getPendingCount());
+		assertEquals("new", Files.readString(first.toPath(), StandardCharsets.UTF_8));
+		assertEquals("second", Files.readString(second.toPath(), StandardCharsets.UTF_8));
+		assertEquals(2, batchDir.list().length);
+	}
+
+	/**
+	 * Test method for {@link AtomicFileBatch#abort()}
+	 *
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	@Test
+	public void testAbort() throws IOException
+	{
+		File source = newFile("source.txt", "source");
+		File target = new File(batchDir, "target.enc");
+		AtomicFileBatch batch = new AtomicFileBatch();
+		File temporary = batch.newTemporaryFile(target);
+		Files.writeString(temporary.toPath(), "encrypted", StandardCharsets.UTF_8);
+		batch.add(temporary, target, source);
+
+		batch.abort();
+		assertEquals(0, batch.getPendingCount());
+		assertFalse(temporary.exists());
+		assertFalse(target.exists());
+		assertTrue(source.exists());
+		batch.close();
+		assertFalse(target.exists());
+	}
+
+	private File newFile(final String name, final String content) throws IOException
+	{
+		File file = new File(batchDir, name);
+		Files.writeString(file.toPath(), content, StandardCharsets.UTF_8);
+		return file;
+	}
+
+}
@@ -0,0 +1,238 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.mystic.crypt.file;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.stream.Stream;
+
+import javax.crypto.Cipher;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.github.astrapi69.crypt.api.algorithm.SunJCEAlgorithm;
+import io.github.astrapi69.crypt.data.model.CryptModel;
+import io.github.astrapi69.file.delete.DeleteFileExtensions;
+import io.github.astrapi69.file.search.PathFinder;
+import io.github.astrapi69.mystic.crypt.core.VirtualThreadExtensions;
+
+/**
+ * The unit test class for the class {@link DirectoryEncryptor} and the class
+ * {@link DirectoryDecryptor}
+ */
+public class DirectoryEncryptDecryptorTest
+{
+
+	CryptModel<Cipher, String, String> cryptModel;
+	File decryptedDir;
+	File encryptedDir;
+	File rootDir;
+	File sourceDir;
+
+	/**
+	 * Sets up method will be invoked before every unit test method in this class
+	 *
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	@BeforeEach
+	protected void setUp() throws IOException
+	{
+		rootDir = new File(PathFinder.getSrcTestResourcesDir(), "directory-crypt");
+		sourceDir = new File(rootDir, "source");
+		encryptedDir = new File(rootDir, "encrypted");
+		decryptedDir = new File(rootDir, "decrypted");
+		cryptModel = CryptModel.<Cipher, String, String> builder().key("foo")
+			.algorithm(SunJCEAlgorithm.PBEWithMD5AndDES).build();
+		Random random = new Random(7);
+		for (int i = 0; i < 40; i++)
+		{
+			File dir = new File(sourceDir, "dir" + i % 4 + File.separator + "sub" + i % 3);
+			dir.mkdirs();
+			// a few large files are streamed in chunks, the others are batched
+			byte[] content = new byte[i % 10 == 0 ? 100_000 + i : i * 37];
+			random.nextBytes(content);
+			Files.write(new File(dir, "file" + i + ".bin").toPath(), content);
+		}
+	}
+
+	/**
+	 * Tear down method will be invoked after every unit test method in this class
+	 *
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	@AfterEach
+	protected void tearDown() throws IOException
+	{
+		DeleteFileExtensions.delete(rootDir);
+	}
+
+	/**
+	 * Test method for {@link DirectoryEncryptor#encrypt(File, File)} and
+	 * {@link DirectoryDecryptor#decrypt(File, File)}
+	 *
+	 * @throws Exception
+	 *             is thrown if any error occurs on the execution
+	 */
+	@Test
+	public void testEncryptDecrypt() throws Exception
+	{
+		DirectoryEncryptor encryptor = new DirectoryEncryptor(cryptModel, 3, 4096, 5, 8192);
+		DirectoryCryptResult encryptResult = encryptor.encrypt(sourceDir, encryptedDir);
+		assertTrue(encryptResult.isSuccess());
+		assertEquals(Integer.valueOf(40), Integer.valueOf(encryptResult.getFileResults().size()));
+		assertTrue(0 < encryptResult.getThroughput());
+
+		DirectoryDecryptor decryptor = new DirectoryDecryptor(cryptModel, 2);
+		DirectoryCryptResult decryptResult = decryptor.decrypt(encryptedDir, decryptedDir);
+		assertTrue(decryptResult.isSuccess());
+		for (DirectoryCryptResult.FileResult fileResult : encryptResult.getFileResults())
+		{
+			File source = fileResult.getSource();
+			assertTrue(fileResult.getTarget().getName().endsWith(".bin.enc"));
+			assertFalse(Files.mismatch(source.toPath(), fileResult.getTarget().toPath()) < 0);
+			File decrypted = new File(decryptedDir,
+				sourceDir.toPath().relativize(source.toPath()).toString());
+			assertArrayEquals(Files.readAllBytes(source.toPath()),
+				Files.readAllBytes(decrypted.toPath()));
+		}
+		// the total bytes count the source bytes, the encrypted files are padded
+		assertTrue(encryptResult.getTotalBytes() < decryptResult.getTotalBytes());
+	}
+
+	/**
+	 * Test method for {@link DirectoryEncryptor} and {@link DirectoryDecryptor} with a given thread
+	 * factory, that creates virtual threads if the runtime supports them
+	 *
+	 * @throws Exception
+	 *             is thrown if any error occurs on the execution
+	 */
+	@Test
+	public void testEncryptDecryptWithThreadFactory() throws Exception
+	{
+		ThreadFactory threadFactory = VirtualThreadExtensions.isSupported()
+			? VirtualThreadExtensions.newThreadFactory("directory-crypt-")
+			: Executors.defaultThreadFactory();
+		DirectoryCryptResult encryptResult = new DirectoryEncryptor(cryptModel, 4, threadFactory)
+			.encrypt(sourceDir, encryptedDir);
+		assertTrue(encryptResult.isSuccess());
+		assertEquals(Integer.valueOf(40), Integer.valueOf(encryptResult.getFileResults().size()));
+
+		DirectoryCryptResult decryptResult = new DirectoryDecryptor(cryptModel, 4, threadFactory)
+			.decrypt(encryptedDir, decryptedDir);
+		assertTrue(decryptResult.isSuccess());
+		for (DirectoryCryptResult.FileResult fileResult : encryptResult.getFileResults())
+		{
+			File source = fileResult.getSource();
+			File decrypted = new File(decryptedDir,
+				sourceDir.toPath().relativize(source.toPath()).toString());
+			assertArrayEquals(Files.readAllBytes(source.toPath()),
+				Files.readAllBytes(decrypted.toPath()));
+		}
+	}
+
+	/**
+	 * Test method for {@link DirectoryEncryptor} and {@link DirectoryDecryptor} with atomic writes,
+	 * a failed file keeps the existing target file
+	 *
+	 * @throws Exception
+	 *             is thrown if any error occurs on the execution
+	 */
+	@Test
+	public void testEncryptDecryptAtomic() throws Exception
+	{
+		DirectoryCryptResult encryptResult = new DirectoryEncryptor(cryptModel, 3, 4096, 5, 8192,
+			true).encrypt(sourceDir, encryptedDir);
+		assertTrue(encryptResult.isSuccess());
+		assertEquals(Integer.valueOf(40), Integer.valueOf(encryptResult.getFileResults().size()));
+		DirectoryCryptResult decryptResult = new DirectoryDecryptor(cryptModel, 2, 4096, 5, 8192,
+			true).decrypt(encryptedDir, decryptedDir);
+		assertTrue(decryptResult.isSuccess());
+
+		CryptModel<Cipher, String, String> wrongModel = CryptModel
+			.<Cipher, String, String> builder().key("bar")
+			.algorithm(SunJCEAlgorithm.PBEWithMD5AndDES).build();
+		DirectoryCryptResult wrongResult = new DirectoryDecryptor(wrongModel, 2, 4096, 5, 8192,
+			true).decrypt(encryptedDir, decryptedDir);
+		assertFalse(wrongResult.isSuccess());
+		for (DirectoryCryptResult.FileResult fileResult : wrongResult.getFileResults())
+		{
+			if (!fileResult.isSuccess())
+			{
+				File source = new File(sourceDir,
+					decryptedDir.toPath().relativize(fileResult.getTarget().toPath()).toString());
+				assertArrayEquals(Files.readAllBytes(source.toPath()),
+					Files.readAllBytes(fileResult.getTarget().toPath()));
+			}
+		}
+		try (Stream<Path> files = Files.walk(rootDir.toPath()))
+		{
+			assertFalse(files.anyMatch(
+				file -> file.toString().endsWith(AtomicFileBatch.TEMPORARY_FILE_SUFFIX)));
+		}
+	}
+
+	/**
+	 * Test method for {@link DirectoryDecryptor#decrypt(File, File)} with a wrong password
+	 *
+	 * @throws Exception
+	 *             is thrown if any error occurs on the execution
+	 */
+	@Test
+	public void testDecryptFailures() throws Exception
+	{
+		new DirectoryEncryptor(cryptModel).encrypt(sourceDir, encryptedDir);
+		CryptModel<Cipher, String, String> wrongModel = CryptModel
+			.<Cipher, String, String> builder().key("bar")
+			.algorithm(SunJCEAlgorithm.PBEWithMD5AndDES).build();
+		DirectoryCryptResult result = new DirectoryDecryptor(wrongModel).decrypt(encryptedDir,
+			decryptedDir);
+		assertFalse(result.isSuccess());
+		for (DirectoryCryptResult.FileResult fileResult : result.getFileResults())
+		{
+			if (!fileResult.isSuccess())
+			{
+				assertFalse(fileResult.getTarget().exists());
+			}
+		}
+		assertThrows(IllegalArgumentException.class,
+			() -> new DirectoryEncryptor(cryptModel).encrypt(sourceDir, new File(sourceDir, "x")));
+	}
+
+}
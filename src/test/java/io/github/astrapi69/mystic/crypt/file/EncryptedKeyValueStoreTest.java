@@ -0,0 +1,253 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.mystic.crypt.file;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.DataInput;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+import javax.crypto.Cipher;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.github.astrapi69.crypt.api.algorithm.SunJCEAlgorithm;
+import io.github.astrapi69.crypt.data.model.CryptModel;
+import io.github.astrapi69.file.delete.DeleteFileExtensions;
+import io.github.astrapi69.file.search.PathFinder;
+import io.github.astrapi69.mystic.crypt.serialization.DataStreamSerializer;
+
+/**
+ * The unit test class for the class {@link EncryptedKeyValueStore}
+ */
+public class EncryptedKeyValueStoreTest
+{
+
+	CryptModel<Cipher, String, String> cryptModel;
+	File dataFile;
+	DataStreamSerializer<String> serializer;
+
+	/**
+	 * Sets up method will be invoked before every unit test method in this class
+	 */
+	@BeforeEach
+	protected void setUp()
+	{
+		dataFile = new File(PathFinder.getSrcTestResourcesDir(), "store.kv");
+		cryptModel = CryptModel.<Cipher, String, String> builder().key("D1D15ED36B887AF1")
+			.algorithm(SunJCEAlgorithm.PBEWithMD5AndDES).build();
+		serializer = new DataStreamSerializer<>("utf-v1",
+			(object, output) -> output.writeUTF(object), DataInput::readUTF);
+	}
+
+	/**
+	 * Tear down method will be invoked after every unit test method in this class
+	 *
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	@AfterEach
+	protected void tearDown() throws IOException
+	{
+		DeleteFileExtensions.delete(dataFile);
+	}
+
+	/**
+	 * Test method for {@link EncryptedKeyValueStore#put(String, Object)},
+	 * {@link EncryptedKeyValueStore#get(String)} and {@link EncryptedKeyValueStore#remove(String)}
+	 * with a reopened store
+	 *
+	 * @throws Exception
+	 *             is thrown if any error occurs on the execution
+	 */
+	@Test
+	public void testPutGetRemove() throws Exception
+	{
+		try (EncryptedKeyValueStore<String> store = new EncryptedKeyValueStore<>(cryptModel,
+			dataFile, serializer))
+		{
+			for (int i = 0; i < 1000; i++)
+			{
+				store.put("key-" + i, "value-" + i);
+			}
+			store.put("key-7", "seven");
+			assertTrue(store.remove("key-8"));
+			assertFalse(store.remove("key-8"));
+			assertEquals(999, store.size());
+			assertEquals("seven", store.get("key-7"));
+			assertEquals("value-999", store.get("key-999"));
+			assertNull(store.get("key-8"));
+			assertNull(store.get("unknown"));
+		}
+		try (EncryptedKeyValueStore<String> store = new EncryptedKeyValueStore<>(cryptModel,
+			dataFile, serializer))
+		{
+			assertEquals(999, store.size());
+			assertEquals("seven", store.get("key-7"));
+			assertEquals("value-0", store.get("key-0"));
+			assertNull(store.get("key-8"));
+		}
+	}
+
+	/**
+	 * Test method for {@link EncryptedKeyValueStore#compact()}
+	 *
+	 * @throws Exception
+	 *             is thrown if any error occurs on the execution
+	 */
+	@Test
+	public void testCompact() throws Exception
+	{
+		try (EncryptedKeyValueStore<String> store = new EncryptedKeyValueStore<>(cryptModel,
+			dataFile, serializer, 1))
+		{
+			for (int round = 0; round < 5; round++)
+			{
+				for (int i = 0; i < 100; i++)
+				{
+					store.put("key-" + i, "value-" + round + "-" + i);
+				}
+			}
+			store.remove("key-0");
+			long size = store.getFileSize();
+			store.compact();
+			assertTrue(store.getFileSize() < size / 4);
+			assertEquals(99, store.size());
+			assertEquals("value-4-50", store.get("key-50"));
+			assertNull(store.get("key-0"));
+			store.put("key-0", "again");
+		}
+		try (EncryptedKeyValueStore<String> store = new EncryptedKeyValueStore<>(cryptModel,
+			dataFile, serializer))
+		{
+			assertEquals(100, store.size());
+			assertEquals("again", store.get("key-0"));
+			assertEquals("value-4-99", store.get("key-99"));
+		}
+	}
+
+	/**
+	 * Test method for {@link EncryptedKeyValueStore#put(String, Object)} and
+	 * {@link EncryptedKeyValueStore#close()} with a failed background compaction
+	 *
+	 * @throws Exception
+	 *             is thrown if any error occurs on the execution
+	 */
+	@Test
+	public void testFailedBackgroundCompaction() throws Exception
+	{
+		final File compactFile = new File(dataFile.getPath() + ".compact");
+		// a directory with the name of the compacted file lets the compaction fail
+		assertTrue(new File(compactFile, "blocker").mkdirs());
+		final String value = "x".repeat(60000);
+		try
+		{
+			final IOException failure = assertThrows(IOException.class, () -> {
+				try (EncryptedKeyValueStore<String> store = new EncryptedKeyValueStore<>(
+					cryptModel, dataFile, serializer))
+				{
+					for (int i = 0; i < 40; i++)
+					{
+						store.put("key", value);
+					}
+				}
+			});
+			assertTrue(failure.getMessage().startsWith("The background compaction"));
+		}
+		finally
+		{
+			DeleteFileExtensions.delete(compactFile);
+		}
+		try (EncryptedKeyValueStore<String> store = new EncryptedKeyValueStore<>(cryptModel,
+			dataFile, serializer))
+		{
+			assertEquals(1, store.size());
+			assertEquals(value, store.get("key"));
+		}
+	}
+
+	/**
+	 * Test method for the loading of a data file with a modified length of a record before the end
+	 * of the data file
+	 *
+	 * @throws Exception
+	 *             is thrown if any error occurs on the execution
+	 */
+	@Test
+	public void testLoadModifiedLengthInTheMiddle() throws Exception
+	{
+		try (EncryptedKeyValueStore<String> store = new EncryptedKeyValueStore<>(cryptModel,
+			dataFile, serializer))
+		{
+			store.put("foo", "bar");
+			store.put("bar", "foo");
+		}
+		final long length = dataFile.length();
+		try (RandomAccessFile file = new RandomAccessFile(dataFile, "rw"))
+		{
+			// a length that exceeds the data file looked like an incomplete last record
+			file.seek(Integer.BYTES);
+			file.writeInt(Integer.MAX_VALUE);
+		}
+		assertThrows(IOException.class,
+			() -> new EncryptedKeyValueStore<>(cryptModel, dataFile, serializer));
+		assertEquals(length, dataFile.length());
+	}
+
+	/**
+	 * Test method for {@link EncryptedKeyValueStore#get(String)} with a modified record
+	 *
+	 * @throws Exception
+	 *             is thrown if any error occurs on the execution
+	 */
+	@Test
+	public void testGetModifiedRecord() throws Exception
+	{
+		try (EncryptedKeyValueStore<String> store = new EncryptedKeyValueStore<>(cryptModel,
+			dataFile, serializer))
+		{
+			store.put("foo", "bar");
+			store.flush();
+			try (RandomAccessFile file = new RandomAccessFile(dataFile, "rw"))
+			{
+				long position = Integer.BYTES + EncryptedKeyValueStore.RECORD_HEADER_SIZE;
+				file.seek(position);
+				int value = file.read();
+				file.seek(position);
+				file.write(value ^ 1);
+			}
+			assertThrows(IOException.class, () -> store.get("foo"));
+		}
+	}
+
+}
@@ -0,0 +1,283 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.mystic.crypt.file;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.DataInput;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.crypto.Cipher;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.github.astrapi69.crypt.api.algorithm.SunJCEAlgorithm;
+import io.github.astrapi69.crypt.data.model.CryptModel;
+import io.github.astrapi69.file.delete.DeleteFileExtensions;
+import io.github.astrapi69.file.search.PathFinder;
+import io.github.astrapi69.mystic.crypt.serialization.DataStreamSerializer;
+
+/**
+ * The unit test class for the class {@link EncryptedObjectLog}
+ */
+public class EncryptedObjectLogTest
+{
+
+	CryptModel<Cipher, String, String> cryptModel;
+	File logDir;
+	DataStreamSerializer<String> serializer;
+
+	/**
+	 * Sets up method will be invoked before every unit test method in this class
+	 */
+	@BeforeEach
+	protected void setUp()
+	{
+		logDir = new File(PathFinder.getSrcTestResourcesDir(), "object-log");
+		cryptModel = CryptModel.<Cipher, String, String> builder().key("D1D15ED36B887AF1")
+			.algorithm(SunJCEAlgorithm.PBEWithMD5AndDES).build();
+		serializer = new DataStreamSerializer<>("utf-v1",
+			(object, output) -> output.writeUTF(object), DataInput::readUTF);
+	}
+
+	/**
+	 * Tear down method will be invoked after every unit test method in this class
+	 *
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	@AfterEach
+	protected void tearDown() throws IOException
+	{
+		DeleteFileExtensions.delete(logDir);
+	}
+
+	/**
+	 * Test method for {@link EncryptedObjectLog#append(Object)} and
+	 * {@link EncryptedObjectLog#replay()} over several segment files and a reopened log
+	 *
+	 * @throws Exception
+	 *             is thrown if any error occurs on the execution
+	 */
+	@Test
+	public void testAppendReplay() throws Exception
+	{
+		List<String> expected = new ArrayList<>();
+		try (EncryptedObjectLog<String> log = new EncryptedObjectLog<>(cryptModel, logDir,
+			serializer, 512, 8))
+		{
+			for (int i = 0; i < 100; i++)
+			{
+				expected.add("record-" + i);
+				assertEquals(i, log.append("record-" + i));
+			}
+			assertTrue(1 < log.getSegmentFiles().size());
+		}
+		try (EncryptedObjectLog<String> log = new EncryptedObjectLog<>(cryptModel, logDir,
+			serializer, 512, 8))
+		{
+			assertEquals(100L, log.getNextSequence());
+			assertEquals(100L, log.appendAll(List.of("foo", "bar")));
+			expected.add("foo");
+			expected.add("bar");
+			List<String> actual = new ArrayList<>();
+			try (EncryptedObjectLog<String>.RecordIterator iterator = log.replay())
+			{
+				iterator.forEachRemaining(actual::add);
+			}
+			assertEquals(expected, actual);
+		}
+	}
+
+	/**
+	 * Test method for {@link EncryptedObjectLog#replay()} with a modified record
+	 *
+	 * @throws Exception
+	 *             is thrown if any error occurs on the execution
+	 */
+	@Test
+	public void testReplayModifiedRecord() throws Exception
+	{
+		File segment;
+		try (EncryptedObjectLog<String> log = new EncryptedObjectLog<>(cryptModel, logDir,
+			serializer))
+		{
+			log.append("first");
+			log.append("second");
+			log.commit();
+			segment = log.getSegmentFiles().get(0);
+			try (RandomAccessFile file = new RandomAccessFile(segment, "rw"))
+			{
+				// flip one bit in the encrypted bytes of the first record
+				file.seek(Integer.BYTES + EncryptedObjectLog.RECORD_HEADER_SIZE);
+				int value = file.read();
+				file.seek(Integer.BYTES + EncryptedObjectLog.RECORD_HEADER_SIZE);
+				file.write(value ^ 1);
+			}
+			EncryptedObjectLog<String>.RecordIterator iterator = log.replay();
+			assertThrows(UncheckedIOException.class, iterator::next);
+			iterator.close();
+		}
+	}
+
+	/**
+	 * Test method for the recovery of a log with an incomplete record at the end
+	 *
+	 * @throws Exception
+	 *             is thrown if any error occurs on the execution
+	 */
+	@Test
+	public void testRecoverIncompleteRecord() throws Exception
+	{
+		File segment;
+		try (EncryptedObjectLog<String> log = new EncryptedObjectLog<>(cryptModel, logDir,
+			serializer))
+		{
+			log.append("first");
+			log.append("second");
+			segment = log.getSegmentFiles().get(0);
+		}
+		try (RandomAccessFile file = new RandomAccessFile(segment, "rw"))
+		{
+			file.setLength(file.length() - 3);
+		}
+		try (EncryptedObjectLog<String> log = new EncryptedObjectLog<>(cryptModel, logDir,
+			serializer))
+		{
+			assertEquals(1L, log.getNextSequence());
+			log.append("third");
+			List<String> actual = new ArrayList<>();
+			log.replay().forEachRemaining(actual::add);
+			assertEquals(List.of("first", "third"), actual);
+		}
+	}
+
+	/**
+	 * Test method for the recovery of a log with a modified record before the end of the segment
+	 *
+	 * @throws Exception
+	 *             is thrown if any error occurs on the execution
+	 */
+	@Test
+	public void testRecoverModifiedRecordInTheMiddle() throws Exception
+	{
+		File segment;
+		long length;
+		try (EncryptedObjectLog<String> log = new EncryptedObjectLog<>(cryptModel, logDir,
+			serializer))
+		{
+			log.append("first");
+			log.append("second");
+			log.append("third");
+			segment = log.getSegmentFiles().get(0);
+		}
+		length = segment.length();
+		try (RandomAccessFile file = new RandomAccessFile(segment, "rw"))
+		{
+			file.seek(Integer.BYTES + EncryptedObjectLog.RECORD_HEADER_SIZE);
+			int value = file.read();
+			file.seek(Integer.BYTES + EncryptedObjectLog.RECORD_HEADER_SIZE);
+			file.write(value ^ 1);
+		}
+		assertThrows(IOException.class,
+			() -> new EncryptedObjectLog<>(cryptModel, logDir, serializer));
+		// the valid records after the modified record are not truncated
+		assertEquals(length, segment.length());
+	}
+
+	/**
+	 * Test method for the recovery of a log with a modified length of a record before the end of
+	 * the segment
+	 *
+	 * @throws Exception
+	 *             is thrown if any error occurs on the execution
+	 */
+	@Test
+	public void testRecoverModifiedLengthInTheMiddle() throws Exception
+	{
+		File segment;
+		long length;
+		try (EncryptedObjectLog<String> log = new EncryptedObjectLog<>(cryptModel, logDir,
+			serializer))
+		{
+			log.append("first");
+			log.append("second");
+			log.append("third");
+			segment = log.getSegmentFiles().get(0);
+		}
+		length = segment.length();
+		try (RandomAccessFile file = new RandomAccessFile(segment, "rw"))
+		{
+			// a length that exceeds the segment looked like an incomplete last record
+			file.seek(Integer.BYTES);
+			file.writeInt(Integer.MAX_VALUE);
+		}
+		assertThrows(IOException.class,
+			() -> new EncryptedObjectLog<>(cryptModel, logDir, serializer));
+		assertEquals(length, segment.length());
+	}
+
+	/**
+	 * Test method for the recovery of a log with a modified last record, that is truncated like a
+	 * torn write
+	 *
+	 * @throws Exception
+	 *             is thrown if any error occurs on the execution
+	 */
+	@Test
+	public void testRecoverModifiedLastRecord() throws Exception
+	{
+		File segment;
+		try (EncryptedObjectLog<String> log = new EncryptedObjectLog<>(cryptModel, logDir,
+			serializer))
+		{
+			log.append("first");
+			log.append("second");
+			segment = log.getSegmentFiles().get(0);
+		}
+		try (RandomAccessFile file = new RandomAccessFile(segment, "rw"))
+		{
+			file.seek(file.length() - 1);
+			int value = file.read();
+			file.seek(file.length() - 1);
+			file.write(value ^ 1);
+		}
+		try (EncryptedObjectLog<String> log = new EncryptedObjectLog<>(cryptModel, logDir,
+			serializer))
+		{
+			assertEquals(1L, log.getNextSequence());
+		}
+	}
+
+}
@@ -25,8 +25,11 @@
 package io.github.astrapi69.mystic.crypt.file;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
+import java.io.DataInput;
 import java.io.File;
+import java.io.IOException;
 
 import javax.crypto.Cipher;
 
@@ -37,6 +40,8 @@ import io.github.astrapi69.crypt.api.algorithm.SunJCEAlgorithm;
 import io.github.astrapi69.crypt.data.model.CryptModel;
 import io.github.astrapi69.file.delete.DeleteFileExtensions;
 import io.github.astrapi69.file.search.PathFinder;
+import io.github.astrapi69.mystic.crypt.serialization.DataStreamSerializer;
+import io.github.astrapi69.mystic.crypt.serialization.JavaObjectSerializer;
 import io.github.astrapi69.test.base.AbstractTestCase;
 import io.github.astrapi69.test.object.Person;
 import io.github.astrapi69.test.object.enumeration.Gender;
@@ -124,4 +129,61 @@ public class GenericObjectEncryptDecryptorTest extends AbstractTestCase<Person,
 		DeleteFileExtensions.delete(encrypted);
 	}
 
+	/**
+	 * Test method for the encryption with a given serializer and the decryption with the
+	 * serializer that is recorded in the encrypted file
+	 *
+	 * @throws Exception
+	 *             is thrown if any error occurs on the execution
+	 */
+	@Test
+	public void testEncryptDecryptWithSerializer() throws Exception
+	{
+		DataStreamSerializer<String> serializer = new DataStreamSerializer<>("utf-v1",
+			(object, output) -> output.writeUTF(object), DataInput::readUTF);
+		GenericObjectEncryptor<String, String> encryptor = new GenericObjectEncryptor<>(cryptModel,
+			new File(cryptDir, "encryptedText.enc"), serializer);
+		String text = "Foo bar i will be encrypted and decypted";
+		encrypted = encryptor.encrypt(text);
+
+		GenericObjectDecryptor<String, String> decryptor = new GenericObjectDecryptor<>(cryptModel,
+			new JavaObjectSerializer<>(), serializer);
+
+		assertEquals(text, decryptor.decrypt(encrypted));
+		// files without a recorded serializer are still readable
+		encryptor = new GenericObjectEncryptor<>(cryptModel, encrypted);
+		encryptor.encrypt(text);
+		assertEquals(text, decryptor.decrypt(encrypted));
+		// clean up...
+		DeleteFileExtensions.delete(encrypted);
+	}
+
+	/**
+	 * Test method for the decryption with a {@link GenericObjectDecryptor} that knows only a
+	 * {@link DataStreamSerializer}, it has to reject java serialized files
+	 *
+	 * @throws Exception
+	 *             is thrown if any error occurs on the execution
+	 */
+	@Test
+	public void testDecryptRejectsJavaSerialization() throws Exception
+	{
+		DataStreamSerializer<String> serializer = new DataStreamSerializer<>("utf-v1",
+			(object, output) -> output.writeUTF(object), DataInput::readUTF);
+		GenericObjectDecryptor<String, String> decryptor = new GenericObjectDecryptor<>(cryptModel,
+			serializer);
+		String text = "Foo bar i will not be deserialized";
+		// with the recorded java serializer
+		GenericObjectEncryptor<String, String> encryptor = new GenericObjectEncryptor<>(cryptModel,
+			new File(cryptDir, "encryptedText.enc"), new JavaObjectSerializer<>());
+		encrypted = encryptor.encrypt(text);
+		assertThrows(IOException.class, () -> decryptor.decrypt(encrypted));
+		// without a recorded serializer
+		encryptor = new GenericObjectEncryptor<>(cryptModel, encrypted);
+		encryptor.encrypt(text);
+		assertThrows(IOException.class, () -> decryptor.decrypt(encrypted));
+		// clean up...
+		DeleteFileExtensions.delete(encrypted);
+	}
+
 }
@@ -0,0 +1,85 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.mystic.crypt.file;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * The unit test class for the class {@link OffsetIndex}
+ */
+public class OffsetIndexTest
+{
+
+	/**
+	 * Test method for {@link OffsetIndex#add(long, long)}, {@link OffsetIndex#find(long, int)} and
+	 * {@link OffsetIndex#removeAt(int)} against a {@link HashMap}
+	 */
+	@Test
+	public void testAddFindRemove()
+	{
+		OffsetIndex index = new OffsetIndex(4);
+		Map<Long, Long> expected = new HashMap<>();
+		Random random = new Random(42);
+		for (int i = 0; i < 20000; i++)
+		{
+			// few distinct tags force long probe sequences
+			long tag = random.nextInt(3000);
+			int slot = index.find(tag, -1);
+			if (random.nextInt(3) == 0)
+			{
+				if (0 <= slot)
+				{
+					index.removeAt(slot);
+					expected.remove(tag);
+				}
+			}
+			else if (0 <= slot)
+			{
+				index.setOffset(slot, i);
+				expected.put(tag, (long)i);
+			}
+			else
+			{
+				index.add(tag, i);
+				expected.put(tag, (long)i);
+			}
+		}
+		assertEquals(Integer.valueOf(expected.size()), Integer.valueOf(index.size()));
+		for (Map.Entry<Long, Long> entry : expected.entrySet())
+		{
+			int slot = index.find(entry.getKey(), -1);
+			assertEquals(entry.getValue(), Long.valueOf(index.offsetAt(slot)));
+			assertEquals(Integer.valueOf(-1), Integer.valueOf(index.find(entry.getKey(), slot)));
+		}
+		assertEquals(Integer.valueOf(-1), Integer.valueOf(index.find(5000, -1)));
+	}
+
+}
@@ -29,6 +29,7 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.File;
+import java.util.zip.Deflater;
 
 import javax.crypto.Cipher;
 
@@ -43,6 +44,7 @@ import io.github.astrapi69.crypt.data.model.CryptObjectDecorator;
 import io.github.astrapi69.file.copy.CopyFileExtensions;
 import io.github.astrapi69.file.delete.DeleteFileExtensions;
 import io.github.astrapi69.file.search.PathFinder;
+import io.github.astrapi69.mystic.crypt.compress.DeflateCompressionCodec;
 import io.github.astrapi69.test.base.AbstractTestCase;
 
 public class PBEFileDecryptorTest extends AbstractTestCase<String, String>
@@ -129,6 +131,36 @@ public class PBEFileDecryptorTest extends AbstractTestCase<String, String>
 		DeleteFileExtensions.delete(decrypted);
 	}
 
+	/**
+	 * Test method for the encrpytion with the class {@link PBEFileEncryptor} with a compression
+	 * codec and decryption with the class {@link PBEFileDecryptor}
+	 *
+	 * @throws Exception
+	 *             is thrown if any error occurs on the execution
+	 */
+	@Test
+	public void testDecryptCompressed() throws Exception
+	{
+		// new scenario...
+		File encryptedCompressed = new File(cryptDir, "encryptedCompressed.enc");
+		File decryptedCompressed = new File(cryptDir, "decryptedCompressed.decrypted");
+		encryptor = new PBEFileEncryptor(cryptModel, encryptedCompressed,
+			PBEFileEncryptor.DEFAULT_ENCRYPTED_FILE_EXTENSION, false,
+			new DeflateCompressionCodec(Deflater.BEST_SPEED));
+		encrypted = encryptor.encrypt(toEncrypt);
+
+		decryptor = new PBEFileDecryptor(cryptModel, decryptedCompressed);
+
+		decrypted = decryptor.decrypt(encrypted);
+
+		expected = FileChecksumExtensions.getChecksum(toEncrypt, MdAlgorithm.MD5.name());
+		actual = FileChecksumExtensions.getChecksum(decrypted, MdAlgorithm.MD5.name());
+		assertEquals(actual, expected);
+		// clean up...
+		DeleteFileExtensions.delete(encrypted);
+		DeleteFileExtensions.delete(decrypted);
+	}
+
 	/**
 	 * Test method for the encrpytion with the class {@link PBEFileEncryptor} and decryption with
 	 * the class {@link PBEFileDecryptor} with the constructor with model, file and custom file
@@ -25,8 +25,17 @@
 package io.github.astrapi69.mystic.crypt.file;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import javax.crypto.Cipher;
 
@@ -93,4 +102,124 @@ public class PBEFileEncryptorTest extends AbstractTestCase<String, String>
 		DeleteFileExtensions.delete(encrypted);
 		DeleteFileExtensions.delete(decrypted);
 	}
+
+	/**
+	 * Test method for {@link PBEFileEncryptor#encrypt(File, File)} and
+	 * {@link PBEFileDecryptor#decrypt(File, File)} with one shared instance from concurrent threads
+	 *
+	 * @throws Exception
+	 *             is thrown if any error occurs on the execution
+	 */
+	@Test
+	public void testEncryptWithTargetConcurrent() throws Exception
+	{
+		final int fileCount = 16;
+		CryptModel<Cipher, String, String> encryptModel = CryptModel
+			.<Cipher, String, String> builder().key(password)
+			.algorithm(SunJCEAlgorithm.PBEWithMD5AndDES).build();
+		CryptModel<Cipher, String, String> decryptModel = CryptModel
+			.<Cipher, String, String> builder().key(password)
+			.algorithm(SunJCEAlgorithm.PBEWithMD5AndDES).build();
+		encryptor = new PBEFileEncryptor(encryptModel);
+		decryptor = new PBEFileDecryptor(decryptModel);
+		List<File> sources = new ArrayList<>();
+		for (int i = 0; i < fileCount; i++)
+		{
+			File source = new File(cryptDir, "concurrent" + i + ".txt");
+			Files.writeString(source.toPath(), "the content of the file " + i,
+				StandardCharsets.UTF_8);
+			sources.add(source);
+		}
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try
+		{
+			List<Future<File>> futures = new ArrayList<>();
+			for (File source : sources)
+			{
+				futures.add(executor.submit(() -> {
+					File target = encryptor.encrypt(source,
+						new File(cryptDir, source.getName() + ".enc"));
+					return decryptor.decrypt(target,
+						new File(cryptDir, source.getName() + ".decrypted"));
+				}));
+			}
+			for (int i = 0; i < fileCount; i++)
+			{
+				File result = futures.get(i).get();
+				assertEquals("the content of the file " + i,
+					Files.readString(result.toPath(), StandardCharsets.UTF_8));
+			}
+		}
+		finally
+		{
+			executor.shutdownNow();
+			for (File source : sources)
+			{
+				DeleteFileExtensions.delete(new File(cryptDir, source.getName() + ".enc"));
+				DeleteFileExtensions.delete(new File(cryptDir, source.getName() + ".decrypted"));
+				DeleteFileExtensions.delete(source);
+			}
+		}
+	}
+
+	/**
+	 * Test method for {@link PBEFileEncryptor#encrypt(File, File, AtomicFileBatch)} and the
+	 * atomic write mode of {@link PBEFileEncryptor#encrypt(File)}
+	 *
+	 * @throws Exception
+	 *             is thrown if any error occurs on the execution
+	 */
+	@Test
+	public void testEncryptAtomic() throws Exception
+	{
+		CryptModel<Cipher, String, String> encryptModel = CryptModel
+			.<Cipher, String, String> builder().key(password)
+			.algorithm(SunJCEAlgorithm.PBEWithMD5AndDES).build();
+		CryptModel<Cipher, String, String> decryptModel = CryptModel
+			.<Cipher, String, String> builder().key(password)
+			.algorithm(SunJCEAlgorithm.PBEWithMD5AndDES).build();
+		File first = new File(cryptDir, "atomic1.txt");
+		File second = new File(cryptDir, "atomic2.txt");
+		File firstTarget = new File(cryptDir, "atomic1.enc");
+		File secondTarget = new File(cryptDir, "atomic2.enc");
+		File decryptedTarget = new File(cryptDir, "atomic.decrypted");
+		Files.writeString(first.toPath(), "first", StandardCharsets.UTF_8);
+		Files.writeString(second.toPath(), "second", StandardCharsets.UTF_8);
+		try
+		{
+			encryptor = new PBEFileEncryptor(encryptModel, null, ".enc", true);
+			decryptor = new PBEFileDecryptor(decryptModel);
+			try (AtomicFileBatch batch = new AtomicFileBatch())
+			{
+				encryptor.encrypt(first, firstTarget, batch);
+				encryptor.encrypt(second, secondTarget, batch);
+				assertFalse(firstTarget.exists());
+				assertTrue(first.exists());
+				assertEquals(2, batch.getPendingCount());
+			}
+			assertFalse(first.exists());
+			assertFalse(second.exists());
+			decryptor.decrypt(secondTarget, decryptedTarget);
+			assertEquals("second",
+				Files.readString(decryptedTarget.toPath(), StandardCharsets.UTF_8));
+
+			// new scenario...
+			Files.writeString(first.toPath(), "first", StandardCharsets.UTF_8);
+			encryptor = new PBEFileEncryptor(encryptModel, firstTarget, ".enc", true, true);
+			encrypted = encryptor.encrypt(first);
+			assertFalse(first.exists());
+			decryptor.decrypt(encrypted, decryptedTarget);
+			assertEquals("first",
+				Files.readString(decryptedTarget.toPath(), StandardCharsets.UTF_8));
+			assertEquals(0, cryptDir.list((dir, name) -> name.endsWith(".tmp")).length);
+		}
+		finally
+		{
+			DeleteFileExtensions.delete(first);
+			DeleteFileExtensions.delete(second);
+			DeleteFileExtensions.delete(firstTarget);
+			DeleteFileExtensions.delete(secondTarget);
+			DeleteFileExtensions.delete(decryptedTarget);
+		}
+	}
 }
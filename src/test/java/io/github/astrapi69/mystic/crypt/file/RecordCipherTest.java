@@ -0,0 +1,77 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.mystic.crypt.file;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import javax.crypto.Cipher;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.astrapi69.crypt.api.algorithm.SunJCEAlgorithm;
+import io.github.astrapi69.crypt.data.model.CryptModel;
+
+/**
+ * The unit test class for the class {@link RecordCipher}
+ */
+public class RecordCipherTest
+{
+
+	/**
+	 * Test method for {@link RecordCipher#encrypt(byte[], int, int)} and
+	 * {@link RecordCipher#decrypt(byte[])} with equal records
+	 *
+	 * @throws Exception
+	 *             is thrown if any error occurs on the execution
+	 */
+	@Test
+	public void testEncryptDecrypt() throws Exception
+	{
+		CryptModel<Cipher, String, String> cryptModel = CryptModel
+			.<Cipher, String, String> builder().key("D1D15ED36B887AF1")
+			.algorithm(SunJCEAlgorithm.PBEWithMD5AndDES).build();
+		RecordCipher recordCipher = new RecordCipher(cryptModel);
+		byte[] plain = "same record".getBytes(StandardCharsets.UTF_8);
+		byte[] first = recordCipher.encrypt(plain, 0, plain.length);
+		byte[] second = recordCipher.encrypt(plain, 0, plain.length);
+		// every record has its own salt, so equal records have different encrypted bytes
+		assertFalse(Arrays.equals(first, second));
+		assertFalse(Arrays.equals(Arrays.copyOfRange(first, RecordCipher.SALT_LENGTH, first.length),
+			Arrays.copyOfRange(second, RecordCipher.SALT_LENGTH, second.length)));
+		assertArrayEquals(plain, recordCipher.decrypt(first));
+		assertArrayEquals(plain, recordCipher.decrypt(second));
+		byte[] part = recordCipher.encrypt(plain, 5, 6);
+		assertEquals("record", new String(recordCipher.decrypt(part), StandardCharsets.UTF_8));
+		assertThrows(IOException.class, () -> recordCipher.decrypt(new byte[3]));
+	}
+
+}
@@ -0,0 +1,317 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.mystic.crypt.flow;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.security.GeneralSecurityException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+
+import javax.crypto.Cipher;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.github.astrapi69.crypt.api.algorithm.SunJCEAlgorithm;
+import io.github.astrapi69.crypt.data.factory.CipherFactory;
+import io.github.astrapi69.crypt.data.model.CryptModel;
+
+/**
+ * The unit test class for the class {@link FlowEncryptor} and the class {@link FlowDecryptor}
+ */
+public class FlowEncryptDecryptorTest
+{
+
+	CryptModel<Cipher, String, String> cryptModel;
+	byte[] data;
+
+	/**
+	 * Sets up method will be invoked before every unit test method in this class
+	 */
+	@BeforeEach
+	protected void setUp()
+	{
+		cryptModel = CryptModel.<Cipher, String, String> builder().key("foo")
+			.algorithm(SunJCEAlgorithm.PBEWithMD5AndDES).build();
+		data = new byte[100_003];
+		new Random(7).nextBytes(data);
+	}
+
+	/**
+	 * Test method for {@link FlowEncryptor} and {@link FlowDecryptor} in one pipeline with an
+	 * asynchronous publisher and chunks that are smaller and larger than a cipher block
+	 *
+	 * @throws Exception
+	 *             is thrown if any error occurs on the execution
+	 */
+	@Test
+	public void testEncryptDecrypt() throws Exception
+	{
+		FlowEncryptor encryptor = new FlowEncryptor(cryptModel);
+		FlowDecryptor decryptor = new FlowDecryptor(cryptModel);
+		CollectingSubscriber encrypted = new CollectingSubscriber(encryptor);
+		encryptor.subscribe(encrypted);
+		CollectingSubscriber decrypted = new CollectingSubscriber(decryptor);
+		decryptor.subscribe(decrypted);
+		List<ByteBuffer> chunks = chunks(data);
+		try (SubmissionPublisher<ByteBuffer> publisher = new SubmissionPublisher<>())
+		{
+			publisher.subscribe(encryptor);
+			for (ByteBuffer chunk : chunks)
+			{
+				publisher.submit(chunk);
+			}
+		}
+		byte[] encryptedBytes = encrypted.result.get(30, TimeUnit.SECONDS);
+		Cipher cipher = CipherFactory.newPBECipher("foo".toCharArray(), Cipher.ENCRYPT_MODE,
+			SunJCEAlgorithm.PBEWithMD5AndDES.getAlgorithm());
+		assertArrayEquals(cipher.doFinal(data), encryptedBytes);
+		assertTrue(0 < encryptor.getBufferPool().getIdleCount());
+
+		try (SubmissionPublisher<ByteBuffer> publisher = new SubmissionPublisher<>())
+		{
+			publisher.subscribe(decryptor);
+			for (ByteBuffer chunk : chunks(encryptedBytes))
+			{
+				publisher.submit(chunk);
+			}
+		}
+		assertArrayEquals(data, decrypted.result.get(30, TimeUnit.SECONDS));
+	}
+
+	/**
+	 * Test method for {@link FlowEncryptor} that the demand of the subscriber is passed to the
+	 * publisher and the final block is published on completion
+	 *
+	 * @throws Exception
+	 *             is thrown if any error occurs on the execution
+	 */
+	@Test
+	public void testDemand() throws Exception
+	{
+		FlowEncryptor encryptor = new FlowEncryptor(cryptModel);
+		ListPublisher publisher = new ListPublisher(
+			Arrays.asList(ByteBuffer.wrap(new byte[16]), ByteBuffer.wrap(new byte[3]),
+				ByteBuffer.wrap(new byte[16]), ByteBuffer.wrap(new byte[16])));
+		publisher.subscribe(encryptor);
+		List<ByteBuffer> received = new ArrayList<>();
+		CompletableFuture<Void> completed = new CompletableFuture<>();
+		Flow.Subscription[] subscription = new Flow.Subscription[1];
+		encryptor.subscribe(new Flow.Subscriber<ByteBuffer>()
+		{
+			@Override
+			public void onSubscribe(final Flow.Subscription s)
+			{
+				subscription[0] = s;
+			}
+
+			@Override
+			public void onNext(final ByteBuffer item)
+			{
+				received.add(item);
+			}
+
+			@Override
+			public void onError(final Throwable throwable)
+			{
+				completed.completeExceptionally(throwable);
+			}
+
+			@Override
+			public void onComplete()
+			{
+				completed.complete(null);
+			}
+		});
+		assertEquals(0L, publisher.requested);
+		subscription[0].request(2);
+		// the chunk of 3 bytes is only buffered by the cipher, so one more chunk is requested
+		assertEquals(3L, publisher.requested);
+		assertEquals(2, received.size());
+		assertEquals(16, received.get(0).remaining());
+		assertEquals(16, received.get(1).remaining());
+		subscription[0].request(1);
+		assertEquals(3, received.size());
+		assertTrue(!completed.isDone());
+		subscription[0].request(1);
+		assertEquals(4, received.size());
+		// the final block holds the 3 buffered bytes and the padding
+		assertEquals(8, received.get(3).remaining());
+		assertTrue(completed.isDone());
+	}
+
+	/**
+	 * Test method for {@link FlowDecryptor} with a truncated encrypted stream
+	 *
+	 * @throws Exception
+	 *             is thrown if any error occurs on the execution
+	 */
+	@Test
+	public void testDecryptTruncated() throws Exception
+	{
+		FlowDecryptor decryptor = new FlowDecryptor(cryptModel);
+		CollectingSubscriber decrypted = new CollectingSubscriber(decryptor);
+		decryptor.subscribe(decrypted);
+		new ListPublisher(Arrays.asList(ByteBuffer.wrap(new byte[21]))).subscribe(decryptor);
+		ExecutionException exception = assertThrows(ExecutionException.class,
+			() -> decrypted.result.get(30, TimeUnit.SECONDS));
+		assertTrue(exception.getCause() instanceof GeneralSecurityException);
+	}
+
+	/**
+	 * Test method for {@link FlowEncryptor#subscribe(Flow.Subscriber)} with a second subscriber
+	 *
+	 * @throws Exception
+	 *             is thrown if any error occurs on the execution
+	 */
+	@Test
+	public void testSubscribeTwice() throws Exception
+	{
+		FlowEncryptor encryptor = new FlowEncryptor(cryptModel);
+		encryptor.subscribe(new CollectingSubscriber(encryptor));
+		CollectingSubscriber second = new CollectingSubscriber(encryptor);
+		encryptor.subscribe(second);
+		ExecutionException exception = assertThrows(ExecutionException.class,
+			() -> second.result.get(30, TimeUnit.SECONDS));
+		assertTrue(exception.getCause() instanceof IllegalStateException);
+	}
+
+	private static List<ByteBuffer> chunks(final byte[] bytes)
+	{
+		List<ByteBuffer> chunks = new ArrayList<>();
+		Random random = new Random(11);
+		int offset = 0;
+		while (offset < bytes.length)
+		{
+			int length = Math.min(bytes.length - offset,
+				random.nextBoolean() ? random.nextInt(8) + 1 : random.nextInt(8192) + 1);
+			chunks.add(ByteBuffer.wrap(Arrays.copyOfRange(bytes, offset, offset + length)));
+			offset += length;
+		}
+		return chunks;
+	}
+
+	/**
+	 * Subscriber that requests one chunk at a time, collects the bytes and releases the buffers
+	 */
+	static final class CollectingSubscriber implements Flow.Subscriber<ByteBuffer>
+	{
+		final AbstractFlowCryptor cryptor;
+		final ByteArrayOutputStream output = new ByteArrayOutputStream();
+		final CompletableFuture<byte[]> result = new CompletableFuture<>();
+		Flow.Subscription subscription;
+
+		CollectingSubscriber(final AbstractFlowCryptor cryptor)
+		{
+			this.cryptor = cryptor;
+		}
+
+		@Override
+		public void onSubscribe(final Flow.Subscription subscription)
+		{
+			this.subscription = subscription;
+			subscription.request(1);
+		}
+
+		@Override
+		public void onNext(final ByteBuffer item)
+		{
+			byte[] bytes = new byte[item.remaining()];
+			item.get(bytes);
+			output.write(bytes, 0, bytes.length);
+			cryptor.release(item);
+			subscription.request(1);
+		}
+
+		@Override
+		public void onError(final Throwable throwable)
+		{
+			result.completeExceptionally(throwable);
+		}
+
+		@Override
+		public void onComplete()
+		{
+			result.complete(output.toByteArray());
+		}
+	}
+
+	/**
+	 * Synchronous publisher of a list of chunks that counts the requests
+	 */
+	static final class ListPublisher implements Flow.Publisher<ByteBuffer>
+	{
+		final List<ByteBuffer> items;
+		int index;
+		long requested;
+
+		ListPublisher(final List<ByteBuffer> items)
+		{
+			this.items = items;
+		}
+
+		@Override
+		public void subscribe(final Flow.Subscriber<? super ByteBuffer> subscriber)
+		{
+			subscriber.onSubscribe(new Flow.Subscription()
+			{
+				@Override
+				public void request(final long n)
+				{
+					requested += n;
+					for (long i = 0; i < n && index < items.size(); i++)
+					{
+						subscriber.onNext(items.get(index++));
+					}
+					if (index == items.size())
+					{
+						index++;
+						subscriber.onComplete();
+					}
+				}
+
+				@Override
+				public void cancel()
+				{
+					index = items.size() + 1;
+				}
+			});
+		}
+	}
+
+}
@@ -0,0 +1,103 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.mystic.crypt.io;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * The unit test class for the classes {@link ChainedCipherInputStream} and the classes
+ * {@link ChainedCipherOutputStream}
+ */
+public class ChainedCipherInputOutputStreamTest
+{
+
+	private static final String[] KEYS = { "D1D15ED36B887AF1", "44850AD044361AE8",
+			"BD0F34C849772DC6" };
+
+	private static Cipher newCipher(final String key, final int operationMode) throws Exception
+	{
+		final Cipher cipher = Cipher.getInstance("AES");
+		cipher.init(operationMode,
+			new SecretKeySpec(key.getBytes(StandardCharsets.UTF_8), "AES"));
+		return cipher;
+	}
+
+	/**
+	 * Test encrypt with a {@link ChainedCipherOutputStream} and decrypt with a
+	 * {@link ChainedCipherInputStream} with three stacked ciphers
+	 *
+	 * @throws Exception
+	 *             is thrown if any security exception occured
+	 */
+	@Test
+	public void testChainedEncryptDecrypt() throws Exception
+	{
+		final byte[] plain = new byte[1 << 20];
+		new Random(17).nextBytes(plain);
+
+		final ByteArrayOutputStream encrypted = new ByteArrayOutputStream();
+		try (ChainedCipherOutputStream outputStream = new ChainedCipherOutputStream(encrypted,
+			newCipher(KEYS[0], Cipher.ENCRYPT_MODE), newCipher(KEYS[1], Cipher.ENCRYPT_MODE),
+			newCipher(KEYS[2], Cipher.ENCRYPT_MODE)))
+		{
+			assertEquals(3, outputStream.getStageCount());
+			for (int offset = 0; offset < plain.length; offset += 10007)
+			{
+				outputStream.write(plain, offset, Math.min(10007, plain.length - offset));
+			}
+		}
+
+		// the stacked streams give the same result as the stages one after another
+		byte[] expected = plain;
+		for (final String key : KEYS)
+		{
+			expected = newCipher(key, Cipher.ENCRYPT_MODE).doFinal(expected);
+		}
+		assertArrayEquals(expected, encrypted.toByteArray());
+
+		final byte[] decrypted;
+		try (InputStream inputStream = new ChainedCipherInputStream(
+			new ByteArrayInputStream(encrypted.toByteArray()),
+			newCipher(KEYS[2], Cipher.DECRYPT_MODE), newCipher(KEYS[1], Cipher.DECRYPT_MODE),
+			newCipher(KEYS[0], Cipher.DECRYPT_MODE)))
+		{
+			decrypted = inputStream.readAllBytes();
+		}
+		assertArrayEquals(plain, decrypted);
+	}
+
+}
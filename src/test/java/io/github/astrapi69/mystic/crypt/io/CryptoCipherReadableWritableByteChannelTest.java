@@ -0,0 +1,207 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.mystic.crypt.io;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.security.GeneralSecurityException;
+import java.util.Random;
+
+import javax.crypto.Cipher;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.github.astrapi69.crypt.api.algorithm.SunJCEAlgorithm;
+import io.github.astrapi69.crypt.data.factory.CipherFactory;
+import io.github.astrapi69.file.delete.DeleteFileExtensions;
+import io.github.astrapi69.file.search.PathFinder;
+
+/**
+ * The unit test class for the classes {@link CryptoCipherReadableByteChannel} and the classes
+ * {@link CryptoCipherWritableByteChannel}
+ */
+public class CryptoCipherReadableWritableByteChannelTest
+{
+
+	byte[] data;
+	File rootDir;
+
+	/**
+	 * Sets up method will be invoked before every unit test method in this class
+	 *
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	@BeforeEach
+	protected void setUp() throws IOException
+	{
+		rootDir = new File(PathFinder.getSrcTestResourcesDir(), "byte-channel");
+		Files.createDirectories(rootDir.toPath());
+		data = new byte[300_001];
+		new Random(5).nextBytes(data);
+	}
+
+	/**
+	 * Tear down method will be invoked after every unit test method in this class
+	 *
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	@AfterEach
+	protected void tearDown() throws IOException
+	{
+		DeleteFileExtensions.delete(rootDir);
+	}
+
+	/**
+	 * Test method for the transfer of a file into a {@link CryptoCipherWritableByteChannel} and
+	 * from a {@link CryptoCipherReadableByteChannel} into a file
+	 *
+	 * @throws Exception
+	 *             is thrown if any error occurs on the execution
+	 */
+	@Test
+	public void testTransferEncryptDecrypt() throws Exception
+	{
+		File source = new File(rootDir, "source.bin");
+		File encrypted = new File(rootDir, "source.bin.enc");
+		File decrypted = new File(rootDir, "source.bin.decrypted");
+		Files.write(source.toPath(), data);
+
+		try (FileChannel in = FileChannel.open(source.toPath(), StandardOpenOption.READ);
+			WritableByteChannel out = new CryptoCipherWritableByteChannel(
+				FileChannel.open(encrypted.toPath(), StandardOpenOption.CREATE,
+					StandardOpenOption.WRITE),
+				newCipher(Cipher.ENCRYPT_MODE), 4096))
+		{
+			long position = 0;
+			while (position < in.size())
+			{
+				position += in.transferTo(position, in.size() - position, out);
+			}
+		}
+		assertArrayEquals(newCipher(Cipher.ENCRYPT_MODE).doFinal(data),
+			Files.readAllBytes(encrypted.toPath()));
+
+		try (CryptoCipherReadableByteChannel in = new CryptoCipherReadableByteChannel(
+			FileChannel.open(encrypted.toPath(), StandardOpenOption.READ),
+			newCipher(Cipher.DECRYPT_MODE));
+			FileChannel out = FileChannel.open(decrypted.toPath(), StandardOpenOption.CREATE,
+				StandardOpenOption.WRITE))
+		{
+			long position = 0;
+			long count;
+			while ((count = out.transferFrom(in, position, 8192)) > 0)
+			{
+				position += count;
+			}
+		}
+		assertArrayEquals(data, Files.readAllBytes(decrypted.toPath()));
+	}
+
+	/**
+	 * Test method for {@link CryptoCipherReadableByteChannel#read(ByteBuffer)} with buffers that
+	 * are smaller and larger than the processed chunks
+	 *
+	 * @throws Exception
+	 *             is thrown if any error occurs on the execution
+	 */
+	@Test
+	public void testReadWithBufferSizes() throws Exception
+	{
+		byte[] encrypted = newCipher(Cipher.ENCRYPT_MODE).doFinal(data);
+		for (int targetSize : new int[] { 5, 1024, 1 << 20 })
+		{
+			ByteArrayOutputStream decrypted = new ByteArrayOutputStream();
+			ByteBuffer target = ByteBuffer.allocateDirect(targetSize);
+			try (CryptoCipherReadableByteChannel in = new CryptoCipherReadableByteChannel(
+				Channels.newChannel(new ByteArrayInputStream(encrypted)),
+				newCipher(Cipher.DECRYPT_MODE), 1000))
+			{
+				while (in.read(target) != -1)
+				{
+					target.flip();
+					byte[] bytes = new byte[target.remaining()];
+					target.get(bytes);
+					decrypted.write(bytes, 0, bytes.length);
+					target.clear();
+				}
+				assertEquals(-1, in.read(target));
+			}
+			assertArrayEquals(data, decrypted.toByteArray());
+		}
+	}
+
+	/**
+	 * Test method for {@link CryptoCipherWritableByteChannel#write(ByteBuffer)} and
+	 * {@link CryptoCipherReadableByteChannel#read(ByteBuffer)} after the channels are closed
+	 *
+	 * @throws Exception
+	 *             is thrown if any error occurs on the execution
+	 */
+	@Test
+	public void testClosed() throws Exception
+	{
+		ByteArrayOutputStream encrypted = new ByteArrayOutputStream();
+		CryptoCipherWritableByteChannel out = new CryptoCipherWritableByteChannel(
+			Channels.newChannel(encrypted), newCipher(Cipher.ENCRYPT_MODE));
+		out.write(ByteBuffer.wrap(data, 0, 3));
+		out.close();
+		out.close();
+		assertFalse(out.isOpen());
+		assertEquals(8, encrypted.size());
+		assertThrows(ClosedChannelException.class, () -> out.write(ByteBuffer.allocate(1)));
+
+		CryptoCipherReadableByteChannel in = new CryptoCipherReadableByteChannel(
+			Channels.newChannel(new ByteArrayInputStream(encrypted.toByteArray())),
+			newCipher(Cipher.DECRYPT_MODE));
+		in.close();
+		assertFalse(in.isOpen());
+		assertThrows(ClosedChannelException.class, () -> in.read(ByteBuffer.allocate(1)));
+	}
+
+	private static Cipher newCipher(final int operationMode) throws GeneralSecurityException
+	{
+		return CipherFactory.newPBECipher("foo".toCharArray(), operationMode,
+			SunJCEAlgorithm.PBEWithMD5AndDES.getAlgorithm());
+	}
+
+}
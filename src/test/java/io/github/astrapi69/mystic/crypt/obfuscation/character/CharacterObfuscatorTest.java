@@ -25,6 +25,19 @@
 package io.github.astrapi69.mystic.crypt.obfuscation.character;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -164,4 +177,133 @@ public class CharacterObfuscatorTest extends AbstractTestCase<String, String>
 		assertEquals(expected, actual);
 	}
 
+	/**
+	 * Test method for {@link CharacterObfuscator} that is shared between several threads
+	 *
+	 * @throws Exception
+	 *             is thrown if an exception occurs
+	 */
+	@Test
+	public void testConcurrentUsage() throws Exception
+	{
+		CharacterObfuscator sharedObfuscator;
+		ExecutorService executorService;
+		List<Future<Boolean>> futures;
+
+		stringToObfuscate = "leonardo";
+		sharedObfuscator = new CharacterObfuscator(rules, stringToObfuscate, true);
+		// modifications of the given rules after construction have no effect
+		rules.clear();
+		executorService = Executors.newFixedThreadPool(8);
+		futures = new ArrayList<>();
+		for (int i = 0; i < 64; i++)
+		{
+			final String text = "abac leonardo " + i;
+			futures.add(executorService.submit(() -> {
+				boolean valid = true;
+				for (int j = 0; j < 200; j++)
+				{
+					valid &= "Lfpobsep".equals(sharedObfuscator.obfuscate());
+					valid &= stringToObfuscate.equals(sharedObfuscator.disentangle());
+					valid &= text
+						.equals(sharedObfuscator.disentangle(sharedObfuscator.obfuscate(text)));
+				}
+				return valid;
+			}));
+		}
+		for (Future<Boolean> future : futures)
+		{
+			assertTrue(future.get());
+		}
+		executorService.shutdown();
+		assertTrue(sharedObfuscator.isDisentanglable());
+	}
+
+	/**
+	 * Test method for {@link CharacterObfuscator#obfuscate(Reader, Writer)} and
+	 * {@link CharacterObfuscator#disentangle(Reader, Writer)} with an input that is larger than one
+	 * chunk and a rule with an index after the first chunk
+	 *
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	@Test
+	public void testObfuscateAndDisentangleStream() throws IOException
+	{
+		CharacterObfuscator characterObfuscator;
+		StringBuilder sb;
+		StringWriter obfuscated;
+		StringWriter disentangled;
+		int chunkSize;
+		long count;
+
+		chunkSize = ObfuscatorExtensions.DEFAULT_CHUNK_SIZE;
+		rules.get('a').getIndexes().add(chunkSize + 1);
+		sb = new StringBuilder();
+		while (sb.length() < chunkSize * 3)
+		{
+			sb.append("abac leonardo Lorem ipsum dolor sit amet, sea consul ");
+		}
+		sb.setCharAt(chunkSize + 1, 'a');
+		stringToObfuscate = sb.toString();
+		characterObfuscator = new CharacterObfuscator(rules, stringToObfuscate);
+
+		obfuscated = new StringWriter();
+		count = characterObfuscator.obfuscate(new StringReader(stringToObfuscate), obfuscated);
+		assertEquals(stringToObfuscate.length(), count);
+		expected = characterObfuscator.obfuscate();
+		actual = obfuscated.toString();
+		assertEquals(expected, actual);
+		assertEquals('A', actual.charAt(chunkSize + 1));
+
+		disentangled = new StringWriter();
+		characterObfuscator.disentangle(new StringReader(obfuscated.toString()), disentangled);
+		expected = characterObfuscator.disentangle();
+		actual = disentangled.toString();
+		assertEquals(expected, actual);
+		assertEquals(stringToObfuscate, actual);
+	}
+
+	/**
+	 * Test method for
+	 * {@link ObfuscatorExtensions#obfuscate(CompiledObfuscationRules, CharBuffer, CharBuffer, long)}
+	 * and
+	 * {@link ObfuscatorExtensions#disentangle(CompiledObfuscationRules, CharBuffer, CharBuffer, long)}
+	 * with chunks of a character buffer
+	 */
+	@Test
+	public void testObfuscateAndDisentangleCharBuffer()
+	{
+		CompiledObfuscationRules compiledRules;
+		CharBuffer source;
+		CharBuffer target;
+		CharBuffer result;
+		long index;
+
+		compiledRules = ObfuscatorExtensions.compile(rules);
+		source = CharBuffer.wrap("abacabac");
+		target = CharBuffer.allocate(8);
+		index = 0;
+		while (source.hasRemaining())
+		{
+			CharBuffer chunk = source.slice();
+			chunk.limit(Math.min(3, chunk.remaining()));
+			index = ObfuscatorExtensions.obfuscate(compiledRules, chunk, target, index);
+			source.position(source.position() + chunk.position());
+		}
+		assertEquals(8L, index);
+		target.flip();
+		actual = target.toString();
+		expected = compiledRules.obfuscate("abacabac");
+		assertEquals(expected, actual);
+
+		result = CharBuffer.allocate(8 * compiledRules.getMaxDisentangledLength());
+		index = ObfuscatorExtensions.disentangle(compiledRules, target, result, 0L);
+		assertEquals(8L, index);
+		result.flip();
+		actual = result.toString();
+		expected = "abacabac";
+		assertEquals(expected, actual);
+	}
+
 }
@@ -0,0 +1,268 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.mystic.crypt.obfuscation.character;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.google.common.collect.BiMap;
+import com.google.common.collect.HashBiMap;
+
+import io.github.astrapi69.collection.list.ListFactory;
+import io.github.astrapi69.collection.set.SetFactory;
+import io.github.astrapi69.crypt.api.obfuscation.rule.Operation;
+import io.github.astrapi69.crypt.data.obfuscation.rule.ObfuscationOperationRule;
+import io.github.astrapi69.test.base.AbstractTestCase;
+
+/**
+ * The unit test class for the class {@link CompiledObfuscationRules}
+ */
+public class CompiledObfuscationRulesTest extends AbstractTestCase<String, String>
+{
+
+	CompiledObfuscationRules compiled;
+	BiMap<Character, ObfuscationOperationRule<Character, Character>> rules;
+	List<String> texts;
+
+	/**
+	 * Sets up method will be invoked before every unit test method in this class
+	 *
+	 * @throws Exception
+	 *             is thrown if an exception occurs
+	 */
+	@Override
+	@BeforeEach
+	protected void setUp() throws Exception
+	{
+		super.setUp();
+		rules = ObfuscationOperationTestData.getFirstBiMapObfuscationOperationRules();
+		compiled = ObfuscatorExtensions.compile(rules);
+		texts = ListFactory.newArrayList("abac", "leonardo",
+			"leonardo Lorem ipsum dolor sit amet, sea consul verterem perfecto id.",
+			"Numbers are only part of the data a typical Java program needs to read and write.",
+			"Different encodings may encode different scripts \u00e4\u00f6\u00fc \u20ac", "");
+	}
+
+	/**
+	 * Tear down method will be invoked after every unit test method in this class
+	 *
+	 * @throws Exception
+	 *             is thrown if an exception occurs
+	 */
+	@Override
+	@AfterEach
+	protected void tearDown() throws Exception
+	{
+		super.tearDown();
+		compiled = null;
+		rules = null;
+		texts = null;
+	}
+
+	/**
+	 * Test method for {@link CompiledObfuscationRules#obfuscate(CharSequence)}
+	 */
+	@Test
+	public void testObfuscate()
+	{
+		actual = compiled.obfuscate("abac");
+		expected = "AcAC";
+		assertEquals(expected, actual);
+
+		actual = compiled.obfuscate("leonardo");
+		expected = "Lfpobsep";
+		assertEquals(expected, actual);
+
+		for (String text : texts)
+		{
+			actual = compiled.obfuscate(text);
+			expected = ObfuscatorExtensions.obfuscateWith(rules, text);
+			assertEquals(expected, actual);
+		}
+	}
+
+	/**
+	 * Test method for {@link CompiledObfuscationRules#disentangle(CharSequence)}
+	 */
+	@Test
+	public void testDisentangle()
+	{
+		actual = compiled.disentangle("AcAC");
+		expected = "abac";
+		assertEquals(expected, actual);
+
+		for (String text : texts)
+		{
+			String obfuscated = compiled.obfuscate(text);
+			actual = compiled.disentangle(obfuscated);
+			expected = ObfuscatorExtensions.disentangle(rules, obfuscated);
+			assertEquals(expected, actual);
+			actual = compiled.disentangle(text);
+			expected = ObfuscatorExtensions.disentangle(rules, text);
+			assertEquals(expected, actual);
+		}
+	}
+
+	/**
+	 * Test method for {@link CompiledObfuscationRules#obfuscate(char, long)} and
+	 * {@link CompiledObfuscationRules#disentangle(char, long, char[], int)}
+	 */
+	@Test
+	public void testPerCharacter()
+	{
+		char[] target;
+		int written;
+
+		assertEquals('A', compiled.obfuscate('a', 0L));
+		assertEquals('b', compiled.obfuscate('a', 1L));
+		assertEquals('b', compiled.obfuscate('a', Integer.MAX_VALUE + 2L));
+		assertEquals('?', compiled.obfuscate('?', 0L));
+
+		target = new char[compiled.getMaxDisentangledLength()];
+		written = compiled.disentangle('A', 0L, target, 0);
+		assertEquals(1, written);
+		assertEquals('a', target[0]);
+		written = compiled.disentangle('\u20ac', 5L, target, 0);
+		assertEquals(1, written);
+		assertEquals('\u20ac', target[0]);
+	}
+
+	/**
+	 * Test method for {@link CompiledObfuscationRules#compile(BiMap)} with rules without operation
+	 * and with a preset operated character
+	 */
+	@Test
+	public void testCompileWithoutOperation()
+	{
+		BiMap<Character, ObfuscationOperationRule<Character, Character>> biMap;
+
+		biMap = HashBiMap.create();
+		biMap.put('x', ObfuscationOperationRule.<Character, Character> builder().character('x')
+			.replaceWith('y').indexes(SetFactory.newHashSet(1))
+			.operatedCharacter(Optional.of('#')).build());
+		biMap.put('y', ObfuscationOperationRule.<Character, Character> builder().character('y')
+			.replaceWith('z').operation(Operation.NONE).indexes(SetFactory.newHashSet()).build());
+		compiled = CompiledObfuscationRules.compile(biMap);
+		for (String text : ListFactory.newArrayList("xxyy", "yx#zx", "abc"))
+		{
+			actual = compiled.obfuscate(text);
+			expected = ObfuscatorExtensions.obfuscateWith(biMap, text);
+			assertEquals(expected, actual);
+			actual = compiled.disentangle(text);
+			expected = ObfuscatorExtensions.disentangle(biMap, text);
+			assertEquals(expected, actual);
+		}
+	}
+
+	/**
+	 * Test method for {@link CompiledObfuscationRules#isDisentanglable()} that has to give the same
+	 * result as {@link ObfuscatorExtensions#validate(BiMap)}, also if the rules are modified after
+	 * compilation
+	 */
+	@Test
+	public void testIsDisentanglable()
+	{
+		BiMap<Character, ObfuscationOperationRule<Character, Character>> biMap;
+
+		assertEquals(ObfuscatorExtensions.validate(rules), compiled.isDisentanglable());
+		biMap = ObfuscationOperationTestData.getSmallBiMapObfuscationOperationRules();
+		compiled = CompiledObfuscationRules.compile(biMap);
+		assertEquals(ObfuscatorExtensions.validate(biMap), compiled.isDisentanglable());
+
+		biMap = HashBiMap.create();
+		biMap.put('a', ObfuscationOperationRule.<Character, Character> builder().character('a')
+			.replaceWith('b').operation(Operation.UPPERCASE).indexes(SetFactory.newHashSet())
+			.build());
+		compiled = CompiledObfuscationRules.compile(biMap);
+		biMap.put('A', ObfuscationOperationRule.<Character, Character> builder().character('A')
+			.replaceWith('c').indexes(SetFactory.newHashSet()).build());
+		assertTrue(compiled.isDisentanglable());
+		assertTrue(compiled.isDisentanglable());
+		assertFalse(ObfuscatorExtensions.validate(biMap));
+		assertFalse(CompiledObfuscationRules.compile(biMap).isDisentanglable());
+	}
+
+	/**
+	 * Test method for
+	 * {@link ObfuscatorExtensions#obfuscateParallel(CompiledObfuscationRules, CharSequence, ForkJoinPool)}
+	 * and
+	 * {@link ObfuscatorExtensions#disentangleParallel(CompiledObfuscationRules, CharSequence, ForkJoinPool)}
+	 * that have to give the same results as the sequential methods
+	 */
+	@Test
+	public void testParallel()
+	{
+		ForkJoinPool pool;
+		StringBuilder sb;
+		String text;
+		String obfuscated;
+		int chunkSize;
+
+		chunkSize = ObfuscatorExtensions.DEFAULT_PARALLEL_CHUNK_SIZE;
+		rules.get('a').getIndexes().add(chunkSize + 3);
+		compiled = ObfuscatorExtensions.compile(rules);
+		sb = new StringBuilder();
+		while (sb.length() < chunkSize * 4 + 17)
+		{
+			sb.append("abac leonardo Lorem ipsum dolor sit amet, Numbers A B C ");
+		}
+		sb.setCharAt(chunkSize + 3, 'a');
+		text = sb.toString();
+		pool = new ForkJoinPool(4);
+		try
+		{
+			obfuscated = ObfuscatorExtensions.obfuscateParallel(compiled, text, pool);
+			expected = compiled.obfuscate(text);
+			assertEquals(expected, obfuscated);
+			assertEquals('A', obfuscated.charAt(chunkSize + 3));
+
+			actual = ObfuscatorExtensions.disentangleParallel(compiled, obfuscated, pool);
+			expected = compiled.disentangle(obfuscated);
+			assertEquals(expected, actual);
+
+			// disentangle of a not obfuscated text drops characters
+			actual = ObfuscatorExtensions.disentangleParallel(compiled, text, pool);
+			expected = compiled.disentangle(text);
+			assertEquals(expected, actual);
+
+			actual = ObfuscatorExtensions.obfuscateParallel(compiled, "abac");
+			expected = "AcAC";
+			assertEquals(expected, actual);
+		}
+		finally
+		{
+			pool.shutdown();
+		}
+	}
+}
@@ -0,0 +1,110 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.mystic.crypt.obfuscation.character;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.google.common.collect.BiMap;
+import com.google.common.collect.HashBiMap;
+
+import io.github.astrapi69.crypt.data.obfuscation.rule.ObfuscationOperationRule;
+
+/**
+ * The unit test class for the class {@link ObfuscatorExtensions}
+ */
+public class ObfuscatorExtensionsTest
+{
+
+	BiMap<Character, ObfuscationOperationRule<Character, Character>> rules;
+	BiMap<Character, ObfuscationOperationRule<Character, Character>> snapshot;
+
+	/**
+	 * Sets up method will be invoked before every unit test method in this class
+	 */
+	@BeforeEach
+	protected void setUp()
+	{
+		rules = ObfuscationOperationTestData.getFirstBiMapObfuscationOperationRules();
+		snapshot = HashBiMap.create();
+		rules.forEach((key, value) -> snapshot.put(key, ObfuscatorExtensions.copy(value)));
+	}
+
+	/**
+	 * Test method for {@link ObfuscatorExtensions#obfuscateWith(BiMap, String)} and
+	 * {@link ObfuscatorExtensions#disentangle(BiMap, String)} that the given rules are not modified
+	 */
+	@Test
+	public void testRulesAreNotModified()
+	{
+		String obfuscated;
+
+		obfuscated = ObfuscatorExtensions.obfuscateWith(rules, "leonardo");
+		assertEquals("Lfpobsep", obfuscated);
+		assertEquals(snapshot, rules);
+		assertEquals("Lfpobsep", ObfuscatorExtensions.obfuscateWithCharArray(rules, "leonardo"));
+		assertEquals(snapshot, rules);
+		assertEquals("leonardo", ObfuscatorExtensions.disentangle(rules, obfuscated));
+		assertEquals(snapshot, rules);
+		ObfuscatorExtensions.swapMapWithReplaceWithAsKey(rules);
+		ObfuscatorExtensions.swapOperatedMapWithReplaceWithAsKey(rules);
+		ObfuscatorExtensions.disentangleImproved(rules, obfuscated);
+		assertEquals(snapshot, rules);
+	}
+
+	/**
+	 * Test method for {@link ObfuscatorExtensions#inverse(BiMap)} and
+	 * {@link ObfuscatorExtensions#inverseToMap(BiMap)}
+	 */
+	@Test
+	public void testInverse()
+	{
+		BiMap<ObfuscationOperationRule<Character, Character>, Character> inverted;
+		Map<ObfuscationOperationRule<Character, Character>, Character> invertedMap;
+		ObfuscationOperationRule<Character, Character> rule;
+
+		inverted = ObfuscatorExtensions.inverse(rules);
+		assertEquals(snapshot, rules);
+		assertEquals(rules.size(), inverted.size());
+		rule = inverted.inverse().get('b');
+		assertEquals(Character.valueOf('b'), rule.getCharacter());
+		assertEquals(Character.valueOf('a'), rule.getReplaceWith());
+		assertTrue(rule.isInverted());
+		assertFalse(rules.get('a').isInverted());
+
+		invertedMap = ObfuscatorExtensions.inverseToMap(rules);
+		assertEquals(rules.size(), invertedMap.size());
+		assertEquals(Character.valueOf('a'), invertedMap.get(rules.get('a')));
+		invertedMap.keySet()
+			.forEach(key -> assertNotSame(rules.get(invertedMap.get(key)), key));
+	}
+}
@@ -26,6 +26,13 @@ package io.github.astrapi69.mystic.crypt.obfuscation.simple;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.CharBuffer;
+
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -115,4 +122,64 @@ public class SimpleCharacterObfuscatorTest extends AbstractTestCase<String, Stri
 		assertEquals(expected, actual);
 	}
 
+	/**
+	 * Test method for {@link SimpleCharacterObfuscator#obfuscate(Reader, Writer)} and
+	 * {@link SimpleCharacterObfuscator#disentangle(Reader, Writer)}
+	 *
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	@Test
+	public void testObfuscateAndDisentangleStream() throws IOException
+	{
+		SimpleCharacterObfuscator simpleObfuscator;
+		StringBuilder sb;
+		StringWriter obfuscated;
+		StringWriter disentangled;
+		long count;
+
+		sb = new StringBuilder();
+		while (sb.length() < SimpleObfuscatorExtensions.DEFAULT_CHUNK_SIZE * 3)
+		{
+			sb.append("abac leonardo Lorem ipsum dolor sit amet ").append(sb.length());
+		}
+		stringToObfuscate = sb.toString();
+		simpleObfuscator = new SimpleCharacterObfuscator(rules, stringToObfuscate);
+		obfuscated = new StringWriter();
+		count = simpleObfuscator.obfuscate(new StringReader(stringToObfuscate), obfuscated);
+		assertEquals(stringToObfuscate.length(), count);
+		expected = simpleObfuscator.obfuscate();
+		actual = obfuscated.toString();
+		assertEquals(expected, actual);
+
+		disentangled = new StringWriter();
+		simpleObfuscator.disentangle(new StringReader(obfuscated.toString()), disentangled);
+		expected = simpleObfuscator.disentangle();
+		actual = disentangled.toString();
+		assertEquals(expected, actual);
+	}
+
+	/**
+	 * Test method for
+	 * {@link SimpleObfuscatorExtensions#obfuscateBiMap(BiMap, CharBuffer, CharBuffer)} with a
+	 * target buffer that is smaller than the source buffer
+	 */
+	@Test
+	public void testObfuscateCharBuffer()
+	{
+		BiMap<Character, Character> biMap;
+		CharBuffer source;
+		CharBuffer target;
+
+		biMap = SimpleObfuscatorExtensions.toCharacterBiMap(rules);
+		source = CharBuffer.wrap("abacabac");
+		target = CharBuffer.allocate(3);
+		assertEquals(3, SimpleObfuscatorExtensions.obfuscateBiMap(biMap, source, target));
+		assertEquals(5, source.remaining());
+		target.flip();
+		actual = target.toString();
+		expected = "bcb";
+		assertEquals(expected, actual);
+	}
+
 }
@@ -0,0 +1,118 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.mystic.crypt.obfuscation.simple;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.CharBuffer;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.google.common.collect.BiMap;
+import com.google.common.collect.HashBiMap;
+
+import io.github.astrapi69.crypt.data.obfuscation.rule.ObfuscationRule;
+
+/**
+ * The unit test class for the class {@link SimpleCharacterTable}
+ */
+public class SimpleCharacterTableTest
+{
+
+	/**
+	 * Test method for {@link SimpleCharacterTable#obfuscate(CharSequence)} and
+	 * {@link SimpleCharacterTable#disentangle(CharSequence)} with dense and sparse characters
+	 */
+	@Test
+	public void testObfuscateAndDisentangleDenseAndSparse()
+	{
+		final BiMap<Character, Character> rules = HashBiMap.create();
+		rules.put('a', 'b');
+		rules.put('b', '\u4e2d');
+		rules.put('\u4e2d', '\uffff');
+		rules.put('\uffff', 'a');
+		final SimpleCharacterTable table = SimpleCharacterTable.of(rules);
+
+		final String text = "ab\u4e2d\uffffxyz";
+		final String obfuscated = table.obfuscate(text);
+		assertEquals("b\u4e2d\uffffaxyz", obfuscated);
+		assertEquals(SimpleObfuscatorExtensions.obfuscateBiMap(rules, text), obfuscated);
+		assertEquals(text, table.disentangle(obfuscated));
+		assertEquals(SimpleObfuscatorExtensions.disentangleBiMap(rules, obfuscated),
+			table.disentangle(obfuscated));
+		assertEquals('z', table.obfuscate('z'));
+		assertEquals('\u3001', table.disentangle('\u3001'));
+	}
+
+	/**
+	 * Test method for {@link SimpleCharacterTable#obfuscate(java.io.Reader, java.io.Writer)} and
+	 * {@link SimpleCharacterTable#disentangle(CharBuffer, CharBuffer)}
+	 *
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	@Test
+	public void testStreamsAndBuffers() throws IOException
+	{
+		final BiMap<Character, ObfuscationRule<Character, Character>> rules = SimpleObfuscationTestData
+			.getFirstBiMapObfuscationRules();
+		final SimpleCharacterTable table = SimpleObfuscatorExtensions.toCharacterTable(rules);
+		final StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < 3 * SimpleObfuscatorExtensions.DEFAULT_CHUNK_SIZE + 7; i++)
+		{
+			sb.append((char)('a' + i % 26));
+		}
+		final String text = sb.toString();
+		final StringWriter writer = new StringWriter();
+		assertEquals(text.length(), table.obfuscate(new StringReader(text), writer));
+		final String obfuscated = writer.toString();
+		assertEquals(SimpleObfuscatorExtensions.obfuscateWith(rules, text), obfuscated);
+
+		final CharBuffer target = CharBuffer.allocate(text.length());
+		assertEquals(text.length(), table.disentangle(CharBuffer.wrap(obfuscated), target));
+		target.flip();
+		assertEquals(SimpleObfuscatorExtensions.disentangleBiMap(
+			SimpleObfuscatorExtensions.toCharacterBiMap(rules), obfuscated), target.toString());
+	}
+
+	/**
+	 * Test method for {@link SimpleCharacterTable#of(Map, Map)} with an empty forward mapping
+	 */
+	@Test
+	public void testOfWithSeparateMappings()
+	{
+		final Map<Character, Character> backward = new HashMap<>();
+		backward.put('d', 'c');
+		final SimpleCharacterTable table = SimpleCharacterTable.of(new HashMap<>(), backward);
+		assertEquals("abcd", table.obfuscate("abcd"));
+		assertEquals("abcc", table.disentangle("abcd"));
+	}
+
+}
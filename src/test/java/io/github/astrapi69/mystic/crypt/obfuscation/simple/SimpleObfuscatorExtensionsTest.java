@@ -27,12 +27,17 @@ package io.github.astrapi69.mystic.crypt.obfuscation.simple;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.CharBuffer;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 import org.meanbean.test.BeanTester;
 
 import com.google.common.collect.BiMap;
+import com.google.common.collect.HashBiMap;
 
 import io.github.astrapi69.crypt.data.obfuscation.rule.ObfuscationRule;
 import io.github.astrapi69.mystic.crypt.obfuscation.ObfuscationBiMapTestData;
@@ -159,6 +164,33 @@ public class SimpleObfuscatorExtensionsTest extends AbstractTestCase<String, Str
 		assertEquals(expected, actual);
 	}
 
+	/**
+	 * Test method for {@link SimpleObfuscatorExtensions#obfuscateBiMap(BiMap, String)} and
+	 * {@link SimpleObfuscatorExtensions#disentangleBiMap(BiMap, String)} with rules that are
+	 * modified between the calls, so the cached lookup table is rebuilt
+	 *
+	 * @throws Exception
+	 *             is thrown if an exception occurs
+	 */
+	@Test
+	public void testObfuscateBiMapModifiedRules() throws Exception
+	{
+		BiMap<Character, Character> biMap = HashBiMap.create();
+		biMap.put('a', 'b');
+		assertEquals("bbc", SimpleObfuscatorExtensions.obfuscateBiMap(biMap, "abc"));
+		assertEquals("bbc", SimpleObfuscatorExtensions.obfuscateBiMap(biMap, "abc"));
+		// new scenario...
+		biMap.put('c', 'd');
+		assertEquals("bbd", SimpleObfuscatorExtensions.obfuscateBiMap(biMap, "abc"));
+		assertEquals("aac", SimpleObfuscatorExtensions.disentangleBiMap(biMap, "bbd"));
+		StringWriter writer = new StringWriter();
+		SimpleObfuscatorExtensions.obfuscateBiMap(biMap, new StringReader("cab"), writer);
+		assertEquals("dbb", writer.toString());
+		CharBuffer target = CharBuffer.allocate(3);
+		SimpleObfuscatorExtensions.disentangleBiMap(biMap, CharBuffer.wrap("dbb"), target);
+		assertEquals("caa", target.flip().toString());
+	}
+
 	/**
 	 * Test method for {@link SimpleObfuscatorExtensions#obfuscateWith(BiMap, String)}
 	 */
@@ -0,0 +1,213 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.mystic.crypt.processor.wordlist;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.codec.binary.Hex;
+import org.junit.jupiter.api.Test;
+
+import io.github.astrapi69.collection.list.ListFactory;
+import io.github.astrapi69.crypt.api.algorithm.HashAlgorithm;
+import io.github.astrapi69.crypt.api.algorithm.compound.CompoundAlgorithm;
+import io.github.astrapi69.file.read.ReadFileExtensions;
+import io.github.astrapi69.file.search.PathFinder;
+import io.github.astrapi69.mystic.crypt.pw.PasswordEncryptor;
+
+/**
+ * The unit test class for the class {@link HashedWordlistsProcessor}
+ */
+public class HashedWordlistsProcessorTest
+{
+
+	private static byte[] hash(String word, String salt) throws NoSuchAlgorithmException
+	{
+		MessageDigest digest = MessageDigest.getInstance(HashAlgorithm.SHA_256.getAlgorithm());
+		digest.update(salt.getBytes(StandardCharsets.UTF_8));
+		return digest.digest(word.getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Test method for {@link HashedWordlistsProcessor#process(List)}
+	 *
+	 * @throws Exception
+	 *             is thrown if any error occurs on the execution
+	 */
+	@Test
+	public void testProcessList() throws Exception
+	{
+		HashedWordlistsProcessor processor;
+		Map<String, String> actual;
+		List<String> words;
+		byte[] unknown;
+		String salt;
+
+		salt = "pepper";
+		words = ReadFileExtensions.readLinesInList(new File(
+			new File(PathFinder.getSrcTestResourcesDir(), "wordlists"), "surnames.txt"));
+		words.add("letmein");
+		unknown = hash("no-such-password-in-the-list", salt);
+		processor = new HashedWordlistsProcessor(HashAlgorithm.SHA_256,
+			salt.getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8,
+			ListFactory.newArrayList(hash("letmein", salt), hash(words.get(100), salt), unknown),
+			4);
+		actual = processor.process(words);
+		assertEquals(2, actual.size());
+		assertEquals("letmein", actual.get(Hex.encodeHexString(hash("letmein", salt))));
+		assertEquals(words.get(100), actual.get(Hex.encodeHexString(hash(words.get(100), salt))));
+	}
+
+	/**
+	 * Test method for {@link HashedWordlistsProcessor#process(MappedWordlist)}
+	 *
+	 * @throws Exception
+	 *             is thrown if any error occurs on the execution
+	 */
+	@Test
+	public void testProcessMappedWordlist() throws Exception
+	{
+		HashedWordlistsProcessor processor;
+		Map<String, String> actual;
+		String salt;
+		String hexHash;
+
+		salt = "";
+		hexHash = Hex.encodeHexString(hash("starwars", salt));
+		processor = new HashedWordlistsProcessor(HashAlgorithm.SHA_256, new byte[0],
+			StandardCharsets.UTF_8, HashedWordlistsProcessor
+				.decodeHex(ListFactory.newArrayList(hexHash, Hex.encodeHexString(hash("x", "y")))));
+		try (MappedWordlist wordlist = new MappedWordlist(new File(
+			new File(PathFinder.getSrcTestResourcesDir(), "wordlists"), "top25pw.txt")))
+		{
+			actual = processor.process(wordlist);
+		}
+		assertEquals(1, actual.size());
+		assertEquals("starwars", actual.get(hexHash));
+	}
+
+	/**
+	 * Test method for {@link HashedWordlistsProcessor#process(List, ManglingRules)} and
+	 * {@link HashedWordlistsProcessor#process(MappedWordlist, ManglingRules)}
+	 *
+	 * @throws Exception
+	 *             is thrown if any error occurs on the execution
+	 */
+	@Test
+	public void testProcessWithManglingRules() throws Exception
+	{
+		HashedWordlistsProcessor processor;
+		Map<String, String> actual;
+		File wordlist;
+		String salt;
+
+		salt = "salt";
+		wordlist = new File(new File(PathFinder.getSrcTestResourcesDir(), "wordlists"),
+			"top25pw.txt");
+		processor = new HashedWordlistsProcessor(HashAlgorithm.SHA_256,
+			salt.getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8,
+			ListFactory.newArrayList(hash("Dragon1999", salt), hash("l3tm3in", salt)), 3);
+		actual = processor.process(ReadFileExtensions.readLinesInList(wordlist),
+			ManglingRules.defaults());
+		assertEquals(2, actual.size());
+		assertEquals("Dragon1999", actual.get(Hex.encodeHexString(hash("Dragon1999", salt))));
+		assertEquals("l3tm3in", actual.get(Hex.encodeHexString(hash("l3tm3in", salt))));
+		try (MappedWordlist mappedWordlist = new MappedWordlist(wordlist))
+		{
+			actual = processor.process(mappedWordlist, ManglingRules.defaults());
+		}
+		assertEquals(2, actual.size());
+		assertEquals("Dragon1999", actual.get(Hex.encodeHexString(hash("Dragon1999", salt))));
+	}
+
+	/**
+	 * Test method for {@link HashedWordlistsProcessor#decodeHex(java.util.Collection)} with an
+	 * invalid hex value
+	 */
+	@Test
+	public void testDecodeHexInvalid()
+	{
+		assertThrows(IllegalArgumentException.class,
+			() -> HashedWordlistsProcessor.decodeHex(ListFactory.newArrayList("xyz")));
+	}
+
+	/**
+	 * Test method for {@link HashedWordlistsProcessor} with hashes that are stored by
+	 * {@link PasswordEncryptor#hashAndHexPassword(String, String)} with different salts
+	 *
+	 * @throws Exception
+	 *             is thrown if any error occurs on the execution
+	 */
+	@Test
+	public void testProcessPasswordEncryptorHashes() throws Exception
+	{
+		HashedWordlistsProcessor processor;
+		Map<String, String> storedHashes;
+		Map<String, String> actual;
+		PasswordEncryptor passwordEncryptor;
+		File wordlist;
+		String dragon;
+		String letmein;
+		String starwars;
+
+		passwordEncryptor = PasswordEncryptor.getInstance();
+		dragon = passwordEncryptor.hashAndHexPassword("Dragon1999", "first-salt");
+		letmein = passwordEncryptor.hashAndHexPassword("l3tm3in", "second-salt");
+		starwars = passwordEncryptor.hashAndHexPassword("starwars", "third-salt");
+		storedHashes = new LinkedHashMap<>();
+		storedHashes.put(dragon, "first-salt");
+		storedHashes.put(letmein, "second-salt");
+		storedHashes.put(starwars, "third-salt");
+		storedHashes.put(passwordEncryptor.hashAndHexPassword("no-such-password", "first-salt"),
+			"first-salt");
+		wordlist = new File(new File(PathFinder.getSrcTestResourcesDir(), "wordlists"),
+			"top25pw.txt");
+		processor = new HashedWordlistsProcessor(CompoundAlgorithm.PASSWORD, HashAlgorithm.SHA_512,
+			StandardCharsets.UTF_8, storedHashes, 2);
+
+		actual = processor.process(ReadFileExtensions.readLinesInList(wordlist),
+			ManglingRules.defaults());
+		assertEquals(3, actual.size());
+		assertEquals("Dragon1999", actual.get(dragon));
+		assertEquals("l3tm3in", actual.get(letmein));
+		assertEquals("starwars", actual.get(starwars));
+
+		try (MappedWordlist mappedWordlist = new MappedWordlist(wordlist))
+		{
+			actual = processor.process(mappedWordlist);
+		}
+		assertEquals(1, actual.size());
+		assertEquals("starwars", actual.get(starwars));
+	}
+
+}
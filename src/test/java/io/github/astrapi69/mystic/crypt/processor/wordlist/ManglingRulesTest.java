@@ -0,0 +1,120 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.mystic.crypt.processor.wordlist;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.astrapi69.collection.list.ListFactory;
+
+/**
+ * The unit test class for the class {@link ManglingRules}
+ */
+public class ManglingRulesTest
+{
+
+	private static List<String> expand(ManglingRules rules, String word)
+	{
+		List<String> candidates = ListFactory.newArrayList();
+		rules.forEachCandidate(word, new CandidateBuffer(2), candidate -> {
+			candidates.add(candidate.toString());
+			return true;
+		});
+		return candidates;
+	}
+
+	/**
+	 * Test method for {@link ManglingRules#compile(String...)}
+	 */
+	@Test
+	public void testCompile()
+	{
+		List<String> actual;
+		List<String> expected;
+
+		actual = expand(ManglingRules.compile(":", "l", "u", "c", "C", "t", "T1", "r", "d", "f",
+			"[", "]", "$1", "^!", "sa4", "c $2$0$2$4", "sa@ so0 ]"), "PassWord");
+		expected = ListFactory.newArrayList("PassWord", "password", "PASSWORD", "Password",
+			"pASSWORD", "pASSwORD", "PAssWord", "droWssaP", "PassWordPassWord",
+			"PassWorddroWssaP", "assWord", "PassWor", "PassWord1", "!PassWord", "P4ssWord",
+			"Password2024", "P@ssW0r");
+		assertEquals(expected, actual);
+	}
+
+	/**
+	 * Test method for {@link ManglingRules#compile(List)} with invalid rules
+	 */
+	@Test
+	public void testCompileInvalid()
+	{
+		assertThrows(IllegalArgumentException.class, () -> ManglingRules.compile("x"));
+		assertThrows(IllegalArgumentException.class, () -> ManglingRules.compile("$"));
+		assertThrows(IllegalArgumentException.class, () -> ManglingRules.compile("sa"));
+		assertThrows(IllegalArgumentException.class, () -> ManglingRules.compile("T-"));
+	}
+
+	/**
+	 * Test method for {@link ManglingRules#defaults()}
+	 */
+	@Test
+	public void testDefaults()
+	{
+		ManglingRules rules;
+		List<String> candidates;
+
+		rules = ManglingRules.defaults();
+		assertTrue(100 < rules.size());
+		candidates = expand(rules, "monkey");
+		assertEquals(rules.size(), candidates.size());
+		assertTrue(candidates.contains("monkey"));
+		assertTrue(candidates.contains("Monkey1"));
+		assertTrue(candidates.contains("monkey1999"));
+		assertTrue(candidates.contains("m0nk3y"));
+		assertTrue(candidates.contains("Monkey2023"));
+	}
+
+	/**
+	 * Test method for
+	 * {@link ManglingRules#forEachCandidate(CharSequence, CandidateBuffer, CandidateVisitor)} that
+	 * stops the expansion
+	 */
+	@Test
+	public void testForEachCandidateStop()
+	{
+		int[] count = { 0 };
+		boolean completed;
+
+		completed = ManglingRules.defaults().forEachCandidate("monkey", new CandidateBuffer(),
+			candidate -> ++count[0] < 3);
+		assertFalse(completed);
+		assertEquals(3, count[0]);
+	}
+}
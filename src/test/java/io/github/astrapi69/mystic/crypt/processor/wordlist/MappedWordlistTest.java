@@ -0,0 +1,135 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.mystic.crypt.processor.wordlist;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.astrapi69.collection.list.ListFactory;
+import io.github.astrapi69.collection.set.SetFactory;
+import io.github.astrapi69.file.delete.DeleteFileExtensions;
+import io.github.astrapi69.file.read.ReadFileExtensions;
+import io.github.astrapi69.file.search.PathFinder;
+
+/**
+ * The unit test class for the class {@link MappedWordlist}
+ */
+public class MappedWordlistTest
+{
+
+	/**
+	 * Test method for {@link MappedWordlist#forEachWord(WordVisitor)}
+	 *
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred.
+	 */
+	@Test
+	public void testForEachWord() throws IOException
+	{
+		File wordlist;
+		List<String> lines;
+		List<String> words;
+
+		wordlist = new File(new File(PathFinder.getSrcTestResourcesDir(), "wordlists"),
+			"default-pw.txt");
+		lines = ReadFileExtensions.readLinesInList(wordlist);
+		lines.removeIf(String::isEmpty);
+		words = ListFactory.newArrayList();
+		try (MappedWordlist mappedWordlist = new MappedWordlist(wordlist))
+		{
+			long count = mappedWordlist.forEachWord((buffer, offset, length) -> {
+				byte[] bytes = new byte[length];
+				buffer.get(offset, bytes);
+				words.add(new String(bytes, StandardCharsets.UTF_8));
+				return true;
+			});
+			assertEquals(lines.size(), count);
+			assertEquals(lines, words);
+		}
+	}
+
+	/**
+	 * Test method for {@link MappedWordlist} with small segments
+	 *
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred.
+	 */
+	@Test
+	public void testSegments() throws IOException
+	{
+		File wordlist;
+
+		wordlist = new File(new File(PathFinder.getSrcTestResourcesDir(), "wordlists"),
+			"segmented-wordlist.txt");
+		Files.write(wordlist.toPath(),
+			"foo\r\nbar\n\nhash\nsecret\nlast".getBytes(StandardCharsets.UTF_8));
+		try (MappedWordlist mappedWordlist = new MappedWordlist(wordlist, StandardCharsets.UTF_8,
+			8))
+		{
+			assertTrue(1 < mappedWordlist.getSegmentCount());
+			assertEquals(5L, mappedWordlist.forEachWord((buffer, offset, length) -> true));
+			assertTrue(mappedWordlist.contains("foo"));
+			assertTrue(mappedWordlist.contains("last"));
+			assertFalse(mappedWordlist.contains("fo"));
+			assertEquals(SetFactory.newHashSet("hash", "bar"),
+				mappedWordlist.containsAll(ListFactory.newArrayList("hash", "unknown", "bar")));
+		}
+		DeleteFileExtensions.delete(wordlist);
+	}
+
+	/**
+	 * Test method for {@link MappedWordlist#containsAll(java.util.Collection)}
+	 *
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred.
+	 */
+	@Test
+	public void testContainsAll() throws IOException
+	{
+		File wordlist;
+		Set<String> found;
+
+		wordlist = new File(new File(PathFinder.getSrcTestResourcesDir(), "wordlists"),
+			"default-pw.txt");
+		try (MappedWordlist mappedWordlist = new MappedWordlist(wordlist))
+		{
+			assertTrue(mappedWordlist.contains("hash"));
+			assertFalse(mappedWordlist.contains("no-such-password-in-the-list"));
+			found = mappedWordlist
+				.containsAll(ListFactory.newArrayList("hash", "no-such-password-in-the-list"));
+			assertEquals(SetFactory.newHashSet("hash"), found);
+		}
+	}
+}
@@ -0,0 +1,118 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.mystic.crypt.processor.wordlist;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.astrapi69.file.delete.DeleteFileExtensions;
+import io.github.astrapi69.file.read.ReadFileExtensions;
+import io.github.astrapi69.file.search.PathFinder;
+
+/**
+ * The unit test class for the class {@link WordlistIndex}
+ */
+public class WordlistIndexTest
+{
+
+	/**
+	 * Test method for {@link WordlistIndex#build(MappedWordlist, File)} and
+	 * {@link WordlistIndex#open(MappedWordlist, File)}
+	 *
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred.
+	 */
+	@Test
+	public void testBuildAndOpen() throws IOException
+	{
+		File wordlistDir;
+		File wordlist;
+		File indexFile;
+		List<String> lines;
+
+		wordlistDir = new File(PathFinder.getSrcTestResourcesDir(), "wordlists");
+		wordlist = new File(wordlistDir, "surnames.txt");
+		indexFile = new File(wordlistDir, "surnames.idx");
+		lines = ReadFileExtensions.readLinesInList(wordlist);
+		try (MappedWordlist mappedWordlist = new MappedWordlist(wordlist))
+		{
+			try (WordlistIndex index = WordlistIndex.build(mappedWordlist, indexFile))
+			{
+				for (String line : lines)
+				{
+					if (!line.isEmpty())
+					{
+						assertTrue(index.contains(line));
+					}
+				}
+				assertFalse(index.contains("no-such-surname-in-the-list"));
+			}
+			try (WordlistIndex index = WordlistIndex.open(mappedWordlist, indexFile))
+			{
+				assertTrue(index.contains(lines.get(0)));
+				assertFalse(index.contains("no-such-surname-in-the-list"));
+			}
+		}
+		DeleteFileExtensions.delete(indexFile);
+	}
+
+	/**
+	 * Test method for {@link WordlistIndex#open(MappedWordlist, File)} with an index file of
+	 * another word list
+	 *
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred.
+	 */
+	@Test
+	public void testOpenWithOtherWordlist() throws IOException
+	{
+		File wordlistDir;
+		File indexFile;
+
+		wordlistDir = new File(PathFinder.getSrcTestResourcesDir(), "wordlists");
+		indexFile = new File(wordlistDir, "top25pw.idx");
+		try (MappedWordlist top25 = new MappedWordlist(new File(wordlistDir, "top25pw.txt"));
+			MappedWordlist surnames = new MappedWordlist(new File(wordlistDir, "surnames.txt")))
+		{
+			WordlistIndex.build(top25, indexFile).close();
+			assertThrows(IOException.class, () -> WordlistIndex.open(surnames, indexFile));
+		}
+		Files.write(indexFile.toPath(), "invalid".getBytes(StandardCharsets.UTF_8));
+		try (MappedWordlist top25 = new MappedWordlist(new File(wordlistDir, "top25pw.txt")))
+		{
+			assertThrows(IOException.class, () -> WordlistIndex.open(top25, indexFile));
+		}
+		DeleteFileExtensions.delete(indexFile);
+	}
+}
@@ -25,6 +25,7 @@
 package io.github.astrapi69.mystic.crypt.processor.wordlist;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.File;
@@ -99,4 +100,24 @@ public class WordlistsProcessorTest
 		assertTrue(found);
 
 	}
+
+	/**
+	 * Test method for {@link WordlistsProcessor#process(ManglingRules)}
+	 */
+	@Test
+	public void testProcessWithManglingRules()
+	{
+		WordlistsProcessor processor;
+		List<String> words;
+
+		words = ListFactory.newArrayList("dragon", "monkey", "letmein");
+		processor = new WordlistsProcessor(words, "M0nk3y2024");
+		assertFalse(processor.process());
+		processor = new WordlistsProcessor(words, "M0nk3y2024");
+		assertTrue(processor.process(ManglingRules.compile("c", "csa4se3si1so0$2$0$2$4")));
+		processor = new WordlistsProcessor(words, "Monkey1999");
+		assertTrue(processor.process(ManglingRules.defaults()));
+		processor = new WordlistsProcessor(words, "unknown");
+		assertFalse(processor.process(ManglingRules.defaults()));
+	}
 }
@@ -28,10 +28,17 @@ import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.junit.jupiter.api.Test;
 
 import io.github.astrapi69.collection.array.ArrayFactory;
+import io.github.astrapi69.mystic.crypt.core.VirtualThreadExtensions;
 
 /**
  * The unit test class for the class {@link PasswordByteEncryptor}
@@ -70,4 +77,40 @@ public class PasswordByteEncryptorTest
 		assertArrayEquals(actual, expected);
 	}
 
+	/**
+	 * Test method for {@link PasswordByteEncryptor#encrypt(byte[])} from 10000 concurrent tasks
+	 * that share one encryptor and one decryptor. The tasks run on virtual threads if the runtime
+	 * supports them and otherwise on a pool of platform threads. This is a correctness check of the
+	 * shared cipher and not a benchmark
+	 */
+	@Test
+	public void testEncryptConcurrentVirtualThreads() throws Exception
+	{
+		final int taskCount = 10_000;
+		final PasswordByteEncryptor encryptor = new PasswordByteEncryptor("foo");
+		final PasswordByteDecryptor decryptor = new PasswordByteDecryptor("foo");
+		final List<Callable<byte[]>> tasks = new ArrayList<>(taskCount);
+		for (int i = 0; i < taskCount; i++)
+		{
+			final byte[] textBytes = ("bar" + i).getBytes(StandardCharsets.UTF_8);
+			tasks.add(() -> decryptor.decrypt(encryptor.encrypt(textBytes)));
+		}
+		final ExecutorService executor = VirtualThreadExtensions.isSupported()
+			? VirtualThreadExtensions.newVirtualThreadPerTaskExecutor()
+			: Executors.newFixedThreadPool(16);
+		try
+		{
+			final List<Future<byte[]>> futures = executor.invokeAll(tasks);
+			for (int i = 0; i < taskCount; i++)
+			{
+				assertArrayEquals(("bar" + i).getBytes(StandardCharsets.UTF_8),
+					futures.get(i).get());
+			}
+		}
+		finally
+		{
+			executor.shutdown();
+		}
+	}
+
 }
@@ -100,4 +100,30 @@ public class PasswordFileDecryptorTest extends AbstractTestCase<String, String>
 		DeleteFileExtensions.delete(decrypted);
 	}
 
+	/**
+	 * Test method for test the method {@link PasswordFileDecryptor#decrypt(File, File)} with one
+	 * instance for several files
+	 *
+	 * @throws Exception
+	 *             is thrown if any error occurs on the execution
+	 */
+	@Test
+	public void testDecryptWithTarget() throws Exception
+	{
+		encryptor = new PasswordFileEncryptor(password);
+		decryptor = new PasswordFileDecryptor(password, null);
+		expected = FileChecksumExtensions.getChecksum(toEncrypt, MdAlgorithm.MD5.name());
+		for (int i = 0; i < 3; i++)
+		{
+			encrypted = encryptor.encrypt(toEncrypt, new File(cryptDir, "target" + i + ".enc"));
+			decrypted = decryptor.decrypt(encrypted,
+				new File(cryptDir, "target" + i + ".decrypted"));
+			actual = FileChecksumExtensions.getChecksum(decrypted, MdAlgorithm.MD5.name());
+			assertEquals(actual, expected);
+			// clean up...
+			DeleteFileExtensions.delete(encrypted);
+			DeleteFileExtensions.delete(decrypted);
+		}
+	}
+
 }
@@ -0,0 +1,198 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.mystic.crypt.serialization;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputFilter;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * The unit test class for the class {@link SerializerExtensions}
+ */
+public class SerializerExtensionsTest
+{
+
+	private static final DataStreamSerializer<Point> POINT_SERIALIZER = new DataStreamSerializer<>(
+		"point-v1", (point, output) -> {
+			output.writeInt(point.x);
+			output.writeInt(point.y);
+			output.writeUTF(point.label);
+		}, input -> new Point(input.readInt(), input.readInt(), input.readUTF()));
+
+	/**
+	 * Test method for {@link SerializerExtensions#write(Object, ObjectSerializer, OutputStream)} and
+	 * {@link SerializerExtensions#read(java.io.InputStream, java.util.Collection)}
+	 *
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	@Test
+	public void testWriteRead() throws IOException
+	{
+		Point point = new Point(3, -7, "origin");
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		SerializerExtensions.write(point, POINT_SERIALIZER, outputStream);
+		Point actual = SerializerExtensions.read(
+			new ByteArrayInputStream(outputStream.toByteArray()), List.of(POINT_SERIALIZER));
+		assertEquals(point, actual);
+		// the field order codec is much smaller as the java serialization
+		ByteArrayOutputStream javaOutputStream = new ByteArrayOutputStream();
+		SerializerExtensions.write(point, new JavaObjectSerializer<>(), javaOutputStream);
+		assertTrue(outputStream.size() < javaOutputStream.size());
+		actual = SerializerExtensions.read(
+			new ByteArrayInputStream(javaOutputStream.toByteArray()),
+			List.of(POINT_SERIALIZER, new JavaObjectSerializer<>()));
+		assertEquals(point, actual);
+	}
+
+	/**
+	 * Test method for {@link SerializerExtensions#read(java.io.InputStream, java.util.Collection)}
+	 * that has to reject java serialized data, with and without a header, if no
+	 * {@link JavaObjectSerializer} is given
+	 *
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	@Test
+	public void testReadRejectsJavaSerialization() throws IOException
+	{
+		Point point = new Point(1, 2, "java");
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		SerializerExtensions.write(point, new JavaObjectSerializer<>(), outputStream);
+		IOException exception = assertThrows(IOException.class, () -> SerializerExtensions.read(
+			new ByteArrayInputStream(outputStream.toByteArray()), List.of(POINT_SERIALIZER)));
+		assertEquals("No serializer is registered with the name java", exception.getMessage());
+
+		ByteArrayOutputStream legacyOutputStream = new ByteArrayOutputStream();
+		try (ObjectOutputStream objectOutputStream = new ObjectOutputStream(legacyOutputStream))
+		{
+			objectOutputStream.writeObject(point);
+		}
+		exception = assertThrows(IOException.class, () -> SerializerExtensions.read(
+			new ByteArrayInputStream(legacyOutputStream.toByteArray()), List.of(POINT_SERIALIZER)));
+		assertEquals("No serializer is registered with the name java", exception.getMessage());
+	}
+
+	/**
+	 * Test method for {@link SerializerExtensions#read(java.io.InputStream, java.util.Collection)}
+	 * with data without a serializer header
+	 *
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	@Test
+	public void testReadWithoutHeader() throws IOException
+	{
+		Point point = new Point(1, 2, "legacy");
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		try (ObjectOutputStream objectOutputStream = new ObjectOutputStream(outputStream))
+		{
+			objectOutputStream.writeObject(point);
+		}
+		Point actual = SerializerExtensions
+			.read(new ByteArrayInputStream(outputStream.toByteArray()), List.of());
+		assertEquals(point, actual);
+	}
+
+	/**
+	 * Test method for {@link SerializerExtensions#read(java.io.InputStream, java.util.Collection)}
+	 * with an unknown serializer
+	 *
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	@Test
+	public void testReadUnknownSerializer() throws IOException
+	{
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		SerializerExtensions.write(new Point(1, 2, "x"), POINT_SERIALIZER, outputStream);
+		assertThrows(IOException.class, () -> SerializerExtensions
+			.read(new ByteArrayInputStream(outputStream.toByteArray()), List.of()));
+	}
+
+	/**
+	 * Test method for {@link JavaObjectSerializer} with a rejecting filter
+	 *
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	@Test
+	public void testJavaObjectSerializerFilter() throws IOException
+	{
+		JavaObjectSerializer<Point> serializer = new JavaObjectSerializer<>(
+			ObjectInputFilter.Config.createFilter("!*"));
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		serializer.serialize(new Point(1, 2, "x"), outputStream);
+		assertThrows(IOException.class, () -> serializer
+			.deserialize(new ByteArrayInputStream(outputStream.toByteArray())));
+	}
+
+	private static final class Point implements Serializable
+	{
+		private static final long serialVersionUID = 1L;
+
+		private final String label;
+
+		private final int x;
+
+		private final int y;
+
+		private Point(final int x, final int y, final String label)
+		{
+			this.x = x;
+			this.y = y;
+			this.label = label;
+		}
+
+		@Override
+		public boolean equals(final Object object)
+		{
+			if (!(object instanceof Point))
+			{
+				return false;
+			}
+			Point other = (Point)object;
+			return x == other.x && y == other.y && label.equals(other.label);
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return 31 * (31 * x + y) + label.hashCode();
+		}
+	}
+
+}
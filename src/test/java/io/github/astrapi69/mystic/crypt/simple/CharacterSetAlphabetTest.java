@@ -0,0 +1,91 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.mystic.crypt.simple;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.CharBuffer;
+import java.nio.IntBuffer;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.astrapi69.collection.list.ListFactory;
+
+/**
+ * The unit test class for the class {@link CharacterSetAlphabet}
+ */
+public class CharacterSetAlphabetTest
+{
+
+	/**
+	 * Test method for {@link CharacterSetAlphabet#encode(CharSequence)} and
+	 * {@link CharacterSetAlphabet#decode(int[])}
+	 */
+	@Test
+	public void testEncodeAndDecode()
+	{
+		final List<Character> characters = ListFactory.newArrayList('x', 'a', 'b', 'a', '\u4e2d');
+		final CharacterSetAlphabet alphabet = CharacterSetAlphabet.of(characters);
+		final String text = "ab\u4e2dxz";
+
+		final int[] encoded = alphabet.encode(text);
+		assertArrayEquals(new int[] { 1, 2, 4, 0, -1 }, encoded);
+		for (int i = 0; i < text.length(); i++)
+		{
+			assertEquals(characters.indexOf(text.charAt(i)), encoded[i]);
+		}
+		assertEquals(5, alphabet.size());
+		assertEquals("ab\u4e2dx", alphabet.decode(encoded, 0, 4));
+		assertThrows(IndexOutOfBoundsException.class, () -> alphabet.decode(encoded));
+		assertEquals(CharacterSetCrypt.toIndexList(text, characters), alphabet.toIndexList(text));
+	}
+
+	/**
+	 * Test method for {@link CharacterSetAlphabet#encode(CharBuffer, IntBuffer)} and
+	 * {@link CharacterSetAlphabet#decode(IntBuffer, CharBuffer)}
+	 */
+	@Test
+	public void testEncodeAndDecodeBuffers()
+	{
+		final CharacterSetAlphabet alphabet = CharacterSetAlphabet.of("abcdefghij ");
+		final String text = "a bad chief died";
+		final IntBuffer indexes = IntBuffer.allocate(10);
+		final CharBuffer source = CharBuffer.wrap(text);
+		final CharBuffer target = CharBuffer.allocate(text.length());
+		while (source.hasRemaining())
+		{
+			alphabet.encode(source, indexes);
+			indexes.flip();
+			assertEquals(indexes.remaining(), alphabet.decode(indexes, target));
+			indexes.clear();
+		}
+		target.flip();
+		assertEquals(text, target.toString());
+	}
+
+}
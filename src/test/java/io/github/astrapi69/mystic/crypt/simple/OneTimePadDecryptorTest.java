@@ -61,9 +61,9 @@ public class OneTimePadDecryptorTest
 		encryptor = new OneTimePadEncryptor(key);
 
 		actual = encryptor.encrypt(plainMessageBytes);
-		expected = ArrayFactory.newByteArray(38, 14, 30, 23, 10, 14, 33, 17, 6, 26, 29, 20, 53, 18,
-			16, 7, 28, 1, 10, 93, 29, 22, 4, 33, 18, 29, 23, 28, 30, 63, 28, 29, 20, 32, 7, 1, 26,
-			29, 20, 91, 66, 67, 90);
+		expected = ArrayFactory.newByteArray(38, 14, 30, 23, 10, 14, 33, 17, 6, 29, 1, 23, 53, 4, 0,
+			6, 10, 6, 13, 65, 30, 22, 18, 49, 19, 11, 16, 27, 2, 60, 28, 11, 4, 33, 17, 6, 29, 1, 23,
+			91, 84, 83, 91);
 		assertArrayEquals(actual, expected);
 		decryptor = new OneTimePadDecryptor(key);
 		actual = decryptor.decrypt(expected);
@@ -25,8 +25,15 @@
 package io.github.astrapi69.mystic.crypt.simple;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.util.Random;
 
 import org.junit.jupiter.api.Test;
 
@@ -60,9 +67,35 @@ public class OneTimePadEncryptorTest
 		encryptor = new OneTimePadEncryptor(key);
 
 		actual = encryptor.encrypt(plainMessageBytes);
-		expected = ArrayFactory.newByteArray(38, 14, 30, 23, 10, 14, 33, 17, 6, 26, 29, 20, 53, 18,
-			16, 7, 28, 1, 10, 93, 29, 22, 4, 33, 18, 29, 23, 28, 30, 63, 28, 29, 20, 32, 7, 1, 26,
-			29, 20, 91, 66, 67, 90);
+		expected = ArrayFactory.newByteArray(38, 14, 30, 23, 10, 14, 33, 17, 6, 29, 1, 23, 53, 4, 0,
+			6, 10, 6, 13, 65, 30, 22, 18, 49, 19, 11, 16, 27, 2, 60, 28, 11, 4, 33, 17, 6, 29, 1, 23,
+			91, 84, 83, 91);
 		assertArrayEquals(actual, expected);
 	}
+
+	/**
+	 * Test method for the {@link OneTimePadEncryptor#encrypt(InputStream, OutputStream)} and
+	 * {@link OneTimePadDecryptor#decrypt(ByteBuffer, ByteBuffer, long)} methods
+	 *
+	 * @throws Exception
+	 *             is thrown if a security error occurs
+	 */
+	@Test
+	public void testEncryptStreamAndDecryptBuffer() throws Exception
+	{
+		final byte[] key = "topsecret".getBytes(StandardCharsets.UTF_8);
+		final byte[] plain = new byte[3 * SimpleCrypt.DEFAULT_CHUNK_SIZE + 11];
+		new Random(3).nextBytes(plain);
+		final OneTimePadEncryptor encryptor = new OneTimePadEncryptor(key);
+		final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		assertEquals(plain.length,
+			encryptor.encrypt(new ByteArrayInputStream(plain), outputStream));
+		final byte[] encrypted = outputStream.toByteArray();
+		assertArrayEquals(encryptor.encrypt(plain), encrypted);
+
+		final OneTimePadDecryptor decryptor = new OneTimePadDecryptor(key);
+		final ByteBuffer target = ByteBuffer.allocate(plain.length);
+		assertEquals(plain.length, decryptor.decrypt(ByteBuffer.wrap(encrypted), target, 0));
+		assertArrayEquals(plain, target.array());
+	}
 }
@@ -0,0 +1,156 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.mystic.crypt.simple;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Random;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.github.astrapi69.file.delete.DeleteFileExtensions;
+import io.github.astrapi69.file.search.PathFinder;
+
+/**
+ * The unit test class for the class {@link OneTimePadFileCrypt}
+ */
+public class OneTimePadFileCryptTest
+{
+
+	File directory;
+	File padFile;
+	byte[] padBytes;
+
+	/**
+	 * Sets up method will be invoked before every unit test method in this class
+	 *
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	@BeforeEach
+	protected void setUp() throws IOException
+	{
+		directory = new File(PathFinder.getSrcTestResourcesDir(), "one-time-pad");
+		directory.mkdirs();
+		padFile = new File(directory, "pad.bin");
+		padBytes = new byte[10000];
+		new Random(11).nextBytes(padBytes);
+		Files.write(padFile.toPath(), padBytes);
+	}
+
+	/**
+	 * Tear down method will be invoked after every unit test method in this class
+	 *
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	@AfterEach
+	protected void tearDown() throws IOException
+	{
+		DeleteFileExtensions.delete(directory);
+	}
+
+	/**
+	 * Test method for {@link OneTimePadFileCrypt#encrypt(File, File)} and
+	 * {@link OneTimePadFileCrypt#decrypt(File, File)}
+	 *
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	@Test
+	public void testEncryptAndDecrypt() throws IOException
+	{
+		final File plainFile = new File(directory, "plain.bin");
+		final File encryptedFile = new File(directory, "plain.bin.enc");
+		final File secondEncryptedFile = new File(directory, "second.bin.enc");
+		final File decryptedFile = new File(directory, "plain.bin.dec");
+		final byte[] plain = new byte[3001];
+		new Random(5).nextBytes(plain);
+		Files.write(plainFile.toPath(), plain);
+
+		try (OneTimePadFileCrypt sender = new OneTimePadFileCrypt(padFile,
+			new File(directory, "sender.journal"), 1000))
+		{
+			assertEquals(0, sender.encrypt(plainFile, encryptedFile));
+			assertEquals(3001, sender.encrypt(plainFile, secondEncryptedFile));
+			assertEquals(6002, sender.getConsumed());
+			assertEquals(3998, sender.getRemaining());
+			final File largeFile = new File(directory, "large.bin");
+			Files.write(largeFile.toPath(), new byte[4000]);
+			assertThrows(IOException.class, () -> sender.encrypt(largeFile, encryptedFile));
+			assertEquals(6002, sender.getConsumed());
+		}
+		final byte[] encrypted = Files.readAllBytes(secondEncryptedFile.toPath());
+		assertEquals(OneTimePadFileCrypt.ENCRYPTED_HEADER_SIZE + plain.length, encrypted.length);
+		for (int i = 0; i < plain.length; i++)
+		{
+			assertEquals((byte)(plain[i] ^ padBytes[3001 + i]),
+				encrypted[OneTimePadFileCrypt.ENCRYPTED_HEADER_SIZE + i]);
+		}
+
+		try (OneTimePadFileCrypt receiver = new OneTimePadFileCrypt(padFile,
+			new File(directory, "receiver.journal"), 64))
+		{
+			assertEquals(plain.length, receiver.decrypt(secondEncryptedFile, decryptedFile));
+			assertArrayEquals(plain, Files.readAllBytes(decryptedFile.toPath()));
+			assertEquals(6002, receiver.getConsumed());
+			assertThrows(IOException.class, () -> receiver.decrypt(plainFile, decryptedFile));
+		}
+	}
+
+	/**
+	 * Test method for {@link OneTimePadFileCrypt} that the consumed offset survives a reopen of
+	 * the journal
+	 *
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	@Test
+	public void testJournalIsPersistent() throws IOException
+	{
+		final File journalFile = new File(directory, "pad.journal");
+		final File plainFile = new File(directory, "plain.txt");
+		Files.write(plainFile.toPath(), "top secret".getBytes());
+		try (OneTimePadFileCrypt crypt = new OneTimePadFileCrypt(padFile, journalFile))
+		{
+			crypt.encrypt(plainFile, new File(directory, "first.enc"));
+		}
+		try (OneTimePadFileCrypt crypt = new OneTimePadFileCrypt(padFile, journalFile))
+		{
+			assertEquals(10, crypt.getConsumed());
+			assertEquals(10, crypt.encrypt(plainFile, new File(directory, "second.enc")));
+		}
+		Files.write(padFile.toPath(), new byte[5]);
+		assertThrows(IOException.class, () -> new OneTimePadFileCrypt(padFile, journalFile));
+	}
+
+}
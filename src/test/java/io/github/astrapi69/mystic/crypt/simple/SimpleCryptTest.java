@@ -24,14 +24,20 @@
  */
 package io.github.astrapi69.mystic.crypt.simple;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
+import java.util.Random;
 
 import org.junit.jupiter.api.Test;
 import org.meanbean.test.BeanTester;
 
+import io.github.astrapi69.collection.array.ArrayFactory;
+
 /**
  * The unit test class for the class {@link SimpleCrypt}
  *
@@ -58,6 +64,98 @@ public class SimpleCryptTest
 		assertTrue(Arrays.equals(secret, decoded));
 	}
 
+	/**
+	 * Test method for test that the method {@link SimpleCrypt#oneTimePadCrypt(byte[], byte[])}
+	 * repeats the key cyclically for all key lengths
+	 */
+	@Test
+	public void testOneTimePadCyclicKey()
+	{
+		final Random random = new Random(42);
+		final byte[] message = new byte[5000];
+		random.nextBytes(message);
+		for (final int keyLength : new int[] { 1, 3, 7, 8, 9, 511, 512, 513, 4999, 5000, 6000 })
+		{
+			final byte[] key = new byte[keyLength];
+			random.nextBytes(key);
+			final byte[] expected = new byte[message.length];
+			for (int i = 0; i < message.length; i++)
+			{
+				expected[i] = (byte)(message[i] ^ key[i % keyLength]);
+			}
+			assertArrayEquals(expected, SimpleCrypt.oneTimePadCrypt(key, message));
+			assertArrayEquals(message, SimpleCrypt.oneTimePadCrypt(key, expected));
+		}
+	}
+
+	/**
+	 * Test method for test that the method
+	 * {@link SimpleCrypt#legacyOneTimePadCrypt(byte[], byte[])} decrypts the data that was
+	 * encrypted with the version 9.1
+	 */
+	@Test
+	@SuppressWarnings("deprecation")
+	public void testLegacyOneTimePadCrypt()
+	{
+		final byte[] key = "topsecret".getBytes(StandardCharsets.UTF_8);
+		final byte[] plain = "RandomStringFactory.newRandomLongString(10)"
+			.getBytes(StandardCharsets.UTF_8);
+		final byte[] encrypted = ArrayFactory.newByteArray(38, 14, 30, 23, 10, 14, 33, 17, 6, 26,
+			29, 20, 53, 18, 16, 7, 28, 1, 10, 93, 29, 22, 4, 33, 18, 29, 23, 28, 30, 63, 28, 29, 20,
+			32, 7, 1, 26, 29, 20, 91, 66, 67, 90);
+
+		assertArrayEquals(plain, SimpleCrypt.legacyOneTimePadCrypt(key, encrypted));
+		assertArrayEquals(encrypted, SimpleCrypt.legacyOneTimePadCrypt(key, plain));
+		assertArrayEquals(plain,
+			SimpleCrypt.oneTimePadCrypt(key, SimpleCrypt.oneTimePadCrypt(key, plain)));
+		final byte[] shortMessage = "secret".getBytes(StandardCharsets.UTF_8);
+		assertArrayEquals(SimpleCrypt.oneTimePadCrypt(key, shortMessage),
+			SimpleCrypt.legacyOneTimePadCrypt(key, shortMessage));
+	}
+
+	/**
+	 * Test method for test the method
+	 * {@link SimpleCrypt#oneTimePadCrypt(byte[], long, byte[], int, byte[], int, int)} and
+	 * {@link SimpleCrypt#oneTimePadCrypt(byte[], long, ByteBuffer, ByteBuffer)} with parts of a
+	 * message
+	 */
+	@Test
+	public void testOneTimePadCryptParts()
+	{
+		final Random random = new Random(7);
+		final byte[] message = new byte[1000];
+		random.nextBytes(message);
+		final byte[] key = new byte[13];
+		random.nextBytes(key);
+		final byte[] expected = SimpleCrypt.oneTimePadCrypt(key, message);
+
+		final byte[] actual = message.clone();
+		int position = 0;
+		for (final int part : new int[] { 1, 6, 17, 300, 676 })
+		{
+			SimpleCrypt.oneTimePadCrypt(key, position, actual, position, actual, position, part);
+			position += part;
+		}
+		assertArrayEquals(expected, actual);
+
+		final ByteBuffer source = ByteBuffer.allocateDirect(message.length);
+		source.put(message).flip();
+		final ByteBuffer target = ByteBuffer.allocateDirect(message.length);
+		long keyPosition = 0;
+		while (source.hasRemaining())
+		{
+			final ByteBuffer slice = source.slice();
+			slice.limit(Math.min(slice.limit(), 77));
+			final int processed = SimpleCrypt.oneTimePadCrypt(key, keyPosition, slice, target);
+			source.position(source.position() + processed);
+			keyPosition += processed;
+		}
+		target.flip();
+		final byte[] fromBuffer = new byte[target.remaining()];
+		target.get(fromBuffer);
+		assertArrayEquals(expected, fromBuffer);
+	}
+
 	/**
 	 * Test method for test the method {@link SimpleCrypt#encode(String)} and
 	 * {@link SimpleCrypt#decode(String)}